@@ -17,4 +17,54 @@ public interface IValueFormatter
      */
     @NotNull
     String format(int value);
+
+    /**
+     * Returns the number of chars of every formatted value.
+     *
+     * @return the number of chars per value, or <code>-1</code> if the formatted values differ in length.
+     */
+    default int charsPerValue()
+    {
+        return -1;
+    }
+
+    /**
+     * Formats a value into a char array.
+     * <p/>
+     * The default implementation copies the chars of {@link #format(int)}.
+     *
+     * @param value     the value to be converted.
+     * @param dst       the array to write into.
+     * @param dstOffset the index of the first char to write.
+     * @return the number of written chars.
+     */
+    default int formatInto(final int value, @NotNull final char[] dst, final int dstOffset)
+    {
+        final String result = format(value);
+        result.getChars(0, result.length(), dst, dstOffset);
+        return result.length();
+    }
+
+    /**
+     * Formats a range of bytes into a char array.
+     * <p/>
+     * If the formatter has a fixed {@link #charsPerValue()}, the array has to provide <code>length * charsPerValue()</code>
+     * chars starting at <code>dstOffset</code>.
+     *
+     * @param src       the bytes to format.
+     * @param srcOffset the index of the first byte to format.
+     * @param length    the number of bytes to format.
+     * @param dst       the array to write into, has to provide enough space for the chars of all bytes.
+     * @param dstOffset the index of the first char to write.
+     * @return the number of written chars.
+     */
+    default int formatInto(@NotNull final byte[] src, final int srcOffset, final int length, @NotNull final char[] dst, final int dstOffset)
+    {
+        int index = dstOffset;
+        for (int i = srcOffset; i < srcOffset + length; i++)
+        {
+            index += formatInto(src[i] & 0xFF, dst, index);
+        }
+        return index - dstOffset;
+    }
 }
@@ -24,4 +24,49 @@ public interface ILookupTable
      */
     @NotNull
     String mappedValue(int value);
+
+    /**
+     * Returns the number of chars of every precalculated string.
+     *
+     * @return the number of chars per value, or <code>-1</code> if the strings differ in length.
+     */
+    default int charsPerValue()
+    {
+        return -1;
+    }
+
+    /**
+     * Writes the chars of the precalculated string for the value into a char array.
+     *
+     * @param value     the value which specifies which string should be written.
+     * @param dst       the array to write into.
+     * @param dstOffset the index of the first char to write.
+     * @return the number of written chars.
+     */
+    default int formatInto(final int value, @NotNull final char[] dst, final int dstOffset)
+    {
+        final String mapped = mappedValue(value);
+        mapped.getChars(0, mapped.length(), dst, dstOffset);
+        return mapped.length();
+    }
+
+    /**
+     * Writes the chars of the precalculated strings for a range of bytes into a char array.
+     *
+     * @param src       the bytes to format.
+     * @param srcOffset the index of the first byte to format.
+     * @param length    the number of bytes to format.
+     * @param dst       the array to write into, has to provide enough space for the chars of all bytes.
+     * @param dstOffset the index of the first char to write.
+     * @return the number of written chars.
+     */
+    default int formatInto(@NotNull final byte[] src, final int srcOffset, final int length, @NotNull final char[] dst, final int dstOffset)
+    {
+        int index = dstOffset;
+        for (int i = srcOffset; i < srcOffset + length; i++)
+        {
+            index += formatInto(src[i] & 0xFF, dst, index);
+        }
+        return index - dstOffset;
+    }
 }
@@ -1,11 +1,16 @@
 package cms.rendner.hexviewer.common.data.formatter.base.lookup;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 
 /**
  * Contains precalculated strings mapped by an index.
+ * <p/>
+ * If all strings have the same length, the chars of the strings are additionally packed into a single char array
+ * (e.g. 512 chars for a hex table, 256 chars for an ASCII table). The bulk format methods read directly from this
+ * array instead of going through the strings.
  *
  * @author rendner
  */
@@ -22,6 +27,18 @@ public final class LookupTable implements ILookupTable
      */
     private final int bitMask;
 
+    /**
+     * The chars of all strings, packed in the order of the table.
+     * Is <code>null</code> if the strings differ in length.
+     */
+    @Nullable
+    private final char[] packedChars;
+
+    /**
+     * The number of chars of every string, <code>-1</code> if the strings differ in length.
+     */
+    private final int charsPerValue;
+
     /**
      * Creates a new instance.
      *
@@ -37,6 +54,8 @@ public final class LookupTable implements ILookupTable
 
         this.table = Arrays.copyOf(table, table.length);
         this.bitMask = bitMask;
+        this.charsPerValue = computeCharsPerValue(this.table);
+        this.packedChars = charsPerValue < 0 ? null : packChars(this.table, charsPerValue);
     }
 
     @NotNull
@@ -52,6 +71,107 @@ public final class LookupTable implements ILookupTable
         return table.length;
     }
 
+    @Override
+    public int charsPerValue()
+    {
+        return charsPerValue;
+    }
+
+    @Override
+    public int formatInto(final int value, @NotNull final char[] dst, final int dstOffset)
+    {
+        if (packedChars == null)
+        {
+            return ILookupTable.super.formatInto(value, dst, dstOffset);
+        }
+
+        System.arraycopy(packedChars, (value & bitMask) * charsPerValue, dst, dstOffset, charsPerValue);
+        return charsPerValue;
+    }
+
+    @Override
+    public int formatInto(@NotNull final byte[] src, final int srcOffset, final int length, @NotNull final char[] dst, final int dstOffset)
+    {
+        if (packedChars == null)
+        {
+            return ILookupTable.super.formatInto(src, srcOffset, length, dst, dstOffset);
+        }
+
+        final char[] chars = packedChars;
+        final int mask = bitMask & 0xFF;
+        final int end = srcOffset + length;
+        int index = dstOffset;
+
+        if (charsPerValue == 1)
+        {
+            for (int i = srcOffset; i < end; i++)
+            {
+                dst[index++] = chars[src[i] & mask];
+            }
+        }
+        else if (charsPerValue == 2)
+        {
+            for (int i = srcOffset; i < end; i++)
+            {
+                final int charIndex = (src[i] & mask) << 1;
+                dst[index++] = chars[charIndex];
+                dst[index++] = chars[charIndex + 1];
+            }
+        }
+        else
+        {
+            for (int i = srcOffset; i < end; i++)
+            {
+                System.arraycopy(chars, (src[i] & mask) * charsPerValue, dst, index, charsPerValue);
+                index += charsPerValue;
+            }
+        }
+
+        return index - dstOffset;
+    }
+
+    /**
+     * Returns the length of the strings of a table.
+     *
+     * @param table the table to check.
+     * @return the length of all strings, or <code>-1</code> if the strings differ in length.
+     */
+    private static int computeCharsPerValue(@NotNull final String[] table)
+    {
+        if (table.length == 0)
+        {
+            return -1;
+        }
+
+        final int length = table[0].length();
+        for (final String value : table)
+        {
+            if (value.length() != length)
+            {
+                return -1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Packs the chars of all strings of a table into one array.
+     *
+     * @param table         the table to pack.
+     * @param charsPerValue the length of every string of the table.
+     * @return the packed chars.
+     */
+    @NotNull
+    private static char[] packChars(@NotNull final String[] table, final int charsPerValue)
+    {
+        final char[] result = new char[table.length * charsPerValue];
+        for (int i = 0; i < table.length; i++)
+        {
+            table[i].getChars(0, charsPerValue, result, i * charsPerValue);
+        }
+        return result;
+    }
+
     /**
      * Checks if a bit mask maps valid to an index in a table.
      *
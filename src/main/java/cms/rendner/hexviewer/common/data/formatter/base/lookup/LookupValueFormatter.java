@@ -33,4 +33,22 @@ public class LookupValueFormatter implements IValueFormatter
     {
         return table.mappedValue(value);
     }
+
+    @Override
+    public int charsPerValue()
+    {
+        return table.charsPerValue();
+    }
+
+    @Override
+    public int formatInto(final int value, @NotNull final char[] dst, final int dstOffset)
+    {
+        return table.formatInto(value, dst, dstOffset);
+    }
+
+    @Override
+    public int formatInto(@NotNull final byte[] src, final int srcOffset, final int length, @NotNull final char[] dst, final int dstOffset)
+    {
+        return table.formatInto(src, srcOffset, length, dst, dstOffset);
+    }
 }
@@ -19,6 +19,41 @@ public interface IOffsetFormatter
     @NotNull
     String format(long value);
 
+    /**
+     * Formats a value into a char array.
+     * <p/>
+     * The default implementation copies the chars of {@link #format(long)}. Implementations should override this
+     * method to write the chars without creating an intermediate string.
+     *
+     * @param value     the value to be converted.
+     * @param dst       the array to write the formatted value into. Has to provide space for at least
+     *                  {@link #maxFormattedValueLength()} chars, starting at <code>dstOffset</code>.
+     * @param dstOffset the index of the first char to write.
+     * @return the number of written chars.
+     */
+    default int formatInto(final long value, @NotNull final char[] dst, final int dstOffset)
+    {
+        final String result = format(value);
+        result.getChars(0, result.length(), dst, dstOffset);
+        return result.length();
+    }
+
+    /**
+     * Returns the maximum length of a formatted value for the current pad size.
+     * <p/>
+     * Can be used to allocate a buffer for {@link #formatInto(long, char[], int)}.
+     * <p/>
+     * Offsets are never negative, the default implementation returns the length of the longer one of the formatted
+     * values <code>0</code> (fully padded) and <code>Long.MAX_VALUE</code> (the largest possible offset). Formatters
+     * whose formatted values aren't the longest for one of these values have to override this method.
+     *
+     * @return the maximum number of chars of a formatted value.
+     */
+    default int maxFormattedValueLength()
+    {
+        return Math.max(format(0L).length(), format(Long.MAX_VALUE).length());
+    }
+
     /**
      * Adjusts the pad size used to format the value passed to {@link IValueFormatter#format(int)}.
      * <p/>
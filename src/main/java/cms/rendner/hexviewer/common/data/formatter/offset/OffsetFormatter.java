@@ -6,25 +6,47 @@ import org.jetbrains.annotations.NotNull;
  * Formats offset addresses into a hex representation.
  * <p/>
  * An address like "123456" becomes "1E240h".
+ * <p/>
+ * The hex digits are taken from a precomputed table and written directly into a char buffer, no {@link java.util.Formatter}
+ * is involved. Negative values are formatted as unsigned values (two's complement), like <code>%x</code> does.
  *
  * @author rendner
  */
 public class OffsetFormatter implements IOffsetFormatter
 {
     /**
-     * The format used to format the values.
+     * The maximum number of hex digits of a long value.
      */
-    private String format;
+    private static final int MAX_DIGITS = 16;
 
     /**
-     * Indicates if the offset should be uppercased or not.
+     * Uppercase hex digits, mapped by their value.
      */
-    private final boolean uppercasedOffset;
+    @NotNull
+    private static final char[] UPPERCASE_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Lowercase hex digits, mapped by their value.
+     */
+    @NotNull
+    private static final char[] LOWERCASE_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The digits used to format the values.
+     */
+    @NotNull
+    private final char[] digits;
 
     /**
      * The suffix to add to the formatted value.
      */
-    private final String suffix;
+    @NotNull
+    private final char[] suffix;
+
+    /**
+     * The minimum number of digits of a formatted value, shorter values are padded with leading zeros.
+     */
+    private volatile int padSize;
 
     /**
      * Creates a new instance with the provided values.
@@ -34,37 +56,68 @@ public class OffsetFormatter implements IOffsetFormatter
      */
     public OffsetFormatter(final boolean uppercasedOffset, @NotNull final String suffix)
     {
-        this.uppercasedOffset = uppercasedOffset;
-        this.suffix = suffix;
+        this.digits = uppercasedOffset ? UPPERCASE_DIGITS : LOWERCASE_DIGITS;
+        this.suffix = suffix.toCharArray();
         adjustPadSize(0);
     }
 
     @Override
     public void adjustPadSize(final int padSize)
     {
-        if (padSize > 0)
-        {
-            this.format = "%0" + padSize + (uppercasedOffset ? "X" : "x") + suffix;
-        }
-        else
-        {
-            this.format = "%" + (uppercasedOffset ? "X" : "x") + suffix;
-        }
+        this.padSize = Math.max(0, padSize);
     }
 
     @Override
     public int calculateFormattedValueLength(final int padSize, final long value)
     {
-        final String currentFormat = format;
-        adjustPadSize(padSize);
-        final String result = format(value);
-        format = currentFormat;
-        return result.length();
+        return Math.max(padSize, digitCount(value)) + suffix.length;
+    }
+
+    @Override
+    public int maxFormattedValueLength()
+    {
+        return calculateFormattedValueLength(padSize, Long.MAX_VALUE);
     }
 
     @Override
     public @NotNull String format(final long value)
     {
-        return String.format(format, value);
+        final char[] buffer = new char[maxFormattedValueLength()];
+        return new String(buffer, 0, formatInto(value, buffer, 0));
+    }
+
+    @Override
+    public int formatInto(final long value, @NotNull final char[] dst, final int dstOffset)
+    {
+        final int digitCount = digitCount(value);
+        final int paddedLength = Math.max(padSize, digitCount);
+
+        int index = dstOffset;
+        for (int i = digitCount; i < paddedLength; i++)
+        {
+            dst[index++] = '0';
+        }
+
+        long remaining = value;
+        for (int i = index + digitCount - 1; i >= index; i--)
+        {
+            dst[i] = digits[(int) (remaining & 0xF)];
+            remaining >>>= 4;
+        }
+        index += digitCount;
+
+        System.arraycopy(suffix, 0, dst, index, suffix.length);
+        return paddedLength + suffix.length;
+    }
+
+    /**
+     * Returns the number of hex digits required to display a value without padding.
+     *
+     * @param value the value, interpreted as unsigned value.
+     * @return the number of digits, in the range [1, 16].
+     */
+    private static int digitCount(final long value)
+    {
+        return value == 0 ? 1 : MAX_DIGITS - Long.numberOfLeadingZeros(value) / 4;
     }
 }
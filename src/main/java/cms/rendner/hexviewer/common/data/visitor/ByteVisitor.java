@@ -7,6 +7,8 @@ import cms.rendner.hexviewer.common.data.visitor.formatter.NoopFormatter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.ByteBuffer;
+
 /**
  * Byte visitor which forwards formatted byte values to an {@link IDataConsumer}.
  *
@@ -14,6 +16,11 @@ import org.jetbrains.annotations.Nullable;
  */
 public final class ByteVisitor implements IByteVisitor
 {
+    /**
+     * The maximum number of bytes formatted and passed to the consumer at once by {@link #visitBytes(ByteBuffer)}.
+     */
+    private static final int BULK_SIZE = 4096;
+
     /**
      * Used to format visited bytes before passing them to the consumer.
      */
@@ -26,6 +33,18 @@ public final class ByteVisitor implements IByteVisitor
     @NotNull
     private final IDataConsumer consumer;
 
+    /**
+     * Reused by {@link #visitBytes(ByteBuffer)} - receives bytes which aren't backed by an accessible array.
+     */
+    @Nullable
+    private byte[] byteChunk;
+
+    /**
+     * Reused by {@link #visitBytes(ByteBuffer)} - receives the formatted chars.
+     */
+    @Nullable
+    private char[] charChunk;
+
     /**
      * Creates a new instance.
      *
@@ -67,6 +86,49 @@ public final class ByteVisitor implements IByteVisitor
         consumer.consume(formatter.format(value));
     }
 
+    /**
+     * Formats the bytes in chunks with a single bulk call of the formatter, if the formatter has a fixed number of
+     * chars per value. Otherwise every byte is formatted separately.
+     *
+     * @param buffer the bytes to visit, from the position to the limit of the buffer.
+     */
+    @Override
+    public void visitBytes(@NotNull final ByteBuffer buffer)
+    {
+        final int charsPerValue = formatter.charsPerValue();
+        if (charsPerValue < 0)
+        {
+            IByteVisitor.super.visitBytes(buffer);
+            return;
+        }
+
+        if (charChunk == null || charChunk.length < BULK_SIZE * charsPerValue)
+        {
+            charChunk = new char[BULK_SIZE * charsPerValue];
+        }
+
+        while (buffer.hasRemaining())
+        {
+            final int length = Math.min(buffer.remaining(), BULK_SIZE);
+            final int written;
+            if (buffer.hasArray())
+            {
+                written = formatter.formatInto(buffer.array(), buffer.arrayOffset() + buffer.position(), length, charChunk, 0);
+                buffer.position(buffer.position() + length);
+            }
+            else
+            {
+                if (byteChunk == null)
+                {
+                    byteChunk = new byte[BULK_SIZE];
+                }
+                buffer.get(byteChunk, 0, length);
+                written = formatter.formatInto(byteChunk, 0, length, charChunk, 0);
+            }
+            consumer.consume(new String(charChunk, 0, written));
+        }
+    }
+
     @Override
     public void start()
     {
@@ -1,6 +1,9 @@
 package cms.rendner.hexviewer.common.data.visitor;
 
 import cms.rendner.hexviewer.view.JHexViewer;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
 
 /**
  * Visitor for doing operations on byte level (searching, printing, etc.).
@@ -25,6 +28,23 @@ public interface IByteVisitor
      */
     void visitByte(int value);
 
+    /**
+     * Is called for a contiguous run of bytes to visit.
+     * <p/>
+     * The buffer can be a zero-copy view of the storage of the data model, it is only valid during this call.
+     * Visitors which can process bytes in bulk (for example a hash function) should override this method. The default
+     * implementation forwards every byte to {@link #visitByte(int)}.
+     *
+     * @param buffer the bytes to visit, from the position to the limit of the buffer.
+     */
+    default void visitBytes(@NotNull final ByteBuffer buffer)
+    {
+        while (buffer.hasRemaining())
+        {
+            visitByte(buffer.get() & 0xFF);
+        }
+    }
+
     /**
      * Notifies the visitor that all bytes are visited.
      * This method is called after the last time <code>visitByte</code> was called.
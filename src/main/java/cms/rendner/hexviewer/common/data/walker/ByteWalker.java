@@ -1,18 +1,31 @@
 package cms.rendner.hexviewer.common.data.walker;
 
 import cms.rendner.hexviewer.common.data.visitor.IByteVisitor;
-import cms.rendner.hexviewer.common.data.wrapper.DataPart;
+import cms.rendner.hexviewer.common.utils.ByteSizeConstants;
 import cms.rendner.hexviewer.model.data.IDataModel;
 import cms.rendner.hexviewer.view.JHexViewer;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
 /**
  * Iterates over a specified range of bytes of the data model used by the {@link JHexViewer}.
+ * <p/>
+ * The range is processed in blocks. For every block a zero-copy slice is requested from the data model, see
+ * {@link IDataModel#slice(long, int)}. If the data model can't provide a slice, the bytes of the block are copied
+ * into a reusable buffer.
  *
  * @author rendner
  */
 public final class ByteWalker
 {
+    /**
+     * The size of a block. Blocks are aligned to multiples of this size, so that they don't cross the chunk
+     * boundaries of chunked data models.
+     */
+    private static final int BLOCK_SIZE = 64 * ByteSizeConstants.ONE_KB;
+
     /**
      * Provides the data that is iterated over.
      */
@@ -40,29 +53,53 @@ public final class ByteWalker
      */
     public void walk(@NotNull final IByteVisitor visitor, final long start, final long end)
     {
-        final DataPart data = createDataPart(start, end);
-
         visitor.start();
 
-        for (int i = 0; i < data.size(); i++)
+        ByteBuffer copyBuffer = null;
+        long blockStart = start;
+
+        while (blockStart <= end)
         {
-            visitor.visitByte(data.getByte(i));
+            final long nextBlockBoundary = (blockStart / BLOCK_SIZE + 1) * BLOCK_SIZE;
+            final int blockLength = (int) (Math.min(nextBlockBoundary - 1, end) - blockStart + 1);
+
+            final Optional<ByteBuffer> slice = dataModel.slice(blockStart, blockLength);
+            if (slice.isPresent())
+            {
+                visitor.visitBytes(slice.get());
+            }
+            else
+            {
+                if (copyBuffer == null)
+                {
+                    copyBuffer = ByteBuffer.allocate(BLOCK_SIZE);
+                }
+                visitor.visitBytes(copyBlock(copyBuffer, blockStart, blockLength));
+            }
+
+            blockStart += blockLength;
         }
 
         visitor.end();
     }
 
     /**
-     * Creates a instance which only provides the specified range of data from the data model.
+     * Copies a block of bytes from the data model into a buffer.
      *
-     * @param start the start index of the byte, included in the range.
-     * @param end   the end index of the byte, included in the range.
-     * @return the part which only contains the bytes of the specified range.
+     * @param buffer the buffer to fill.
+     * @param offset the offset of the first byte to copy.
+     * @param length the number of bytes to copy.
+     * @return the filled buffer, ready to be read.
      */
     @NotNull
-    private DataPart createDataPart(final long start, final long end)
+    private ByteBuffer copyBlock(@NotNull final ByteBuffer buffer, final long offset, final int length)
     {
-        final long size = end - start + 1;
-        return new DataPart(dataModel, start, size);
+        buffer.clear();
+        for (int i = 0; i < length; i++)
+        {
+            buffer.put((byte) dataModel.getByte(offset + i));
+        }
+        buffer.flip();
+        return buffer;
     }
 }
@@ -0,0 +1,209 @@
+package cms.rendner.hexviewer.common.ranges;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * A set of bytes, stored as sorted and non-overlapping ranges.
+ * <p/>
+ * Overlapping or adjacent ranges are merged when added. Adding or removing a range costs O(log n) plus O(log n) for
+ * each stored range which is merged or split, lookups cost O(log n).
+ *
+ * @author rendner
+ */
+public final class ByteRangeSet
+{
+    /**
+     * The stored ranges, the start of a range is mapped to its end (inclusive).
+     */
+    @NotNull
+    private final NavigableMap<Long, Long> ranges = new TreeMap<>();
+
+    /**
+     * @return <code>true</code> if the set contains no bytes.
+     */
+    public boolean isEmpty()
+    {
+        return ranges.isEmpty();
+    }
+
+    /**
+     * @return the number of stored (non-overlapping) ranges.
+     */
+    public int rangeCount()
+    {
+        return ranges.size();
+    }
+
+    /**
+     * Checks if a byte is contained in the set.
+     *
+     * @param offset the offset of the byte.
+     * @return <code>true</code> if the byte is contained.
+     */
+    public boolean contains(final long offset)
+    {
+        final Map.Entry<Long, Long> floor = ranges.floorEntry(offset);
+        return floor != null && floor.getValue() >= offset;
+    }
+
+    /**
+     * Returns the stored range which contains a byte.
+     *
+     * @param offset the offset of the byte.
+     * @return the range, or {@link ByteRange#INVALID} if the byte isn't contained.
+     */
+    @NotNull
+    public ByteRange rangeAt(final long offset)
+    {
+        final Map.Entry<Long, Long> floor = ranges.floorEntry(offset);
+        return floor != null && floor.getValue() >= offset
+                ? new ByteRange(floor.getKey(), floor.getValue())
+                : ByteRange.INVALID;
+    }
+
+    /**
+     * Adds a range of bytes.
+     * The range is merged with all stored ranges which overlap or touch it.
+     *
+     * @param start the first byte of the range.
+     * @param end   the last byte of the range, &gt;= start.
+     * @return the stored range which contains the added range after merging.
+     */
+    @NotNull
+    public ByteRange add(final long start, final long end)
+    {
+        long mergedStart = start;
+        long mergedEnd = end;
+
+        final Map.Entry<Long, Long> floor = ranges.floorEntry(start);
+        if (floor != null && floor.getValue() >= start - 1)
+        {
+            mergedStart = floor.getKey();
+            mergedEnd = Math.max(mergedEnd, floor.getValue());
+        }
+
+        Map.Entry<Long, Long> next = ranges.ceilingEntry(mergedStart);
+        while (next != null && next.getKey() <= mergedEnd + 1)
+        {
+            mergedEnd = Math.max(mergedEnd, next.getValue());
+            ranges.remove(next.getKey());
+            next = ranges.higherEntry(next.getKey());
+        }
+
+        ranges.put(mergedStart, mergedEnd);
+        return new ByteRange(mergedStart, mergedEnd);
+    }
+
+    /**
+     * Removes a range of bytes.
+     * Stored ranges which partially overlap the range are shortened or split.
+     *
+     * @param start the first byte of the range.
+     * @param end   the last byte of the range, &gt;= start.
+     */
+    public void remove(final long start, final long end)
+    {
+        final Map.Entry<Long, Long> floor = ranges.floorEntry(start);
+        if (floor != null && floor.getValue() >= start)
+        {
+            if (floor.getKey() < start)
+            {
+                ranges.put(floor.getKey(), start - 1);
+            }
+            else
+            {
+                ranges.remove(floor.getKey());
+            }
+            if (floor.getValue() > end)
+            {
+                ranges.put(end + 1, floor.getValue());
+                return;
+            }
+        }
+
+        Map.Entry<Long, Long> next = ranges.ceilingEntry(start);
+        while (next != null && next.getKey() <= end)
+        {
+            ranges.remove(next.getKey());
+            if (next.getValue() > end)
+            {
+                ranges.put(end + 1, next.getValue());
+                return;
+            }
+            next = ranges.higherEntry(next.getKey());
+        }
+    }
+
+    /**
+     * Removes all ranges.
+     */
+    public void clear()
+    {
+        ranges.clear();
+    }
+
+    /**
+     * Calls an action for each stored range which intersects a range of bytes, in ascending order.
+     * The passed ranges are not clipped.
+     *
+     * @param from   the first byte of the queried range.
+     * @param to     the last byte of the queried range.
+     * @param action the action to call.
+     */
+    public void forEachIntersecting(final long from, final long to, @NotNull final Consumer<ByteRange> action)
+    {
+        final Map.Entry<Long, Long> floor = ranges.floorEntry(from);
+        final Long first = floor != null && floor.getValue() >= from ? floor.getKey() : Long.valueOf(from);
+        for (final Map.Entry<Long, Long> entry : ranges.subMap(first, true, to, true).entrySet())
+        {
+            action.accept(new ByteRange(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Calls an action for each part of a range of bytes which is not contained in the set, in ascending order.
+     *
+     * @param from   the first byte of the queried range.
+     * @param to     the last byte of the queried range.
+     * @param action the action to call.
+     */
+    public void forEachGap(final long from, final long to, @NotNull final Consumer<ByteRange> action)
+    {
+        final long[] gapStart = {from};
+        forEachIntersecting(from, to, range -> {
+            if (range.getStart() > gapStart[0])
+            {
+                action.accept(new ByteRange(gapStart[0], range.getStart() - 1));
+            }
+            gapStart[0] = range.getEnd() + 1;
+        });
+        if (gapStart[0] <= to)
+        {
+            action.accept(new ByteRange(gapStart[0], to));
+        }
+    }
+
+    /**
+     * @return all stored ranges, in ascending order.
+     */
+    @NotNull
+    public List<ByteRange> getRanges()
+    {
+        final List<ByteRange> result = new ArrayList<>(ranges.size());
+        ranges.forEach((start, end) -> result.add(new ByteRange(start, end)));
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ByteRangeSet{" + getRanges() + '}';
+    }
+}
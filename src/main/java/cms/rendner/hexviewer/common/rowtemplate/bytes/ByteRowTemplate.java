@@ -7,6 +7,7 @@ import cms.rendner.hexviewer.common.rowtemplate.bytes.hit.ElementHitInfo;
 import cms.rendner.hexviewer.common.utils.CheckUtils;
 import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.plaf.UIResource;
 import java.awt.*;
@@ -31,6 +32,13 @@ public class ByteRowTemplate extends BaseRowTemplate implements IByteRowTemplate
     @NotNull
     private final List<Element> elements;
 
+    /**
+     * The x-positions of the elements, used to find the element under a x-position by a binary search.
+     * Is <code>null</code> if the elements aren't sorted by their x-position.
+     */
+    @Nullable
+    private final int[] elementXPositions;
+
     /**
      * The width of the caret which can be placed between the bytes of the row.
      */
@@ -48,6 +56,28 @@ public class ByteRowTemplate extends BaseRowTemplate implements IByteRowTemplate
 
         this.caretWidth = builder.caretWidth;
         this.elements = builder.elements;
+        this.elementXPositions = createElementXPositions(elements);
+    }
+
+    /**
+     * Collects the x-positions of the elements.
+     *
+     * @param elements the elements of the row.
+     * @return the x-positions, or <code>null</code> if the elements aren't sorted by their x-position.
+     */
+    @Nullable
+    private static int[] createElementXPositions(@NotNull final List<Element> elements)
+    {
+        final int[] result = new int[elements.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = elements.get(i).x();
+            if (i > 0 && result[i] < result[i - 1])
+            {
+                return null;
+            }
+        }
+        return result;
     }
 
     /**
@@ -116,11 +146,47 @@ public class ByteRowTemplate extends BaseRowTemplate implements IByteRowTemplate
 
     /**
      * Checks which element is under the position.
+     * <p/>
+     * Uses a binary search over the precomputed x-positions of the elements. The result is the last element which
+     * starts at or before the position, or the first element if the position is in front of all elements. This also
+     * covers the gaps between the elements, independent of the spacing used to group the elements.
      *
      * @param xPosition the x position which should be checked.
      * @return the index of the element which intersects with the position.
      */
     private int elementIndexForXPosition(final int xPosition)
+    {
+        if (elementXPositions == null)
+        {
+            return elementIndexForXPositionLinear(xPosition);
+        }
+
+        // find the number of elements (excluding the first one) which start at or before the position
+        int low = 1;
+        int high = elementXPositions.length;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (elementXPositions[mid] <= xPosition)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Checks which element is under the position by scanning all elements.
+     * Used if the elements aren't sorted by their x-position.
+     *
+     * @param xPosition the x position which should be checked.
+     * @return the index of the element which intersects with the position.
+     */
+    private int elementIndexForXPositionLinear(final int xPosition)
     {
         final int lastElementIndex = elements.size() - 1;
 
@@ -7,10 +7,15 @@ package cms.rendner.hexviewer.common.utils;
  */
 public final class ByteSizeConstants
 {
+    /**
+     * Number of bytes per KiloByte.
+     */
+    public static final int ONE_KB = 1024;
+
     /**
      * Number of bytes per MegaByte.
      */
-    public static final int ONE_MB = 1024 * 1024;
+    public static final int ONE_MB = 1024 * ONE_KB;
 
     /**
      * Hide constructor.
@@ -0,0 +1,57 @@
+package cms.rendner.hexviewer.model.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EventObject;
+
+/**
+ * DataModelEvent, used to notify interested parties that the size of a growing data model has changed.
+ *
+ * @author rendner
+ */
+public final class DataModelEvent extends EventObject
+{
+    private final long oldSize;
+    private final long newSize;
+
+    /**
+     * Creates a new instance with the specified values.
+     *
+     * @param dataModel the data model which sent the event.
+     * @param oldSize   the previous size of the data model.
+     * @param newSize   the new size of the data model.
+     */
+    public DataModelEvent(@NotNull final IGrowingDataModel dataModel,
+                          final long oldSize,
+                          final long newSize)
+    {
+        super(dataModel);
+        this.oldSize = oldSize;
+        this.newSize = newSize;
+    }
+
+    /**
+     * @return the data model which sent the event.
+     */
+    @NotNull
+    public IGrowingDataModel getDataModel()
+    {
+        return (IGrowingDataModel) getSource();
+    }
+
+    /**
+     * @return the previous size of the data model.
+     */
+    public long getOldSize()
+    {
+        return oldSize;
+    }
+
+    /**
+     * @return the new size of the data model.
+     */
+    public long getNewSize()
+    {
+        return newSize;
+    }
+}
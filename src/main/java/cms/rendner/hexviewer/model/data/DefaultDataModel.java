@@ -1,9 +1,12 @@
 package cms.rendner.hexviewer.model.data;
 
+import cms.rendner.hexviewer.model.data.store.ChunkedByteStore;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 /**
  * Provides the data from a string.
@@ -16,7 +19,7 @@ public class DefaultDataModel implements IDataModel
      * The bytes of the string.
      */
     @NotNull
-    private final byte[] data;
+    private final ChunkedByteStore data;
 
     /**
      * Creates a new instance.
@@ -37,24 +40,32 @@ public class DefaultDataModel implements IDataModel
     public DefaultDataModel(@NotNull final String data, @NotNull final Charset charset)
     {
         super();
-        this.data = data.getBytes(charset);
+        // the encoded bytes are a private copy, no need to copy them again
+        this.data = ChunkedByteStore.wrap(data.getBytes(charset));
     }
 
     @Override
     public long size()
     {
-        return data.length;
+        return data.size();
     }
 
     @Override
     public boolean isEmpty()
     {
-        return data.length == 0;
+        return data.size() == 0;
     }
 
     @Override
     public int getByte(final long offset)
     {
-        return data[(int)offset] & 0xFF;
+        return data.get(offset);
+    }
+
+    @NotNull
+    @Override
+    public Optional<ByteBuffer> slice(final long offset, final int length)
+    {
+        return data.slice(offset, length);
     }
 }
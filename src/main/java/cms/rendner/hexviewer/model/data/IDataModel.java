@@ -1,6 +1,10 @@
 package cms.rendner.hexviewer.model.data;
 
 import cms.rendner.hexviewer.view.JHexViewer;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
 
 /**
  * Provides the data displayed by a {@link JHexViewer}.
@@ -13,7 +17,8 @@ public interface IDataModel
      * Returns the number of bytes.
      * <p/>
      * The value returned should not change during the lifetime of the provider.
-     * Repeated calls should always return the same result.
+     * Repeated calls should always return the same result. The only exception are models which implement
+     * {@link IGrowingDataModel}, these models notify their listeners when the size has changed.
      *
      * @return the number of total available bytes, &gt;= 0.
      */
@@ -31,4 +36,22 @@ public interface IDataModel
      * @return the value at the <code>offset</code>.
      */
     int getByte(long offset);
+
+    /**
+     * Returns a read-only view of a range of bytes, without copying the bytes.
+     * <p/>
+     * This is an optional capability for bulk consumers (hashing, searching, exporting). Models can only provide a
+     * slice if the requested range is stored contiguously in their backing storage. Consumers have to fall back to
+     * {@link #getByte(long)} if no slice is returned.
+     *
+     * @param offset the offset of the first byte, in the range [0, size()-1].
+     * @param length the number of bytes, &gt;= 1.
+     * @return a read-only buffer with position <code>0</code> and limit <code>length</code>, or an empty optional if
+     * the model can't provide a slice for the range.
+     */
+    @NotNull
+    default Optional<ByteBuffer> slice(long offset, int length)
+    {
+        return Optional.empty();
+    }
 }
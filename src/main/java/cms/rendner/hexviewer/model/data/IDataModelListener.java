@@ -0,0 +1,22 @@
+package cms.rendner.hexviewer.model.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EventListener;
+
+/**
+ * Listener for changes in the size of a growing data model.
+ *
+ * @author rendner
+ */
+public interface IDataModelListener extends EventListener
+{
+    /**
+     * Called after the size of the data model has changed.
+     * <p/>
+     * The listener is always notified on the event dispatch thread.
+     *
+     * @param event the event containing information about the change.
+     */
+    void dataModelSizeChanged(@NotNull DataModelEvent event);
+}
@@ -0,0 +1,33 @@
+package cms.rendner.hexviewer.model.data;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A data model whose size grows while the data arrives, for example data read from a pipe or a socket.
+ * <p/>
+ * Already available bytes never change, only new bytes are appended. Registered listeners are notified on the
+ * event dispatch thread when the size has changed.
+ *
+ * @author rendner
+ */
+public interface IGrowingDataModel extends IDataModel
+{
+    /**
+     * Adds a listener to track whenever the size of the model has changed.
+     *
+     * @param listener the listener to add.
+     */
+    void addDataModelListener(@NotNull IDataModelListener listener);
+
+    /**
+     * Removes a listener that was tracking the size changes.
+     *
+     * @param listener the listener to remove.
+     */
+    void removeDataModelListener(@NotNull IDataModelListener listener);
+
+    /**
+     * @return <code>true</code> if no more data will arrive, otherwise <code>false</code>.
+     */
+    boolean isComplete();
+}
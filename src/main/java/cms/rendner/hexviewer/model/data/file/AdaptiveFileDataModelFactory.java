@@ -0,0 +1,178 @@
+package cms.rendner.hexviewer.model.data.file;
+
+import cms.rendner.hexviewer.common.utils.ByteSizeConstants;
+import cms.rendner.hexviewer.model.data.IDataModel;
+import cms.rendner.hexviewer.model.data.stream.StreamDataModel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Picks the data model for a file from the properties of the file and the runtime.
+ * <p/>
+ * The following rules are applied in the listed order:
+ * <ol>
+ * <li>gzip compressed files are decompressed on the fly into a {@link StreamDataModel}</li>
+ * <li>small files are completely loaded into a {@link FileData}</li>
+ * <li>files on a network filesystem are loaded into a {@link FileData} if they fit into the memory budget, because
+ * memory mapped files on a network filesystem can crash the JVM if the file is modified remotely</li>
+ * <li>all other files are memory mapped via {@link MappedFileData}</li>
+ * </ol>
+ *
+ * @author rendner
+ */
+public class AdaptiveFileDataModelFactory implements IFileDataModelFactory
+{
+    /**
+     * Maximal size for small files.
+     */
+    private static final long SMALL_FILE_SIZE_LIMIT = ByteSizeConstants.ONE_MB;
+
+    /**
+     * The magic number of a gzip file.
+     */
+    private static final int GZIP_MAGIC = 0x1F8B;
+
+    /**
+     * Types of filesystems which are considered as network filesystems (as reported by {@link FileStore#type()}).
+     */
+    @NotNull
+    private static final Set<String> NETWORK_FILESYSTEM_TYPES = new HashSet<>(Arrays.asList(
+            "nfs", "nfs4", "cifs", "smbfs", "smb2", "afs", "ncpfs", "9p", "fuse.sshfs", "webdav", "davfs"));
+
+    @NotNull
+    @Override
+    public IDataModel create(@NotNull final File file) throws IOException
+    {
+        final Path path = file.toPath();
+        final long size = Files.size(path);
+
+        if (isGzipCompressed(path))
+        {
+            final StreamDataModel model = new StreamDataModel(openGzipStream(path));
+            model.start();
+            return model;
+        }
+
+        if (size <= SMALL_FILE_SIZE_LIMIT)
+        {
+            return new FileData(file);
+        }
+
+        if (isOnNetworkFilesystem(path) && size <= computeMemoryBudget())
+        {
+            return new FileData(file);
+        }
+
+        return new MappedFileData(file);
+    }
+
+    /**
+     * Returns the number of bytes which can be loaded into memory by a single data model.
+     * <p/>
+     * The off-heap memory is, if not configured otherwise, limited by the maximal heap size of the JVM. Only a quarter
+     * of it is used, to leave room for other data models and the rest of the application.
+     *
+     * @return the memory budget in bytes.
+     */
+    protected long computeMemoryBudget()
+    {
+        return Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    /**
+     * Checks if the file is located on a network filesystem.
+     *
+     * @param path the file to check.
+     * @return <code>true</code> if the file is located on a network filesystem.
+     */
+    protected boolean isOnNetworkFilesystem(@NotNull final Path path)
+    {
+        try
+        {
+            final FileStore store = Files.getFileStore(path);
+            final String type = store.type().toLowerCase(Locale.ROOT);
+            return NETWORK_FILESYSTEM_TYPES.contains(type);
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the file starts with the gzip magic number.
+     *
+     * @param path the file to check.
+     * @return <code>true</code> if the file is gzip compressed.
+     * @throws IOException if reading content from the file fails.
+     */
+    private boolean isGzipCompressed(@NotNull final Path path) throws IOException
+    {
+        final ByteBuffer header = readHeader(path, 2);
+        return header != null && (header.getShort(0) & 0xFFFF) == GZIP_MAGIC;
+    }
+
+    /**
+     * Reads the first bytes of a file.
+     *
+     * @param path   the file to read.
+     * @param length the number of bytes to read.
+     * @return the read bytes, or <code>null</code> if the file has less bytes.
+     * @throws IOException if reading content from the file fails.
+     */
+    @Nullable
+    private ByteBuffer readHeader(@NotNull final Path path, final int length) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            final ByteBuffer result = ByteBuffer.allocate(length);
+            while (result.hasRemaining())
+            {
+                if (channel.read(result) < 0)
+                {
+                    return null;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Opens a stream which decompresses the content of a gzip file.
+     *
+     * @param path the file to read.
+     * @return the stream.
+     * @throws IOException if the file can't be opened.
+     */
+    @NotNull
+    private InputStream openGzipStream(@NotNull final Path path) throws IOException
+    {
+        final InputStream in = Files.newInputStream(path);
+        try
+        {
+            return new GZIPInputStream(new BufferedInputStream(in));
+        }
+        catch (IOException e)
+        {
+            in.close();
+            throw e;
+        }
+    }
+}
@@ -1,29 +1,34 @@
 package cms.rendner.hexviewer.model.data.file;
 
 import cms.rendner.hexviewer.model.data.IDataModel;
+import cms.rendner.hexviewer.model.data.IDisposableModel;
+import cms.rendner.hexviewer.model.data.store.ChunkedByteStore;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
 
 /**
  * Provides the data read from a file.
  * <p/>
  * Note that this model is intended for simple cases where it is convenient to read all bytes at once.
- * It is not intended for reading in large files.
+ * The bytes are stored off-heap, so the heap usage doesn't depend on the size of the file. But the whole file is
+ * still loaded into memory. The memory is released when the model is disposed, reading from a disposed model throws
+ * an {@link IllegalStateException}.
  *
  * @author rendner
  */
-public final class FileData implements IDataModel
+public final class FileData implements IDisposableModel, IDataModel
 {
     /**
      * The bytes of the loaded file.
      */
     @NotNull
-    private final byte[] data;
+    private final ChunkedByteStore data;
 
     /**
      * Creates a new instance.
@@ -39,19 +44,44 @@ public final class FileData implements IDataModel
     @Override
     public long size()
     {
-        return data.length;
+        return data.size();
     }
 
     @Override
     public boolean isEmpty()
     {
-        return data.length == 0;
+        return data.size() == 0;
     }
 
     @Override
     public int getByte(final long offset)
     {
-        return data[(int)offset];
+        return data.get(offset);
+    }
+
+    @NotNull
+    @Override
+    public Optional<ByteBuffer> slice(final long offset, final int length)
+    {
+        return data.slice(offset, length);
+    }
+
+    @Override
+    public void dispose()
+    {
+        data.close();
+    }
+
+    @Override
+    public boolean isAutoDispose()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean disposed()
+    {
+        return data.isClosed();
     }
 
     /**
@@ -61,9 +91,10 @@ public final class FileData implements IDataModel
      * @return the data of the file.
      * @throws IOException if reading content from the file fails.
      */
-    private byte[] readContent(@NotNull final File file) throws IOException
+    @NotNull
+    private ChunkedByteStore readContent(@NotNull final File file) throws IOException
     {
         final Path path = Paths.get(file.getAbsolutePath());
-        return Files.readAllBytes(path);
+        return ChunkedByteStore.fromFile(path);
     }
 }
@@ -0,0 +1,28 @@
+package cms.rendner.hexviewer.model.data.file;
+
+import cms.rendner.hexviewer.model.data.IDataModel;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Creates data models which provide the data of a file.
+ * <p/>
+ * Implementations can decide which kind of data model fits best for a file. The method
+ * {@link #create(File)} may be called from a background thread and can therefore perform blocking IO.
+ *
+ * @author rendner
+ */
+public interface IFileDataModelFactory
+{
+    /**
+     * Creates a data model for a file.
+     *
+     * @param file the file which provides the data.
+     * @return the created data model.
+     * @throws IOException if reading content from the file fails.
+     */
+    @NotNull
+    IDataModel create(@NotNull File file) throws IOException;
+}
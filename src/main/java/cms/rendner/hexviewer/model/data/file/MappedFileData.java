@@ -1,6 +1,5 @@
 package cms.rendner.hexviewer.model.data.file;
 
-import cms.rendner.hexviewer.common.utils.ByteSizeConstants;
 import cms.rendner.hexviewer.model.data.IDataModel;
 import cms.rendner.hexviewer.model.data.IDisposableModel;
 import org.jetbrains.annotations.NotNull;
@@ -10,14 +9,19 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.Optional;
 
 /**
  * Provides the data from a file.
  * <p/>
- * Note: This model is a PoC and only reads max the first 50 MB from a file.
  * This model can be used for huge files. The data of the file is read via RandomAccessFile/FileChannel/MappedByteBuffer.
+ * A single MappedByteBuffer can't address more than 2 GB, therefore the whole file is mapped in consecutive regions.
+ * <p/>
+ * Reading from a disposed model throws an {@link IllegalStateException}, also for readers on other threads which
+ * still access the model while it is disposed.
  *
  * @author rendner
  * @see RandomAccessFile
@@ -27,14 +31,24 @@ import java.nio.channels.FileChannel;
 public final class MappedFileData implements IDisposableModel, IDataModel
 {
     /**
-     * Maximal size which is read from a file.
+     * The number of bits used to address a byte inside a mapped region.
+     */
+    private static final int REGION_SHIFT = 30;
+
+    /**
+     * The size of a single mapped region (1 GB).
      */
-    private static final int MAX_MAPPABLE_BYTES = 50 * ByteSizeConstants.ONE_MB;
+    private static final long REGION_SIZE = 1L << REGION_SHIFT;
+
+    /**
+     * Mask to get the index of a byte inside a mapped region.
+     */
+    private static final long REGION_MASK = REGION_SIZE - 1;
 
     /**
      * Indicates if the file was already disposed.
      */
-    private boolean disposed;
+    private volatile boolean disposed;
 
     /**
      * To read from the file.
@@ -47,9 +61,15 @@ public final class MappedFileData implements IDisposableModel, IDataModel
     private FileChannel fileChannel;
 
     /**
-     * Region of mapped bytes directly into memory.
+     * Regions of mapped bytes directly into memory, all regions except the last one have the size {@link #REGION_SIZE}.
+     * Set to <code>null</code> when the file content is unmapped.
+     */
+    private volatile MappedByteBuffer[] mappedRegions;
+
+    /**
+     * The number of mapped bytes.
      */
-    private MappedByteBuffer mappedByteBuffer;
+    private long size;
 
     /**
      * Creates a new instance.
@@ -65,23 +85,64 @@ public final class MappedFileData implements IDisposableModel, IDataModel
     @Override
     public long size()
     {
-        return mappedByteBuffer == null ? 0 : mappedByteBuffer.limit();
+        return mappedRegions == null ? 0 : size;
     }
 
     @Override
     public boolean isEmpty()
     {
-        return mappedByteBuffer == null || mappedByteBuffer.limit() == 0;
+        return size() == 0;
     }
 
     @Override
     public int getByte(final long offset)
     {
-        if (mappedByteBuffer == null)
+        final MappedByteBuffer[] regions = getMappedRegions();
+        if (offset < 0 || offset >= size)
         {
             throw new IndexOutOfBoundsException("Index '" + offset + "' is out of bounds.");
         }
-        return mappedByteBuffer.get((int)offset);
+        return regions[(int) (offset >>> REGION_SHIFT)].get((int) (offset & REGION_MASK)) & 0xFF;
+    }
+
+    @NotNull
+    @Override
+    public Optional<ByteBuffer> slice(final long offset, final int length)
+    {
+        final MappedByteBuffer[] regions = getMappedRegions();
+        if (offset < 0 || length < 1 || offset + length > size)
+        {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length - 1) + "] is out of bounds.");
+        }
+
+        final int indexInRegion = (int) (offset & REGION_MASK);
+        if (indexInRegion + (long) length > REGION_SIZE)
+        {
+            // ranges which span more than one region can't be provided without a copy
+            return Optional.empty();
+        }
+
+        final ByteBuffer result = regions[(int) (offset >>> REGION_SHIFT)].asReadOnlyBuffer();
+        result.position(indexInRegion);
+        result.limit(indexInRegion + length);
+        return Optional.of(result.slice());
+    }
+
+    /**
+     * Returns the mapped regions of the file.
+     *
+     * @return the mapped regions.
+     * @throws IllegalStateException if the model was disposed.
+     */
+    @NotNull
+    private MappedByteBuffer[] getMappedRegions()
+    {
+        final MappedByteBuffer[] regions = mappedRegions;
+        if (regions == null)
+        {
+            throw new IllegalStateException("The model is already disposed.");
+        }
+        return regions;
     }
 
     /**
@@ -96,8 +157,15 @@ public final class MappedFileData implements IDisposableModel, IDataModel
         {
             raf = new RandomAccessFile(file, "r");
             fileChannel = raf.getChannel();
-            final int maxMappableSize = (int) Math.min(fileChannel.size(), MAX_MAPPABLE_BYTES);
-            mappedByteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, maxMappableSize);
+            final long fileSize = fileChannel.size();
+            final MappedByteBuffer[] regions = new MappedByteBuffer[(int) ((fileSize + REGION_SIZE - 1) >>> REGION_SHIFT)];
+            for (int i = 0; i < regions.length; i++)
+            {
+                final long position = (long) i << REGION_SHIFT;
+                regions[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, fileSize - position));
+            }
+            size = fileSize;
+            mappedRegions = regions;
         }
         catch (Exception e)
         {
@@ -112,13 +180,13 @@ public final class MappedFileData implements IDisposableModel, IDataModel
      */
     private void unmapFileContent()
     {
+        mappedRegions = null;
+
         closeQuietly(fileChannel);
         fileChannel = null;
 
         closeQuietly(raf);
         raf = null;
-
-        mappedByteBuffer = null;
     }
 
     /**
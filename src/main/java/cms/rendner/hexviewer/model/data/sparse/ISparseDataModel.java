@@ -0,0 +1,69 @@
+package cms.rendner.hexviewer.model.data.sparse;
+
+import cms.rendner.hexviewer.model.data.IDataModel;
+
+/**
+ * A data model which describes a large address space of which only some regions are populated with data.
+ * <p/>
+ * Offsets which are not part of a populated region (holes) return the fill value of the model. Painters can
+ * use {@link #isPopulated(long)} to render holes in a distinct way.
+ *
+ * @author rendner
+ */
+public interface ISparseDataModel extends IDataModel
+{
+    /**
+     * Constant returned by the navigation methods if no matching offset exists.
+     */
+    long NO_OFFSET = -1;
+
+    /**
+     * Returns the value returned by {@link #getByte(long)} for offsets which aren't populated.
+     *
+     * @return the fill value, in the range [0, 255].
+     */
+    int getFillValue();
+
+    /**
+     * Checks if an offset is part of a populated region.
+     *
+     * @param offset the offset to check, in the range [0, size()-1].
+     * @return <code>true</code> if the offset is populated, <code>false</code> if it is part of a hole.
+     */
+    boolean isPopulated(long offset);
+
+    /**
+     * Returns the first populated offset which is &gt;= the specified offset.
+     *
+     * @param offset the offset to start the search from.
+     * @return the first populated offset at or after <code>offset</code>, or {@link #NO_OFFSET} if there is none.
+     */
+    long nextPopulatedOffset(long offset);
+
+    /**
+     * Returns the end of the populated region which contains the specified offset.
+     * <p/>
+     * Together with {@link #nextPopulatedOffset(long)} the populated regions of a range of offsets can be walked with
+     * one lookup per region, instead of one lookup per offset.
+     *
+     * @param offset a populated offset.
+     * @return the offset after the last byte of the region, or {@link #NO_OFFSET} if the offset isn't populated.
+     */
+    long populatedRegionEnd(long offset);
+
+    /**
+     * Returns the start offset of the first populated region which starts after the specified offset.
+     *
+     * @param offset the offset to start the search from.
+     * @return the start offset of the next region, or {@link #NO_OFFSET} if there is none.
+     */
+    long nextRegionStart(long offset);
+
+    /**
+     * Returns the start offset of the last populated region which starts before the specified offset.
+     *
+     * @param offset the offset to start the search from.
+     * @return the start offset of the previous region, or {@link #NO_OFFSET} if there is none.
+     */
+    long previousRegionStart(long offset);
+}
@@ -0,0 +1,296 @@
+package cms.rendner.hexviewer.model.data.sparse;
+
+import cms.rendner.hexviewer.common.utils.CheckUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Provides the data of a sparse address space, like a memory dump or an Intel HEX / S-record image.
+ * <p/>
+ * Only the populated regions (extents) are stored. The extents are kept in a sorted map keyed by their start offset,
+ * so that the lookup of a byte and the navigation between extents can be done in O(log n), where n is the number
+ * of extents.
+ *
+ * @author rendner
+ */
+public class SparseDataModel implements ISparseDataModel
+{
+    /**
+     * The populated regions, keyed by their start offset.
+     * The regions don't overlap.
+     */
+    @NotNull
+    private final NavigableMap<Long, byte[]> extents;
+
+    /**
+     * The size of the address space.
+     */
+    private final long size;
+
+    /**
+     * The value returned for offsets which aren't populated.
+     */
+    private final int fillValue;
+
+    /**
+     * Creates a new instance with all the values from a builder.
+     *
+     * @param builder the builder used to initialize the new instance.
+     */
+    private SparseDataModel(@NotNull final Builder builder)
+    {
+        super();
+        this.extents = new TreeMap<>(builder.extents);
+        this.size = builder.size;
+        this.fillValue = builder.fillValue;
+    }
+
+    /**
+     * Returns a new builder for this class.
+     *
+     * @return the created builder.
+     */
+    @NotNull
+    public static Builder newBuilder()
+    {
+        return new Builder();
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public int getByte(final long offset)
+    {
+        final Map.Entry<Long, byte[]> extent = findExtent(offset);
+        if (extent != null)
+        {
+            return extent.getValue()[(int) (offset - extent.getKey())] & 0xFF;
+        }
+        return fillValue;
+    }
+
+    @NotNull
+    @Override
+    public Optional<ByteBuffer> slice(final long offset, final int length)
+    {
+        final Map.Entry<Long, byte[]> extent = findExtent(offset);
+        if (extent == null)
+        {
+            return Optional.empty();
+        }
+
+        final int indexInExtent = (int) (offset - extent.getKey());
+        if (indexInExtent + length > extent.getValue().length)
+        {
+            return Optional.empty();
+        }
+
+        return Optional.of(ByteBuffer.wrap(extent.getValue(), indexInExtent, length).slice().asReadOnlyBuffer());
+    }
+
+    @Override
+    public int getFillValue()
+    {
+        return fillValue;
+    }
+
+    @Override
+    public boolean isPopulated(final long offset)
+    {
+        return findExtent(offset) != null;
+    }
+
+    @Override
+    public long nextPopulatedOffset(final long offset)
+    {
+        if (isPopulated(offset))
+        {
+            return offset;
+        }
+        return nextRegionStart(offset);
+    }
+
+    @Override
+    public long populatedRegionEnd(final long offset)
+    {
+        final Map.Entry<Long, byte[]> extent = findExtent(offset);
+        return extent == null ? NO_OFFSET : extent.getKey() + extent.getValue().length;
+    }
+
+    @Override
+    public long nextRegionStart(final long offset)
+    {
+        final Long result = extents.higherKey(offset);
+        return result == null ? NO_OFFSET : result;
+    }
+
+    @Override
+    public long previousRegionStart(final long offset)
+    {
+        final Long result = extents.lowerKey(offset);
+        return result == null ? NO_OFFSET : result;
+    }
+
+    /**
+     * @return the number of populated regions.
+     */
+    public int regionCount()
+    {
+        return extents.size();
+    }
+
+    /**
+     * Returns the extent which contains the offset.
+     *
+     * @param offset the offset.
+     * @return the extent or <code>null</code> if the offset is part of a hole.
+     */
+    @Nullable
+    private Map.Entry<Long, byte[]> findExtent(final long offset)
+    {
+        final Map.Entry<Long, byte[]> entry = extents.floorEntry(offset);
+        if (entry != null && offset < entry.getKey() + entry.getValue().length)
+        {
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Builder to configure and create SparseDataModel instances.
+     * <p/>
+     * The size of the address space is required, all other properties are optional.
+     */
+    public static class Builder
+    {
+        /**
+         * The populated regions, keyed by their start offset.
+         */
+        @NotNull
+        private final NavigableMap<Long, byte[]> extents = new TreeMap<>();
+
+        /**
+         * The size of the address space.
+         */
+        private long size = -1;
+
+        /**
+         * The value returned for offsets which aren't populated.
+         */
+        private int fillValue = 0xFF;
+
+        /**
+         * Hide the constructor.
+         */
+        private Builder()
+        {
+        }
+
+        /**
+         * Builds the configured data model instance.
+         *
+         * @return the created data model instance.
+         */
+        @NotNull
+        public SparseDataModel build()
+        {
+            validate();
+            return new SparseDataModel(this);
+        }
+
+        /**
+         * Sets the size of the address space.
+         *
+         * @param size the number of addressable bytes, &gt;= 0.
+         * @return the builder instance.
+         */
+        @NotNull
+        public Builder size(final long size)
+        {
+            CheckUtils.checkMinValue(size, 0);
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Sets the value to return for offsets which aren't populated.
+         *
+         * @param fillValue the fill value, in the range [0, 255]. The default is <code>0xFF</code>.
+         * @return the builder instance.
+         */
+        @NotNull
+        public Builder fillValue(final int fillValue)
+        {
+            CheckUtils.checkMinValue(fillValue, 0);
+            CheckUtils.checkMaxValue(fillValue, 0xFF);
+            this.fillValue = fillValue;
+            return this;
+        }
+
+        /**
+         * Adds a populated region.
+         * <p/>
+         * The data isn't copied, the caller shouldn't modify the array afterwards.
+         *
+         * @param offset the start offset of the region, &gt;= 0.
+         * @param data   the bytes of the region, not empty.
+         * @return the builder instance.
+         * @throws IllegalArgumentException if the region overlaps an already added region.
+         */
+        @NotNull
+        public Builder extent(final long offset, @NotNull final byte[] data)
+        {
+            CheckUtils.checkMinValue(offset, 0);
+            CheckUtils.checkMinValue(data.length, 1);
+
+            final Map.Entry<Long, byte[]> previous = extents.floorEntry(offset);
+            if (previous != null && offset < previous.getKey() + previous.getValue().length)
+            {
+                throw new IllegalArgumentException("Extent at offset '" + offset + "' overlaps extent at offset '" + previous.getKey() + "'.");
+            }
+
+            final Long next = extents.higherKey(offset);
+            if (next != null && next < offset + data.length)
+            {
+                throw new IllegalArgumentException("Extent at offset '" + offset + "' overlaps extent at offset '" + next + "'.");
+            }
+
+            extents.put(offset, data);
+            return this;
+        }
+
+        private void validate()
+        {
+            if (size < 0)
+            {
+                throw new IllegalStateException("The size of the address space has to be set.");
+            }
+
+            if (!extents.isEmpty())
+            {
+                final Map.Entry<Long, byte[]> last = extents.lastEntry();
+                final long end = last.getKey() + last.getValue().length;
+                if (end > size)
+                {
+                    throw new IllegalStateException("Extent at offset '" + last.getKey() + "' exceeds the size '" + size + "' of the address space.");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,460 @@
+package cms.rendner.hexviewer.model.data.stats;
+
+import cms.rendner.hexviewer.common.data.visitor.IByteVisitor;
+import cms.rendner.hexviewer.common.data.walker.ByteWalker;
+import cms.rendner.hexviewer.common.utils.AsciiUtils;
+import cms.rendner.hexviewer.model.data.IDataModel;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Summarizes the bytes of a data model in a fixed number of buckets.
+ * <p/>
+ * For every bucket the entropy, the ratio of zero bytes and the ratio of printable ASCII chars is computed. The number
+ * of buckets is limited by {@link #MAX_BUCKET_COUNT}, so that views which display the statistics can render them in
+ * constant time, regardless of the size of the data model.
+ * <p/>
+ * The statistics are computed incrementally in the background by parallel workers. Already computed buckets can be
+ * read while the computation is running, check {@link #isComputed(int)} before reading the values of a bucket.
+ * The statistics of a data model are cached, see {@link #of(IDataModel)}.
+ *
+ * @author rendner
+ */
+public final class ByteStatistics
+{
+    /**
+     * The maximal number of buckets.
+     */
+    public static final int MAX_BUCKET_COUNT = 4096;
+
+    /**
+     * The minimal number of bytes of a bucket.
+     */
+    private static final int MIN_BUCKET_SIZE = 64;
+
+    /**
+     * The number of buckets computed by a single task of a worker.
+     */
+    private static final int BUCKETS_PER_TASK = 16;
+
+    /**
+     * Flags which mark the printable byte values.
+     */
+    @NotNull
+    private static final boolean[] PRINTABLE = createPrintableTable();
+
+    /**
+     * The computed statistics, mapped by their data model.
+     */
+    @NotNull
+    private static final Map<IDataModel, ByteStatistics> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The workers which compute the statistics.
+     */
+    @NotNull
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            runnable -> {
+                final Thread thread = new Thread(runnable, "ByteStatistics-Worker");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+
+    /**
+     * The size of the data model at the time the computation was started.
+     */
+    private final long dataSize;
+
+    /**
+     * The number of bytes of a bucket, the last bucket can be smaller.
+     */
+    private final long bucketSize;
+
+    /**
+     * The number of buckets.
+     */
+    private final int bucketCount;
+
+    /**
+     * The entropy of each bucket, normalized to the range [0, 1].
+     */
+    @NotNull
+    private final float[] entropy;
+
+    /**
+     * The ratio of zero bytes of each bucket.
+     */
+    @NotNull
+    private final float[] zeroRatio;
+
+    /**
+     * The ratio of printable ASCII chars of each bucket.
+     */
+    @NotNull
+    private final float[] printableRatio;
+
+    /**
+     * Marks the buckets whose values are computed (<code>1</code>).
+     * Written after the values of a bucket, to publish them to other threads.
+     */
+    @NotNull
+    private final AtomicIntegerArray computed;
+
+    /**
+     * The number of computed buckets.
+     */
+    @NotNull
+    private final AtomicInteger computedCount = new AtomicInteger();
+
+    /**
+     * Is set if the computation should be stopped.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param dataSize the number of bytes of the data model.
+     */
+    private ByteStatistics(final long dataSize)
+    {
+        super();
+
+        this.dataSize = dataSize;
+        this.bucketSize = Math.max(MIN_BUCKET_SIZE, (dataSize + MAX_BUCKET_COUNT - 1) / MAX_BUCKET_COUNT);
+        this.bucketCount = (int) ((dataSize + bucketSize - 1) / bucketSize);
+        this.entropy = new float[bucketCount];
+        this.zeroRatio = new float[bucketCount];
+        this.printableRatio = new float[bucketCount];
+        this.computed = new AtomicIntegerArray(bucketCount);
+    }
+
+    /**
+     * Returns the statistics of a data model.
+     * <p/>
+     * The statistics are cached per data model. If no statistics exist, or the size of the data model has changed,
+     * a new computation is started in the background.
+     *
+     * @param dataModel the data model.
+     * @return the statistics, which may not be computed completely.
+     */
+    @NotNull
+    public static ByteStatistics of(@NotNull final IDataModel dataModel)
+    {
+        synchronized (CACHE)
+        {
+            final ByteStatistics cached = CACHE.get(dataModel);
+            if (cached != null && cached.dataSize == dataModel.size() && !cached.cancelled)
+            {
+                return cached;
+            }
+
+            if (cached != null)
+            {
+                cached.cancel();
+            }
+
+            final ByteStatistics result = new ByteStatistics(dataModel.size());
+            result.start(dataModel);
+            CACHE.put(dataModel, result);
+            return result;
+        }
+    }
+
+    /**
+     * Stops the computation of the statistics of a data model and removes them from the cache.
+     * <p/>
+     * Should be called before a data model is disposed. Doesn't block, a worker which is still reading a bucket from
+     * the data model stops at the first failed read or at the start of the next bucket.
+     *
+     * @param dataModel the data model.
+     */
+    public static void discard(@NotNull final IDataModel dataModel)
+    {
+        final ByteStatistics removed = CACHE.remove(dataModel);
+        if (removed != null)
+        {
+            removed.cancel();
+        }
+    }
+
+    /**
+     * @return the number of bytes of the data model at the time the computation was started.
+     */
+    public long dataSize()
+    {
+        return dataSize;
+    }
+
+    /**
+     * @return the number of bytes of a bucket, the last bucket can be smaller.
+     */
+    public long bucketSize()
+    {
+        return bucketSize;
+    }
+
+    /**
+     * @return the number of buckets, in the range [0, {@link #MAX_BUCKET_COUNT}].
+     */
+    public int bucketCount()
+    {
+        return bucketCount;
+    }
+
+    /**
+     * Returns the index of the bucket which contains an offset.
+     *
+     * @param offset the offset, in the range [0, dataSize()-1].
+     * @return the index of the bucket.
+     */
+    public int bucketIndexOf(final long offset)
+    {
+        return (int) (offset / bucketSize);
+    }
+
+    /**
+     * Returns the offset of the first byte of a bucket.
+     *
+     * @param bucketIndex the index of the bucket, in the range [0, bucketCount()-1].
+     * @return the offset of the first byte.
+     */
+    public long bucketStart(final int bucketIndex)
+    {
+        return bucketIndex * bucketSize;
+    }
+
+    /**
+     * Checks if the values of a bucket are computed.
+     *
+     * @param bucketIndex the index of the bucket, in the range [0, bucketCount()-1].
+     * @return <code>true</code> if the values are available.
+     */
+    public boolean isComputed(final int bucketIndex)
+    {
+        return computed.get(bucketIndex) != 0;
+    }
+
+    /**
+     * @return <code>true</code> if the values of all buckets are computed.
+     */
+    public boolean isComplete()
+    {
+        return computedCount.get() == bucketCount;
+    }
+
+    /**
+     * @return <code>true</code> if the computation was stopped before all buckets were computed.
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Returns the entropy of the bytes of a bucket.
+     *
+     * @param bucketIndex the index of the bucket, in the range [0, bucketCount()-1].
+     * @return the Shannon entropy divided by 8 bits, in the range [0, 1].
+     * <code>0</code> if the bucket isn't computed.
+     */
+    public float entropy(final int bucketIndex)
+    {
+        return entropy[bucketIndex];
+    }
+
+    /**
+     * Returns the ratio of zero bytes of a bucket.
+     *
+     * @param bucketIndex the index of the bucket, in the range [0, bucketCount()-1].
+     * @return the ratio, in the range [0, 1]. <code>0</code> if the bucket isn't computed.
+     */
+    public float zeroRatio(final int bucketIndex)
+    {
+        return zeroRatio[bucketIndex];
+    }
+
+    /**
+     * Returns the ratio of printable ASCII chars of a bucket.
+     *
+     * @param bucketIndex the index of the bucket, in the range [0, bucketCount()-1].
+     * @return the ratio, in the range [0, 1]. <code>0</code> if the bucket isn't computed.
+     */
+    public float printableRatio(final int bucketIndex)
+    {
+        return printableRatio[bucketIndex];
+    }
+
+    /**
+     * Stops the computation.
+     * Already computed buckets stay available.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * Splits the buckets into tasks and submits them to the workers.
+     *
+     * @param dataModel the data model to read from.
+     */
+    private void start(@NotNull final IDataModel dataModel)
+    {
+        for (int first = 0; first < bucketCount; first += BUCKETS_PER_TASK)
+        {
+            final int firstBucket = first;
+            final int endBucket = Math.min(bucketCount, first + BUCKETS_PER_TASK);
+            WORKERS.execute(() -> computeBuckets(dataModel, firstBucket, endBucket));
+        }
+    }
+
+    /**
+     * Computes the values of a range of buckets.
+     *
+     * @param dataModel   the data model to read from.
+     * @param firstBucket the index of the first bucket.
+     * @param endBucket   the index after the last bucket.
+     */
+    private void computeBuckets(@NotNull final IDataModel dataModel, final int firstBucket, final int endBucket)
+    {
+        final ByteWalker walker = new ByteWalker(dataModel);
+        final HistogramVisitor histogram = new HistogramVisitor();
+
+        for (int bucketIndex = firstBucket; bucketIndex < endBucket; bucketIndex++)
+        {
+            final long start = bucketStart(bucketIndex);
+            final long end = Math.min(dataSize, start + bucketSize) - 1;
+
+            if (cancelled)
+            {
+                return;
+            }
+
+            try
+            {
+                walker.walk(histogram, start, end);
+            }
+            catch (final RuntimeException e)
+            {
+                // the data model can't be read anymore, e.g. because it was disposed
+                cancel();
+                return;
+            }
+
+            if (cancelled)
+            {
+                // the data model may have been disposed while the bucket was read
+                return;
+            }
+
+            storeBucket(bucketIndex, histogram.counts, end - start + 1);
+        }
+    }
+
+    /**
+     * Computes the values of a bucket from the histogram of its bytes and publishes them.
+     *
+     * @param bucketIndex the index of the bucket.
+     * @param counts      the number of occurrences of each byte value.
+     * @param total       the number of bytes of the bucket.
+     */
+    private void storeBucket(final int bucketIndex, @NotNull final long[] counts, final long total)
+    {
+        double entropySum = 0;
+        long printableCount = 0;
+        for (int value = 0; value < counts.length; value++)
+        {
+            final long count = counts[value];
+            if (count > 0)
+            {
+                final double probability = (double) count / total;
+                entropySum -= probability * Math.log(probability);
+                if (PRINTABLE[value])
+                {
+                    printableCount += count;
+                }
+            }
+        }
+
+        entropy[bucketIndex] = (float) (entropySum / Math.log(2) / 8);
+        zeroRatio[bucketIndex] = (float) counts[0] / total;
+        printableRatio[bucketIndex] = (float) printableCount / total;
+
+        computed.set(bucketIndex, 1);
+        computedCount.incrementAndGet();
+    }
+
+    @NotNull
+    private static boolean[] createPrintableTable()
+    {
+        final boolean[] result = new boolean[256];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = AsciiUtils.isPrintable(i);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the occurrences of each byte value.
+     */
+    private static final class HistogramVisitor implements IByteVisitor
+    {
+        /**
+         * The number of occurrences of each byte value.
+         */
+        @NotNull
+        private final long[] counts = new long[256];
+
+        @Override
+        public void start()
+        {
+            Arrays.fill(counts, 0);
+        }
+
+        @Override
+        public void visitByte(final int value)
+        {
+            counts[value & 0xFF]++;
+        }
+
+        @Override
+        public void visitBytes(@NotNull final ByteBuffer buffer)
+        {
+            if (buffer.hasArray())
+            {
+                final byte[] array = buffer.array();
+                final int end = buffer.arrayOffset() + buffer.limit();
+                for (int i = buffer.arrayOffset() + buffer.position(); i < end; i++)
+                {
+                    counts[array[i] & 0xFF]++;
+                }
+                buffer.position(buffer.limit());
+            }
+            else
+            {
+                while (buffer.hasRemaining())
+                {
+                    counts[buffer.get() & 0xFF]++;
+                }
+            }
+        }
+
+        @Override
+        public void end()
+        {
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package cms.rendner.hexviewer.model.data.store;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Stores bytes off-heap in chunks of direct byte buffers, or in chunks which wrap an existing array, see
+ * {@link #wrap(byte[])}.
+ * <p/>
+ * The heap usage of a store doesn't depend on the number of stored bytes, only the small chunk table is allocated
+ * on the heap. Because the bytes are split into chunks, a store isn't limited to 2 GB like a <code>byte[]</code>.
+ * If the direct memory, limited by <code>-XX:MaxDirectMemorySize</code>, is exhausted, creating a store fails with an
+ * {@link IOException} instead of using the heap.
+ * <p/>
+ * A store is immutable once created. The chunks should be released by {@link #close()} as soon as the store isn't
+ * used anymore, the direct memory of the chunks is otherwise only released after the store was garbage collected.
+ *
+ * @author rendner
+ */
+public final class ChunkedByteStore implements Closeable
+{
+    /**
+     * The number of bits used to address a byte inside a chunk.
+     */
+    private static final int CHUNK_SHIFT = 20;
+
+    /**
+     * The size of a single chunk (1 MB).
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    /**
+     * Mask to get the index of a byte inside a chunk.
+     */
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The chunks, all chunks except the last one are completely filled. The entries are set to <code>null</code>
+     * when the store is closed.
+     */
+    @NotNull
+    private final ByteBuffer[] chunks;
+
+    /**
+     * Indicates if the store was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The number of stored bytes.
+     */
+    private final long size;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param chunks the chunks.
+     * @param size   the number of stored bytes.
+     */
+    private ChunkedByteStore(@NotNull final ByteBuffer[] chunks, final long size)
+    {
+        super();
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Creates a store which contains the content of a file.
+     * <p/>
+     * The file is read via a {@link FileChannel} directly into the chunks, without intermediate copies.
+     *
+     * @param path the file to read.
+     * @return the created store.
+     * @throws IOException if reading content from the file fails or if the direct memory is exhausted.
+     */
+    @NotNull
+    public static ChunkedByteStore fromFile(@NotNull final Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            final long expectedSize = channel.size();
+            final ByteBuffer[] chunks = allocateChunks(expectedSize);
+
+            long size = 0;
+            for (final ByteBuffer chunk : chunks)
+            {
+                int read = 0;
+                while (chunk.hasRemaining() && read >= 0)
+                {
+                    read = channel.read(chunk);
+                }
+
+                final boolean truncated = chunk.hasRemaining();
+                size += chunk.position();
+                chunk.clear();
+
+                if (truncated)
+                {
+                    // file was truncated while reading
+                    break;
+                }
+            }
+
+            return new ChunkedByteStore(chunks, size);
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a store which wraps the bytes, without copying them.
+     * <p/>
+     * The chunks of the store are views of the array, the array must not be modified afterwards.
+     *
+     * @param data the bytes to wrap.
+     * @return the created store.
+     */
+    @NotNull
+    public static ChunkedByteStore wrap(@NotNull final byte[] data)
+    {
+        final ByteBuffer[] chunks = new ByteBuffer[(data.length + CHUNK_SIZE - 1) >>> CHUNK_SHIFT];
+        for (int i = 0; i < chunks.length; i++)
+        {
+            final int offset = i << CHUNK_SHIFT;
+            chunks[i] = ByteBuffer.wrap(data, offset, Math.min(CHUNK_SIZE, data.length - offset)).slice();
+        }
+        return new ChunkedByteStore(chunks, data.length);
+    }
+
+    /**
+     * @return the number of stored bytes, &gt;= 0.
+     */
+    public long size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the byte value for the offset as int in the range of 0 to 255.
+     *
+     * @param offset the offset of the byte, in the range [0, size()-1].
+     * @return the value at the <code>offset</code>.
+     * @throws IllegalStateException if the store was closed.
+     */
+    public int get(final long offset)
+    {
+        if (offset < 0 || offset >= size)
+        {
+            throw new IndexOutOfBoundsException("Index '" + offset + "' is out of bounds.");
+        }
+        return chunkAt(offset).get((int) (offset & CHUNK_MASK)) & 0xFF;
+    }
+
+    /**
+     * Returns a read-only view of a range of bytes, without copying the bytes.
+     *
+     * @param offset the offset of the first byte, in the range [0, size()-1].
+     * @param length the number of bytes, &gt;= 1.
+     * @return the view, or an empty optional if the range spans more than one chunk. The view stays valid after
+     * the store was closed.
+     * @throws IllegalStateException if the store was closed.
+     */
+    @NotNull
+    public Optional<ByteBuffer> slice(final long offset, final int length)
+    {
+        if (offset < 0 || length < 1 || offset + length > size)
+        {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length - 1) + "] is out of bounds.");
+        }
+
+        final int indexInChunk = (int) (offset & CHUNK_MASK);
+        if (indexInChunk + length > CHUNK_SIZE)
+        {
+            return Optional.empty();
+        }
+
+        final ByteBuffer result = chunkAt(offset).asReadOnlyBuffer();
+        result.position(indexInChunk);
+        result.limit(indexInChunk + length);
+        return Optional.of(result.slice());
+    }
+
+    /**
+     * @return <code>true</code> if the store was closed.
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Releases the chunks of the store.
+     * <p/>
+     * Reading from a closed store throws an {@link IllegalStateException}. Calling this method more than once has
+     * no effect.
+     */
+    @Override
+    public void close()
+    {
+        if (!closed)
+        {
+            closed = true;
+            for (int i = 0; i < chunks.length; i++)
+            {
+                chunks[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the chunk which contains an offset.
+     *
+     * @param offset the offset, in the range [0, size()-1].
+     * @return the chunk.
+     * @throws IllegalStateException if the store was closed.
+     */
+    @NotNull
+    private ByteBuffer chunkAt(final long offset)
+    {
+        // read the entry once, it can be released concurrently by close()
+        final ByteBuffer chunk = chunks[(int) (offset >>> CHUNK_SHIFT)];
+        if (chunk == null)
+        {
+            throw new IllegalStateException("The store is already closed.");
+        }
+        return chunk;
+    }
+
+    /**
+     * Allocates the chunks required to store the specified number of bytes.
+     * The limit of the last chunk is adjusted to the remaining number of bytes.
+     * <p/>
+     * The chunks are allocated as direct buffers.
+     *
+     * @param size the number of bytes to store.
+     * @return the allocated chunks.
+     * @throws IOException if the direct memory is exhausted.
+     */
+    @NotNull
+    private static ByteBuffer[] allocateChunks(final long size) throws IOException
+    {
+        final long chunkCount = (size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        if (chunkCount > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Size '" + size + "' exceeds the maximal supported size.");
+        }
+
+        final ByteBuffer[] result = new ByteBuffer[(int) chunkCount];
+        long remaining = size;
+        for (int i = 0; i < result.length; i++)
+        {
+            final int chunkSize = (int) Math.min(CHUNK_SIZE, remaining);
+            try
+            {
+                result[i] = ByteBuffer.allocateDirect(chunkSize);
+            }
+            catch (OutOfMemoryError e)
+            {
+                // "Direct buffer memory" - the already allocated chunks are released with the array
+                throw new IOException("Not enough direct memory to store '" + size + "' bytes, "
+                        + "increase -XX:MaxDirectMemorySize or use a memory mapped data model.", e);
+            }
+            remaining -= chunkSize;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,523 @@
+package cms.rendner.hexviewer.model.data.stream;
+
+import cms.rendner.hexviewer.common.utils.ByteSizeConstants;
+import cms.rendner.hexviewer.common.utils.CheckUtils;
+import cms.rendner.hexviewer.model.data.DataModelEvent;
+import cms.rendner.hexviewer.model.data.IDataModelListener;
+import cms.rendner.hexviewer.model.data.IDisposableModel;
+import cms.rendner.hexviewer.model.data.IGrowingDataModel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Provides the data from an {@link InputStream}, like the output of a process, a pipe or a socket.
+ * <p/>
+ * The stream is consumed on a background thread after {@link #start()} was called. The received bytes are stored in
+ * chunks of direct (off-heap) byte buffers. If the number of received bytes exceeds the memory threshold, all further
+ * bytes are spilled into a temporary file which is deleted when the model is disposed.
+ * <p/>
+ * The size of the model grows while the data arrives. Registered {@link IDataModelListener} are notified on the
+ * event dispatch thread, notifications are coalesced if the data arrives faster than the listeners are notified.
+ * <p/>
+ * Reading from a disposed model throws an {@link IllegalStateException}, also for readers on other threads which
+ * still access the model while it is disposed.
+ *
+ * @author rendner
+ */
+public final class StreamDataModel implements IGrowingDataModel, IDisposableModel
+{
+    /**
+     * The default size of a single chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * ByteSizeConstants.ONE_KB;
+
+    /**
+     * The default number of bytes kept in memory before the data is spilled into a temporary file.
+     */
+    public static final long DEFAULT_MEMORY_THRESHOLD = 32L * ByteSizeConstants.ONE_MB;
+
+    /**
+     * The stream to consume.
+     */
+    @NotNull
+    private final InputStream inputStream;
+
+    /**
+     * The size of a single chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * The chunks kept in memory.
+     * A chunk is created by the reader thread before the size, which covers the chunk, is published.
+     */
+    @NotNull
+    private final ByteBuffer[] chunks;
+
+    /**
+     * The number of bytes which can be stored in memory - all bytes after this offset are spilled into a file.
+     */
+    private final long memoryCapacity;
+
+    /**
+     * The registered listeners, only accessed on the event dispatch thread.
+     */
+    @NotNull
+    private final List<IDataModelListener> listeners = new ArrayList<>();
+
+    /**
+     * Indicates that a notification of the listeners is already scheduled.
+     */
+    @NotNull
+    private final AtomicBoolean notificationPending = new AtomicBoolean();
+
+    /**
+     * The number of bytes received so far.
+     */
+    private volatile long size;
+
+    /**
+     * Indicates that the end of the stream was reached (or reading failed).
+     */
+    private volatile boolean complete;
+
+    /**
+     * Indicates if the model was already disposed.
+     */
+    private volatile boolean disposed;
+
+    /**
+     * The size of which the listeners were notified last time, only accessed on the event dispatch thread.
+     */
+    private long notifiedSize;
+
+    /**
+     * Indicates that the listeners were notified about the completion, only accessed on the event dispatch thread.
+     */
+    private boolean notifiedComplete;
+
+    /**
+     * The thread which consumes the stream.
+     */
+    @Nullable
+    private Thread readerThread;
+
+    /**
+     * The temporary file which stores the spilled bytes.
+     */
+    @Nullable
+    private FileChannel spillChannel;
+
+    /**
+     * Window of the spilled bytes which was read last time from the temporary file.
+     */
+    @Nullable
+    private ByteBuffer spillWindow;
+
+    /**
+     * The position of the first byte of the <code>spillWindow</code> inside the temporary file.
+     */
+    private long spillWindowStart = -1;
+
+    /**
+     * Creates a new instance which keeps up to {@link #DEFAULT_MEMORY_THRESHOLD} bytes in memory.
+     *
+     * @param inputStream the stream to consume.
+     */
+    public StreamDataModel(@NotNull final InputStream inputStream)
+    {
+        this(inputStream, DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param inputStream     the stream to consume.
+     * @param memoryThreshold the number of bytes to keep in memory before the data is spilled into a temporary file, &gt;= 1.
+     */
+    public StreamDataModel(@NotNull final InputStream inputStream, final long memoryThreshold)
+    {
+        super();
+        CheckUtils.checkMinValue(memoryThreshold, 1);
+
+        this.inputStream = inputStream;
+        this.chunkSize = (int) Math.min(DEFAULT_CHUNK_SIZE, memoryThreshold);
+        this.chunks = new ByteBuffer[(int) ((memoryThreshold + chunkSize - 1) / chunkSize)];
+        this.memoryCapacity = (long) chunks.length * chunkSize;
+    }
+
+    /**
+     * Starts consuming the stream on a background thread.
+     * <p/>
+     * Calling this method more than once has no effect.
+     */
+    public synchronized void start()
+    {
+        if (readerThread == null && !disposed)
+        {
+            readerThread = new Thread(this::readStream, "StreamDataModel-Reader");
+            readerThread.setDaemon(true);
+            readerThread.start();
+        }
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public int getByte(final long offset)
+    {
+        checkNotDisposed();
+        if (offset < 0 || offset >= size)
+        {
+            throw new IndexOutOfBoundsException("Index '" + offset + "' is out of bounds.");
+        }
+
+        if (offset < memoryCapacity)
+        {
+            return chunkAt(offset).get((int) (offset % chunkSize)) & 0xFF;
+        }
+
+        return getSpilledByte(offset - memoryCapacity);
+    }
+
+    @NotNull
+    @Override
+    public Optional<ByteBuffer> slice(final long offset, final int length)
+    {
+        checkNotDisposed();
+        if (offset < 0 || length < 1 || offset + length > size)
+        {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length - 1) + "] is out of bounds.");
+        }
+
+        final int indexInChunk = (int) (offset % chunkSize);
+        if (offset + length > memoryCapacity || indexInChunk + length > chunkSize)
+        {
+            // spilled bytes and ranges which span more than one chunk can't be provided without a copy
+            return Optional.empty();
+        }
+
+        final ByteBuffer result = chunkAt(offset).asReadOnlyBuffer();
+        result.position(indexInChunk);
+        result.limit(indexInChunk + length);
+        return Optional.of(result.slice());
+    }
+
+    @Override
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+    @Override
+    public void addDataModelListener(@NotNull final IDataModelListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeDataModelListener(@NotNull final IDataModelListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (!disposed)
+        {
+            disposed = true;
+            size = 0;
+
+            closeQuietly(inputStream);
+
+            synchronized (this)
+            {
+                if (readerThread != null)
+                {
+                    readerThread.interrupt();
+                    readerThread = null;
+                }
+
+                closeQuietly(spillChannel);
+                spillChannel = null;
+                spillWindow = null;
+            }
+
+            for (int i = 0; i < chunks.length; i++)
+            {
+                chunks[i] = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean isAutoDispose()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean disposed()
+    {
+        return disposed;
+    }
+
+    /**
+     * Throws an exception if the model was disposed.
+     *
+     * @throws IllegalStateException if the model was disposed.
+     */
+    private void checkNotDisposed()
+    {
+        if (disposed)
+        {
+            throw new IllegalStateException("The model is already disposed.");
+        }
+    }
+
+    /**
+     * Returns the in-memory chunk which contains an offset.
+     *
+     * @param offset the offset, in the range [0, memoryCapacity-1].
+     * @return the chunk.
+     * @throws IllegalStateException if the model was disposed.
+     */
+    @NotNull
+    private ByteBuffer chunkAt(final long offset)
+    {
+        // read the entry once, it can be released concurrently by dispose()
+        final ByteBuffer chunk = chunks[(int) (offset / chunkSize)];
+        if (chunk == null)
+        {
+            throw new IllegalStateException("The model is already disposed.");
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns a byte which was spilled into the temporary file.
+     *
+     * @param position the position of the byte inside the temporary file.
+     * @return the value at the <code>position</code>.
+     */
+    private synchronized int getSpilledByte(final long position)
+    {
+        checkNotDisposed();
+        if (spillChannel == null || spillWindow == null)
+        {
+            throw new IndexOutOfBoundsException("Index '" + (position + memoryCapacity) + "' is out of bounds.");
+        }
+
+        if (spillWindowStart < 0 || position < spillWindowStart || position >= spillWindowStart + spillWindow.limit())
+        {
+            spillWindowStart = position - (position % chunkSize);
+            spillWindow.clear();
+            try
+            {
+                while (spillWindow.hasRemaining())
+                {
+                    if (spillChannel.read(spillWindow, spillWindowStart + spillWindow.position()) < 0)
+                    {
+                        break;
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace();
+                spillWindowStart = -1;
+                throw new UncheckedIOException(e);
+            }
+            spillWindow.flip();
+        }
+
+        return spillWindow.get((int) (position - spillWindowStart)) & 0xFF;
+    }
+
+    /**
+     * Consumes the stream, runs on the reader thread.
+     */
+    private void readStream()
+    {
+        long received = 0;
+        ByteBuffer writeView = null;
+        ByteBuffer stagingBuffer = null;
+
+        try (ReadableByteChannel source = Channels.newChannel(inputStream))
+        {
+            while (!disposed)
+            {
+                final int read;
+                if (received < memoryCapacity)
+                {
+                    if (writeView == null || !writeView.hasRemaining())
+                    {
+                        final ByteBuffer chunk = ByteBuffer.allocateDirect(chunkSize);
+                        chunks[(int) (received / chunkSize)] = chunk;
+                        writeView = chunk.duplicate();
+                    }
+                    read = source.read(writeView);
+                }
+                else
+                {
+                    if (stagingBuffer == null)
+                    {
+                        openSpillFile();
+                        stagingBuffer = ByteBuffer.allocateDirect(chunkSize);
+                    }
+                    stagingBuffer.clear();
+                    read = source.read(stagingBuffer);
+                    stagingBuffer.flip();
+                    writeSpilled(stagingBuffer);
+                }
+
+                if (read < 0)
+                {
+                    break;
+                }
+
+                if (read > 0 && !disposed)
+                {
+                    received += read;
+                    size = received;
+                    scheduleNotification();
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            if (!disposed)
+            {
+                e.printStackTrace();
+            }
+        }
+        finally
+        {
+            complete = true;
+            scheduleNotification();
+        }
+    }
+
+    /**
+     * Creates the temporary file used to store the spilled bytes.
+     *
+     * @throws IOException if the file couldn't be created.
+     */
+    private synchronized void openSpillFile() throws IOException
+    {
+        if (disposed)
+        {
+            throw new IOException("The model is already disposed.");
+        }
+
+        final Path file = Files.createTempFile("jhexviewer-stream", ".bin");
+        spillChannel = FileChannel.open(file,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        spillWindow = ByteBuffer.allocateDirect(chunkSize);
+    }
+
+    /**
+     * Appends bytes to the temporary file.
+     *
+     * @param buffer the bytes to append.
+     * @throws IOException if writing to the file fails.
+     */
+    private void writeSpilled(@NotNull final ByteBuffer buffer) throws IOException
+    {
+        final FileChannel channel = spillChannel;
+        if (channel == null)
+        {
+            throw new IOException("The model is already disposed.");
+        }
+
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Schedules the notification of the listeners on the event dispatch thread, if not already scheduled.
+     */
+    private void scheduleNotification()
+    {
+        if (notificationPending.compareAndSet(false, true))
+        {
+            SwingUtilities.invokeLater(this::notifyListeners);
+        }
+    }
+
+    /**
+     * Notifies the listeners about the current size, runs on the event dispatch thread.
+     */
+    private void notifyListeners()
+    {
+        notificationPending.set(false);
+
+        if (disposed)
+        {
+            return;
+        }
+
+        final long newSize = size;
+        final boolean newComplete = complete;
+
+        if (newSize != notifiedSize || newComplete != notifiedComplete)
+        {
+            final DataModelEvent event = new DataModelEvent(this, notifiedSize, newSize);
+            notifiedSize = newSize;
+            notifiedComplete = newComplete;
+            new ArrayList<>(listeners).forEach(l -> l.dataModelSizeChanged(event));
+        }
+    }
+
+    /**
+     * Equivalent to Closeable.close(), except any exceptions will be ignored.
+     *
+     * @param closeable the objects to close, may be <code>null</code> or already closed.
+     */
+    private void closeQuietly(@Nullable final Closeable closeable)
+    {
+        if (closeable != null)
+        {
+            try
+            {
+                closeable.close();
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+}
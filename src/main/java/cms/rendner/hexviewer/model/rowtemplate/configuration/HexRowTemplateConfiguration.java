@@ -6,6 +6,8 @@ import cms.rendner.hexviewer.model.rowtemplate.configuration.values.HInsets;
 import cms.rendner.hexviewer.model.rowtemplate.configuration.values.IValue;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
+
 /**
  * This row template configuration allows to alter the row template of the {@link cms.rendner.hexviewer.view.components.areas.bytes.HexArea}.
  * <p/>
@@ -122,6 +124,30 @@ public final class HexRowTemplateConfiguration
         this.spaceBetweenGroups = builder.spaceBetweenGroups;
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof HexRowTemplateConfiguration))
+        {
+            return false;
+        }
+        HexRowTemplateConfiguration that = (HexRowTemplateConfiguration) o;
+        return insets.equals(that.insets) &&
+                caretWidth.equals(that.caretWidth) &&
+                bytesPerGroup == that.bytesPerGroup &&
+                spaceBetweenGroups.equals(that.spaceBetweenGroups);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(insets, caretWidth, bytesPerGroup, spaceBetweenGroups);
+    }
+
     /**
      * A builder can be used to set the desired values before creating an immutable row template configuration instance.
      */
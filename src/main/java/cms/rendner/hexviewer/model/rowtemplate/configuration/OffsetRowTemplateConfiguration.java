@@ -4,6 +4,8 @@ import cms.rendner.hexviewer.common.utils.CheckUtils;
 import cms.rendner.hexviewer.model.rowtemplate.configuration.values.HInsets;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
+
 /**
  * This row template configuration allows to alter the row template of the {@link cms.rendner.hexviewer.view.components.areas.offset.OffsetArea}.
  * <p/>
@@ -84,6 +86,28 @@ public final class OffsetRowTemplateConfiguration
         this.minPadSize = builder.minPadSize;
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof OffsetRowTemplateConfiguration))
+        {
+            return false;
+        }
+        OffsetRowTemplateConfiguration that = (OffsetRowTemplateConfiguration) o;
+        return insets.equals(that.insets) &&
+                minPadSize == that.minPadSize;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(insets, minPadSize);
+    }
+
     /**
      * A builder can be used to set the desired values before creating an immutable row template configuration instance.
      */
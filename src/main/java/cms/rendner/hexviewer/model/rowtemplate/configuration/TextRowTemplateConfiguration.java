@@ -6,6 +6,8 @@ import cms.rendner.hexviewer.model.rowtemplate.configuration.values.IValue;
 import cms.rendner.hexviewer.view.components.areas.bytes.TextArea;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
+
 /**
  * This row template configuration allows to alter the row template of the {@link TextArea}.
  * <p/>
@@ -89,6 +91,28 @@ public final class TextRowTemplateConfiguration
         this.caretWidth = builder.caretWidth;
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof TextRowTemplateConfiguration))
+        {
+            return false;
+        }
+        TextRowTemplateConfiguration that = (TextRowTemplateConfiguration) o;
+        return insets.equals(that.insets) &&
+                caretWidth.equals(that.caretWidth);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(insets, caretWidth);
+    }
+
     /**
      * A builder can be used to set the desired values before creating an immutable row template configuration instance.
      */
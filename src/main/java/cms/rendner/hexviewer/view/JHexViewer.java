@@ -14,6 +14,7 @@ import cms.rendner.hexviewer.view.components.areas.offset.OffsetArea;
 import cms.rendner.hexviewer.view.components.caret.ICaret;
 import cms.rendner.hexviewer.view.components.damager.IDamager;
 import cms.rendner.hexviewer.view.components.highlighter.IHighlighter;
+import cms.rendner.hexviewer.view.metrics.PaintMetrics;
 import cms.rendner.hexviewer.view.ui.DefaultHexViewerUI;
 import cms.rendner.hexviewer.view.ui.HexViewerUI;
 import cms.rendner.hexviewer.view.ui.container.IContextMenuFactory;
@@ -130,6 +131,18 @@ public class JHexViewer extends JComponent
     @NotNull
     public static final String PROPERTY_BYTES_PER_ROW = "bytesPerRow";
 
+    /**
+     * Constant used to determine when the <code>showOverviewRuler</code> property has changed.
+     */
+    @NotNull
+    public static final String PROPERTY_SHOW_OVERVIEW_RULER = "showOverviewRuler";
+
+    /**
+     * Constant used to determine when the <code>autoBytesPerRow</code> property has changed.
+     */
+    @NotNull
+    public static final String PROPERTY_AUTO_BYTES_PER_ROW = "autoBytesPerRow";
+
     /**
      * The caret to navigate through the data model displayed by this component.
      */
@@ -197,6 +210,11 @@ public class JHexViewer extends JComponent
      * The number of bytes displayed per row, &gt;= 1.
      */
     private int bytesPerRow = 16;
+
+    /**
+     * Indicates if the bytes per row are adjusted to the available width.
+     */
+    private boolean autoBytesPerRow;
     /**
      * Factory which is used to create a context menu.
      */
@@ -212,6 +230,17 @@ public class JHexViewer extends JComponent
      */
     private boolean showOffsetCaretIndicator;
 
+    /**
+     * Indicates if the overview ruler should be displayed.
+     */
+    private boolean showOverviewRuler;
+
+    /**
+     * Records the cost of painting the areas, disabled by default.
+     */
+    @NotNull
+    private final PaintMetrics paintMetrics = new PaintMetrics();
+
     /**
      * Creates a new instance.
      */
@@ -269,6 +298,63 @@ public class JHexViewer extends JComponent
         return "HexViewerUI";
     }
 
+    /**
+     * Adds the specified region to the dirty region list and damages the intersecting parts of the areas.
+     * <p/>
+     * The areas are repainted as part of the hex viewer, but their ui delegates are only informed about damaged regions
+     * by repaint requests of the areas themselves. Therefore the dirty region is converted into the coordinate system
+     * of each area and only the intersection with the area is forwarded, the rest of the cached rows stays valid.
+     *
+     * @param tm     this parameter is not used.
+     * @param x      the x value of the dirty region.
+     * @param y      the y value of the dirty region.
+     * @param width  the width of the dirty region.
+     * @param height the height of the dirty region.
+     */
+    @Override
+    public void repaint(final long tm, final int x, final int y, final int width, final int height)
+    {
+        super.repaint(tm, x, y, width, height);
+
+        // the areas are null while the super constructor is running
+        if (offsetArea != null && hexArea != null && textArea != null)
+        {
+            final Rectangle dirtyRegion = new Rectangle(x, y, width, height);
+            forwardRepaint(dirtyRegion, offsetArea);
+            forwardRepaint(dirtyRegion, hexArea);
+            forwardRepaint(dirtyRegion, textArea);
+        }
+    }
+
+    /**
+     * Forwards the part of a dirty region of the hex viewer, which intersects an area, to the area.
+     *
+     * @param dirtyRegion the dirty region in the coordinate system of the hex viewer.
+     * @param area        the area to repaint.
+     */
+    private void forwardRepaint(@NotNull final Rectangle dirtyRegion, @NotNull final JComponent area)
+    {
+        final Rectangle areaRegion = SwingUtilities.convertRectangle(this, dirtyRegion, area);
+        SwingUtilities.computeIntersection(0, 0, area.getWidth(), area.getHeight(), areaRegion);
+        if (!areaRegion.isEmpty())
+        {
+            area.repaint(areaRegion);
+        }
+    }
+
+    /**
+     * Returns the paint metrics of the areas.
+     * <p/>
+     * The recording of paint metrics is disabled by default and can be enabled via {@link PaintMetrics#setEnabled(boolean)}.
+     *
+     * @return the paint metrics.
+     */
+    @NotNull
+    public PaintMetrics getPaintMetrics()
+    {
+        return paintMetrics;
+    }
+
     /**
      * @return the offset-area which displays the offset addresses of the current visible rows.
      */
@@ -358,6 +444,65 @@ public class JHexViewer extends JComponent
         }
     }
 
+    /**
+     * Returns if the overview ruler is displayed.
+     *
+     * @return <code>true</code> if the overview ruler is displayed.
+     */
+    public boolean isShowOverviewRuler()
+    {
+        return showOverviewRuler;
+    }
+
+    /**
+     * Sets if an overview ruler should be displayed beside the byte-areas.
+     * <p/>
+     * The overview ruler summarizes the whole data model (entropy, zero bytes, printable chars) and allows to jump
+     * to an offset by clicking into it. By default the overview ruler isn't displayed.
+     * <p/>
+     * A PropertyChange event {@link JHexViewer#PROPERTY_SHOW_OVERVIEW_RULER} is fired when a new value is set.
+     *
+     * @param newValue the new value.
+     */
+    public void setShowOverviewRuler(final boolean newValue)
+    {
+        if (showOverviewRuler != newValue)
+        {
+            showOverviewRuler = newValue;
+            firePropertyChange(PROPERTY_SHOW_OVERVIEW_RULER, !newValue, newValue);
+        }
+    }
+
+    /**
+     * Returns if the bytes per row are adjusted to the available width.
+     *
+     * @return <code>true</code> if the bytes per row are adjusted automatically.
+     */
+    public boolean isAutoBytesPerRow()
+    {
+        return autoBytesPerRow;
+    }
+
+    /**
+     * Sets if the bytes per row should be adjusted to the available width.
+     * <p/>
+     * If enabled, the installed UI sets the largest number of bytes per row for which the rows of the hex- and
+     * text-area fit into the visible width. The number is always a multiple of the bytes per group of the hex-area.
+     * By default the bytes per row aren't adjusted.
+     * <p/>
+     * A PropertyChange event {@link JHexViewer#PROPERTY_AUTO_BYTES_PER_ROW} is fired when a new value is set.
+     *
+     * @param newValue the new value.
+     */
+    public void setAutoBytesPerRow(final boolean newValue)
+    {
+        if (autoBytesPerRow != newValue)
+        {
+            autoBytesPerRow = newValue;
+            firePropertyChange(PROPERTY_AUTO_BYTES_PER_ROW, !newValue, newValue);
+        }
+    }
+
     /**
      * @return the font used to render the data model inside the areas.
      */
@@ -1,6 +1,8 @@
 package cms.rendner.hexviewer.view.components.areas.bytes.model.colors;
 
+import cms.rendner.hexviewer.common.data.wrapper.RowData;
 import cms.rendner.hexviewer.view.components.areas.common.model.colors.IAreaColorProvider;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
@@ -47,6 +49,82 @@ public interface IByteColorProvider extends IAreaColorProvider
         return Color.BLACK;
     }
 
+    /**
+     * Fills the background colors of all elements of a row in one call.
+     * <p/>
+     * The default implementation calls {@link #getRowElementBackground(int, long, int, int)} for every element.
+     * Color providers which use the same color for many elements should override this method to avoid the per
+     * element calls.
+     *
+     * @param rowData the bytes of the row.
+     * @param colors  receives the color of each element, at the index of the element in the row. <code>null</code>
+     *                if no background should be painted for the element. The length of the array is &gt;=
+     *                <code>rowData.size()</code>.
+     */
+    default void getRowElementBackgrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        final long offset = rowData.offset();
+        for (int i = 0; i < rowData.size(); i++)
+        {
+            colors[i] = getRowElementBackground(rowData.getByte(i), offset + i, rowData.rowIndex(), i);
+        }
+    }
+
+    /**
+     * Fills the foreground colors of all elements of a row in one call.
+     * <p/>
+     * The default implementation calls {@link #getRowElementForeground(int, long, int, int)} for every element.
+     * Color providers which use the same color for many elements should override this method to avoid the per
+     * element calls.
+     *
+     * @param rowData the bytes of the row.
+     * @param colors  receives the color of each element, at the index of the element in the row. <code>null</code>
+     *                if the area painter should decide which color to use. The length of the array is &gt;=
+     *                <code>rowData.size()</code>.
+     */
+    default void getRowElementForegrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        final long offset = rowData.offset();
+        for (int i = 0; i < rowData.size(); i++)
+        {
+            colors[i] = getRowElementForeground(rowData.getByte(i), offset + i, rowData.rowIndex(), i);
+        }
+    }
+
+    /**
+     * Returns the background color for a row element whose offset isn't populated by the data model.
+     * <p/>
+     * Only called for data models which describe a sparse address space
+     * ({@link cms.rendner.hexviewer.model.data.sparse.ISparseDataModel}).
+     *
+     * @param offset            the offset of the byte to paint.
+     * @param rowIndex          the row index of the element.
+     * @param elementInRowIndex the index of the element in the row.
+     * @return the color to use, <code>null</code> if no background should be painted.
+     */
+    @Nullable
+    default Color getRowElementHoleBackground(long offset, int rowIndex, int elementInRowIndex)
+    {
+        return null;
+    }
+
+    /**
+     * Returns the foreground color for a row element whose offset isn't populated by the data model.
+     * <p/>
+     * Only called for data models which describe a sparse address space
+     * ({@link cms.rendner.hexviewer.model.data.sparse.ISparseDataModel}).
+     *
+     * @param offset            the offset of the byte to paint.
+     * @param rowIndex          the row index of the element.
+     * @param elementInRowIndex the index of the element in the row.
+     * @return the color to use, <code>null</code> if the area painter should decide which color to use.
+     */
+    @Nullable
+    default Color getRowElementHoleForeground(long offset, int rowIndex, int elementInRowIndex)
+    {
+        return Color.LIGHT_GRAY;
+    }
+
     /**
      * Provides the color to use to paint the caret.
      *
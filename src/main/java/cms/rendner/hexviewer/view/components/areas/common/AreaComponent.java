@@ -71,6 +71,90 @@ public abstract class AreaComponent extends BorderlessJComponent
         repaint(getRowRect(rowIndex));
     }
 
+    /**
+     * Invalidates the rendered content of a range of rows and damages these rows.
+     * <p/>
+     * Has to be called instead of {@link #damageRow(int)} if the content of the rows (bytes or colors) has changed,
+     * because the ui delegate may cache the rendered content of rows.
+     *
+     * @param firstRowIndex the index of the first row to invalidate.
+     * @param lastRowIndex  the index of the last row to invalidate, included.
+     */
+    public void invalidateRows(final int firstRowIndex, final int lastRowIndex)
+    {
+        final AreaComponentUI ui = getUI();
+        if (ui != null)
+        {
+            ui.invalidateRows(firstRowIndex, lastRowIndex);
+        }
+
+        final Rectangle dirtyRegion = getRowRect(firstRowIndex);
+        dirtyRegion.add(getRowRect(lastRowIndex));
+        repaint(dirtyRegion);
+    }
+
+    /**
+     * Adds the specified region to the dirty region list and informs the ui delegate about the damaged region.
+     *
+     * @param tm     this parameter is not used.
+     * @param x      the x value of the dirty region.
+     * @param y      the y value of the dirty region.
+     * @param width  the width of the dirty region.
+     * @param height the height of the dirty region.
+     */
+    @Override
+    public void repaint(final long tm, final int x, final int y, final int width, final int height)
+    {
+        final AreaComponentUI ui = getUI();
+        if (ui != null)
+        {
+            ui.damage(x, y, width, height);
+        }
+        super.repaint(tm, x, y, width, height);
+    }
+
+    /**
+     * Repaints a region in which only the middleground of the area (caret, selection and highlights) has changed.
+     * <p/>
+     * In contrast to {@link #repaint(Rectangle)} the rendered rows of the region are marked as unchanged, this allows
+     * the ui delegate to keep cached rows.
+     *
+     * @param region the region to repaint.
+     */
+    public void repaintMiddleground(@NotNull final Rectangle region)
+    {
+        final AreaComponentUI ui = getUI();
+        if (ui != null)
+        {
+            ui.repaintMiddleground(region);
+        }
+        else
+        {
+            repaint(region);
+        }
+    }
+
+    /**
+     * Repaints a region which only contains the overlay of the area, for example the blinking caret.
+     * <p/>
+     * In contrast to {@link #repaint(Rectangle)} the content of the area below the overlay is marked as unchanged,
+     * this allows the ui delegate to reuse the already rendered content.
+     *
+     * @param region the region covered by the overlay.
+     */
+    public void repaintOverlay(@NotNull final Rectangle region)
+    {
+        final AreaComponentUI ui = getUI();
+        if (ui != null)
+        {
+            ui.repaintOverlay(region);
+        }
+        else
+        {
+            repaint(region);
+        }
+    }
+
     /**
      * * Returns a range of rows that intersect an area.
      *
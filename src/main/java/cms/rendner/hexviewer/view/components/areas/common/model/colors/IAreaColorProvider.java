@@ -39,6 +39,19 @@ public interface IAreaColorProvider
         return null;
     }
 
+    /**
+     * Returns the version of the provided colors.
+     * <p/>
+     * Painters may cache rendered content. A color provider which changes the returned colors during its lifetime has to
+     * return a new version after each change, to invalidate such caches.
+     *
+     * @return the version of the colors.
+     */
+    default long getVersion()
+    {
+        return 0;
+    }
+
     /**
      * Checks if a color is available for a specific key.
      * <p/>
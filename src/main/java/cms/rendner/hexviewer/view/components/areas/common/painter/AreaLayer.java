@@ -0,0 +1,13 @@
+package cms.rendner.hexviewer.view.components.areas.common.painter;
+
+/**
+ * The layers which are painted by an {@link ILayeredAreaPainter}, in the order in which they are painted.
+ *
+ * @author rendner
+ */
+public enum AreaLayer
+{
+    BACKGROUND,
+    MIDDLEGROUND,
+    FOREGROUND
+}
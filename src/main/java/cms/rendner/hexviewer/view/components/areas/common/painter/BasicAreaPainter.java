@@ -2,6 +2,7 @@ package cms.rendner.hexviewer.view.components.areas.common.painter;
 
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.common.AreaComponent;
+import cms.rendner.hexviewer.view.metrics.PaintMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -16,7 +17,7 @@ import java.awt.*;
  *
  * @author rendner
  */
-public abstract class BasicAreaPainter implements IAreaPainter
+public abstract class BasicAreaPainter implements ILayeredAreaPainter
 {
     /**
      * Paints the foreground (text) of the rows displayed by the area.
@@ -62,27 +63,65 @@ public abstract class BasicAreaPainter implements IAreaPainter
         paintForeground(g, hexViewer, component);
     }
 
-    protected void paintBackground(@NotNull final Graphics2D g, @NotNull final JHexViewer hexViewer, @NotNull final AreaComponent component)
+    @Override
+    public void paintLayer(@NotNull final Graphics2D g, @NotNull final JHexViewer hexViewer, @NotNull final AreaComponent component, @NotNull final AreaLayer layer)
     {
-        if (backgroundPainter != null)
+        switch (layer)
         {
-            backgroundPainter.paint(g, hexViewer, component);
+            case BACKGROUND:
+            {
+                paintBackground(g, hexViewer, component);
+                break;
+            }
+            case MIDDLEGROUND:
+            {
+                paintMiddleground(g, hexViewer, component);
+                break;
+            }
+            case FOREGROUND:
+            {
+                paintForeground(g, hexViewer, component);
+                break;
+            }
         }
     }
 
+    protected void paintBackground(@NotNull final Graphics2D g, @NotNull final JHexViewer hexViewer, @NotNull final AreaComponent component)
+    {
+        paintTimed(backgroundPainter, AreaLayer.BACKGROUND, g, hexViewer, component);
+    }
+
     protected void paintMiddleground(@NotNull final Graphics2D g, @NotNull final JHexViewer hexViewer, @NotNull final AreaComponent component)
     {
-        if (middlegroundPainter != null)
-        {
-            middlegroundPainter.paint(g, hexViewer, component);
-        }
+        paintTimed(middlegroundPainter, AreaLayer.MIDDLEGROUND, g, hexViewer, component);
     }
 
     protected void paintForeground(@NotNull final Graphics2D g, @NotNull final JHexViewer hexViewer, @NotNull final AreaComponent component)
     {
-        if (foregroundPainter != null)
+        paintTimed(foregroundPainter, AreaLayer.FOREGROUND, g, hexViewer, component);
+    }
+
+    /**
+     * Invokes a layer painter and reports the time spent in the painter to the paint metrics of the hex viewer.
+     *
+     * @param painter   the layer painter, nothing is painted if <code>null</code>.
+     * @param layer     the layer which is painted by the painter.
+     * @param g         the Graphics2D context of the area to be painted.
+     * @param hexViewer the hexViewer to which the area belongs.
+     * @param component the area to paint.
+     */
+    private void paintTimed(@Nullable final IAreaLayerPainter painter,
+                            @NotNull final AreaLayer layer,
+                            @NotNull final Graphics2D g,
+                            @NotNull final JHexViewer hexViewer,
+                            @NotNull final AreaComponent component)
+    {
+        if (painter != null)
         {
-            foregroundPainter.paint(g, hexViewer, component);
+            final PaintMetrics metrics = hexViewer.getPaintMetrics();
+            final long startNanos = metrics.layerStarted();
+            painter.paint(g, hexViewer, component);
+            metrics.layerFinished(layer, startNanos);
         }
     }
 }
@@ -0,0 +1,28 @@
+package cms.rendner.hexviewer.view.components.areas.common.painter;
+
+import cms.rendner.hexviewer.view.JHexViewer;
+import cms.rendner.hexviewer.view.components.areas.common.AreaComponent;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+
+/**
+ * An area painter which allows to paint each of its layers separately.
+ * <p/>
+ * This allows callers to cache the content of some layers, for example the background and foreground, while the
+ * middleground (caret, selection and highlights) is painted on every paint call.
+ *
+ * @author rendner
+ */
+public interface ILayeredAreaPainter extends IAreaPainter
+{
+    /**
+     * Paints a single layer of the area.
+     *
+     * @param g         the Graphics2D context of the area to be painted.
+     * @param hexViewer the JHexViewer to which the area belongs.
+     * @param component a reference to the area. This instance can be casted to the specific area implementation if needed.
+     * @param layer     the layer to paint.
+     */
+    void paintLayer(@NotNull Graphics2D g, @NotNull JHexViewer hexViewer, @NotNull AreaComponent component, @NotNull AreaLayer layer);
+}
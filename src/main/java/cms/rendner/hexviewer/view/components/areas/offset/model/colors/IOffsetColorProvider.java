@@ -40,4 +40,19 @@ public interface IOffsetColorProvider extends IAreaColorProvider
     {
         return Color.BLACK;
     }
+
+    /**
+     * Returns the color for the element foreground of a row which contains no populated byte.
+     * <p/>
+     * Only called for data models which describe a sparse address space
+     * ({@link cms.rendner.hexviewer.model.data.sparse.ISparseDataModel}).
+     *
+     * @param rowIndex the row index of the element to draw.
+     * @return the color to use, <code>null</code> if the installed area painter should decide which color to use.
+     */
+    @Nullable
+    default Color getRowElementHoleForeground(int rowIndex)
+    {
+        return Color.LIGHT_GRAY;
+    }
 }
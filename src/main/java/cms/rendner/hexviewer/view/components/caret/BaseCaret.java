@@ -1,5 +1,6 @@
 package cms.rendner.hexviewer.view.components.caret;
 
+import cms.rendner.hexviewer.common.utils.CheckUtils;
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
 import cms.rendner.hexviewer.view.components.areas.bytes.hit.ByteHitInfo;
@@ -34,12 +35,49 @@ public abstract class BaseCaret implements ICaret
      */
     private static final int BLINK_RATE = 520;
 
+    /**
+     * The default interval, in milliseconds, in which coalesced listeners are notified (about one frame at 60 Hz).
+     */
+    public static final int DEFAULT_COALESCED_DISPATCH_INTERVAL = 16;
+
     /**
      * Contains the registered caret listeners.
      */
     @NotNull
     private final List<ICaretListener> caretListeners = new ArrayList<>();
 
+    /**
+     * Contains the registered caret listeners which are notified at most once per dispatch interval.
+     */
+    @NotNull
+    private final List<ICaretListener> coalescedCaretListeners = new ArrayList<>();
+
+    /**
+     * Notifies the coalesced caret listeners, created on first use.
+     */
+    @Nullable
+    private Timer coalescedDispatchTimer;
+
+    /**
+     * The interval in which coalesced listeners are notified.
+     */
+    private int coalescedDispatchInterval = DEFAULT_COALESCED_DISPATCH_INTERVAL;
+
+    /**
+     * Indicates if the coalesced listeners have to be notified about a movement.
+     */
+    private boolean coalescedDispatchPending;
+
+    /**
+     * The position of the dot before the first movement not yet dispatched to the coalesced listeners.
+     */
+    private long pendingOldDot;
+
+    /**
+     * The position of the mark before the first movement not yet dispatched to the coalesced listeners.
+     */
+    private long pendingOldMark;
+
     /**
      * The position of the dot.
      */
@@ -119,6 +157,12 @@ public abstract class BaseCaret implements ICaret
         areas = null;
         this.hexViewer = null;
         removeBlinker();
+
+        coalescedDispatchPending = false;
+        if (coalescedDispatchTimer != null)
+        {
+            coalescedDispatchTimer.stop();
+        }
     }
 
     @Override
@@ -198,14 +242,50 @@ public abstract class BaseCaret implements ICaret
         }
     }
 
+    @Override
+    public void addCoalescedCaretListener(@NotNull final ICaretListener listener)
+    {
+        if (!coalescedCaretListeners.contains(listener))
+        {
+            coalescedCaretListeners.add(listener);
+        }
+    }
+
     @Override
     public void removeCaretListener(@NotNull final ICaretListener listener)
     {
         caretListeners.remove(listener);
+        coalescedCaretListeners.remove(listener);
+    }
+
+    /**
+     * @return the interval in milliseconds in which coalesced listeners are notified.
+     */
+    public int getCoalescedDispatchInterval()
+    {
+        return coalescedDispatchInterval;
+    }
+
+    /**
+     * Sets the interval in which coalesced listeners are notified.
+     *
+     * @param interval the interval in milliseconds, &gt;= 0.
+     */
+    public void setCoalescedDispatchInterval(final int interval)
+    {
+        CheckUtils.checkMinValue(interval, 0);
+        coalescedDispatchInterval = interval;
+        if (coalescedDispatchTimer != null)
+        {
+            coalescedDispatchTimer.setInitialDelay(interval);
+        }
     }
 
     /**
      * Notifies all registered listener about the changed caret position.
+     * <p/>
+     * Synchronous listeners are notified immediately, coalesced listeners are notified when the dispatch interval
+     * has elapsed since the first not yet dispatched movement.
      *
      * @param oldDot  the old position of the dot.
      * @param oldMark the old position of the mark.
@@ -217,6 +297,36 @@ public abstract class BaseCaret implements ICaret
             final CaretEvent event = new CaretEvent(this, oldDot, oldMark, dot, mark);
             caretListeners.forEach(i -> i.caretPositionChanged(event));
         }
+
+        if (!coalescedCaretListeners.isEmpty() && !coalescedDispatchPending)
+        {
+            coalescedDispatchPending = true;
+            pendingOldDot = oldDot;
+            pendingOldMark = oldMark;
+
+            if (coalescedDispatchTimer == null)
+            {
+                coalescedDispatchTimer = new Timer(coalescedDispatchInterval, event -> dispatchCoalesced());
+                coalescedDispatchTimer.setRepeats(false);
+            }
+            coalescedDispatchTimer.start();
+        }
+    }
+
+    /**
+     * Notifies the coalesced listeners about all movements since the last dispatch.
+     */
+    private void dispatchCoalesced()
+    {
+        if (coalescedDispatchPending)
+        {
+            coalescedDispatchPending = false;
+            if (pendingOldDot != dot || pendingOldMark != mark)
+            {
+                final CaretEvent event = new CaretEvent(this, pendingOldDot, pendingOldMark, dot, mark);
+                new ArrayList<>(coalescedCaretListeners).forEach(i -> i.caretPositionChanged(event));
+            }
+        }
     }
 
     /**
@@ -431,11 +541,28 @@ public abstract class BaseCaret implements ICaret
 
     /**
      * Called by the blinker to update the visibility of the blinking caret.
+     * <p/>
+     * If the caret is painted as overlay in all areas, only the overlay is repainted and the content of the areas
+     * below the caret isn't re-rendered. Nothing is repainted while the hexViewer isn't showing.
      */
     private void toggleCaret()
     {
         caretIsVisible = !caretIsVisible;
-        damageCaret(dot, dot);
+
+        if (!hexViewer.isShowing())
+        {
+            return;
+        }
+
+        final boolean paintedAsOverlay = areas.stream().allMatch(area -> getOverlayBounds(area).isPresent());
+        if (paintedAsOverlay)
+        {
+            areas.forEach(area -> getOverlayBounds(area).ifPresent(area::repaintOverlay));
+        }
+        else
+        {
+            damageCaret(dot, dot);
+        }
     }
 
     /**
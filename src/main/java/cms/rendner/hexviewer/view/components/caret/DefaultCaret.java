@@ -1,6 +1,8 @@
 package cms.rendner.hexviewer.view.components.caret;
 
 import cms.rendner.hexviewer.common.geom.HDimension;
+import cms.rendner.hexviewer.common.ranges.ByteRange;
+import cms.rendner.hexviewer.common.ranges.RowRange;
 import cms.rendner.hexviewer.common.rowtemplate.bytes.IByteRowTemplate;
 import cms.rendner.hexviewer.common.utils.ObjectUtils;
 import cms.rendner.hexviewer.view.JHexViewer;
@@ -15,6 +17,7 @@ import org.jetbrains.annotations.Nullable;
 import java.awt.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Default implementation of a caret, which implements the missing methods of the {@link BaseCaret} class to paint the
@@ -54,20 +57,91 @@ public class DefaultCaret extends BaseCaret
         {
             paintSelection(g, area);
         }
-        else if (isVisible())
+    }
+
+    @Override
+    public void paintOverlay(@NotNull final Graphics2D g, @NotNull final ByteArea area)
+    {
+        if (!hasSelection() && isVisible())
         {
             paintCaret(g, area);
         }
     }
 
-    private void paintSelection(@NotNull final Graphics2D g, @NotNull final ByteArea area)
+    @NotNull
+    @Override
+    public Optional<Rectangle> getOverlayBounds(@NotNull final ByteArea area)
+    {
+        return hasSelection() ? Optional.empty() : Optional.of(area.getCaretRect(getDot()));
+    }
+
+    /**
+     * Paints the parts of the selection which intersect the clip of the Graphics2D context.
+     *
+     * @param g    the Graphics2D context in which to paint.
+     * @param area the area in which the selection should be painted.
+     */
+    protected void paintSelection(@NotNull final Graphics2D g, @NotNull final ByteArea area)
     {
         final IByteRowTemplate rowTemplate = area.getRowTemplate();
         if (rowTemplate != null)
         {
+            final Rectangle clip = g.getClipBounds();
+            final RowRange clipRows = area.getIntersectingRows(clip == null ? area.getVisibleRect() : clip);
+            if (!clipRows.isValid())
+            {
+                return;
+            }
+
+            final ByteRange paintedBytes = new ByteRange(
+                    hexViewer.rowIndexToByteIndex(clipRows.getStart()),
+                    hexViewer.rowIndexToByteIndex(clipRows.getEnd()) + hexViewer.getBytesPerRow() - 1
+            );
             final Rectangle elementBounds = rowTemplate.elementBounds(0, rowTemplate.elementCount() - 1);
             final HDimension elementsBounds = new HDimension(elementBounds.x, elementBounds.width);
-            selectionPainterMap.get(area.getAreaId()).paint(g, hexViewer, area, elementsBounds, getSelectionStart(), getSelectionEnd());
+            paintSelectedRanges(g, area, clipRows, paintedBytes, elementsBounds);
+        }
+    }
+
+    /**
+     * Paints all selected ranges which intersect the painted bytes.
+     * The default implementation paints the selection between dot and mark.
+     *
+     * @param g              the Graphics2D context in which to paint.
+     * @param area           the area in which the selection should be painted.
+     * @param clipRows       the rows which intersect the clip of the Graphics2D context.
+     * @param paintedBytes   the range of bytes displayed by the <code>clipRows</code>.
+     * @param elementsBounds the horizontal bounds of all elements of a row.
+     */
+    protected void paintSelectedRanges(@NotNull final Graphics2D g, @NotNull final ByteArea area, @NotNull final RowRange clipRows,
+                                       @NotNull final ByteRange paintedBytes, @NotNull final HDimension elementsBounds)
+    {
+        if (hasSelection())
+        {
+            paintSelectedRange(g, area, clipRows, paintedBytes, elementsBounds, getSelectionStart(), getSelectionEnd());
+        }
+    }
+
+    /**
+     * Paints the part of a selected range which intersects the painted bytes.
+     *
+     * @param g              the Graphics2D context in which to paint.
+     * @param area           the area in which the selection should be painted.
+     * @param clipRows       the rows which intersect the clip of the Graphics2D context.
+     * @param paintedBytes   the range of bytes displayed by the <code>clipRows</code>.
+     * @param elementsBounds the horizontal bounds of all elements of a row.
+     * @param start          the first selected byte.
+     * @param end            the last selected byte.
+     */
+    protected void paintSelectedRange(@NotNull final Graphics2D g, @NotNull final ByteArea area, @NotNull final RowRange clipRows,
+                                      @NotNull final ByteRange paintedBytes, @NotNull final HDimension elementsBounds,
+                                      final long start, final long end)
+    {
+        final ByteRange paintedSelection = paintedBytes.computeIntersection(start, end);
+        if (paintedSelection.isValid())
+        {
+            selectionPainterMap.get(area.getAreaId()).paintClipped(g, hexViewer, area, elementsBounds, clipRows,
+                    paintedSelection.getStart(), paintedSelection.getEnd(), start, end);
         }
     }
 
@@ -5,6 +5,7 @@ import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.*;
+import java.util.Optional;
 
 /**
  * A caret has a position referred to as a dot.
@@ -38,6 +39,32 @@ public interface ICaret
      */
     void paint(@NotNull Graphics2D g, @NotNull ByteArea area);
 
+    /**
+     * Renders the parts of the caret which are painted on top of the fully painted area, like the blinking caret.
+     * <p/>
+     * In contrast to {@link #paint(Graphics2D, ByteArea)}, which is called between the background and foreground of
+     * the area, the overlay can be repainted without re-rendering the content of the area below it.
+     *
+     * @param g    the Graphics2D context of the area in which the overlay should be painted.
+     * @param area the area in which the overlay should be painted.
+     */
+    default void paintOverlay(@NotNull Graphics2D g, @NotNull ByteArea area)
+    {
+    }
+
+    /**
+     * Returns the region of an area covered by the overlay of the caret, regardless of whether the overlay is
+     * currently visible.
+     *
+     * @param area the area.
+     * @return the region, or an empty optional if the caret doesn't paint an overlay.
+     */
+    @NotNull
+    default Optional<Rectangle> getOverlayBounds(@NotNull ByteArea area)
+    {
+        return Optional.empty();
+    }
+
     /**
      * Adds a listener for receiving notifications about caret movement.
      *
@@ -45,8 +72,26 @@ public interface ICaret
      */
     void addCaretListener(@NotNull ICaretListener listener);
 
+    /**
+     * Adds a listener which is notified at most once per frame about caret movement.
+     * <p/>
+     * Intended for expensive listeners, like status bars or statistics, which are only interested in the latest
+     * position. Several movements are coalesced into a single event, whose old values are the positions before the
+     * first and whose new values are the positions after the last movement. No event is sent if the caret returned
+     * to its old position. Listeners added by {@link #addCaretListener(ICaretListener)} stay synchronous.
+     * <p/>
+     * The default implementation adds the listener as synchronous listener.
+     *
+     * @param listener the listener instance to add.
+     */
+    default void addCoalescedCaretListener(@NotNull ICaretListener listener)
+    {
+        addCaretListener(listener);
+    }
+
     /**
      * Removes a listener for receiving notifications about caret movement.
+     * Removes synchronous and coalesced listeners.
      *
      * @param listener the listener instance to remove.
      */
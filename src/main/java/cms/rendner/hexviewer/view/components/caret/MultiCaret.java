@@ -0,0 +1,192 @@
+package cms.rendner.hexviewer.view.components.caret;
+
+import cms.rendner.hexviewer.common.geom.HDimension;
+import cms.rendner.hexviewer.common.ranges.ByteRange;
+import cms.rendner.hexviewer.common.ranges.ByteRangeSet;
+import cms.rendner.hexviewer.common.ranges.RowRange;
+import cms.rendner.hexviewer.view.JHexViewer;
+import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+import java.beans.PropertyChangeListener;
+import java.util.List;
+
+/**
+ * A caret which supports multiple selections.
+ * <p/>
+ * The dot and mark define the primary selection, which is modified by the keyboard and mouse like the selection of
+ * the {@link DefaultCaret}. Additional selections are stored in a sorted set of non-overlapping ranges, overlapping or
+ * adjacent selections are merged. The primary selection can be kept by adding it to the additional selections, see
+ * {@link #addCurrentSelection()}.
+ * <p/>
+ * Only the additional selections which intersect the painted rows are visited during painting. Changes of the
+ * additional selections damage only the bytes whose selection state changed.
+ *
+ * @author rendner
+ */
+public class MultiCaret extends DefaultCaret
+{
+    /**
+     * The additional selections.
+     */
+    @NotNull
+    private final ByteRangeSet selections = new ByteRangeSet();
+
+    /**
+     * Clears the additional selections if the data model changes.
+     */
+    @NotNull
+    private final PropertyChangeListener dataModelListener = event -> {
+        if (JHexViewer.PROPERTY_DATA_MODEL.equals(event.getPropertyName()))
+        {
+            selections.clear();
+        }
+    };
+
+    @Override
+    public void install(@NotNull final JHexViewer hexViewer)
+    {
+        super.install(hexViewer);
+        hexViewer.addPropertyChangeListener(JHexViewer.PROPERTY_DATA_MODEL, dataModelListener);
+    }
+
+    @Override
+    public void uninstall(@NotNull final JHexViewer hexViewer)
+    {
+        hexViewer.removePropertyChangeListener(JHexViewer.PROPERTY_DATA_MODEL, dataModelListener);
+        selections.clear();
+        super.uninstall(hexViewer);
+    }
+
+    /**
+     * Adds a selection.
+     * Only the bytes which weren't selected before are damaged.
+     *
+     * @param start the first byte to select &gt;= 0
+     * @param end   the last byte to select &gt;= start
+     */
+    public void addSelection(final long start, final long end)
+    {
+        final long from = Math.min(start, end);
+        final long to = Math.max(start, end);
+        selections.forEachGap(from, to, this::damageRange);
+        selections.add(from, to);
+    }
+
+    /**
+     * Adds the primary selection, between dot and mark, to the additional selections.
+     * Does nothing if the primary selection is empty.
+     */
+    public void addCurrentSelection()
+    {
+        if (hasSelection())
+        {
+            addSelection(getSelectionStart(), getSelectionEnd());
+        }
+    }
+
+    /**
+     * Removes a range of bytes from the additional selections.
+     * Only the bytes which were selected before are damaged.
+     *
+     * @param start the first byte to deselect &gt;= 0
+     * @param end   the last byte to deselect &gt;= start
+     */
+    public void removeSelection(final long start, final long end)
+    {
+        final long from = Math.min(start, end);
+        final long to = Math.max(start, end);
+        selections.forEachIntersecting(from, to, range -> damageRange(range.computeIntersection(from, to)));
+        selections.remove(from, to);
+    }
+
+    /**
+     * Removes all additional selections.
+     * Each selected range is damaged separately.
+     */
+    public void clearAdditionalSelections()
+    {
+        if (!selections.isEmpty())
+        {
+            selections.getRanges().forEach(this::damageRange);
+            selections.clear();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if at least one additional selection exists.
+     */
+    public boolean hasAdditionalSelections()
+    {
+        return !selections.isEmpty();
+    }
+
+    /**
+     * @return the additional selections, sorted and non-overlapping.
+     */
+    @NotNull
+    public List<ByteRange> getAdditionalSelections()
+    {
+        return selections.getRanges();
+    }
+
+    /**
+     * @return the union of the primary and the additional selections, sorted and non-overlapping.
+     */
+    @NotNull
+    public List<ByteRange> getAllSelections()
+    {
+        final ByteRangeSet result = new ByteRangeSet();
+        selections.getRanges().forEach(range -> result.add(range.getStart(), range.getEnd()));
+        if (hasSelection())
+        {
+            result.add(getSelectionStart(), getSelectionEnd());
+        }
+        return result.getRanges();
+    }
+
+    /**
+     * Checks if a byte is selected, either by the primary or an additional selection.
+     *
+     * @param offset the offset of the byte.
+     * @return <code>true</code> if the byte is selected.
+     */
+    public boolean isSelected(final long offset)
+    {
+        return selections.contains(offset)
+                || (hasSelection() && offset >= getSelectionStart() && offset <= getSelectionEnd());
+    }
+
+    @Override
+    public void paint(@NotNull final Graphics2D g, @NotNull final ByteArea area)
+    {
+        if (hasSelection() || !selections.isEmpty())
+        {
+            paintSelection(g, area);
+        }
+    }
+
+    @Override
+    protected void paintSelectedRanges(@NotNull final Graphics2D g, @NotNull final ByteArea area, @NotNull final RowRange clipRows,
+                                       @NotNull final ByteRange paintedBytes, @NotNull final HDimension elementsBounds)
+    {
+        selections.forEachIntersecting(paintedBytes.getStart(), paintedBytes.getEnd(), range ->
+                paintSelectedRange(g, area, clipRows, paintedBytes, elementsBounds, range.getStart(), range.getEnd()));
+        super.paintSelectedRanges(g, area, clipRows, paintedBytes, elementsBounds);
+    }
+
+    /**
+     * Damages a range of bytes.
+     * The IDamager bound to the associated {@link JHexViewer} is used to damage the areas.
+     *
+     * @param range the range to damage.
+     */
+    private void damageRange(@NotNull final ByteRange range)
+    {
+        if (hexViewer != null && range.isValid())
+        {
+            hexViewer.getDamager().ifPresent(damager -> damager.damageDecoratedBytes(range.getStart(), range.getEnd()));
+        }
+    }
+}
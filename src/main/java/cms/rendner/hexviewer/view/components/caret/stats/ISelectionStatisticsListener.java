@@ -0,0 +1,23 @@
+package cms.rendner.hexviewer.view.components.caret.stats;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EventListener;
+
+/**
+ * Listener for changes of the statistics of the selected bytes.
+ *
+ * @author rendner
+ */
+public interface ISelectionStatisticsListener extends EventListener
+{
+    /**
+     * Called on the event dispatch thread after the statistics of the selection have changed.
+     * <p/>
+     * Called once immediately after the selection has changed and again when pending values were computed in the
+     * background.
+     *
+     * @param summary the statistics of the current selection.
+     */
+    void statisticsChanged(@NotNull SelectionSummary summary);
+}
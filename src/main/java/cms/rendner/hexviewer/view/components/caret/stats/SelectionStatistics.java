@@ -0,0 +1,698 @@
+package cms.rendner.hexviewer.view.components.caret.stats;
+
+import cms.rendner.hexviewer.common.data.visitor.IByteVisitor;
+import cms.rendner.hexviewer.common.data.walker.ByteWalker;
+import cms.rendner.hexviewer.common.utils.ByteSizeConstants;
+import cms.rendner.hexviewer.common.utils.CheckUtils;
+import cms.rendner.hexviewer.model.data.IDataModel;
+import cms.rendner.hexviewer.view.JHexViewer;
+import cms.rendner.hexviewer.view.components.caret.CaretEvent;
+import cms.rendner.hexviewer.view.components.caret.ICaret;
+import cms.rendner.hexviewer.view.components.caret.ICaretListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.beans.PropertyChangeListener;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains statistics of the bytes selected by the caret of a {@link JHexViewer}.
+ * <p/>
+ * Additive statistics (count, sum and the byte histogram, from which all other values of a {@link SelectionSummary}
+ * are derived) are updated incrementally while the dot or mark moves: only the bytes which were added to or removed
+ * from the selection are read. If the selection changes by more than {@link #getMaxSynchronousBytes()} bytes, the
+ * histogram is recomputed in the background instead, to keep the event dispatch thread responsive. The caret is
+ * observed by a {@link ICaret#addCoalescedCaretListener(ICaretListener) coalesced} listener, so rapid movements are
+ * processed at most once per frame.
+ * <p/>
+ * The SHA-256 digest can't be updated incrementally. It is computed in the background after the selection didn't
+ * change for {@link #getDigestDelay()} milliseconds, a running computation is abandoned as soon as the selection
+ * changes again.
+ * <p/>
+ * All methods have to be called on the event dispatch thread, listeners are notified on the event dispatch thread.
+ *
+ * @author rendner
+ */
+public final class SelectionStatistics
+{
+    /**
+     * The default value of {@link #getMaxSynchronousBytes()}.
+     */
+    public static final int DEFAULT_MAX_SYNCHRONOUS_BYTES = ByteSizeConstants.ONE_MB;
+
+    /**
+     * The default value of {@link #getDigestDelay()}.
+     */
+    public static final int DEFAULT_DIGEST_DELAY = 300;
+
+    /**
+     * The number of bytes used for the numeric interpretations.
+     */
+    private static final int HEAD_SIZE = 8;
+
+    /**
+     * Computes the pending statistics.
+     */
+    @NotNull
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "SelectionStatistics-Worker");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * Contains the registered listeners.
+     */
+    @NotNull
+    private final List<ISelectionStatisticsListener> listeners = new ArrayList<>();
+
+    /**
+     * The number of occurrences of each byte value in the current selection.
+     * Only valid if {@link #histogramValid} is set.
+     */
+    @NotNull
+    private final long[] histogram = new long[256];
+
+    /**
+     * Identifies the current selection, incremented on every change. Used by background computations to detect
+     * that their result is outdated.
+     */
+    @NotNull
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Starts the computation of the pending values after the selection didn't change for a while.
+     */
+    @NotNull
+    private final Timer digestTimer;
+
+    /**
+     * Updates the statistics if the caret was moved.
+     */
+    @NotNull
+    private final ICaretListener caretListener;
+
+    /**
+     * Resets the statistics if the data model or the caret of the hex viewer changes.
+     */
+    @NotNull
+    private final PropertyChangeListener hexViewerListener;
+
+    /**
+     * The hex viewer to which the instance is installed.
+     */
+    @Nullable
+    private JHexViewer hexViewer;
+
+    /**
+     * Indicates if {@link #histogram} matches the current selection.
+     */
+    private boolean histogramValid = true;
+
+    /**
+     * The first selected byte, <code>-1</code> if nothing is selected.
+     */
+    private long start = -1;
+
+    /**
+     * The last selected byte, <code>-1</code> if nothing is selected.
+     */
+    private long end = -1;
+
+    /**
+     * The first (up to eight) selected bytes.
+     */
+    @NotNull
+    private byte[] head = new byte[0];
+
+    /**
+     * The SHA-256 digest of the current selection, <code>null</code> if pending.
+     */
+    @Nullable
+    private byte[] sha256;
+
+    /**
+     * Indicates if the computation of the pending values failed.
+     */
+    private boolean failed;
+
+    /**
+     * The statistics of the current selection.
+     */
+    @NotNull
+    private SelectionSummary summary = SelectionSummary.EMPTY;
+
+    /**
+     * The maximal number of changed bytes which are processed synchronously.
+     */
+    private int maxSynchronousBytes = DEFAULT_MAX_SYNCHRONOUS_BYTES;
+
+    /**
+     * Creates a new instance.
+     */
+    public SelectionStatistics()
+    {
+        super();
+
+        digestTimer = new Timer(DEFAULT_DIGEST_DELAY, event -> computePendingValues());
+        digestTimer.setRepeats(false);
+
+        caretListener = this::caretPositionChanged;
+
+        hexViewerListener = event -> {
+            if (JHexViewer.PROPERTY_CARET.equals(event.getPropertyName()))
+            {
+                if (event.getOldValue() != null)
+                {
+                    ((ICaret) event.getOldValue()).removeCaretListener(caretListener);
+                }
+                if (event.getNewValue() != null)
+                {
+                    ((ICaret) event.getNewValue()).addCoalescedCaretListener(caretListener);
+                }
+                reset();
+            }
+            else if (JHexViewer.PROPERTY_DATA_MODEL.equals(event.getPropertyName()))
+            {
+                reset();
+            }
+        };
+    }
+
+    /**
+     * Starts to observe the caret of a hex viewer.
+     *
+     * @param hexViewer the hex viewer whose selection should be observed.
+     */
+    public void install(@NotNull final JHexViewer hexViewer)
+    {
+        this.hexViewer = hexViewer;
+        hexViewer.addPropertyChangeListener(hexViewerListener);
+        hexViewer.getCaret().ifPresent(caret -> caret.addCoalescedCaretListener(caretListener));
+        reset();
+    }
+
+    /**
+     * Stops to observe the caret of a hex viewer.
+     *
+     * @param hexViewer the hex viewer to which the instance was installed.
+     */
+    public void uninstall(@NotNull final JHexViewer hexViewer)
+    {
+        hexViewer.removePropertyChangeListener(hexViewerListener);
+        hexViewer.getCaret().ifPresent(caret -> caret.removeCaretListener(caretListener));
+        this.hexViewer = null;
+        clear();
+    }
+
+    /**
+     * @return the statistics of the current selection.
+     */
+    @NotNull
+    public SelectionSummary getSummary()
+    {
+        return summary;
+    }
+
+    /**
+     * Adds a listener.
+     *
+     * @param listener the listener to add.
+     */
+    public void addStatisticsListener(@NotNull final ISelectionStatisticsListener listener)
+    {
+        if (!listeners.contains(listener))
+        {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeStatisticsListener(@NotNull final ISelectionStatisticsListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the maximal number of changed bytes which are processed on the event dispatch thread.
+     */
+    public int getMaxSynchronousBytes()
+    {
+        return maxSynchronousBytes;
+    }
+
+    /**
+     * Sets the maximal number of changed bytes which are processed on the event dispatch thread.
+     * If more bytes are added to or removed from the selection, the histogram is recomputed in the background.
+     *
+     * @param maxSynchronousBytes the number of bytes, &gt;= 0.
+     */
+    public void setMaxSynchronousBytes(final int maxSynchronousBytes)
+    {
+        CheckUtils.checkMinValue(maxSynchronousBytes, 0);
+        this.maxSynchronousBytes = maxSynchronousBytes;
+    }
+
+    /**
+     * @return the time in milliseconds the selection has to be unchanged before the pending values are computed.
+     */
+    public int getDigestDelay()
+    {
+        return digestTimer.getInitialDelay();
+    }
+
+    /**
+     * Sets the time the selection has to be unchanged before the pending values are computed.
+     *
+     * @param delay the delay in milliseconds, &gt;= 0.
+     */
+    public void setDigestDelay(final int delay)
+    {
+        CheckUtils.checkMinValue(delay, 0);
+        digestTimer.setInitialDelay(delay);
+    }
+
+    /**
+     * Updates the statistics after the caret was moved.
+     *
+     * @param event the event containing information about the change.
+     */
+    private void caretPositionChanged(@NotNull final CaretEvent event)
+    {
+        final long newDot = event.getNewDot();
+        final long newMark = event.getNewMark();
+        if (newDot == newMark)
+        {
+            selectionChanged(-1, -1);
+        }
+        else
+        {
+            selectionChanged(Math.min(newDot, newMark), Math.max(newDot, newMark) - 1);
+        }
+    }
+
+    /**
+     * Discards all values and computes the statistics for the current selection of the caret.
+     */
+    private void reset()
+    {
+        clear();
+        if (hexViewer != null)
+        {
+            hexViewer.getCaret().filter(ICaret::hasSelection).ifPresent(caret ->
+                    selectionChanged(caret.getSelectionStart(), caret.getSelectionEnd()));
+        }
+    }
+
+    /**
+     * Discards all values.
+     */
+    private void clear()
+    {
+        generation.incrementAndGet();
+        digestTimer.stop();
+        Arrays.fill(histogram, 0);
+        histogramValid = true;
+        start = -1;
+        end = -1;
+        head = new byte[0];
+        sha256 = null;
+        failed = false;
+        publish(SelectionSummary.EMPTY);
+    }
+
+    /**
+     * Updates the statistics for a new selection.
+     *
+     * @param newStart the first selected byte, <code>-1</code> if nothing is selected.
+     * @param newEnd   the last selected byte, <code>-1</code> if nothing is selected.
+     */
+    private void selectionChanged(final long newStart, final long newEnd)
+    {
+        if (newStart == start && newEnd == end)
+        {
+            return;
+        }
+
+        final IDataModel dataModel = hexViewer == null ? null : hexViewer.getDataModel().orElse(null);
+        if (dataModel == null || newStart < 0 || newEnd < newStart)
+        {
+            clear();
+            return;
+        }
+
+        generation.incrementAndGet();
+        sha256 = null;
+        failed = false;
+
+        try
+        {
+            updateHistogram(dataModel, newStart, newEnd);
+            head = readHead(dataModel, newStart, newEnd);
+        }
+        catch (final RuntimeException e)
+        {
+            // the data model can't be read anymore
+            histogramValid = false;
+            failed = true;
+        }
+
+        start = newStart;
+        end = newEnd;
+        publishCurrent();
+
+        if (!failed)
+        {
+            digestTimer.restart();
+        }
+    }
+
+    /**
+     * Updates the histogram by reading only the bytes which were added to or removed from the selection.
+     * Marks the histogram as invalid if too many bytes would have to be read.
+     *
+     * @param dataModel the data model to read from.
+     * @param newStart  the first selected byte.
+     * @param newEnd    the last selected byte.
+     */
+    private void updateHistogram(@NotNull final IDataModel dataModel, final long newStart, final long newEnd)
+    {
+        final long newLength = newEnd - newStart + 1;
+        final boolean overlaps = histogramValid && start >= 0 && newStart <= end && newEnd >= start;
+        final long changedBytes = overlaps ? Math.abs(newStart - start) + Math.abs(newEnd - end) : Long.MAX_VALUE;
+
+        if (overlaps && changedBytes <= Math.min(newLength, maxSynchronousBytes))
+        {
+            final ByteWalker walker = new ByteWalker(dataModel);
+            if (newStart < start)
+            {
+                walker.walk(new HistogramVisitor(histogram, 1), newStart, start - 1);
+            }
+            else if (newStart > start)
+            {
+                walker.walk(new HistogramVisitor(histogram, -1), start, newStart - 1);
+            }
+            if (newEnd > end)
+            {
+                walker.walk(new HistogramVisitor(histogram, 1), end + 1, newEnd);
+            }
+            else if (newEnd < end)
+            {
+                walker.walk(new HistogramVisitor(histogram, -1), newEnd + 1, end);
+            }
+            histogramValid = true;
+        }
+        else if (newLength <= maxSynchronousBytes)
+        {
+            Arrays.fill(histogram, 0);
+            new ByteWalker(dataModel).walk(new HistogramVisitor(histogram, 1), newStart, newEnd);
+            histogramValid = true;
+        }
+        else
+        {
+            histogramValid = false;
+        }
+    }
+
+    /**
+     * Reads the first bytes of the selection.
+     *
+     * @param dataModel the data model to read from.
+     * @param from      the first selected byte.
+     * @param to        the last selected byte.
+     * @return the first (up to eight) selected bytes.
+     */
+    @NotNull
+    private static byte[] readHead(@NotNull final IDataModel dataModel, final long from, final long to)
+    {
+        final byte[] result = new byte[(int) Math.min(HEAD_SIZE, to - from + 1)];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = (byte) dataModel.getByte(from + i);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the SHA-256 digest, and the histogram if it is invalid, of the current selection in the background.
+     */
+    private void computePendingValues()
+    {
+        final IDataModel dataModel = hexViewer == null ? null : hexViewer.getDataModel().orElse(null);
+        if (dataModel == null || start < 0)
+        {
+            return;
+        }
+
+        final long expectedGeneration = generation.get();
+        final long from = start;
+        final long to = end;
+        final long[] pendingHistogram = histogramValid ? null : new long[256];
+
+        WORKER.execute(() -> {
+            final MessageDigest digest = createDigest();
+            boolean readFailed = false;
+            try
+            {
+                new ByteWalker(dataModel).walk(new PendingValuesVisitor(expectedGeneration, digest, pendingHistogram), from, to);
+            }
+            catch (final CancelledException e)
+            {
+                return;
+            }
+            catch (final RuntimeException e)
+            {
+                // the data model can't be read anymore
+                readFailed = true;
+            }
+
+            final byte[] result = readFailed ? null : digest.digest();
+            final boolean failedResult = readFailed;
+            SwingUtilities.invokeLater(() -> {
+                if (generation.get() == expectedGeneration)
+                {
+                    if (failedResult)
+                    {
+                        failed = true;
+                    }
+                    else
+                    {
+                        sha256 = result;
+                        if (pendingHistogram != null)
+                        {
+                            System.arraycopy(pendingHistogram, 0, histogram, 0, histogram.length);
+                            histogramValid = true;
+                        }
+                    }
+                    publishCurrent();
+                }
+            });
+        });
+    }
+
+    /**
+     * Creates a snapshot of the current values and notifies the listeners.
+     */
+    private void publishCurrent()
+    {
+        publish(new SelectionSummary(
+                start,
+                end,
+                histogramValid ? histogram.clone() : null,
+                head,
+                sha256,
+                failed
+        ));
+    }
+
+    /**
+     * Stores a snapshot and notifies the listeners.
+     *
+     * @param newSummary the new snapshot.
+     */
+    private void publish(@NotNull final SelectionSummary newSummary)
+    {
+        summary = newSummary;
+        for (int i = listeners.size() - 1; i >= 0; i--)
+        {
+            listeners.get(i).statisticsChanged(newSummary);
+        }
+    }
+
+    /**
+     * @return a new SHA-256 digest.
+     */
+    @NotNull
+    private static MessageDigest createDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (final NoSuchAlgorithmException e)
+        {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds or subtracts the occurrences of each byte value to a histogram.
+     */
+    private static final class HistogramVisitor implements IByteVisitor
+    {
+        /**
+         * The histogram to update.
+         */
+        @NotNull
+        private final long[] counts;
+
+        /**
+         * <code>1</code> to add the visited bytes, <code>-1</code> to subtract them.
+         */
+        private final int sign;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param counts the histogram to update.
+         * @param sign   <code>1</code> to add the visited bytes, <code>-1</code> to subtract them.
+         */
+        HistogramVisitor(@NotNull final long[] counts, final int sign)
+        {
+            super();
+            this.counts = counts;
+            this.sign = sign;
+        }
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void visitByte(final int value)
+        {
+            counts[value & 0xFF] += sign;
+        }
+
+        @Override
+        public void visitBytes(@NotNull final ByteBuffer buffer)
+        {
+            while (buffer.hasRemaining())
+            {
+                counts[buffer.get() & 0xFF] += sign;
+            }
+        }
+
+        @Override
+        public void end()
+        {
+        }
+    }
+
+    /**
+     * Feeds the visited bytes into a digest and optionally into a histogram.
+     * Stops by throwing a {@link CancelledException} if the selection was changed.
+     */
+    private final class PendingValuesVisitor implements IByteVisitor
+    {
+        /**
+         * The generation of the selection for which the values are computed.
+         */
+        private final long expectedGeneration;
+
+        /**
+         * The digest to update.
+         */
+        @NotNull
+        private final MessageDigest digest;
+
+        /**
+         * The histogram to update, <code>null</code> if not required.
+         */
+        @Nullable
+        private final long[] counts;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param expectedGeneration the generation of the selection for which the values are computed.
+         * @param digest             the digest to update.
+         * @param counts             the histogram to update, <code>null</code> if not required.
+         */
+        PendingValuesVisitor(final long expectedGeneration, @NotNull final MessageDigest digest, @Nullable final long[] counts)
+        {
+            super();
+            this.expectedGeneration = expectedGeneration;
+            this.digest = digest;
+            this.counts = counts;
+        }
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void visitByte(final int value)
+        {
+            digest.update((byte) value);
+            if (counts != null)
+            {
+                counts[value & 0xFF]++;
+            }
+        }
+
+        @Override
+        public void visitBytes(@NotNull final ByteBuffer buffer)
+        {
+            if (generation.get() != expectedGeneration)
+            {
+                throw new CancelledException();
+            }
+            if (counts != null)
+            {
+                final ByteBuffer copy = buffer.duplicate();
+                while (copy.hasRemaining())
+                {
+                    counts[copy.get() & 0xFF]++;
+                }
+            }
+            digest.update(buffer);
+        }
+
+        @Override
+        public void end()
+        {
+        }
+    }
+
+    /**
+     * Thrown to stop an outdated background computation.
+     */
+    private static final class CancelledException extends RuntimeException
+    {
+        /**
+         * Creates a new instance without a stack trace.
+         */
+        CancelledException()
+        {
+            super(null, null, false, false);
+        }
+    }
+}
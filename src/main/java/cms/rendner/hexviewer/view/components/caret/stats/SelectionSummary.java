@@ -0,0 +1,341 @@
+package cms.rendner.hexviewer.view.components.caret.stats;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+/**
+ * Immutable snapshot of the statistics of the selected bytes.
+ * <p/>
+ * The byte histogram, and all values derived from it, can be pending if the selection changed by too many bytes to
+ * update the histogram synchronously. The SHA-256 digest is always computed in the background. Pending values are
+ * delivered with a later snapshot, see {@link ISelectionStatisticsListener}.
+ *
+ * @author rendner
+ */
+public final class SelectionSummary
+{
+    /**
+     * Snapshot for an empty selection.
+     */
+    @NotNull
+    static final SelectionSummary EMPTY = new SelectionSummary(-1, -1, new long[256], new byte[0], null, false);
+
+    /**
+     * The first selected byte, <code>-1</code> if nothing is selected.
+     */
+    private final long start;
+
+    /**
+     * The last selected byte, <code>-1</code> if nothing is selected.
+     */
+    private final long end;
+
+    /**
+     * The number of occurrences of each byte value, <code>null</code> if pending.
+     */
+    @Nullable
+    private final long[] histogram;
+
+    /**
+     * The first (up to eight) selected bytes, used for the numeric interpretations.
+     */
+    @NotNull
+    private final byte[] head;
+
+    /**
+     * The SHA-256 digest of the selected bytes, <code>null</code> if pending or nothing is selected.
+     */
+    @Nullable
+    private final byte[] sha256;
+
+    /**
+     * Indicates if the computation of a pending value failed.
+     */
+    private final boolean failed;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param start     the first selected byte, <code>-1</code> if nothing is selected.
+     * @param end       the last selected byte, <code>-1</code> if nothing is selected.
+     * @param histogram the number of occurrences of each byte value, <code>null</code> if pending. Not copied.
+     * @param head      the first (up to eight) selected bytes. Not copied.
+     * @param sha256    the SHA-256 digest of the selected bytes, <code>null</code> if pending. Not copied.
+     * @param failed    <code>true</code> if the computation of a pending value failed.
+     */
+    SelectionSummary(final long start,
+                     final long end,
+                     @Nullable final long[] histogram,
+                     @NotNull final byte[] head,
+                     @Nullable final byte[] sha256,
+                     final boolean failed)
+    {
+        super();
+        this.start = start;
+        this.end = end;
+        this.histogram = histogram;
+        this.head = head;
+        this.sha256 = sha256;
+        this.failed = failed;
+    }
+
+    /**
+     * @return <code>true</code> if no byte is selected.
+     */
+    public boolean isEmpty()
+    {
+        return end < start || start < 0;
+    }
+
+    /**
+     * @return the first selected byte, <code>-1</code> if nothing is selected.
+     */
+    public long getStart()
+    {
+        return start;
+    }
+
+    /**
+     * @return the last selected byte, <code>-1</code> if nothing is selected.
+     */
+    public long getEnd()
+    {
+        return end;
+    }
+
+    /**
+     * @return the number of selected bytes.
+     */
+    public long getLength()
+    {
+        return isEmpty() ? 0 : end - start + 1;
+    }
+
+    /**
+     * @return <code>true</code> if the histogram and the values derived from it are not yet computed.
+     */
+    public boolean isHistogramPending()
+    {
+        return histogram == null && !failed;
+    }
+
+    /**
+     * @return <code>true</code> if the SHA-256 digest is not yet computed.
+     */
+    public boolean isSha256Pending()
+    {
+        return sha256 == null && !failed && !isEmpty();
+    }
+
+    /**
+     * @return <code>true</code> if the selected bytes couldn't be read to compute the pending values.
+     */
+    public boolean isFailed()
+    {
+        return failed;
+    }
+
+    /**
+     * Returns how often a byte value occurs in the selection.
+     *
+     * @param value the byte value, in the range [0, 255].
+     * @return the number of occurrences, or an empty optional if the histogram is pending.
+     */
+    @NotNull
+    public OptionalLong getCount(final int value)
+    {
+        return histogram == null ? OptionalLong.empty() : OptionalLong.of(histogram[value & 0xFF]);
+    }
+
+    /**
+     * @return a copy of the histogram of the selected bytes (indexed by the unsigned byte value), or an empty optional
+     * if the histogram is pending.
+     */
+    @NotNull
+    public Optional<long[]> getHistogram()
+    {
+        return histogram == null ? Optional.empty() : Optional.of(histogram.clone());
+    }
+
+    /**
+     * @return the sum of the unsigned values of the selected bytes, or an empty optional if the histogram is pending.
+     */
+    @NotNull
+    public OptionalLong getSum()
+    {
+        if (histogram == null)
+        {
+            return OptionalLong.empty();
+        }
+        long sum = 0;
+        for (int value = 1; value < histogram.length; value++)
+        {
+            sum += value * histogram[value];
+        }
+        return OptionalLong.of(sum);
+    }
+
+    /**
+     * @return the 8-bit checksum (sum modulo 256) of the selected bytes, or an empty optional if the histogram is pending.
+     */
+    @NotNull
+    public OptionalLong getChecksum8()
+    {
+        final OptionalLong sum = getSum();
+        return sum.isPresent() ? OptionalLong.of(sum.getAsLong() & 0xFF) : sum;
+    }
+
+    /**
+     * @return the smallest unsigned value of the selected bytes, or an empty optional if nothing is selected or the
+     * histogram is pending.
+     */
+    @NotNull
+    public OptionalLong getMinValue()
+    {
+        if (histogram != null)
+        {
+            for (int value = 0; value < histogram.length; value++)
+            {
+                if (histogram[value] > 0)
+                {
+                    return OptionalLong.of(value);
+                }
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * @return the largest unsigned value of the selected bytes, or an empty optional if nothing is selected or the
+     * histogram is pending.
+     */
+    @NotNull
+    public OptionalLong getMaxValue()
+    {
+        if (histogram != null)
+        {
+            for (int value = histogram.length - 1; value >= 0; value--)
+            {
+                if (histogram[value] > 0)
+                {
+                    return OptionalLong.of(value);
+                }
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * @return the Shannon entropy of the selected bytes divided by 8 bits, in the range [0, 1], or an empty optional if
+     * nothing is selected or the histogram is pending.
+     */
+    @NotNull
+    public OptionalDouble getEntropy()
+    {
+        final long total = getLength();
+        if (histogram == null || total == 0)
+        {
+            return OptionalDouble.empty();
+        }
+        double entropy = 0;
+        for (final long count : histogram)
+        {
+            if (count > 0)
+            {
+                final double probability = (double) count / total;
+                entropy -= probability * Math.log(probability);
+            }
+        }
+        return OptionalDouble.of(entropy / Math.log(2) / 8);
+    }
+
+    /**
+     * @return a copy of the SHA-256 digest of the selected bytes, or an empty optional if nothing is selected or the
+     * digest is pending.
+     */
+    @NotNull
+    public Optional<byte[]> getSha256()
+    {
+        return sha256 == null ? Optional.empty() : Optional.of(sha256.clone());
+    }
+
+    /**
+     * Interprets the first selected bytes as a signed integer.
+     *
+     * @param byteCount the number of bytes, one of 1, 2, 4 or 8.
+     * @param order     the byte order.
+     * @return the value, or an empty optional if less bytes are selected.
+     */
+    @NotNull
+    public OptionalLong getSignedInt(final int byteCount, @NotNull final ByteOrder order)
+    {
+        if (head.length < byteCount)
+        {
+            return OptionalLong.empty();
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(head).order(order);
+        switch (byteCount)
+        {
+            case 1:
+                return OptionalLong.of(buffer.get());
+            case 2:
+                return OptionalLong.of(buffer.getShort());
+            case 4:
+                return OptionalLong.of(buffer.getInt());
+            case 8:
+                return OptionalLong.of(buffer.getLong());
+            default:
+                throw new IllegalArgumentException("Unsupported byte count: " + byteCount);
+        }
+    }
+
+    /**
+     * Interprets the first selected bytes as an unsigned integer.
+     *
+     * @param byteCount the number of bytes, one of 1, 2 or 4.
+     * @param order     the byte order.
+     * @return the value, or an empty optional if less bytes are selected.
+     */
+    @NotNull
+    public OptionalLong getUnsignedInt(final int byteCount, @NotNull final ByteOrder order)
+    {
+        if (byteCount == 8)
+        {
+            throw new IllegalArgumentException("Unsigned 64 bit values don't fit into a long.");
+        }
+        final OptionalLong signed = getSignedInt(byteCount, order);
+        return signed.isPresent()
+                ? OptionalLong.of(signed.getAsLong() & ((1L << (byteCount * 8)) - 1))
+                : signed;
+    }
+
+    /**
+     * Interprets the first four selected bytes as a float.
+     *
+     * @param order the byte order.
+     * @return the value, or an empty optional if less bytes are selected.
+     */
+    @NotNull
+    public OptionalDouble getFloat32(@NotNull final ByteOrder order)
+    {
+        return head.length < 4 ? OptionalDouble.empty() : OptionalDouble.of(ByteBuffer.wrap(head).order(order).getFloat());
+    }
+
+    /**
+     * Interprets the first eight selected bytes as a double.
+     *
+     * @param order the byte order.
+     * @return the value, or an empty optional if less bytes are selected.
+     */
+    @NotNull
+    public OptionalDouble getFloat64(@NotNull final ByteOrder order)
+    {
+        return head.length < 8 ? OptionalDouble.empty() : OptionalDouble.of(ByteBuffer.wrap(head).order(order).getDouble());
+    }
+}
@@ -47,22 +47,19 @@ public class DefaultDamager implements IDamager
     @Override
     public void damageByte(final long byteIndex)
     {
-        areas.forEach(area -> damage(area, area.getByteRect(byteIndex)));
+        areas.forEach(area -> damage(area, area.getByteRect(byteIndex), true));
     }
 
     @Override
     public void damageBytes(final long byteStartIndex, final long byteEndIndex)
     {
-        final int startRowIndex = hexViewer.byteIndexToRowIndex(byteStartIndex);
-        final int endRowIndex = hexViewer.byteIndexToRowIndex(byteEndIndex);
-        if (startRowIndex == endRowIndex)
-        {
-            areas.forEach(area -> damage(area, area.getRowRect(startRowIndex)));
-        }
-        else
-        {
-            areas.forEach(area -> damage(area, area.getRowRect(startRowIndex).union(area.getRowRect(endRowIndex))));
-        }
+        damageBytes(byteStartIndex, byteEndIndex, true);
+    }
+
+    @Override
+    public void damageDecoratedBytes(final long byteStartIndex, final long byteEndIndex)
+    {
+        damageBytes(byteStartIndex, byteEndIndex, false);
     }
 
     @Override
@@ -89,7 +86,7 @@ public class DefaultDamager implements IDamager
                 end++;
             }
 
-            damageBytes(start, end);
+            damageDecoratedBytes(start, end);
         }
         else if (oldEnd == newEnd)
         {
@@ -106,14 +103,14 @@ public class DefaultDamager implements IDamager
                 start--;
             }
 
-            damageBytes(start, end);
+            damageDecoratedBytes(start, end);
         }
         else
         {
             // maybe start and end was modified or we have no intersection -> create an union
             final long start = Math.min(oldStart, newStart);
             final long end = Math.max(oldEnd, newEnd);
-            damageBytes(start, end);
+            damageDecoratedBytes(start, end);
         }
     }
 
@@ -141,19 +138,50 @@ public class DefaultDamager implements IDamager
      */
     private void damageCaret(final long caretIndex)
     {
-        areas.forEach(area -> damage(area, area.getCaretRect(caretIndex)));
+        areas.forEach(area -> damage(area, area.getCaretRect(caretIndex), false));
+    }
+
+    /**
+     * Damages the rows of a range of bytes.
+     *
+     * @param byteStartIndex the start of the byte range which should be damaged.
+     * @param byteEndIndex   the end of the byte range which should be damaged.
+     * @param contentChanged <code>true</code> if the content of the bytes has changed.
+     */
+    private void damageBytes(final long byteStartIndex, final long byteEndIndex, final boolean contentChanged)
+    {
+        final int startRowIndex = hexViewer.byteIndexToRowIndex(byteStartIndex);
+        final int endRowIndex = hexViewer.byteIndexToRowIndex(byteEndIndex);
+        if (startRowIndex == endRowIndex)
+        {
+            areas.forEach(area -> damage(area, area.getRowRect(startRowIndex), contentChanged));
+        }
+        else
+        {
+            areas.forEach(area -> damage(area, area.getRowRect(startRowIndex).union(area.getRowRect(endRowIndex)), contentChanged));
+        }
     }
 
     /**
      * Damages a region of the area.
      *
-     * @param dirtyRegion the region which should be damaged.
+     * @param dirtyRegion    the region which should be damaged.
+     * @param contentChanged <code>true</code> if the content of the region has changed, <code>false</code> if only
+     *                       the caret, the selection or highlights, which are painted in the middleground, changed.
      */
-    private void damage(@NotNull final ByteArea area, @NotNull final Rectangle dirtyRegion)
+    private void damage(@NotNull final ByteArea area, @NotNull final Rectangle dirtyRegion, final boolean contentChanged)
     {
         if (!dirtyRegion.isEmpty())
         {
-            area.repaint(dirtyRegion);
+            if (contentChanged)
+            {
+                area.repaint(dirtyRegion);
+            }
+            else
+            {
+                // cached rows stay valid
+                area.repaintMiddleground(dirtyRegion);
+            }
         }
     }
 }
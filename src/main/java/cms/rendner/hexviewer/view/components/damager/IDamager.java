@@ -45,6 +45,8 @@ public interface IDamager
 
     /**
      * Damages a byte of the area.
+     * <p/>
+     * Has to be called if the content of the byte has changed, cached rendered content of the byte is discarded.
      *
      * @param byteIndex the index of the byte which should be damaged.
      */
@@ -52,12 +54,28 @@ public interface IDamager
 
     /**
      * Damages a range of bytes of the area.
+     * <p/>
+     * Has to be called if the content of the bytes has changed, cached rendered content of the bytes is discarded.
      *
      * @param byteStartIndex the start of the byte range which should be damaged.
      * @param byteEndIndex   the end of the byte range which should be damaged.
      */
     void damageBytes(long byteStartIndex, long byteEndIndex);
 
+    /**
+     * Damages a range of bytes whose decoration, like a highlight or the selection, has changed.
+     * <p/>
+     * The content of the bytes is unchanged, therefore cached rendered content of the bytes can be kept.
+     * The default implementation calls {@link #damageBytes(long, long)}.
+     *
+     * @param byteStartIndex the start of the byte range which should be damaged.
+     * @param byteEndIndex   the end of the byte range which should be damaged.
+     */
+    default void damageDecoratedBytes(final long byteStartIndex, final long byteEndIndex)
+    {
+        damageBytes(byteStartIndex, byteEndIndex);
+    }
+
     /**
      * Damages the whole region of the area.
      */
@@ -3,27 +3,56 @@ package cms.rendner.hexviewer.view.components.highlighter;
 import cms.rendner.hexviewer.view.JHexViewer;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Abstract implementation of a highlighter.
+ * <p/>
+ * The highlights are organized in {@link HighlightLayer layers}. The highlighter always has a default layer which
+ * contains all highlights added via the methods of the {@link IHighlighter} interface.
  *
  * @author rendner
  */
 public abstract class AbstractHighlighter implements IHighlighter
 {
     /**
-     * List of highlights created by this highlighter instance.
+     * List of the highlights of the default layer, excluding the ones of its compact storage.
+     *
+     * @deprecated the highlights are organized in layers, use {@link #getDefaultLayer()} instead. The list is used as
+     * storage of the default layer and therefore still reflects the highlights added via the methods of the
+     * {@link IHighlighter} interface.
+     */
+    @Deprecated
+    @NotNull
+    protected final List<IHighlight> highlights = new ArrayList<>();
+
+    /**
+     * The layers of this highlighter instance, sorted by ascending z-order.
      */
     @NotNull
-    protected List<IHighlight> highlights = new ArrayList<>();
+    protected final List<HighlightLayer> layers = new ArrayList<>();
+
+    /**
+     * The layer to which the highlights are added which are created via the methods of the {@link IHighlighter} interface.
+     */
+    @NotNull
+    protected final HighlightLayer defaultLayer = new HighlightLayer(this, DEFAULT_LAYER_NAME, 0, highlights);
 
     /**
      * The component to which this highlighter belongs.
      */
     protected JHexViewer hexViewer;
 
+    /**
+     * Creates a new instance.
+     */
+    protected AbstractHighlighter()
+    {
+        super();
+        layers.add(defaultLayer);
+    }
+
     @Override
     public void install(@NotNull final JHexViewer hexViewer)
     {
@@ -37,47 +66,190 @@ public abstract class AbstractHighlighter implements IHighlighter
         this.hexViewer = null;
     }
 
+    @NotNull
+    @Override
+    public HighlightLayer createLayer(@NotNull final String name, final int zOrder)
+    {
+        if (getLayer(name).isPresent())
+        {
+            throw new IllegalArgumentException("A layer with the name '" + name + "' already exists.");
+        }
+
+        final HighlightLayer layer = new HighlightLayer(this, name, zOrder);
+        layers.add(layer);
+        layerOrderChanged();
+        return layer;
+    }
+
+    @NotNull
+    @Override
+    public Optional<IHighlightLayer> getLayer(@NotNull final String name)
+    {
+        for (final HighlightLayer layer : layers)
+        {
+            if (layer.getName().equals(name))
+            {
+                return Optional.of(layer);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @NotNull
+    @Override
+    public HighlightLayer getDefaultLayer()
+    {
+        return defaultLayer;
+    }
+
+    @NotNull
+    @Override
+    public List<IHighlightLayer> getLayers()
+    {
+        return new ArrayList<>(layers);
+    }
+
+    @Override
+    public void removeLayer(@NotNull final IHighlightLayer layer)
+    {
+        if (layer == defaultLayer)
+        {
+            throw new IllegalArgumentException("The default layer can't be removed.");
+        }
+
+        if (layers.remove(layer))
+        {
+            layer.clear();
+        }
+    }
+
     @Override
     public void removeHighlight(@NotNull final IHighlight highlight)
     {
-        highlights.remove(highlight);
-        damageBytes(highlight.getStartOffset(), highlight.getEndOffset());
+        if (highlight instanceof HighlightInfo)
+        {
+            ((HighlightInfo) highlight).layer.removeHighlight(highlight);
+        }
+        else if (highlight instanceof CompactHighlightStore.CompactHighlight)
+        {
+            ((CompactHighlightStore.CompactHighlight) highlight).store.getLayer().removeHighlight(highlight);
+        }
     }
 
     @Override
     public void removeHighlights(@NotNull final List<IHighlight> highlightsToRemove)
     {
-        highlightsToRemove.forEach(this::removeHighlight);
+        if (highlightsToRemove.isEmpty())
+        {
+            return;
+        }
+
+        // views of the compact storage are created on demand and can't be compared by identity
+        final Set<IHighlight> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<CompactHighlightStore.CompactHighlight> compactToRemove = new ArrayList<>();
+        for (final IHighlight highlight : highlightsToRemove)
+        {
+            if (highlight instanceof CompactHighlightStore.CompactHighlight)
+            {
+                compactToRemove.add((CompactHighlightStore.CompactHighlight) highlight);
+            }
+            else
+            {
+                toRemove.add(highlight);
+            }
+        }
+
+        // only the highlights which were found are damaged, {min start, max end}
+        final long[] removedBounds = {Long.MAX_VALUE, -1};
+        final Consumer<IHighlight> removedAction = highlight ->
+        {
+            removedBounds[0] = Math.min(removedBounds[0], highlight.getStartOffset());
+            removedBounds[1] = Math.max(removedBounds[1], highlight.getEndOffset());
+        };
+
+        for (final HighlightLayer layer : layers)
+        {
+            layer.removeSilently(toRemove, removedAction);
+            if (!compactToRemove.isEmpty())
+            {
+                layer.removeCompactSilently(compactToRemove, removedAction);
+            }
+        }
+
+        damageRange(removedBounds[0], removedBounds[1]);
     }
 
     @Override
     public void removeAllHighlights()
     {
-        if (!highlights.isEmpty())
+        long minOffset = Long.MAX_VALUE;
+        long maxOffset = -1;
+        for (final HighlightLayer layer : layers)
         {
-            final List<IHighlight> highlightsToRemove = highlights;
-            highlights = new ArrayList<>();
-            removeHighlights(highlightsToRemove);
+            if (layer.getHighlightsCount() > 0)
+            {
+                minOffset = Math.min(minOffset, layer.getMinOffset());
+                maxOffset = Math.max(maxOffset, layer.getMaxOffset());
+            }
+            layer.clearSilently();
         }
+        damageRange(minOffset, maxOffset);
     }
 
     @Override
     public int getHighlightsCount()
     {
-        return highlights.size();
+        int count = 0;
+        for (final HighlightLayer layer : layers)
+        {
+            count += layer.getHighlightsCount();
+        }
+        return count;
     }
 
     @Override
     public boolean hasHighlights()
     {
-        return !highlights.isEmpty();
+        for (final HighlightLayer layer : layers)
+        {
+            if (layer.getHighlightsCount() > 0)
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     @NotNull
     @Override
     public List<IHighlight> getHighlights()
     {
-        return new ArrayList<>(highlights);
+        final List<IHighlight> result = new ArrayList<>(getHighlightsCount());
+        layers.forEach(layer -> result.addAll(layer.getHighlights()));
+        return result;
+    }
+
+    /**
+     * Called by a layer after its z-order was changed.
+     * Restores the order of the layers, layers with the same z-order keep their relative order.
+     */
+    void layerOrderChanged()
+    {
+        layers.sort(Comparator.comparingInt(HighlightLayer::getZOrder));
+    }
+
+    /**
+     * Damages a range of bytes, if the highlighter is installed and the range isn't empty.
+     *
+     * @param start the start of the byte range which should be damaged.
+     * @param end   the end of the byte range which should be damaged.
+     */
+    void damageRange(final long start, final long end)
+    {
+        if (hexViewer != null && start <= end && end >= 0)
+        {
+            damageBytes(start, end);
+        }
     }
 
     /**
@@ -89,6 +261,6 @@ public abstract class AbstractHighlighter implements IHighlighter
      */
     protected void damageBytes(final long start, final long end)
     {
-        hexViewer.getDamager().ifPresent(damager -> damager.damageBytes(start, end));
+        hexViewer.getDamager().ifPresent(damager -> damager.damageDecoratedBytes(start, end));
     }
 }
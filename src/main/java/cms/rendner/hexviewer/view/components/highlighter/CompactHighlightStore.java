@@ -0,0 +1,926 @@
+package cms.rendner.hexviewer.view.components.highlighter;
+
+import cms.rendner.hexviewer.common.utils.CheckUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Stores a large number of highlights of a {@link HighlightLayer} in primitive arrays.
+ * <p/>
+ * Instead of one object per highlight the store keeps the ranges in sorted <code>long</code> arrays and a style per
+ * range in a <code>byte</code> array. All ranges with the same style are painted with the same shared painter, see
+ * {@link #setStylePainter(int, IHighlighter.IHighlightPainter)}. This makes the store suitable for huge sets of
+ * highlights, like the hits of a search, which would otherwise cost several objects per highlight.
+ * <p/>
+ * The ranges are sorted by their start offset, queries for the visible bytes or a single offset use a binary search
+ * and a segment tree of the largest end offsets to skip ranges which end before the queried bytes.
+ * {@link IHighlighter.IHighlight} views of the stored ranges are only created if an API requires them, e.g.
+ * {@link #findAt(long)} or {@link HighlightLayer#getHighlights()}. Two views are equal if they refer to the same range
+ * with the same style in the same store.
+ * <p/>
+ * Every modification results in a single damage of the affected byte range.
+ *
+ * @author rendner
+ */
+public final class CompactHighlightStore
+{
+    /**
+     * The number of different styles.
+     */
+    public static final int STYLE_COUNT = 256;
+
+    /**
+     * The initial capacity of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Below this size a range is sorted by insertion sort.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * The ranges are grouped in blocks of <code>1 &lt;&lt; BLOCK_SHIFT</code> ranges, for each block the largest end
+     * offset is kept in {@link #maxEndTree}.
+     */
+    private static final int BLOCK_SHIFT = 4;
+
+    /**
+     * The layer to which the store belongs.
+     */
+    @NotNull
+    private final HighlightLayer layer;
+
+    /**
+     * The painters to use for the styles, indexed by the style.
+     */
+    @NotNull
+    private final IHighlighter.IHighlightPainter[] stylePainters = new IHighlighter.IHighlightPainter[STYLE_COUNT];
+
+    /**
+     * The start offsets, sorted ascending.
+     */
+    @NotNull
+    private long[] starts = new long[0];
+
+    /**
+     * The end offsets, sorted ascending for ranges with the same start.
+     */
+    @NotNull
+    private long[] ends = new long[0];
+
+    /**
+     * The styles of the ranges.
+     */
+    @NotNull
+    private byte[] styles = new byte[0];
+
+    /**
+     * Segment tree of the largest end offset per block of ranges, used to skip the blocks which can't intersect an
+     * offset if ranges overlap. A single wide range only affects the blocks on its path to the root, the other blocks
+     * can still be skipped.
+     * <p/>
+     * The tree is stored level by level, the root is at index <code>1</code> and the leaves, one per block, start at
+     * {@link #leafCount}. Leaves without a block contain <code>Long.MIN_VALUE</code>.
+     */
+    @NotNull
+    private long[] maxEndTree = new long[0];
+
+    /**
+     * The number of leaves of {@link #maxEndTree}, a power of two.
+     */
+    private int leafCount;
+
+    /**
+     * The number of ranges, counted from the first one, whose blocks are up to date in {@link #maxEndTree}.
+     */
+    private int validMaxEnds;
+
+    /**
+     * The number of stored ranges.
+     */
+    private int size;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param layer the layer to which the store belongs.
+     */
+    CompactHighlightStore(@NotNull final HighlightLayer layer)
+    {
+        super();
+        this.layer = layer;
+    }
+
+    /**
+     * @return the layer to which the store belongs.
+     */
+    @NotNull
+    public HighlightLayer getLayer()
+    {
+        return layer;
+    }
+
+    /**
+     * @return the number of stored ranges.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return <code>true</code> if no range is stored.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Sets the painter for all ranges with a specific style.
+     * Ranges whose style has no painter are painted with the painter of the layer.
+     *
+     * @param style   the style, [0, {@link #STYLE_COUNT}).
+     * @param painter the painter, <code>null</code> to use the painter of the layer.
+     */
+    public void setStylePainter(final int style, @Nullable final IHighlighter.IHighlightPainter painter)
+    {
+        checkStyle(style);
+        if (stylePainters[style] != painter)
+        {
+            stylePainters[style] = painter;
+            layer.damageCoveredRange();
+        }
+    }
+
+    /**
+     * Returns the painter for all ranges with a specific style.
+     *
+     * @param style the style, [0, {@link #STYLE_COUNT}).
+     * @return the painter of the style.
+     */
+    @NotNull
+    public Optional<IHighlighter.IHighlightPainter> getStylePainter(final int style)
+    {
+        checkStyle(style);
+        return Optional.ofNullable(stylePainters[style]);
+    }
+
+    /**
+     * Adds a range.
+     *
+     * @param start the start of the range &gt;= 0
+     * @param end   the end of the range &gt;= start
+     * @param style the style of the range, [0, {@link #STYLE_COUNT}).
+     */
+    public void add(final long start, final long end, final int style)
+    {
+        checkStyle(style);
+        ensureCapacity(size + 1);
+
+        final int index = upperBound(start, end);
+        final int tail = size - index;
+        System.arraycopy(starts, index, starts, index + 1, tail);
+        System.arraycopy(ends, index, ends, index + 1, tail);
+        System.arraycopy(styles, index, styles, index + 1, tail);
+        set(index, start, end, style);
+        size++;
+        invalidateMaxEnds(index);
+
+        layer.extendCoveredRange(start, end);
+        layer.damageRange(start, end);
+    }
+
+    /**
+     * Adds a number of ranges with the same style.
+     * <p/>
+     * The ranges don't have to be sorted, but adding sorted ranges which start behind the already stored ones is
+     * cheapest.
+     *
+     * @param rangeStarts the start offsets of the ranges.
+     * @param rangeEnds   the end offsets of the ranges, must have the same length as <code>rangeStarts</code>.
+     * @param style       the style of the ranges, [0, {@link #STYLE_COUNT}).
+     */
+    public void addAll(@NotNull final long[] rangeStarts, @NotNull final long[] rangeEnds, final int style)
+    {
+        checkStyle(style);
+        if (rangeStarts.length != rangeEnds.length)
+        {
+            throw new IllegalArgumentException("The number of start and end offsets differs.");
+        }
+        if (rangeStarts.length == 0)
+        {
+            return;
+        }
+
+        final int oldSize = size;
+        ensureCapacity(size + rangeStarts.length);
+
+        long minOffset = Long.MAX_VALUE;
+        long maxOffset = -1;
+        boolean sorted = true;
+        for (int i = 0; i < rangeStarts.length; i++)
+        {
+            set(size, rangeStarts[i], rangeEnds[i], style);
+            sorted = sorted && (size == 0 || compare(size - 1, size) <= 0);
+            minOffset = Math.min(minOffset, rangeStarts[i]);
+            maxOffset = Math.max(maxOffset, rangeEnds[i]);
+            size++;
+        }
+
+        if (!sorted)
+        {
+            sort(0, size - 1);
+            invalidateMaxEnds(0);
+        }
+        else
+        {
+            invalidateMaxEnds(oldSize);
+        }
+
+        layer.extendCoveredRange(minOffset, maxOffset);
+        layer.damageRange(minOffset, maxOffset);
+    }
+
+    /**
+     * Removes a range.
+     *
+     * @param start the start of the range.
+     * @param end   the end of the range.
+     * @param style the style of the range.
+     * @return <code>true</code> if the range was stored.
+     */
+    public boolean remove(final long start, final long end, final int style)
+    {
+        final int index = indexOf(start, end, (byte) style, null);
+        if (index < 0)
+        {
+            return false;
+        }
+
+        removeAt(index);
+        layer.damageRange(start, end);
+        return true;
+    }
+
+    /**
+     * Removes all ranges.
+     */
+    public void clear()
+    {
+        if (size > 0)
+        {
+            long minOffset = Long.MAX_VALUE;
+            long maxOffset = -1;
+            for (int i = 0; i < size; i++)
+            {
+                minOffset = Math.min(minOffset, starts[i]);
+                maxOffset = Math.max(maxOffset, ends[i]);
+            }
+            clearSilently();
+            layer.damageRange(minOffset, maxOffset);
+        }
+    }
+
+    /**
+     * Calls a visitor for each range which intersects a range of bytes, sorted by the start of the ranges.
+     * <p/>
+     * Doesn't create any objects.
+     *
+     * @param from    the first byte of the queried range.
+     * @param to      the last byte of the queried range.
+     * @param visitor the visitor to call.
+     */
+    public void forEachIntersecting(final long from, final long to, @NotNull final IRangeVisitor visitor)
+    {
+        final int last = upperBound(to, Long.MAX_VALUE) - 1;
+        validateMaxEnds();
+        for (int block = nextBlockEndingAtOrAfter(0, from); block >= 0 && blockStart(block) <= last; block = nextBlockEndingAtOrAfter(block + 1, from))
+        {
+            final int blockLast = Math.min(last, blockStart(block + 1) - 1);
+            for (int i = blockStart(block); i <= blockLast; i++)
+            {
+                if (ends[i] >= from)
+                {
+                    visitor.visit(starts[i], ends[i], styles[i] & 0xFF);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the ranges which intersect a range of bytes.
+     *
+     * @param from the first byte of the queried range.
+     * @param to   the last byte of the queried range.
+     * @return the number of ranges.
+     */
+    public int countIntersecting(final long from, final long to)
+    {
+        final int[] count = {0};
+        forEachIntersecting(from, to, (start, end, style) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Returns the range which contains a byte.
+     * If more than one range contains the byte, the range which is painted last (on top) is returned.
+     *
+     * @param offset the offset of the byte.
+     * @return a view of the range.
+     */
+    @NotNull
+    public Optional<IHighlighter.IHighlight> findAt(final long offset)
+    {
+        final int last = upperBound(offset, Long.MAX_VALUE) - 1;
+        validateMaxEnds();
+        for (int block = previousBlockEndingAtOrAfter(last >> BLOCK_SHIFT, offset); block >= 0; block = previousBlockEndingAtOrAfter(block - 1, offset))
+        {
+            for (int i = Math.min(last, blockStart(block + 1) - 1); i >= blockStart(block); i--)
+            {
+                if (ends[i] >= offset)
+                {
+                    return Optional.of(view(i));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns a view of a stored range.
+     *
+     * @param index the index of the range in the sort order, [0, {@link #size()}).
+     * @return a view of the range.
+     */
+    @NotNull
+    public IHighlighter.IHighlight get(final int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return view(index);
+    }
+
+    /**
+     * Creates views of all stored ranges and adds them to a collection.
+     *
+     * @param target the collection to add the views to.
+     */
+    void addViewsTo(@NotNull final Collection<IHighlighter.IHighlight> target)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            target.add(view(i));
+        }
+    }
+
+    /**
+     * Removes a number of ranges without damaging them.
+     *
+     * @param toRemove      views of the ranges to remove, views which don't belong to this store are ignored.
+     * @param removedAction called for each view whose range was removed.
+     * @return the number of removed ranges.
+     */
+    int removeSilently(@NotNull final Collection<CompactHighlight> toRemove, @NotNull final Consumer<IHighlighter.IHighlight> removedAction)
+    {
+        final boolean[] removed = new boolean[size];
+        int count = 0;
+        for (final CompactHighlight highlight : toRemove)
+        {
+            if (highlight.store == this)
+            {
+                final int index = indexOf(highlight.start, highlight.end, highlight.style, removed);
+                if (index >= 0)
+                {
+                    removed[index] = true;
+                    removedAction.accept(highlight);
+                    count++;
+                }
+            }
+        }
+
+        if (count > 0)
+        {
+            int target = 0;
+            for (int i = 0; i < size; i++)
+            {
+                if (!removed[i])
+                {
+                    set(target++, starts[i], ends[i], styles[i]);
+                }
+            }
+            size = target;
+            invalidateMaxEnds(0);
+        }
+        return count;
+    }
+
+    /**
+     * Removes all ranges without damaging them and releases the arrays.
+     */
+    void clearSilently()
+    {
+        starts = new long[0];
+        ends = new long[0];
+        styles = new byte[0];
+        maxEndTree = new long[0];
+        leafCount = 0;
+        validMaxEnds = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the painter for a style.
+     *
+     * @param style the style.
+     * @return the painter, or <code>null</code> if the style has no painter.
+     */
+    @Nullable
+    IHighlighter.IHighlightPainter stylePainter(final int style)
+    {
+        return stylePainters[style & 0xFF];
+    }
+
+    /**
+     * Creates a view of a stored range.
+     *
+     * @param index the index of the range.
+     * @return the view.
+     */
+    @NotNull
+    private CompactHighlight view(final int index)
+    {
+        return new CompactHighlight(this, starts[index], ends[index], styles[index]);
+    }
+
+    /**
+     * Removes the range at an index.
+     *
+     * @param index the index.
+     */
+    private void removeAt(final int index)
+    {
+        final int tail = size - index - 1;
+        System.arraycopy(starts, index + 1, starts, index, tail);
+        System.arraycopy(ends, index + 1, ends, index, tail);
+        System.arraycopy(styles, index + 1, styles, index, tail);
+        size--;
+        invalidateMaxEnds(index);
+    }
+
+    /**
+     * Finds the index of a range.
+     *
+     * @param start   the start of the range.
+     * @param end     the end of the range.
+     * @param style   the style of the range.
+     * @param skipped indices to skip, can be <code>null</code>.
+     * @return the index, or <code>-1</code> if the range isn't stored.
+     */
+    private int indexOf(final long start, final long end, final byte style, @Nullable final boolean[] skipped)
+    {
+        for (int i = lowerBound(start, end); i < size && starts[i] == start && ends[i] == end; i++)
+        {
+            if (styles[i] == style && (skipped == null || !skipped[i]))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first range which is not less than (start, end).
+     *
+     * @param start the start offset.
+     * @param end   the end offset.
+     * @return the index, [0, size].
+     */
+    private int lowerBound(final long start, final long end)
+    {
+        int low = 0;
+        int high = size;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (starts[mid] < start || (starts[mid] == start && ends[mid] < end))
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first range which is greater than (start, end).
+     *
+     * @param start the start offset.
+     * @param end   the end offset.
+     * @return the index, [0, size].
+     */
+    private int upperBound(final long start, final long end)
+    {
+        int low = 0;
+        int high = size;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (starts[mid] < start || (starts[mid] == start && ends[mid] <= end))
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first range of a block.
+     *
+     * @param block the block.
+     * @return the index of the first range.
+     */
+    private static int blockStart(final int block)
+    {
+        return block << BLOCK_SHIFT;
+    }
+
+    /**
+     * Returns the first block, starting at a block, which contains a range ending at or after an offset.
+     *
+     * @param block  the first block to check, &gt;= 0
+     * @param offset the offset.
+     * @return the block, or <code>-1</code> if no such block exists.
+     */
+    private int nextBlockEndingAtOrAfter(final int block, final long offset)
+    {
+        if (block >= leafCount)
+        {
+            return -1;
+        }
+        int node = leafCount + block;
+        while (maxEndTree[node] < offset)
+        {
+            // climb while the node is a right child, then continue with the right sibling
+            while ((node & 1) == 1)
+            {
+                node >>= 1;
+            }
+            if (node == 0)
+            {
+                return -1;
+            }
+            node++;
+        }
+        while (node < leafCount)
+        {
+            node = maxEndTree[2 * node] >= offset ? 2 * node : 2 * node + 1;
+        }
+        return node - leafCount;
+    }
+
+    /**
+     * Returns the last block, starting at a block and going backwards, which contains a range ending at or after an offset.
+     *
+     * @param block  the first block to check.
+     * @param offset the offset.
+     * @return the block, or <code>-1</code> if no such block exists.
+     */
+    private int previousBlockEndingAtOrAfter(final int block, final long offset)
+    {
+        if (block < 0)
+        {
+            return -1;
+        }
+        int node = leafCount + block;
+        while (maxEndTree[node] < offset)
+        {
+            // climb while the node is a left child, then continue with the left sibling
+            while ((node & 1) == 0)
+            {
+                node >>= 1;
+            }
+            if (node == 1)
+            {
+                return -1;
+            }
+            node--;
+        }
+        while (node < leafCount)
+        {
+            node = maxEndTree[2 * node + 1] >= offset ? 2 * node + 1 : 2 * node;
+        }
+        return node - leafCount;
+    }
+
+    /**
+     * Recomputes the invalid part of {@link #maxEndTree}.
+     * Only the blocks starting at the first invalid range and their ancestors are recomputed.
+     */
+    private void validateMaxEnds()
+    {
+        final int blockCount = (size + (1 << BLOCK_SHIFT) - 1) >> BLOCK_SHIFT;
+        int firstBlock = validMaxEnds >> BLOCK_SHIFT;
+        if (blockCount > leafCount || leafCount == 0)
+        {
+            leafCount = blockCount <= 1 ? 1 : Integer.highestOneBit(blockCount - 1) << 1;
+            maxEndTree = new long[2 * leafCount];
+            firstBlock = 0;
+        }
+        else if (validMaxEnds >= size)
+        {
+            return;
+        }
+
+        for (int block = firstBlock; block < leafCount; block++)
+        {
+            long max = Long.MIN_VALUE;
+            final int blockEnd = Math.min(size, blockStart(block + 1));
+            for (int i = blockStart(block); i < blockEnd; i++)
+            {
+                max = Math.max(max, ends[i]);
+            }
+            maxEndTree[leafCount + block] = max;
+        }
+
+        for (int low = (leafCount + firstBlock) >> 1, high = (2 * leafCount - 1) >> 1; low >= 1; low >>= 1, high >>= 1)
+        {
+            for (int node = low; node <= high; node++)
+            {
+                maxEndTree[node] = Math.max(maxEndTree[2 * node], maxEndTree[2 * node + 1]);
+            }
+        }
+        validMaxEnds = size;
+    }
+
+    /**
+     * Marks {@link #maxEndTree} as invalid starting at an index.
+     *
+     * @param index the first invalid index.
+     */
+    private void invalidateMaxEnds(final int index)
+    {
+        validMaxEnds = Math.min(validMaxEnds, index);
+    }
+
+    /**
+     * Ensures that the arrays can hold a number of ranges.
+     *
+     * @param capacity the required capacity.
+     */
+    private void ensureCapacity(final int capacity)
+    {
+        if (capacity > starts.length)
+        {
+            final int newCapacity = Math.max(capacity, Math.max(INITIAL_CAPACITY, starts.length + (starts.length >> 1)));
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+            styles = Arrays.copyOf(styles, newCapacity);
+        }
+    }
+
+    /**
+     * Sets the range at an index.
+     *
+     * @param index the index.
+     * @param start the start offset.
+     * @param end   the end offset.
+     * @param style the style.
+     */
+    private void set(final int index, final long start, final long end, final int style)
+    {
+        starts[index] = start;
+        ends[index] = end;
+        styles[index] = (byte) style;
+    }
+
+    /**
+     * Compares two stored ranges by their start and end offsets.
+     *
+     * @param i the index of the first range.
+     * @param j the index of the second range.
+     * @return a negative value, zero or a positive value if the first range is less than, equal to or greater than the second.
+     */
+    private int compare(final int i, final int j)
+    {
+        final int result = Long.compare(starts[i], starts[j]);
+        return result != 0 ? result : Long.compare(ends[i], ends[j]);
+    }
+
+    /**
+     * Swaps two stored ranges.
+     *
+     * @param i the index of the first range.
+     * @param j the index of the second range.
+     */
+    private void swap(final int i, final int j)
+    {
+        final long start = starts[i];
+        final long end = ends[i];
+        final byte style = styles[i];
+        starts[i] = starts[j];
+        ends[i] = ends[j];
+        styles[i] = styles[j];
+        starts[j] = start;
+        ends[j] = end;
+        styles[j] = style;
+    }
+
+    /**
+     * Sorts the stored ranges in place, the recursion depth is limited to log(n) by recursing into the smaller part.
+     * <p/>
+     * Uses a three-way partition, ranges equal to the pivot are excluded from further partitioning. This keeps the
+     * sort fast if many ranges share the same start and end offset.
+     *
+     * @param from the first index to sort.
+     * @param to   the last index to sort (inclusive).
+     */
+    private void sort(int from, int to)
+    {
+        while (to - from >= INSERTION_SORT_THRESHOLD)
+        {
+            final int mid = (from + to) >>> 1;
+            // median of three as pivot, moved to "to"
+            if (compare(mid, from) < 0)
+            {
+                swap(mid, from);
+            }
+            if (compare(to, from) < 0)
+            {
+                swap(to, from);
+            }
+            if (compare(mid, to) < 0)
+            {
+                swap(mid, to);
+            }
+            swap(from, to);
+
+            // [from, lt) < pivot, [lt, i) == pivot, (gt, to] > pivot, the pivot stays at index lt
+            int lt = from;
+            int gt = to;
+            int i = from + 1;
+            while (i <= gt)
+            {
+                final int result = compare(i, lt);
+                if (result < 0)
+                {
+                    swap(lt++, i++);
+                }
+                else if (result > 0)
+                {
+                    swap(i, gt--);
+                }
+                else
+                {
+                    i++;
+                }
+            }
+
+            if (lt - from < to - gt)
+            {
+                sort(from, lt - 1);
+                from = gt + 1;
+            }
+            else
+            {
+                sort(gt + 1, to);
+                to = lt - 1;
+            }
+        }
+
+        for (int i = from + 1; i <= to; i++)
+        {
+            for (int j = i; j > from && compare(j - 1, j) > 0; j--)
+            {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    /**
+     * Checks that a value is a valid style.
+     *
+     * @param style the value to check.
+     */
+    private static void checkStyle(final int style)
+    {
+        CheckUtils.checkMinValue(style, 0);
+        CheckUtils.checkMaxValue(style, STYLE_COUNT - 1);
+    }
+
+    /**
+     * Visitor for the stored ranges.
+     */
+    @FunctionalInterface
+    public interface IRangeVisitor
+    {
+        /**
+         * Called for a stored range.
+         *
+         * @param start the start of the range.
+         * @param end   the end of the range.
+         * @param style the style of the range, [0, {@link #STYLE_COUNT}).
+         */
+        void visit(long start, long end, int style);
+    }
+
+    /**
+     * Lightweight view of a stored range.
+     */
+    static final class CompactHighlight implements IHighlighter.IHighlight
+    {
+        /**
+         * The store which contains the range.
+         */
+        @NotNull
+        final CompactHighlightStore store;
+
+        /**
+         * The start offset of the range.
+         */
+        final long start;
+
+        /**
+         * The end offset of the range.
+         */
+        final long end;
+
+        /**
+         * The style of the range.
+         */
+        final byte style;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param store the store which contains the range.
+         * @param start the start offset of the range.
+         * @param end   the end offset of the range.
+         * @param style the style of the range.
+         */
+        CompactHighlight(@NotNull final CompactHighlightStore store, final long start, final long end, final byte style)
+        {
+            super();
+            this.store = store;
+            this.start = start;
+            this.end = end;
+            this.style = style;
+        }
+
+        @Override
+        public long getStartOffset()
+        {
+            return start;
+        }
+
+        @Override
+        public long getEndOffset()
+        {
+            return end;
+        }
+
+        @Nullable
+        @Override
+        public IHighlighter.IHighlightPainter getPainter()
+        {
+            return store.stylePainter(style);
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+            final CompactHighlight that = (CompactHighlight) o;
+            return store == that.store && start == that.start && end == that.end && style == that.style;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(System.identityHashCode(store), start, end, style);
+        }
+    }
+}
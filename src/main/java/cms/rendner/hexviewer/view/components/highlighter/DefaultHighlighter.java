@@ -35,10 +35,7 @@ public class DefaultHighlighter extends AbstractHighlighter
     @Override
     public IHighlight addHighlight(final long startByteIndex, final long endByteIndex)
     {
-        final HighlightInfo info = new HighlightInfo(startByteIndex, endByteIndex, null);
-        highlights.add(info);
-        damageBytes(startByteIndex, endByteIndex);
-        return info;
+        return defaultLayer.addHighlight(startByteIndex, endByteIndex);
     }
 
     @NotNull
@@ -52,10 +49,7 @@ public class DefaultHighlighter extends AbstractHighlighter
     @Override
     public IHighlight addHighlight(final long startByteIndex, final long endByteIndex, @NotNull final IHighlightPainter painter)
     {
-        final HighlightInfo info = new HighlightInfo(startByteIndex, endByteIndex, painter);
-        highlights.add(info);
-        damageBytes(startByteIndex, endByteIndex);
-        return info;
+        return defaultLayer.addHighlight(startByteIndex, endByteIndex, painter);
     }
 
     @Override
@@ -67,22 +61,39 @@ public class DefaultHighlighter extends AbstractHighlighter
             damageChangedHighlight(info.start, info.end, startByteIndex, endByteIndex);
             info.start = startByteIndex;
             info.end = endByteIndex;
+            info.layer.extendCoveredRange(Math.min(startByteIndex, endByteIndex), Math.max(startByteIndex, endByteIndex));
+        }
+        else if (highlight instanceof CompactHighlightStore.CompactHighlight)
+        {
+            // views of the compact storage are immutable, the passed view doesn't reflect the change
+            final CompactHighlightStore.CompactHighlight view = (CompactHighlightStore.CompactHighlight) highlight;
+            if (view.store.remove(view.start, view.end, view.style & 0xFF))
+            {
+                view.store.add(Math.min(startByteIndex, endByteIndex), Math.max(startByteIndex, endByteIndex), view.style & 0xFF);
+            }
         }
     }
 
     @Override
     public void paint(@NotNull final Graphics2D g, @NotNull final ByteArea area)
     {
-        if (!highlights.isEmpty())
+        if (hasHighlights())
         {
-            final ByteRange visibleBytes = computeVisibleBytes(area);
+            final ByteRange visibleBytes = computePaintedBytes(g, area);
             if (visibleBytes.isValid())
             {
                 final IByteRowTemplate rowTemplate = area.getRowTemplate();
                 if (rowTemplate != null)
                 {
                     final HDimension rowElementsHDimension = computeRowElementsHDimension(rowTemplate);
-                    highlights.forEach(entry -> paintHighlight(g, entry, area, visibleBytes, rowElementsHDimension));
+                    for (final HighlightLayer layer : layers)
+                    {
+                        if (layer.isVisible())
+                        {
+                            layer.forEachHighlight(entry -> paintHighlight(g, entry, area, visibleBytes, rowElementsHDimension));
+                            paintCompactHighlights(g, layer, area, visibleBytes, rowElementsHDimension);
+                        }
+                    }
                 }
             }
         }
@@ -94,22 +105,89 @@ public class DefaultHighlighter extends AbstractHighlighter
      * @param g                     the Graphics2D context in which to paint.
      * @param highlight             the highlight to paint.
      * @param area                  the component to paint into.
-     * @param visibleBytes          the range of visible bytes.
+     * @param visibleBytes          the range of bytes displayed by the painted rows, starts at the first byte of a row
+     *                              and ends at the last byte of a row.
      * @param rowElementsHDimension the bounds of all elements in the row.
      */
     protected void paintHighlight(@NotNull final Graphics2D g, @NotNull final IHighlight highlight, @NotNull final ByteArea area, @NotNull final ByteRange visibleBytes, @NotNull final HDimension rowElementsHDimension)
     {
-        final long start = highlight.getStartOffset();
-        final long end = highlight.getEndOffset();
+        paintRange(g, resolvePainter(highlight), area, visibleBytes, rowElementsHDimension, highlight.getStartOffset(), highlight.getEndOffset());
+    }
+
+    /**
+     * Paints the highlights of the compact storage of a layer which intersect the painted rows.
+     * <p/>
+     * The ranges are looked up by a binary search, no highlight objects are created.
+     *
+     * @param g                     the Graphics2D context in which to paint.
+     * @param layer                 the layer whose compact storage should be painted.
+     * @param area                  the component to paint into.
+     * @param visibleBytes          the range of bytes displayed by the painted rows.
+     * @param rowElementsHDimension the bounds of all elements in the row.
+     */
+    protected void paintCompactHighlights(@NotNull final Graphics2D g, @NotNull final HighlightLayer layer, @NotNull final ByteArea area, @NotNull final ByteRange visibleBytes, @NotNull final HDimension rowElementsHDimension)
+    {
+        final CompactHighlightStore store = layer.compactStoreOrNull();
+        if (store != null && !store.isEmpty())
+        {
+            final IHighlightPainter layerPainter = layer.getPainter().orElse(defaultPainter);
+            store.forEachIntersecting(visibleBytes.getStart(), visibleBytes.getEnd(), (start, end, style) ->
+            {
+                final IHighlightPainter stylePainter = store.stylePainter(style);
+                paintRange(g, stylePainter == null ? layerPainter : stylePainter, area, visibleBytes, rowElementsHDimension, start, end);
+            });
+        }
+    }
 
+    /**
+     * Paints the part of a highlighted range which lies in the painted rows.
+     *
+     * @param g                     the Graphics2D context in which to paint.
+     * @param painter               the painter to use.
+     * @param area                  the component to paint into.
+     * @param visibleBytes          the range of bytes displayed by the painted rows.
+     * @param rowElementsHDimension the bounds of all elements in the row.
+     * @param start                 the start of the highlighted range.
+     * @param end                   the end of the highlighted range.
+     */
+    private void paintRange(@NotNull final Graphics2D g, @NotNull final IHighlightPainter painter, @NotNull final ByteArea area, @NotNull final ByteRange visibleBytes, @NotNull final HDimension rowElementsHDimension, final long start, final long end)
+    {
         final ByteRange visibleHighlightedBytes = visibleBytes.computeIntersection(start, end);
 
         if (visibleHighlightedBytes.isValid())
         {
-            final IHighlightPainter highlightPainter = highlight.getPainter();
-            final IHighlightPainter painter = highlightPainter == null ? defaultPainter : highlightPainter;
-            painter.paint(g, hexViewer, area, rowElementsHDimension, start, end);
+            final RowRange clipRows = new RowRange(
+                    hexViewer.byteIndexToRowIndex(visibleBytes.getStart()),
+                    hexViewer.byteIndexToRowIndex(visibleBytes.getEnd())
+            );
+            painter.paintClipped(g, hexViewer, area, rowElementsHDimension, clipRows,
+                    visibleHighlightedBytes.getStart(), visibleHighlightedBytes.getEnd(), start, end);
+        }
+    }
+
+    /**
+     * Returns the painter to use for a highlight.
+     * <p/>
+     * The painter of the highlight is used if specified, otherwise the painter of its layer. The default painter is
+     * used if neither the highlight nor its layer specifies a painter.
+     *
+     * @param highlight the highlight to paint.
+     * @return the painter to use.
+     */
+    @NotNull
+    protected IHighlightPainter resolvePainter(@NotNull final IHighlight highlight)
+    {
+        final IHighlightPainter highlightPainter = highlight.getPainter();
+        if (highlightPainter != null)
+        {
+            return highlightPainter;
         }
+        final HighlightLayer layer = highlight instanceof HighlightInfo
+                ? ((HighlightInfo) highlight).layer
+                : highlight instanceof CompactHighlightStore.CompactHighlight
+                ? ((CompactHighlightStore.CompactHighlight) highlight).store.getLayer()
+                : null;
+        return layer == null ? defaultPainter : layer.getPainter().orElse(defaultPainter);
     }
 
     /**
@@ -138,12 +216,38 @@ public class DefaultHighlighter extends AbstractHighlighter
     @NotNull
     protected ByteRange computeVisibleBytes(@NotNull final ByteArea area)
     {
-        final RowRange rowRange = area.getIntersectingRows(area.getVisibleRect());
+        return computeBytesOfRows(area.getIntersectingRows(area.getVisibleRect()));
+    }
+
+    /**
+     * Computes the range of bytes displayed by the rows which intersect the clip of a Graphics2D context.
+     * <p/>
+     * Falls back to {@link #computeVisibleBytes(ByteArea)} if the Graphics2D context has no clip.
+     *
+     * @param g    the Graphics2D context in which to paint.
+     * @param area the area component for which the bytes should be computed.
+     * @return the range of bytes, starting at the first byte of the leading row until the last byte of the trailing row.
+     */
+    @NotNull
+    protected ByteRange computePaintedBytes(@NotNull final Graphics2D g, @NotNull final ByteArea area)
+    {
+        final Rectangle clip = g.getClipBounds();
+        return clip == null ? computeVisibleBytes(area) : computeBytesOfRows(area.getIntersectingRows(clip));
+    }
 
+    /**
+     * Computes the range of bytes displayed by a range of rows.
+     *
+     * @param rowRange the range of rows.
+     * @return the range of bytes, or {@link ByteRange#INVALID} if the range of rows is invalid.
+     */
+    @NotNull
+    private ByteRange computeBytesOfRows(@NotNull final RowRange rowRange)
+    {
         if (rowRange.isValid())
         {
             final long firstByte = hexViewer.rowIndexToByteIndex(rowRange.getStart());
-            final long lastByte = hexViewer.rowIndexToByteIndex(rowRange.getEnd() + hexViewer.getBytesPerRow() - 1);
+            final long lastByte = hexViewer.rowIndexToByteIndex(rowRange.getEnd()) + hexViewer.getBytesPerRow() - 1;
             return new ByteRange(firstByte, lastByte);
         }
 
@@ -246,57 +350,4 @@ public class DefaultHighlighter extends AbstractHighlighter
             }
         }
     }
-
-    /**
-     * Internal class to keep track of the highlighted regions and the specified painter.
-     */
-    static final class HighlightInfo implements IHighlighter.IHighlight
-    {
-        /**
-         * Painter to use to paint this highlight.
-         */
-        @Nullable
-        final IHighlighter.IHighlightPainter painter;
-
-        /**
-         * The start offset for this highlight.
-         */
-        long start;
-
-        /**
-         * The end offset for this highlight.
-         */
-        long end;
-
-        /**
-         * Creates a new instance with a custom painter.
-         *
-         * @param start   the start offset for the highlight.
-         * @param end     the end offset for the highlight.
-         * @param painter painter to use to paint this highlight.
-         */
-        HighlightInfo(final long start, final long end, @Nullable final IHighlighter.IHighlightPainter painter)
-        {
-            super();
-            this.start = start;
-            this.end = end;
-            this.painter = painter;
-        }
-
-        public long getStartOffset()
-        {
-            return start;
-        }
-
-        public long getEndOffset()
-        {
-            return end;
-        }
-
-        @Nullable
-        public IHighlighter.IHighlightPainter getPainter()
-        {
-            return painter;
-        }
-    }
 }
@@ -0,0 +1,67 @@
+package cms.rendner.hexviewer.view.components.highlighter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Internal class to keep track of the highlighted regions and the specified painter.
+ *
+ * @author rendner
+ */
+final class HighlightInfo implements IHighlighter.IHighlight
+{
+    /**
+     * Painter to use to paint this highlight.
+     */
+    @Nullable
+    final IHighlighter.IHighlightPainter painter;
+
+    /**
+     * The layer to which the highlight belongs.
+     */
+    @NotNull
+    final HighlightLayer layer;
+
+    /**
+     * The start offset for this highlight.
+     */
+    long start;
+
+    /**
+     * The end offset for this highlight.
+     */
+    long end;
+
+    /**
+     * Creates a new instance with a custom painter.
+     *
+     * @param layer   the layer to which the highlight belongs.
+     * @param start   the start offset for the highlight.
+     * @param end     the end offset for the highlight.
+     * @param painter painter to use to paint this highlight.
+     */
+    HighlightInfo(@NotNull final HighlightLayer layer, final long start, final long end, @Nullable final IHighlighter.IHighlightPainter painter)
+    {
+        super();
+        this.layer = layer;
+        this.start = start;
+        this.end = end;
+        this.painter = painter;
+    }
+
+    public long getStartOffset()
+    {
+        return start;
+    }
+
+    public long getEndOffset()
+    {
+        return end;
+    }
+
+    @Nullable
+    public IHighlighter.IHighlightPainter getPainter()
+    {
+        return painter;
+    }
+}
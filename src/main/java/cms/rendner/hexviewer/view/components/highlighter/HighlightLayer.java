@@ -0,0 +1,472 @@
+package cms.rendner.hexviewer.view.components.highlighter;
+
+import cms.rendner.hexviewer.common.ranges.ByteRange;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A named group of highlights, for example all search hits or all user marks.
+ * <p/>
+ * Layers are painted in ascending z-order, a layer with a higher z-order is painted on top of a layer with a lower
+ * z-order. Layers with the same z-order are painted in the order of their creation. Each layer can be hidden as a
+ * whole and provides bulk operations to replace or clear its highlights.
+ * <p/>
+ * Every modification results in a single damage of the affected byte range. Toggling the visibility, the z-order or
+ * the painter of a layer doesn't touch the individual highlights, the layer keeps track of the byte range covered by
+ * its highlights. This range can be larger than the actual range after highlights were removed, it is reset if the
+ * layer is cleared.
+ * <p/>
+ * Layers are created by a highlighter, see {@link AbstractHighlighter#createLayer(String, int)}.
+ *
+ * @author rendner
+ */
+public final class HighlightLayer implements IHighlighter.IHighlightLayer
+{
+    /**
+     * The highlighter to which the layer belongs.
+     */
+    @NotNull
+    private final AbstractHighlighter highlighter;
+
+    /**
+     * The name of the layer.
+     */
+    @NotNull
+    private final String name;
+
+    /**
+     * The highlights of the layer, in insertion order.
+     */
+    @NotNull
+    private final List<IHighlighter.IHighlight> highlights;
+
+    /**
+     * Compact storage for huge sets of highlights, created on first use.
+     */
+    @Nullable
+    private CompactHighlightStore compactStore;
+
+    /**
+     * The z-order of the layer.
+     */
+    private int zOrder;
+
+    /**
+     * Indicates if the highlights of the layer are painted.
+     */
+    private boolean visible = true;
+
+    /**
+     * Painter for the highlights of the layer which don't specify an own painter.
+     */
+    @Nullable
+    private IHighlighter.IHighlightPainter painter;
+
+    /**
+     * The smallest start offset of all highlights added since the layer was cleared.
+     */
+    private long minOffset = Long.MAX_VALUE;
+
+    /**
+     * The largest end offset of all highlights added since the layer was cleared.
+     */
+    private long maxOffset = -1;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param highlighter the highlighter to which the layer belongs.
+     * @param name        the name of the layer.
+     * @param zOrder      the z-order of the layer.
+     */
+    HighlightLayer(@NotNull final AbstractHighlighter highlighter, @NotNull final String name, final int zOrder)
+    {
+        this(highlighter, name, zOrder, new ArrayList<>());
+    }
+
+    /**
+     * Creates a new instance which stores its highlights in an existing list.
+     *
+     * @param highlighter the highlighter to which the layer belongs.
+     * @param name        the name of the layer.
+     * @param zOrder      the z-order of the layer.
+     * @param highlights  the list in which the highlights of the layer are stored.
+     */
+    HighlightLayer(@NotNull final AbstractHighlighter highlighter, @NotNull final String name, final int zOrder, @NotNull final List<IHighlighter.IHighlight> highlights)
+    {
+        super();
+        this.highlighter = highlighter;
+        this.name = name;
+        this.zOrder = zOrder;
+        this.highlights = highlights;
+    }
+
+    /**
+     * @return the name of the layer.
+     */
+    @NotNull
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return the z-order of the layer.
+     */
+    @Override
+    public int getZOrder()
+    {
+        return zOrder;
+    }
+
+    /**
+     * Sets the z-order of the layer.
+     * Layers with a higher z-order are painted on top of layers with a lower z-order.
+     *
+     * @param zOrder the new z-order.
+     */
+    @Override
+    public void setZOrder(final int zOrder)
+    {
+        if (this.zOrder != zOrder)
+        {
+            this.zOrder = zOrder;
+            highlighter.layerOrderChanged();
+            damageCoveredRange();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the highlights of the layer are painted.
+     */
+    @Override
+    public boolean isVisible()
+    {
+        return visible;
+    }
+
+    /**
+     * Shows or hides all highlights of the layer.
+     *
+     * @param visible <code>true</code> to paint the highlights of the layer.
+     */
+    @Override
+    public void setVisible(final boolean visible)
+    {
+        if (this.visible != visible)
+        {
+            this.visible = visible;
+            damageCoveredRange();
+        }
+    }
+
+    /**
+     * @return the painter for the highlights of the layer which don't specify an own painter.
+     */
+    @NotNull
+    @Override
+    public Optional<IHighlighter.IHighlightPainter> getPainter()
+    {
+        return Optional.ofNullable(painter);
+    }
+
+    /**
+     * Sets the painter for the highlights of the layer which don't specify an own painter.
+     *
+     * @param painter the new painter, <code>null</code> to use the default painter of the highlighter.
+     */
+    @Override
+    public void setPainter(@Nullable final IHighlighter.IHighlightPainter painter)
+    {
+        if (this.painter != painter)
+        {
+            this.painter = painter;
+            damageCoveredRange();
+        }
+    }
+
+    /**
+     * Adds a highlight which is painted with the painter of the layer.
+     *
+     * @param startByteIndex the beginning of the range &gt;= 0
+     * @param endByteIndex   the end of the range &gt;= startByteIndex
+     * @return an object that refers to the added highlight
+     */
+    @NotNull
+    @Override
+    public IHighlighter.IHighlight addHighlight(final long startByteIndex, final long endByteIndex)
+    {
+        return addHighlight(startByteIndex, endByteIndex, null);
+    }
+
+    /**
+     * Adds a highlight.
+     *
+     * @param startByteIndex the beginning of the range &gt;= 0
+     * @param endByteIndex   the end of the range &gt;= startByteIndex
+     * @param painter        the painter to use for the highlighting, <code>null</code> to use the painter of the layer.
+     * @return an object that refers to the added highlight
+     */
+    @NotNull
+    @Override
+    public IHighlighter.IHighlight addHighlight(final long startByteIndex, final long endByteIndex, @Nullable final IHighlighter.IHighlightPainter painter)
+    {
+        final HighlightInfo info = add(startByteIndex, endByteIndex, painter);
+        highlighter.damageRange(startByteIndex, endByteIndex);
+        return info;
+    }
+
+    /**
+     * Returns the compact storage of the layer, which should be used for huge sets of highlights.
+     * <p/>
+     * The highlights of the compact storage are painted after the other highlights of the layer.
+     *
+     * @return the compact storage, created on first call.
+     */
+    @NotNull
+    public CompactHighlightStore getCompactStore()
+    {
+        if (compactStore == null)
+        {
+            compactStore = new CompactHighlightStore(this);
+        }
+        return compactStore;
+    }
+
+    /**
+     * Replaces all highlights of the layer.
+     * The new highlights are painted with the painter of the layer. The old and new highlights are damaged at once.
+     *
+     * @param ranges the ranges of the new highlights.
+     * @return the new highlights, in the order of the ranges.
+     */
+    @NotNull
+    @Override
+    public List<IHighlighter.IHighlight> replaceHighlights(@NotNull final Collection<ByteRange> ranges)
+    {
+        final long oldMinOffset = minOffset;
+        final long oldMaxOffset = maxOffset;
+        clearSilently();
+
+        final List<IHighlighter.IHighlight> result = new ArrayList<>(ranges.size());
+        ranges.forEach(range -> result.add(add(range.getStart(), range.getEnd(), null)));
+
+        highlighter.damageRange(Math.min(oldMinOffset, minOffset), Math.max(oldMaxOffset, maxOffset));
+        return result;
+    }
+
+    /**
+     * Removes a highlight from the layer.
+     *
+     * @param highlight the highlight to remove.
+     */
+    @Override
+    public void removeHighlight(@NotNull final IHighlighter.IHighlight highlight)
+    {
+        if (highlight instanceof CompactHighlightStore.CompactHighlight)
+        {
+            final CompactHighlightStore.CompactHighlight view = (CompactHighlightStore.CompactHighlight) highlight;
+            if (view.store == compactStore)
+            {
+                compactStore.remove(view.start, view.end, view.style & 0xFF);
+            }
+        }
+        else if (highlights.remove(highlight))
+        {
+            highlighter.damageRange(highlight.getStartOffset(), highlight.getEndOffset());
+        }
+    }
+
+    /**
+     * Removes all highlights from the layer.
+     */
+    @Override
+    public void clear()
+    {
+        final long oldMinOffset = minOffset;
+        final long oldMaxOffset = maxOffset;
+        clearSilently();
+        highlighter.damageRange(oldMinOffset, oldMaxOffset);
+    }
+
+    /**
+     * @return the number of highlights of the layer.
+     */
+    @Override
+    public int getHighlightsCount()
+    {
+        return highlights.size() + (compactStore == null ? 0 : compactStore.size());
+    }
+
+    /**
+     * Returns the highlights of the layer.
+     * <p/>
+     * The highlights of the compact storage are returned as lightweight views, created by this call.
+     *
+     * @return the highlights of the layer, in insertion order, followed by the ones of the compact storage.
+     */
+    @NotNull
+    @Override
+    public List<IHighlighter.IHighlight> getHighlights()
+    {
+        final List<IHighlighter.IHighlight> result = new ArrayList<>(getHighlightsCount());
+        result.addAll(highlights);
+        if (compactStore != null)
+        {
+            compactStore.addViewsTo(result);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a highlight belongs to this layer.
+     *
+     * @param highlight the highlight to check.
+     * @return <code>true</code> if the highlight was created by this layer.
+     */
+    @Override
+    public boolean isLayerOf(@NotNull final IHighlighter.IHighlight highlight)
+    {
+        if (highlight instanceof CompactHighlightStore.CompactHighlight)
+        {
+            return ((CompactHighlightStore.CompactHighlight) highlight).store == compactStore;
+        }
+        return highlight instanceof HighlightInfo && ((HighlightInfo) highlight).layer == this;
+    }
+
+    /**
+     * @return the compact storage of the layer, or <code>null</code> if it wasn't created.
+     */
+    @Nullable
+    CompactHighlightStore compactStoreOrNull()
+    {
+        return compactStore;
+    }
+
+    /**
+     * Calls an action for each highlight of the layer, in insertion order.
+     * The highlights of the compact storage are not included.
+     *
+     * @param action the action to call.
+     */
+    void forEachHighlight(@NotNull final Consumer<IHighlighter.IHighlight> action)
+    {
+        highlights.forEach(action);
+    }
+
+    /**
+     * Removes a set of highlights without damaging them.
+     *
+     * @param toRemove      the highlights to remove, compared by identity.
+     * @param removedAction called for each removed highlight.
+     * @return the number of removed highlights.
+     */
+    int removeSilently(@NotNull final Set<IHighlighter.IHighlight> toRemove, @NotNull final Consumer<IHighlighter.IHighlight> removedAction)
+    {
+        final int oldSize = highlights.size();
+        highlights.removeIf(highlight ->
+        {
+            if (toRemove.contains(highlight))
+            {
+                removedAction.accept(highlight);
+                return true;
+            }
+            return false;
+        });
+        return oldSize - highlights.size();
+    }
+
+    /**
+     * Removes a set of highlights of the compact storage without damaging them.
+     *
+     * @param toRemove      the highlights to remove.
+     * @param removedAction called for each removed highlight.
+     * @return the number of removed highlights.
+     */
+    int removeCompactSilently(@NotNull final Collection<CompactHighlightStore.CompactHighlight> toRemove, @NotNull final Consumer<IHighlighter.IHighlight> removedAction)
+    {
+        return compactStore == null ? 0 : compactStore.removeSilently(toRemove, removedAction);
+    }
+
+    /**
+     * Removes all highlights without damaging them.
+     */
+    void clearSilently()
+    {
+        highlights.clear();
+        if (compactStore != null)
+        {
+            compactStore.clearSilently();
+        }
+        minOffset = Long.MAX_VALUE;
+        maxOffset = -1;
+    }
+
+    /**
+     * Extends the byte range covered by the layer.
+     *
+     * @param start the start of the range.
+     * @param end   the end of the range.
+     */
+    void extendCoveredRange(final long start, final long end)
+    {
+        minOffset = Math.min(minOffset, start);
+        maxOffset = Math.max(maxOffset, end);
+    }
+
+    /**
+     * @return the smallest start offset of all highlights added since the layer was cleared.
+     */
+    long getMinOffset()
+    {
+        return minOffset;
+    }
+
+    /**
+     * @return the largest end offset of all highlights added since the layer was cleared.
+     */
+    long getMaxOffset()
+    {
+        return maxOffset;
+    }
+
+    /**
+     * Damages the byte range covered by the layer.
+     */
+    void damageCoveredRange()
+    {
+        highlighter.damageRange(minOffset, maxOffset);
+    }
+
+    /**
+     * Damages a range of bytes.
+     *
+     * @param start the start of the range.
+     * @param end   the end of the range.
+     */
+    void damageRange(final long start, final long end)
+    {
+        highlighter.damageRange(start, end);
+    }
+
+    /**
+     * Adds a highlight without damaging it.
+     *
+     * @param start   the start of the highlight.
+     * @param end     the end of the highlight.
+     * @param painter the painter of the highlight.
+     * @return the created highlight.
+     */
+    @NotNull
+    private HighlightInfo add(final long start, final long end, @Nullable final IHighlighter.IHighlightPainter painter)
+    {
+        final HighlightInfo info = new HighlightInfo(this, start, end, painter);
+        highlights.add(info);
+        extendCoveredRange(start, end);
+        return info;
+    }
+}
@@ -1,23 +1,35 @@
 package cms.rendner.hexviewer.view.components.highlighter;
 
 import cms.rendner.hexviewer.common.geom.HDimension;
+import cms.rendner.hexviewer.common.ranges.ByteRange;
+import cms.rendner.hexviewer.common.ranges.RowRange;
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * A highlighter adds support for highlighting bytes in a {@link ByteArea}.
  * <p/>
  * The highlights and the painting of the highlights are maintained by the highlighter.
+ * Highlights can be grouped in named {@link IHighlightLayer layers}, the <code>addHighlight</code> methods add to the
+ * {@link #getDefaultLayer() default layer}.
  *
  * @author rendner
  */
 public interface IHighlighter
 {
+    /**
+     * The name of the default layer.
+     */
+    String DEFAULT_LAYER_NAME = "default";
+
     /**
      * Installs the highlighter to the {@link JHexViewer}.
      *
@@ -120,6 +132,82 @@ public interface IHighlighter
     @NotNull
     List<IHighlight> getHighlights();
 
+    /**
+     * Creates a new highlight layer.
+     * <p/>
+     * Layers are painted in ascending z-order, the default layer has the z-order <code>0</code>.
+     * The default implementation throws an {@link UnsupportedOperationException}, highlighters which support layers
+     * have to override this method.
+     *
+     * @param name   the unique name of the layer.
+     * @param zOrder the z-order of the layer.
+     * @return the created layer.
+     * @throws IllegalArgumentException      if a layer with the same name already exists.
+     * @throws UnsupportedOperationException if the highlighter doesn't support layers.
+     */
+    @NotNull
+    default IHighlightLayer createLayer(@NotNull final String name, final int zOrder)
+    {
+        throw new UnsupportedOperationException("The highlighter doesn't support layers.");
+    }
+
+    /**
+     * Returns a layer by its name.
+     * <p/>
+     * The default implementation returns an empty optional.
+     *
+     * @param name the name of the layer.
+     * @return the layer, or an empty optional if no layer with the name exists.
+     */
+    @NotNull
+    default Optional<IHighlightLayer> getLayer(@NotNull final String name)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the layer which contains the highlights added via the <code>addHighlight</code> methods of the highlighter.
+     * <p/>
+     * The default implementation throws an {@link UnsupportedOperationException}, highlighters which support layers
+     * have to override this method.
+     *
+     * @return the default layer, named {@link #DEFAULT_LAYER_NAME}.
+     * @throws UnsupportedOperationException if the highlighter doesn't support layers.
+     */
+    @NotNull
+    default IHighlightLayer getDefaultLayer()
+    {
+        throw new UnsupportedOperationException("The highlighter doesn't support layers.");
+    }
+
+    /**
+     * Returns the layers of the highlighter.
+     * <p/>
+     * The default implementation returns an empty list.
+     *
+     * @return all layers, sorted in paint order (ascending z-order).
+     */
+    @NotNull
+    default List<IHighlightLayer> getLayers()
+    {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Removes a layer and all its highlights.
+     * <p/>
+     * The default implementation throws an {@link UnsupportedOperationException}, highlighters which support layers
+     * have to override this method.
+     *
+     * @param layer the layer to remove.
+     * @throws IllegalArgumentException      if the layer is the default layer.
+     * @throws UnsupportedOperationException if the highlighter doesn't support layers.
+     */
+    default void removeLayer(@NotNull final IHighlightLayer layer)
+    {
+        throw new UnsupportedOperationException("The highlighter doesn't support layers.");
+    }
+
     /**
      * Highlight painter.
      * <p/>
@@ -140,6 +228,34 @@ public interface IHighlighter
         void paint(@NotNull Graphics2D g, @NotNull JHexViewer hexViewer, @NotNull ByteArea area,
                    @NotNull final HDimension rowElementsHDimension, long byteStartIndex, long byteEndIndex);
 
+        /**
+         * Renders the part of a highlight which lies in the painted rows.
+         * <p/>
+         * The highlighter passes the highlight clipped to the rows which intersect the clip of the Graphics2D context,
+         * so that the painting cost only depends on the painted rows and not on the size of the highlight. The full
+         * range of the highlight is passed for painters which have to know where the highlight starts or ends, e.g.
+         * to paint an outline.
+         * <p/>
+         * The default implementation calls {@link #paint(Graphics2D, JHexViewer, ByteArea, HDimension, long, long)}
+         * with the clipped range.
+         *
+         * @param g                     the Graphics2D context in which to paint.
+         * @param hexViewer             the hexViewer to which the area belongs.
+         * @param area                  the area in which the highlight should be painted.
+         * @param rowElementsHDimension the horizontal dimension which covers all chars/bytes of a single row.
+         * @param clipRows              the rows which intersect the clip of the Graphics2D context.
+         * @param byteStartIndex        the start of the highlight clipped to the <code>clipRows</code>.
+         * @param byteEndIndex          the end of the highlight clipped to the <code>clipRows</code>, &gt;= byteStartIndex.
+         * @param highlightStartIndex   the start of the whole highlight.
+         * @param highlightEndIndex     the end of the whole highlight.
+         */
+        default void paintClipped(@NotNull final Graphics2D g, @NotNull final JHexViewer hexViewer, @NotNull final ByteArea area,
+                                  @NotNull final HDimension rowElementsHDimension, @NotNull final RowRange clipRows,
+                                  final long byteStartIndex, final long byteEndIndex,
+                                  final long highlightStartIndex, final long highlightEndIndex)
+        {
+            paint(g, hexViewer, area, rowElementsHDimension, byteStartIndex, byteEndIndex);
+        }
     }
 
     /**
@@ -170,4 +286,117 @@ public interface IHighlighter
         @Nullable
         IHighlightPainter getPainter();
     }
+    /**
+     * A named group of highlights, for example all search hits or all user marks.
+     * <p/>
+     * Layers are painted in ascending z-order, a layer with a higher z-order is painted on top of a layer with a
+     * lower z-order. Each layer can be hidden as a whole and provides bulk operations to replace or clear its
+     * highlights.
+     */
+    interface IHighlightLayer
+    {
+        /**
+         * @return the name of the layer.
+         */
+        @NotNull
+        String getName();
+
+        /**
+         * @return the z-order of the layer.
+         */
+        int getZOrder();
+
+        /**
+         * Changes the z-order of the layer.
+         *
+         * @param zOrder the new z-order.
+         */
+        void setZOrder(int zOrder);
+
+        /**
+         * @return <code>true</code> if the highlights of the layer are painted.
+         */
+        boolean isVisible();
+
+        /**
+         * Shows or hides the highlights of the layer.
+         *
+         * @param visible <code>true</code> to paint the highlights of the layer.
+         */
+        void setVisible(boolean visible);
+
+        /**
+         * @return the painter for the highlights of the layer which don't specify an own painter.
+         */
+        @NotNull
+        Optional<IHighlightPainter> getPainter();
+
+        /**
+         * Sets the painter for the highlights of the layer which don't specify an own painter.
+         *
+         * @param painter the painter, <code>null</code> to use the default painter of the highlighter.
+         */
+        void setPainter(@Nullable IHighlightPainter painter);
+
+        /**
+         * Adds a highlight which is painted with the painter of the layer.
+         *
+         * @param startByteIndex the beginning of the range &gt;= 0
+         * @param endByteIndex   the end of the range &gt;= startByteIndex
+         * @return an object that refers to the added highlight
+         */
+        @NotNull
+        IHighlight addHighlight(long startByteIndex, long endByteIndex);
+
+        /**
+         * Adds a highlight.
+         *
+         * @param startByteIndex the beginning of the range &gt;= 0
+         * @param endByteIndex   the end of the range &gt;= startByteIndex
+         * @param painter        the painter to use for the highlighting, <code>null</code> to use the painter of the layer.
+         * @return an object that refers to the added highlight
+         */
+        @NotNull
+        IHighlight addHighlight(long startByteIndex, long endByteIndex, @Nullable IHighlightPainter painter);
+
+        /**
+         * Replaces all highlights of the layer.
+         *
+         * @param ranges the ranges of the new highlights.
+         * @return the new highlights, in the order of the ranges.
+         */
+        @NotNull
+        List<IHighlight> replaceHighlights(@NotNull Collection<ByteRange> ranges);
+
+        /**
+         * Removes a highlight from the layer.
+         *
+         * @param highlight the highlight to remove.
+         */
+        void removeHighlight(@NotNull IHighlight highlight);
+
+        /**
+         * Removes all highlights from the layer.
+         */
+        void clear();
+
+        /**
+         * @return the number of highlights of the layer.
+         */
+        int getHighlightsCount();
+
+        /**
+         * @return the highlights of the layer.
+         */
+        @NotNull
+        List<IHighlight> getHighlights();
+
+        /**
+         * Checks if a highlight belongs to this layer.
+         *
+         * @param highlight the highlight to check.
+         * @return <code>true</code> if the highlight was created by this layer.
+         */
+        boolean isLayerOf(@NotNull IHighlight highlight);
+    }
 }
@@ -0,0 +1,767 @@
+package cms.rendner.hexviewer.view.components.navigation;
+
+import cms.rendner.hexviewer.common.data.visitor.IByteVisitor;
+import cms.rendner.hexviewer.common.data.walker.ByteWalker;
+import cms.rendner.hexviewer.common.ranges.RowRange;
+import cms.rendner.hexviewer.common.utils.CheckUtils;
+import cms.rendner.hexviewer.model.data.IDataModel;
+import cms.rendner.hexviewer.view.JHexViewer;
+import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
+import cms.rendner.hexviewer.view.components.caret.ICaret;
+import cms.rendner.hexviewer.view.ui.areas.AreaComponentUI;
+import cms.rendner.hexviewer.view.ui.areas.RowStripCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Navigates the byte-areas of a {@link JHexViewer} with animated and kinetic scrolling.
+ * <p/>
+ * Before rows are revealed by a large jump, for example by {@link #goToOffset(long)}, the bytes of the destination
+ * rows are read in the background (which loads the pages of memory mapped files) and the rows are rendered
+ * off-screen into the {@link RowStripCache} of the byte-areas. The destination is revealed afterwards and is painted
+ * by compositing the cached rows. Animated and kinetic scrolling start immediately, their destination is prepared
+ * the same way while the animation runs.
+ * <p/>
+ * If a byte-area has no row strip cache, a cache for {@link #DEFAULT_CACHED_ROWS} rows is installed while the
+ * controller is installed.
+ *
+ * @author rendner
+ */
+public final class NavigationController
+{
+    /**
+     * The default duration of an animated scroll, in milliseconds.
+     */
+    public static final int DEFAULT_ANIMATION_DURATION = 150;
+
+    /**
+     * The default deceleration of a kinetic scroll, in pixels per second squared.
+     */
+    public static final double DEFAULT_DECELERATION = 4000.0d;
+
+    /**
+     * Jumps which are larger than this number of visible pages are revealed without animation.
+     */
+    public static final int MAX_ANIMATED_PAGES = 3;
+
+    /**
+     * The number of rows of the row strip caches installed by the controller.
+     * Large enough to hold the visible rows and the pre-rendered destination rows.
+     */
+    public static final int DEFAULT_CACHED_ROWS = 256;
+
+    /**
+     * The key under which the installed controller is stored in the client properties of the hex viewer.
+     */
+    @NotNull
+    private static final String CLIENT_PROPERTY_KEY = NavigationController.class.getName();
+
+    /**
+     * The interval between two animation frames, in milliseconds.
+     */
+    private static final int FRAME_INTERVAL = 16;
+
+    /**
+     * Reads the destination rows, so that the pages of memory mapped files are loaded before the rows are painted.
+     */
+    @NotNull
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "NavigationController-Worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Incremented on each navigation, used to drop outdated destination preparations.
+     */
+    @NotNull
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Advances the running animation.
+     */
+    @NotNull
+    private final Timer animationTimer;
+
+    /**
+     * The row strip caches installed by the controller, by the ui delegate of the area.
+     */
+    @NotNull
+    private final Map<AreaComponentUI, RowStripCache> installedCaches = new HashMap<>();
+
+    /**
+     * The hex viewer to which the controller is installed.
+     */
+    @Nullable
+    private JHexViewer hexViewer;
+
+    /**
+     * The running animation.
+     */
+    @Nullable
+    private ScrollAnimation animation;
+
+    /**
+     * The caret position of a page move whose destination is being prepared, or <code>-1</code> if none is pending.
+     */
+    private long pendingPageDot = -1;
+
+    /**
+     * The vertical view position of a page move whose destination is being prepared.
+     */
+    private int pendingPageY;
+
+    /**
+     * The time at which the running animation was started, in nanoseconds.
+     */
+    private long animationStartTime;
+
+    /**
+     * The duration of an animated scroll, in milliseconds.
+     */
+    private int animationDuration = DEFAULT_ANIMATION_DURATION;
+
+    /**
+     * The deceleration of a kinetic scroll, in pixels per second squared.
+     */
+    private double deceleration = DEFAULT_DECELERATION;
+
+    /**
+     * Creates a new instance.
+     */
+    public NavigationController()
+    {
+        super();
+
+        animationTimer = new Timer(FRAME_INTERVAL, event -> advanceAnimation());
+        animationTimer.setRepeats(true);
+    }
+
+    /**
+     * Returns the controller installed to a hex viewer.
+     *
+     * @param hexViewer the hex viewer.
+     * @return the installed controller.
+     */
+    @NotNull
+    public static Optional<NavigationController> getInstalled(@NotNull final JHexViewer hexViewer)
+    {
+        final Object value = hexViewer.getClientProperty(CLIENT_PROPERTY_KEY);
+        return value instanceof NavigationController ? Optional.of((NavigationController) value) : Optional.empty();
+    }
+
+    /**
+     * Installs the controller to a hex viewer.
+     *
+     * @param hexViewer the hex viewer to navigate.
+     */
+    public void install(@NotNull final JHexViewer hexViewer)
+    {
+        this.hexViewer = hexViewer;
+        hexViewer.putClientProperty(CLIENT_PROPERTY_KEY, this);
+        installCache(hexViewer.getHexArea());
+        installCache(hexViewer.getTextArea());
+    }
+
+    /**
+     * Uninstalls the controller from a hex viewer.
+     * A running animation is stopped and the row strip caches installed by the controller are removed.
+     *
+     * @param hexViewer the hex viewer to which the controller was installed.
+     */
+    public void uninstall(@NotNull final JHexViewer hexViewer)
+    {
+        stop();
+        installedCaches.forEach((ui, cache) -> {
+            if (ui.getRowStripCache() == cache)
+            {
+                ui.setRowStripCache(null);
+            }
+        });
+        installedCaches.clear();
+        if (hexViewer.getClientProperty(CLIENT_PROPERTY_KEY) == this)
+        {
+            hexViewer.putClientProperty(CLIENT_PROPERTY_KEY, null);
+        }
+        this.hexViewer = null;
+    }
+
+    /**
+     * @return the duration of an animated scroll, in milliseconds.
+     */
+    public int getAnimationDuration()
+    {
+        return animationDuration;
+    }
+
+    /**
+     * Sets the duration of an animated scroll.
+     *
+     * @param animationDuration the duration in milliseconds, &gt;= 0. A value of <code>0</code> disables the animation.
+     */
+    public void setAnimationDuration(final int animationDuration)
+    {
+        CheckUtils.checkMinValue(animationDuration, 0);
+        this.animationDuration = animationDuration;
+    }
+
+    /**
+     * @return the deceleration of a kinetic scroll, in pixels per second squared.
+     */
+    public double getDeceleration()
+    {
+        return deceleration;
+    }
+
+    /**
+     * Sets the deceleration of a kinetic scroll.
+     *
+     * @param deceleration the deceleration in pixels per second squared, &gt; 0.
+     */
+    public void setDeceleration(final double deceleration)
+    {
+        CheckUtils.checkMinValue(deceleration, Double.MIN_VALUE);
+        this.deceleration = deceleration;
+    }
+
+    /**
+     * @return <code>true</code> if an animation is running.
+     */
+    public boolean isAnimating()
+    {
+        return animation != null;
+    }
+
+    /**
+     * Stops the running animation and drops a pending jump.
+     */
+    public void stop()
+    {
+        generation.incrementAndGet();
+        pendingPageDot = -1;
+        animationTimer.stop();
+        animation = null;
+    }
+
+    /**
+     * Moves the caret to an offset and scrolls the row of the offset into the center of the visible area.
+     * <p/>
+     * The destination rows are prepared (read and rendered off-screen) before they are revealed. Near destinations
+     * are revealed by an animated scroll, far destinations by a jump. The caret is moved when the destination is
+     * revealed. Does nothing if the byte-areas aren't displayed in a viewport.
+     *
+     * @param offset the offset of the byte, &gt;= 0. Offsets after the last possible caret position are clamped.
+     */
+    public void goToOffset(final long offset)
+    {
+        CheckUtils.checkMinValue(offset, 0L);
+        final JViewport viewport = getViewport();
+        if (hexViewer == null || viewport == null)
+        {
+            return;
+        }
+
+        stop();
+        final long expectedGeneration = generation.get();
+
+        final long caretIndex = Math.min(offset, hexViewer.getLastPossibleCaretIndex());
+        final Rectangle viewRect = viewport.getViewRect();
+        final int rowHeight = Math.max(1, hexViewer.rowHeight());
+        final int rowY = hexViewer.byteIndexToRowIndex(caretIndex) * rowHeight;
+
+        if (rowY >= viewRect.y && rowY + rowHeight <= viewRect.y + viewRect.height)
+        {
+            moveCaret(caretIndex);
+            return;
+        }
+
+        final int targetY = clampViewY(viewport, rowY - (viewRect.height - rowHeight) / 2);
+        prepareDestination(viewport, targetY, expectedGeneration, () -> {
+            moveCaret(caretIndex);
+            if (Math.abs(targetY - viewport.getViewPosition().y) <= MAX_ANIMATED_PAGES * viewRect.height)
+            {
+                animateTo(viewport, targetY);
+            }
+            else
+            {
+                setViewY(viewport, targetY);
+            }
+        });
+    }
+
+    /**
+     * Scrolls by a number of rows with an animation.
+     * Repeated calls during a running animated scroll are added to the destination of the animation.
+     *
+     * @param rowCount the number of rows to scroll, negative values scroll up.
+     */
+    public void scrollByRows(final int rowCount)
+    {
+        final JViewport viewport = getViewport();
+        if (hexViewer == null || viewport == null)
+        {
+            return;
+        }
+
+        final int startY = animation instanceof EasedAnimation
+                ? ((EasedAnimation) animation).to
+                : viewport.getViewPosition().y;
+        scrollTo(viewport, startY + rowCount * hexViewer.rowHeight());
+    }
+
+    /**
+     * Moves the caret by a number of visible pages and scrolls the visible area by the same number of rows, with an
+     * animation. If the caret wouldn't be visible afterwards, its row is scrolled into the center of the visible area.
+     * <p/>
+     * The destination rows are prepared first, the caret is moved and the animation is started afterwards. Repeated
+     * calls during the preparation continue from the pending destination.
+     *
+     * @param pageCount     the number of pages, negative values move up.
+     * @param withSelection <code>true</code> to extend the selection.
+     */
+    public void pageBy(final int pageCount, final boolean withSelection)
+    {
+        final JViewport viewport = getViewport();
+        final ICaret caret = hexViewer == null ? null : hexViewer.getCaret().orElse(null);
+        if (viewport == null || caret == null)
+        {
+            return;
+        }
+
+        final Rectangle viewRect = viewport.getViewRect();
+        final int rowHeight = Math.max(1, hexViewer.rowHeight());
+        final int visibleRows = Math.max(1, viewRect.height / rowHeight);
+        final boolean pending = pendingPageDot >= 0;
+        final long startDot = pending ? pendingPageDot : caret.getDot();
+        final int startY = pending
+                ? pendingPageY
+                : animation instanceof EasedAnimation ? ((EasedAnimation) animation).to : viewRect.y;
+
+        final long newDot = Math.max(0, Math.min(
+                startDot + (long) pageCount * visibleRows * hexViewer.getBytesPerRow(),
+                hexViewer.getLastPossibleCaretIndex()));
+
+        int targetY = clampViewY(viewport, startY + pageCount * visibleRows * rowHeight);
+        final int caretY = hexViewer.byteIndexToRowIndex(newDot) * rowHeight;
+        if (caretY < targetY || caretY + rowHeight > targetY + viewRect.height)
+        {
+            targetY = clampViewY(viewport, caretY - (viewRect.height - rowHeight) / 2);
+        }
+
+        stop();
+        pendingPageDot = newDot;
+        pendingPageY = targetY;
+
+        final int destinationY = targetY;
+        prepareDestination(viewport, destinationY, generation.get(), () -> {
+            pendingPageDot = -1;
+            caret.moveCaret(newDot, withSelection, false);
+            animateTo(viewport, destinationY);
+        });
+    }
+
+    /**
+     * Starts a kinetic scroll, which decelerates until it stops or reaches the start or end of the byte-areas.
+     * The rows at which the scroll will stop are prepared while the scroll runs.
+     *
+     * @param velocity the initial velocity, in pixels per second. Negative values scroll up.
+     */
+    public void fling(final double velocity)
+    {
+        final JViewport viewport = getViewport();
+        if (viewport == null || velocity == 0)
+        {
+            return;
+        }
+
+        stop();
+        final int startY = viewport.getViewPosition().y;
+        final KineticAnimation kinetic = new KineticAnimation(startY, velocity, deceleration);
+        prepareDestination(viewport, clampViewY(viewport, roundToInt(kinetic.positionAt(kinetic.duration()))), generation.get(), null);
+        startAnimation(kinetic);
+    }
+
+    /**
+     * Scrolls to a vertical view position with an animation and prepares the destination rows in parallel.
+     *
+     * @param viewport the viewport of the byte-areas.
+     * @param y        the vertical view position.
+     */
+    private void scrollTo(@NotNull final JViewport viewport, final int y)
+    {
+        stop();
+        final int targetY = clampViewY(viewport, y);
+        prepareDestination(viewport, targetY, generation.get(), null);
+        animateTo(viewport, targetY);
+    }
+
+    /**
+     * Scrolls to a vertical view position with an animation.
+     *
+     * @param viewport the viewport of the byte-areas.
+     * @param targetY  the vertical view position.
+     */
+    private void animateTo(@NotNull final JViewport viewport, final int targetY)
+    {
+        final int startY = viewport.getViewPosition().y;
+        if (animationDuration == 0 || startY == targetY)
+        {
+            setViewY(viewport, targetY);
+        }
+        else
+        {
+            startAnimation(new EasedAnimation(startY, targetY, animationDuration / 1000.0d));
+        }
+    }
+
+    /**
+     * Starts an animation.
+     *
+     * @param newAnimation the animation to run.
+     */
+    private void startAnimation(@NotNull final ScrollAnimation newAnimation)
+    {
+        animation = newAnimation;
+        animationStartTime = System.nanoTime();
+        animationTimer.start();
+    }
+
+    /**
+     * Moves the view to the position of the running animation for the current time.
+     */
+    private void advanceAnimation()
+    {
+        final JViewport viewport = getViewport();
+        if (animation == null || viewport == null)
+        {
+            animationTimer.stop();
+            animation = null;
+            return;
+        }
+
+        final double elapsed = (System.nanoTime() - animationStartTime) / 1_000_000_000.0d;
+        final boolean finished = elapsed >= animation.duration();
+        final int y = roundToInt(animation.positionAt(Math.min(elapsed, animation.duration())));
+        final int clampedY = clampViewY(viewport, y);
+        setViewY(viewport, clampedY);
+
+        // a kinetic scroll stops at the start or end of the byte-areas
+        if (finished || clampedY != y)
+        {
+            animationTimer.stop();
+            animation = null;
+        }
+    }
+
+    /**
+     * Reads the bytes of the rows visible at a view position in the background and renders these rows off-screen.
+     *
+     * @param viewport           the viewport of the byte-areas.
+     * @param targetY            the vertical view position.
+     * @param expectedGeneration the generation of the navigation, the preparation is dropped if it is outdated.
+     * @param reveal             called on the event dispatch thread after the rows are prepared, can be <code>null</code>.
+     */
+    private void prepareDestination(@NotNull final JViewport viewport,
+                                    final int targetY,
+                                    final long expectedGeneration,
+                                    @Nullable final Runnable reveal)
+    {
+        final JHexViewer viewer = hexViewer;
+        if (viewer == null)
+        {
+            return;
+        }
+
+        final int rowHeight = Math.max(1, viewer.rowHeight());
+        final int lastRowIndex = viewer.getHexArea().getRowCount() - 1;
+        final RowRange rows = new RowRange(
+                Math.min(targetY / rowHeight, lastRowIndex),
+                Math.min((targetY + viewport.getExtentSize().height - 1) / rowHeight, lastRowIndex)
+        );
+
+        final Runnable onPrepared = () -> {
+            if (generation.get() == expectedGeneration && hexViewer == viewer)
+            {
+                prerenderRows(viewer, rows);
+                if (reveal != null)
+                {
+                    reveal.run();
+                }
+            }
+        };
+
+        final IDataModel dataModel = viewer.getDataModel().orElse(null);
+        if (dataModel == null || dataModel.isEmpty())
+        {
+            onPrepared.run();
+            return;
+        }
+
+        final long start = viewer.rowIndexToByteIndex(rows.getStart());
+        final long end = Math.min(viewer.rowIndexToByteIndex(rows.getEnd() + 1) - 1, dataModel.size() - 1);
+        WORKER.execute(() -> {
+            if (generation.get() == expectedGeneration)
+            {
+                try
+                {
+                    new ByteWalker(dataModel).walk(new PageTouchingVisitor(), start, end);
+                }
+                catch (RuntimeException ignore)
+                {
+                    // the rows are revealed anyway, the painters handle unreadable bytes
+                }
+            }
+            SwingUtilities.invokeLater(onPrepared);
+        });
+    }
+
+    /**
+     * Renders rows of the byte-areas off-screen into their row strip caches.
+     *
+     * @param viewer the hex viewer.
+     * @param rows   the rows to render.
+     */
+    private void prerenderRows(@NotNull final JHexViewer viewer, @NotNull final RowRange rows)
+    {
+        for (final ByteArea area : new ByteArea[]{viewer.getHexArea(), viewer.getTextArea()})
+        {
+            final AreaComponentUI ui = area.getUI();
+            if (ui != null)
+            {
+                ui.prerenderRows(rows.getStart(), rows.getEnd());
+            }
+        }
+    }
+
+    /**
+     * Installs a row strip cache for an area, if the area has none.
+     *
+     * @param area the area.
+     */
+    private void installCache(@NotNull final ByteArea area)
+    {
+        final AreaComponentUI ui = area.getUI();
+        if (ui != null && ui.getRowStripCache() == null)
+        {
+            final RowStripCache cache = RowStripCache.withMaxRows(DEFAULT_CACHED_ROWS);
+            ui.setRowStripCache(cache);
+            installedCaches.put(ui, cache);
+        }
+    }
+
+    /**
+     * Moves the caret, without scrolling.
+     *
+     * @param caretIndex the new position of the caret.
+     */
+    private void moveCaret(final long caretIndex)
+    {
+        if (hexViewer != null)
+        {
+            hexViewer.getCaret().ifPresent(caret -> caret.moveCaret(caretIndex, false, false));
+        }
+    }
+
+    /**
+     * @return the viewport which displays the byte-areas, or <code>null</code> if the areas aren't displayed in a viewport.
+     */
+    @Nullable
+    private JViewport getViewport()
+    {
+        return hexViewer == null
+                ? null
+                : (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, hexViewer.getHexArea());
+    }
+
+    /**
+     * Clamps a vertical view position to the scrollable range of a viewport.
+     *
+     * @param viewport the viewport.
+     * @param y        the vertical view position.
+     * @return the clamped position.
+     */
+    private static int clampViewY(@NotNull final JViewport viewport, final int y)
+    {
+        final Component view = viewport.getView();
+        final int maxY = view == null ? 0 : Math.max(0, view.getHeight() - viewport.getExtentSize().height);
+        return Math.max(0, Math.min(y, maxY));
+    }
+
+    /**
+     * Rounds a view position, positions outside of the int range are saturated.
+     *
+     * @param position the position.
+     * @return the rounded position.
+     */
+    private static int roundToInt(final double position)
+    {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, Math.round(position)));
+    }
+
+    /**
+     * Sets the vertical view position of a viewport, the horizontal position is kept.
+     *
+     * @param viewport the viewport.
+     * @param y        the vertical view position.
+     */
+    private static void setViewY(@NotNull final JViewport viewport, final int y)
+    {
+        final Point position = viewport.getViewPosition();
+        if (position.y != y)
+        {
+            viewport.setViewPosition(new Point(position.x, y));
+        }
+    }
+
+    /**
+     * A vertical scroll animation.
+     */
+    private interface ScrollAnimation
+    {
+        /**
+         * @return the duration of the animation, in seconds.
+         */
+        double duration();
+
+        /**
+         * Computes the vertical view position at a time.
+         *
+         * @param time the elapsed time since the start of the animation, in seconds.
+         * @return the vertical view position.
+         */
+        double positionAt(double time);
+    }
+
+    /**
+     * Scrolls to a position, decelerating towards the end (ease-out cubic).
+     */
+    private static final class EasedAnimation implements ScrollAnimation
+    {
+        /**
+         * The vertical view position at the start.
+         */
+        private final int from;
+
+        /**
+         * The vertical view position at the end.
+         */
+        private final int to;
+
+        /**
+         * The duration, in seconds.
+         */
+        private final double duration;
+
+        EasedAnimation(final int from, final int to, final double duration)
+        {
+            this.from = from;
+            this.to = to;
+            this.duration = duration;
+        }
+
+        @Override
+        public double duration()
+        {
+            return duration;
+        }
+
+        @Override
+        public double positionAt(final double time)
+        {
+            final double remaining = 1.0d - time / duration;
+            return from + (to - from) * (1.0d - remaining * remaining * remaining);
+        }
+    }
+
+    /**
+     * Scrolls with an initial velocity and a constant deceleration.
+     */
+    private static final class KineticAnimation implements ScrollAnimation
+    {
+        /**
+         * The vertical view position at the start.
+         */
+        private final int from;
+
+        /**
+         * The initial velocity, in pixels per second.
+         */
+        private final double velocity;
+
+        /**
+         * The deceleration, in pixels per second squared, with the same sign as the velocity.
+         */
+        private final double deceleration;
+
+        KineticAnimation(final int from, final double velocity, final double deceleration)
+        {
+            this.from = from;
+            this.velocity = velocity;
+            this.deceleration = Math.copySign(deceleration, velocity);
+        }
+
+        @Override
+        public double duration()
+        {
+            return velocity / deceleration;
+        }
+
+        @Override
+        public double positionAt(final double time)
+        {
+            return from + velocity * time - deceleration * time * time / 2.0d;
+        }
+    }
+
+    /**
+     * Reads one byte of each memory page, which is enough to load the pages of memory mapped files.
+     */
+    private static final class PageTouchingVisitor implements IByteVisitor
+    {
+        /**
+         * The assumed size of a memory page.
+         */
+        private static final int PAGE_SIZE = 4096;
+
+        /**
+         * Sum of the read bytes, prevents that the reads are optimized away.
+         */
+        private int checksum;
+
+        @Override
+        public void start()
+        {
+            checksum = 0;
+        }
+
+        @Override
+        public void visitByte(final int value)
+        {
+            checksum += value;
+        }
+
+        @Override
+        public void visitBytes(@NotNull final ByteBuffer buffer)
+        {
+            for (int i = buffer.position(); i < buffer.limit(); i += PAGE_SIZE)
+            {
+                checksum += buffer.get(i);
+            }
+        }
+
+        @Override
+        public void end()
+        {
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package cms.rendner.hexviewer.view.components.overview;
+
+import cms.rendner.hexviewer.common.ranges.RowRange;
+import cms.rendner.hexviewer.model.data.IDataModel;
+import cms.rendner.hexviewer.model.data.IGrowingDataModel;
+import cms.rendner.hexviewer.model.data.stats.ByteStatistics;
+import cms.rendner.hexviewer.view.JHexViewer;
+import cms.rendner.hexviewer.view.components.BorderlessJComponent;
+import cms.rendner.hexviewer.view.components.caret.ICaret;
+import cms.rendner.hexviewer.view.components.caret.ICaretListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Optional;
+
+/**
+ * Displays an overview of the whole data model of a {@link JHexViewer}.
+ * <p/>
+ * The ruler is split into three columns which display the {@link ByteStatistics} of the data model:
+ * <ul>
+ *     <li>the entropy, from dark blue (low) to red (high)</li>
+ *     <li>the ratio of zero bytes</li>
+ *     <li>the ratio of printable ASCII chars</li>
+ * </ul>
+ * The currently visible rows and the position of the caret are marked. Clicking into the ruler moves the caret to
+ * the corresponding offset.
+ * <p/>
+ * Each pixel row of the ruler is mapped to a range of buckets. Because the number of buckets is limited, painting takes
+ * constant time regardless of the size of the data model.
+ *
+ * @author rendner
+ */
+public class OverviewRuler extends BorderlessJComponent
+{
+    /**
+     * The preferred width of the ruler.
+     */
+    private static final int PREFERRED_WIDTH = 24;
+
+    /**
+     * The delay between two repaints while the statistics are computed.
+     */
+    private static final int PROGRESS_REPAINT_DELAY = 100;
+
+    /**
+     * The number of colors of a palette.
+     */
+    private static final int PALETTE_SIZE = 32;
+
+    /**
+     * The colors used to display the entropy.
+     */
+    @NotNull
+    private static final Color[] ENTROPY_PALETTE = createPalette(new Color(0x1A237E), new Color(0xE53935));
+
+    /**
+     * The colors used to display the ratio of zero bytes.
+     */
+    @NotNull
+    private static final Color[] ZERO_PALETTE = createPalette(new Color(0x202020), new Color(0xB0BEC5));
+
+    /**
+     * The colors used to display the ratio of printable chars.
+     */
+    @NotNull
+    private static final Color[] PRINTABLE_PALETTE = createPalette(new Color(0x202020), new Color(0x66BB6A));
+
+    /**
+     * The color to mark the visible rows.
+     */
+    @NotNull
+    private static final Color VISIBLE_ROWS_COLOR = new Color(255, 255, 255, 60);
+
+    /**
+     * The hex viewer whose data model is displayed.
+     */
+    @NotNull
+    private final JHexViewer hexViewer;
+
+    /**
+     * Repaints the ruler while the statistics are computed.
+     */
+    @NotNull
+    private final Timer progressTimer;
+
+    /**
+     * Updates the displayed statistics if the data model or the caret of the hex viewer changes.
+     */
+    @NotNull
+    private final PropertyChangeListener hexViewerListener;
+
+    /**
+     * Repaints the ruler if the caret was moved.
+     */
+    @NotNull
+    private final ICaretListener caretListener;
+
+    /**
+     * The statistics of the current data model, <code>null</code> if not available.
+     */
+    @Nullable
+    private ByteStatistics statistics;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param hexViewer the hex viewer whose data model should be displayed.
+     */
+    public OverviewRuler(@NotNull final JHexViewer hexViewer)
+    {
+        super();
+
+        this.hexViewer = hexViewer;
+
+        progressTimer = new Timer(PROGRESS_REPAINT_DELAY, event -> {
+            if (statistics == null)
+            {
+                updateStatistics();
+            }
+            if (statistics != null && (statistics.isComplete() || statistics.isCancelled()))
+            {
+                ((Timer) event.getSource()).stop();
+            }
+            repaint();
+        });
+
+        caretListener = event -> repaint();
+
+        hexViewerListener = event -> {
+            if (JHexViewer.PROPERTY_DATA_MODEL.equals(event.getPropertyName()))
+            {
+                updateStatistics();
+            }
+            else if (JHexViewer.PROPERTY_CARET.equals(event.getPropertyName()))
+            {
+                if (event.getOldValue() != null)
+                {
+                    ((ICaret) event.getOldValue()).removeCaretListener(caretListener);
+                }
+                if (event.getNewValue() != null)
+                {
+                    ((ICaret) event.getNewValue()).addCoalescedCaretListener(caretListener);
+                }
+                repaint();
+            }
+        };
+
+        final MouseAdapter mouseAdapter = new MouseAdapter()
+        {
+            @Override
+            public void mousePressed(final MouseEvent e)
+            {
+                moveCaretTo(e.getY());
+            }
+
+            @Override
+            public void mouseDragged(final MouseEvent e)
+            {
+                moveCaretTo(e.getY());
+            }
+        };
+        addMouseListener(mouseAdapter);
+        addMouseMotionListener(mouseAdapter);
+
+        setOpaque(true);
+    }
+
+    @Override
+    public void addNotify()
+    {
+        super.addNotify();
+        hexViewer.addPropertyChangeListener(hexViewerListener);
+        hexViewer.getCaret().ifPresent(caret -> caret.addCoalescedCaretListener(caretListener));
+        updateStatistics();
+    }
+
+    @Override
+    public void removeNotify()
+    {
+        hexViewer.removePropertyChangeListener(hexViewerListener);
+        hexViewer.getCaret().ifPresent(caret -> caret.removeCaretListener(caretListener));
+        progressTimer.stop();
+        statistics = null;
+        super.removeNotify();
+    }
+
+    @Override
+    public Dimension getPreferredSize()
+    {
+        if (isPreferredSizeSet())
+        {
+            return super.getPreferredSize();
+        }
+        return new Dimension(PREFERRED_WIDTH, 0);
+    }
+
+    /**
+     * Returns the statistics which are displayed by the ruler.
+     *
+     * @return the statistics, which may not be computed completely.
+     */
+    @NotNull
+    public Optional<ByteStatistics> getStatistics()
+    {
+        return Optional.ofNullable(statistics);
+    }
+
+    @Override
+    protected void paintComponent(@NotNull final Graphics g)
+    {
+        final int width = getWidth();
+        final int height = getHeight();
+
+        g.setColor(getBackground() == null ? Color.BLACK : getBackground());
+        g.fillRect(0, 0, width, height);
+
+        final ByteStatistics currentStatistics = statistics;
+        if (currentStatistics == null || currentStatistics.bucketCount() == 0 || height <= 0)
+        {
+            return;
+        }
+
+        paintStatistics(g, currentStatistics, width, height);
+        paintVisibleRows(g, currentStatistics.dataSize(), width, height);
+        paintCaret(g, currentStatistics.dataSize(), width, height);
+    }
+
+    /**
+     * Paints the three columns of the statistics.
+     * Every pixel row displays the maximum values of the buckets mapped to it.
+     *
+     * @param g          the Graphics context in which to paint.
+     * @param statistics the statistics to paint.
+     * @param width      the width of the ruler.
+     * @param height     the height of the ruler.
+     */
+    private void paintStatistics(@NotNull final Graphics g,
+                                 @NotNull final ByteStatistics statistics,
+                                 final int width,
+                                 final int height)
+    {
+        final int entropyWidth = width / 2;
+        final int zeroWidth = (width - entropyWidth) / 2;
+        final int printableWidth = width - entropyWidth - zeroWidth;
+        final int bucketCount = statistics.bucketCount();
+
+        for (int y = 0; y < height; y++)
+        {
+            final int firstBucket = (int) ((long) y * bucketCount / height);
+            final int endBucket = Math.max(firstBucket + 1, (int) ((long) (y + 1) * bucketCount / height));
+
+            boolean hasValues = false;
+            float entropy = 0;
+            float zeroRatio = 0;
+            float printableRatio = 0;
+            for (int bucket = firstBucket; bucket < endBucket; bucket++)
+            {
+                if (statistics.isComputed(bucket))
+                {
+                    hasValues = true;
+                    entropy = Math.max(entropy, statistics.entropy(bucket));
+                    zeroRatio = Math.max(zeroRatio, statistics.zeroRatio(bucket));
+                    printableRatio = Math.max(printableRatio, statistics.printableRatio(bucket));
+                }
+            }
+
+            if (hasValues)
+            {
+                g.setColor(paletteColor(ENTROPY_PALETTE, entropy));
+                g.fillRect(0, y, entropyWidth, 1);
+                g.setColor(paletteColor(ZERO_PALETTE, zeroRatio));
+                g.fillRect(entropyWidth, y, zeroWidth, 1);
+                g.setColor(paletteColor(PRINTABLE_PALETTE, printableRatio));
+                g.fillRect(entropyWidth + zeroWidth, y, printableWidth, 1);
+            }
+        }
+    }
+
+    /**
+     * Marks the rows which are currently visible in the byte-areas.
+     *
+     * @param g        the Graphics context in which to paint.
+     * @param dataSize the size of the displayed data.
+     * @param width    the width of the ruler.
+     * @param height   the height of the ruler.
+     */
+    private void paintVisibleRows(@NotNull final Graphics g, final long dataSize, final int width, final int height)
+    {
+        final RowRange visibleRows = hexViewer.getHexArea().getIntersectingRows(hexViewer.getHexArea().getVisibleRect());
+        if (!visibleRows.isValid())
+        {
+            return;
+        }
+
+        final int top = offsetToY(hexViewer.rowIndexToByteIndex(visibleRows.getStart()), dataSize, height);
+        final int bottom = offsetToY(hexViewer.rowIndexToByteIndex(visibleRows.getEnd() + 1), dataSize, height);
+        final int markerHeight = Math.max(2, bottom - top);
+
+        g.setColor(VISIBLE_ROWS_COLOR);
+        g.fillRect(0, top, width, markerHeight);
+        g.setColor(Color.WHITE);
+        g.drawRect(0, top, width - 1, markerHeight - 1);
+    }
+
+    /**
+     * Marks the position of the caret.
+     *
+     * @param g        the Graphics context in which to paint.
+     * @param dataSize the size of the displayed data.
+     * @param width    the width of the ruler.
+     * @param height   the height of the ruler.
+     */
+    private void paintCaret(@NotNull final Graphics g, final long dataSize, final int width, final int height)
+    {
+        hexViewer.getCaret().ifPresent(caret -> {
+            final int y = Math.min(height - 1, offsetToY(caret.getDot(), dataSize, height));
+            g.setColor(Color.YELLOW);
+            g.fillRect(0, y, width, 1);
+        });
+    }
+
+    /**
+     * Moves the caret to the offset which corresponds to a y position of the ruler.
+     *
+     * @param y the y position.
+     */
+    private void moveCaretTo(final int y)
+    {
+        final ByteStatistics currentStatistics = statistics;
+        final int height = getHeight();
+        if (currentStatistics == null || height <= 0)
+        {
+            return;
+        }
+
+        final double fraction = Math.max(0, Math.min(1, (double) y / height));
+        final long offset = Math.min(
+                hexViewer.getLastPossibleCaretIndex(),
+                (long) (fraction * currentStatistics.dataSize()));
+
+        hexViewer.getCaret().ifPresent(caret -> caret.moveCaret(Math.max(0, offset), false, true));
+    }
+
+    /**
+     * Requests the statistics for the current data model of the hex viewer.
+     * The computation of the statistics of a growing data model is postponed until the data model is complete.
+     */
+    private void updateStatistics()
+    {
+        final IDataModel dataModel = hexViewer.getDataModel().orElse(null);
+        final boolean isIncomplete = dataModel instanceof IGrowingDataModel && !((IGrowingDataModel) dataModel).isComplete();
+
+        statistics = dataModel == null || isIncomplete ? null : ByteStatistics.of(dataModel);
+
+        if (isIncomplete || (statistics != null && !statistics.isComplete()))
+        {
+            progressTimer.start();
+        }
+        else
+        {
+            progressTimer.stop();
+        }
+
+        repaint();
+    }
+
+    /**
+     * Maps an offset to a y position of the ruler.
+     *
+     * @param offset   the offset.
+     * @param dataSize the size of the displayed data.
+     * @param height   the height of the ruler.
+     * @return the y position.
+     */
+    private static int offsetToY(final long offset, final long dataSize, final int height)
+    {
+        return dataSize == 0 ? 0 : (int) ((double) Math.min(offset, dataSize) / dataSize * height);
+    }
+
+    /**
+     * Returns the color of a palette for a value.
+     *
+     * @param palette the palette.
+     * @param value   the value, in the range [0, 1].
+     * @return the color.
+     */
+    @NotNull
+    private static Color paletteColor(@NotNull final Color[] palette, final float value)
+    {
+        final int index = Math.round(Math.max(0, Math.min(1, value)) * (palette.length - 1));
+        return palette[index];
+    }
+
+    /**
+     * Creates a palette which interpolates between two colors.
+     *
+     * @param low  the color for the value <code>0</code>.
+     * @param high the color for the value <code>1</code>.
+     * @return the created palette.
+     */
+    @NotNull
+    private static Color[] createPalette(@NotNull final Color low, @NotNull final Color high)
+    {
+        final Color[] result = new Color[PALETTE_SIZE];
+        for (int i = 0; i < result.length; i++)
+        {
+            final float fraction = (float) i / (result.length - 1);
+            result[i] = new Color(
+                    Math.round(low.getRed() + (high.getRed() - low.getRed()) * fraction),
+                    Math.round(low.getGreen() + (high.getGreen() - low.getGreen()) * fraction),
+                    Math.round(low.getBlue() + (high.getBlue() - low.getBlue()) * fraction)
+            );
+        }
+        return result;
+    }
+}
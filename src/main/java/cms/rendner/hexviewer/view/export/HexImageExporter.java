@@ -0,0 +1,658 @@
+package cms.rendner.hexviewer.view.export;
+
+import cms.rendner.hexviewer.common.ranges.ByteRange;
+import cms.rendner.hexviewer.common.ranges.RowRange;
+import cms.rendner.hexviewer.common.utils.CheckUtils;
+import cms.rendner.hexviewer.view.JHexViewer;
+import cms.rendner.hexviewer.view.components.areas.common.Area;
+import cms.rendner.hexviewer.view.components.areas.common.AreaComponent;
+import cms.rendner.hexviewer.view.components.areas.common.AreaId;
+import cms.rendner.hexviewer.view.components.areas.common.painter.IAreaPainter;
+import cms.rendner.hexviewer.view.ui.painter.bytes.ByteAreaPainter;
+import cms.rendner.hexviewer.view.ui.painter.offset.OffsetAreaPainter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Renders a byte range of the data model of a {@link JHexViewer} into images, without displaying the hex viewer.
+ * <p/>
+ * The rows are rendered with the row templates, formatters, color providers and highlighters of the areas of the hex
+ * viewer, the areas are placed side by side. The rows are split into tiles, which are rendered in parallel on worker
+ * threads. Each tile is rendered with its own Graphics2D context and its own area painters, which are created by
+ * a painter factory per area. The tiles can be stitched into a single image or passed to an {@link ITileConsumer},
+ * for example to stream them to disk.
+ * <p/>
+ * The exporter works with <code>java.awt.headless=true</code>. The hex viewer doesn't have to be displayed, but it
+ * must not be modified while an export is running.
+ * <pre>
+ *     HexImageExporter.newBuilder()
+ *          .hexViewer(hexViewer)
+ *          .build()
+ *          .writeImage(new ByteRange(0, 4095), Paths.get("dump.png"));
+ * </pre>
+ *
+ * @author rendner
+ */
+public final class HexImageExporter
+{
+    /**
+     * The format of the written images.
+     */
+    private static final String IMAGE_FORMAT = "png";
+
+    /**
+     * The hex viewer whose areas are rendered.
+     */
+    @NotNull
+    private final JHexViewer hexViewer;
+
+    /**
+     * The ids of the rendered areas, from left to right.
+     */
+    @NotNull
+    private final List<AreaId> areaIds;
+
+    /**
+     * The factories which create the area painters used by the worker threads.
+     */
+    @NotNull
+    private final Map<AreaId, Supplier<IAreaPainter>> painterFactories;
+
+    /**
+     * The maximal number of rows per tile.
+     */
+    private final int rowsPerTile;
+
+    /**
+     * The number of worker threads.
+     */
+    private final int threadCount;
+
+    /**
+     * The horizontal space between the areas.
+     */
+    private final int areaSpacing;
+
+    /**
+     * The color used to fill the space between the areas.
+     */
+    @NotNull
+    private final Color background;
+
+    /**
+     * Returns a new builder for this class.
+     */
+    @NotNull
+    public static Builder newBuilder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Hide the constructor, use the builder to create an instance.
+     *
+     * @param builder the builder which provides the values.
+     */
+    private HexImageExporter(@NotNull final Builder builder)
+    {
+        this.hexViewer = Objects.requireNonNull(builder.hexViewer);
+        this.areaIds = Collections.unmodifiableList(new ArrayList<>(builder.areaIds));
+        this.painterFactories = new EnumMap<>(builder.painterFactories);
+        this.rowsPerTile = builder.rowsPerTile;
+        this.threadCount = builder.threadCount;
+        this.areaSpacing = builder.areaSpacing;
+        this.background = builder.background == null ? hexViewer.getBackground() : builder.background;
+    }
+
+    /**
+     * Renders the rows of a byte range into a single image.
+     * <p/>
+     * The rows containing the first and the last byte of the range are rendered completely.
+     *
+     * @param range the range of bytes to render.
+     * @return the rendered image.
+     * @throws InterruptedException     if the calling thread was interrupted while waiting for the worker threads.
+     * @throws IllegalArgumentException if the range is invalid, or if the image would be too large.
+     * @throws IllegalStateException    if the hex viewer has no data model or an area has no row template.
+     */
+    @NotNull
+    public BufferedImage render(@NotNull final ByteRange range) throws InterruptedException
+    {
+        final Layout layout = createLayout(range);
+        final long imageHeight = (long) layout.rows.getLength() * layout.rowHeight;
+        if (imageHeight * layout.width > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("The range " + range + " is too large to be rendered into a single image.");
+        }
+
+        final BufferedImage image = new BufferedImage(layout.width, (int) imageHeight, BufferedImage.TYPE_INT_RGB);
+        try
+        {
+            // the tiles are rendered directly into disjoint regions of the image
+            renderTiles(layout, (tileIndex, tileRows) -> {
+                final int y = (tileRows.getStart() - layout.rows.getStart()) * layout.rowHeight;
+                final BufferedImage tile = image.getSubimage(0, y, layout.width, tileRows.getLength() * layout.rowHeight);
+                paintTile(tile, layout, tileRows);
+            });
+        }
+        catch (final IOException e)
+        {
+            // can't happen, no tile is written
+            throw new IllegalStateException(e);
+        }
+        return image;
+    }
+
+    /**
+     * Renders the rows of a byte range into tiles and passes them to a consumer.
+     * <p/>
+     * The rows containing the first and the last byte of the range are rendered completely. Every tile is
+     * rendered into its own image, the number of images in memory is limited by the number of worker threads.
+     *
+     * @param range    the range of bytes to render.
+     * @param consumer receives the rendered tiles, is called from the worker threads.
+     * @throws IOException              if the consumer failed to process a tile.
+     * @throws InterruptedException     if the calling thread was interrupted while waiting for the worker threads.
+     * @throws IllegalArgumentException if the range is invalid.
+     * @throws IllegalStateException    if the hex viewer has no data model or an area has no row template.
+     */
+    public void renderTiles(@NotNull final ByteRange range, @NotNull final ITileConsumer consumer) throws IOException, InterruptedException
+    {
+        final Layout layout = createLayout(range);
+        renderTiles(layout, (tileIndex, tileRows) -> {
+            final BufferedImage tile = new BufferedImage(layout.width, tileRows.getLength() * layout.rowHeight, BufferedImage.TYPE_INT_RGB);
+            paintTile(tile, layout, tileRows);
+            consumer.accept(tileIndex, tileRows, tile);
+        });
+    }
+
+    /**
+     * Renders the rows of a byte range into a single PNG file.
+     *
+     * @param range the range of bytes to render.
+     * @param file  the file to write.
+     * @throws IOException          if the file couldn't be written.
+     * @throws InterruptedException if the calling thread was interrupted while waiting for the worker threads.
+     * @see #render(ByteRange)
+     */
+    public void writeImage(@NotNull final ByteRange range, @NotNull final Path file) throws IOException, InterruptedException
+    {
+        write(render(range), file);
+    }
+
+    /**
+     * Renders the rows of a byte range into tiles and writes each tile as PNG file into a directory.
+     * <p/>
+     * The files are named <code>&lt;prefix&gt;&lt;tileIndex&gt;.png</code>, the tile index is padded to five digits.
+     *
+     * @param range     the range of bytes to render.
+     * @param directory the directory to write the files into, has to exist.
+     * @param prefix    the prefix of the file names.
+     * @return the written files, ordered by the tile index.
+     * @throws IOException          if a file couldn't be written.
+     * @throws InterruptedException if the calling thread was interrupted while waiting for the worker threads.
+     * @see #renderTiles(ByteRange, ITileConsumer)
+     */
+    @NotNull
+    public List<Path> writeTiles(@NotNull final ByteRange range, @NotNull final Path directory, @NotNull final String prefix) throws IOException, InterruptedException
+    {
+        final Map<Integer, Path> files = new ConcurrentSkipListMap<>();
+        renderTiles(range, (tileIndex, rows, tile) -> {
+            final Path file = directory.resolve(String.format("%s%05d.%s", prefix, tileIndex, IMAGE_FORMAT));
+            write(tile, file);
+            files.put(tileIndex, file);
+        });
+        return new ArrayList<>(files.values());
+    }
+
+    /**
+     * Writes an image as PNG file.
+     *
+     * @param image the image to write.
+     * @param file  the file to write.
+     * @throws IOException if the file couldn't be written.
+     */
+    private static void write(@NotNull final BufferedImage image, @NotNull final Path file) throws IOException
+    {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file)))
+        {
+            if (!ImageIO.write(image, IMAGE_FORMAT, out))
+            {
+                throw new IOException("No writer found for the format '" + IMAGE_FORMAT + "'.");
+            }
+        }
+    }
+
+    /**
+     * Computes the position of the areas and the rows to render.
+     *
+     * @param range the range of bytes to render.
+     * @return the layout.
+     */
+    @NotNull
+    private Layout createLayout(@NotNull final ByteRange range)
+    {
+        if (!range.isValid())
+        {
+            throw new IllegalArgumentException("The range " + range + " is invalid.");
+        }
+        if (!hexViewer.getDataModel().isPresent())
+        {
+            throw new IllegalStateException("The hex viewer has no data model.");
+        }
+
+        final List<AreaComponent> areas = new ArrayList<>(areaIds.size());
+        for (final AreaId areaId : areaIds)
+        {
+            final AreaComponent area = getArea(areaId);
+            if (((Area<?, ?>) area).getRowTemplate() == null)
+            {
+                throw new IllegalStateException("The area " + areaId + " has no row template.");
+            }
+            areas.add(area);
+        }
+        ensureSized(areas);
+
+        final long lastByteIndex = Math.min(range.getEnd(), hexViewer.getLastPossibleByteIndex());
+        final RowRange rows = new RowRange(
+                hexViewer.byteIndexToRowIndex(range.getStart()),
+                hexViewer.byteIndexToRowIndex(Math.max(range.getStart(), lastByteIndex))
+        );
+
+        int width = 0;
+        int rowHeight = 0;
+        final int[] x = new int[areas.size()];
+        for (int i = 0; i < areas.size(); i++)
+        {
+            final AreaComponent area = areas.get(i);
+            final long bottom = (long) (rows.getEnd() + 1) * area.getRowHeight();
+            if (bottom > area.getHeight())
+            {
+                throw new IllegalArgumentException("The range " + range + " exceeds the rows which can be rendered by the area " + area.getAreaId() + ".");
+            }
+            x[i] = width;
+            width += area.getWidth() + (i + 1 < areas.size() ? areaSpacing : 0);
+            rowHeight = Math.max(rowHeight, area.getRowHeight());
+        }
+
+        return new Layout(areas, x, Math.max(1, width), rowHeight, rows);
+    }
+
+    /**
+     * Returns the area for an id.
+     *
+     * @param areaId the id of the area.
+     * @return the area.
+     */
+    @NotNull
+    private AreaComponent getArea(@NotNull final AreaId areaId)
+    {
+        switch (areaId)
+        {
+            case OFFSET:
+                return hexViewer.getOffsetArea();
+            case HEX:
+                return hexViewer.getHexArea();
+            default:
+                return hexViewer.getTextArea();
+        }
+    }
+
+    /**
+     * Sizes the areas which weren't laid out yet, for example if the hex viewer was never displayed.
+     * The areas are resized on the event dispatch thread.
+     *
+     * @param areas the areas to check.
+     */
+    private static void ensureSized(@NotNull final List<AreaComponent> areas)
+    {
+        final Runnable task = () -> areas.forEach(area -> {
+            if (area.getWidth() <= 0 || area.getHeight() <= 0)
+            {
+                area.setSize(area.getPreferredSize());
+            }
+        });
+
+        if (SwingUtilities.isEventDispatchThread())
+        {
+            task.run();
+            return;
+        }
+
+        try
+        {
+            SwingUtilities.invokeAndWait(task);
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preparing the areas.", e);
+        }
+        catch (final InvocationTargetException e)
+        {
+            throw new IllegalStateException("Couldn't prepare the areas.", e.getCause());
+        }
+    }
+
+    /**
+     * Splits the rows into tiles and processes them on the worker threads.
+     *
+     * @param layout the layout of the rendered rows.
+     * @param task   processes a single tile.
+     * @throws IOException          if the task failed with an IOException.
+     * @throws InterruptedException if the calling thread was interrupted while waiting for the worker threads.
+     */
+    private void renderTiles(@NotNull final Layout layout, @NotNull final ITileTask task) throws IOException, InterruptedException
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            final Thread thread = new Thread(runnable, "HexImageExporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            int tileIndex = 0;
+            for (int start = layout.rows.getStart(); start <= layout.rows.getEnd(); start += rowsPerTile)
+            {
+                final int index = tileIndex++;
+                final RowRange tileRows = new RowRange(start, Math.min(layout.rows.getEnd(), start + rowsPerTile - 1));
+                futures.add(executor.submit(() -> {
+                    task.run(index, tileRows);
+                    return null;
+                }));
+            }
+
+            for (final Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (final ExecutionException e)
+        {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Renders the areas for a range of rows into an image.
+     *
+     * @param image  the image to render into.
+     * @param layout the layout of the rendered rows.
+     * @param rows   the rows to render.
+     */
+    private void paintTile(@NotNull final BufferedImage image, @NotNull final Layout layout, @NotNull final RowRange rows)
+    {
+        final Graphics2D g = image.createGraphics();
+        try
+        {
+            g.setColor(background);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+
+            for (int i = 0; i < layout.areas.size(); i++)
+            {
+                final AreaComponent area = layout.areas.get(i);
+                final int width = area.getWidth();
+                final int height = rows.getLength() * area.getRowHeight();
+                final int top = area.getRowRect(rows.getStart()).y;
+
+                final Graphics2D areaGraphics = (Graphics2D) g.create(layout.x[i], 0, width, height);
+                try
+                {
+                    areaGraphics.setColor(area.getBackground());
+                    areaGraphics.fillRect(0, 0, width, height);
+                    areaGraphics.translate(0, -top);
+                    areaGraphics.clipRect(0, top, width, height);
+                    areaGraphics.setFont(area.getFont());
+                    areaGraphics.setColor(area.getForeground());
+                    painterFactories.get(area.getAreaId()).get().paint(areaGraphics, hexViewer, area);
+                }
+                finally
+                {
+                    areaGraphics.dispose();
+                }
+            }
+        }
+        finally
+        {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Processes a single tile on a worker thread.
+     */
+    private interface ITileTask
+    {
+        /**
+         * Processes a tile.
+         *
+         * @param tileIndex the index of the tile.
+         * @param rows      the rows of the tile.
+         * @throws IOException if the tile couldn't be processed.
+         */
+        void run(int tileIndex, @NotNull RowRange rows) throws IOException;
+    }
+
+    /**
+     * The position of the areas and the rows to render.
+     */
+    private static final class Layout
+    {
+        /**
+         * The rendered areas, from left to right.
+         */
+        @NotNull
+        final List<AreaComponent> areas;
+        /**
+         * The x-position of each area.
+         */
+        @NotNull
+        final int[] x;
+        /**
+         * The width of the rendered images.
+         */
+        final int width;
+        /**
+         * The height of a row in the rendered images.
+         */
+        final int rowHeight;
+        /**
+         * The rows to render.
+         */
+        @NotNull
+        final RowRange rows;
+
+        Layout(@NotNull final List<AreaComponent> areas, @NotNull final int[] x, final int width, final int rowHeight, @NotNull final RowRange rows)
+        {
+            this.areas = areas;
+            this.x = x;
+            this.width = width;
+            this.rowHeight = rowHeight;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Builder to configure and create a {@link HexImageExporter}.
+     */
+    public static final class Builder
+    {
+        /**
+         * The hex viewer whose areas are rendered.
+         */
+        @Nullable
+        private JHexViewer hexViewer;
+        /**
+         * The ids of the rendered areas, from left to right.
+         */
+        @NotNull
+        private List<AreaId> areaIds = Arrays.asList(AreaId.OFFSET, AreaId.HEX, AreaId.TEXT);
+        /**
+         * The factories which create the area painters used by the worker threads.
+         */
+        @NotNull
+        private final Map<AreaId, Supplier<IAreaPainter>> painterFactories = new EnumMap<>(AreaId.class);
+        /**
+         * The maximal number of rows per tile.
+         */
+        private int rowsPerTile = 256;
+        /**
+         * The number of worker threads.
+         */
+        private int threadCount = Runtime.getRuntime().availableProcessors();
+        /**
+         * The horizontal space between the areas.
+         */
+        private int areaSpacing = 0;
+        /**
+         * The color used to fill the space between the areas, the background of the hex viewer if <code>null</code>.
+         */
+        @Nullable
+        private Color background;
+
+        private Builder()
+        {
+            painterFactories.put(AreaId.OFFSET, OffsetAreaPainter::new);
+            painterFactories.put(AreaId.HEX, ByteAreaPainter::new);
+            painterFactories.put(AreaId.TEXT, ByteAreaPainter::new);
+        }
+
+        /**
+         * Sets the hex viewer whose areas are rendered.
+         *
+         * @param value the hex viewer, has to be configured with a data model.
+         * @return the builder instance.
+         */
+        public Builder hexViewer(@NotNull final JHexViewer value)
+        {
+            this.hexViewer = value;
+            return this;
+        }
+
+        /**
+         * Sets the areas to render, from left to right.
+         *
+         * @param value the ids of the areas, at least one.
+         * @return the builder instance.
+         */
+        public Builder areas(@NotNull final AreaId... value)
+        {
+            CheckUtils.checkMinValue(value.length, 1);
+            this.areaIds = Arrays.asList(value.clone());
+            return this;
+        }
+
+        /**
+         * Sets the factory which creates the painters for an area.
+         * <p/>
+         * Area painters keep state during a paint call, therefore every tile is rendered with its own painter. By
+         * default the painters of the default ui delegate are used. A custom painter installed to an area of the
+         * hex viewer requires a custom factory.
+         *
+         * @param areaId  the id of the area.
+         * @param factory creates a new painter for every call, called from the worker threads.
+         * @return the builder instance.
+         */
+        public Builder painterFactory(@NotNull final AreaId areaId, @NotNull final Supplier<IAreaPainter> factory)
+        {
+            this.painterFactories.put(areaId, factory);
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of rows per tile.
+         *
+         * @param value the number of rows, &gt;= 1.
+         * @return the builder instance.
+         */
+        public Builder rowsPerTile(final int value)
+        {
+            CheckUtils.checkMinValue(value, 1);
+            this.rowsPerTile = value;
+            return this;
+        }
+
+        /**
+         * Sets the number of worker threads.
+         *
+         * @param value the number of threads, &gt;= 1.
+         * @return the builder instance.
+         */
+        public Builder threadCount(final int value)
+        {
+            CheckUtils.checkMinValue(value, 1);
+            this.threadCount = value;
+            return this;
+        }
+
+        /**
+         * Sets the horizontal space between the areas.
+         *
+         * @param value the space in pixel, &gt;= 0.
+         * @return the builder instance.
+         */
+        public Builder areaSpacing(final int value)
+        {
+            CheckUtils.checkMinValue(value, 0);
+            this.areaSpacing = value;
+            return this;
+        }
+
+        /**
+         * Sets the color used to fill the space between the areas.
+         *
+         * @param value the color, <code>null</code> to use the background of the hex viewer.
+         * @return the builder instance.
+         */
+        public Builder background(@Nullable final Color value)
+        {
+            this.background = value;
+            return this;
+        }
+
+        /**
+         * @return a new exporter with the configured values.
+         * @throws NullPointerException if no hex viewer was set.
+         */
+        @NotNull
+        public HexImageExporter build()
+        {
+            Objects.requireNonNull(hexViewer, "A hex viewer is required.");
+            return new HexImageExporter(this);
+        }
+    }
+}
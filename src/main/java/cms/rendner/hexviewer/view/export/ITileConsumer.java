@@ -0,0 +1,27 @@
+package cms.rendner.hexviewer.view.export;
+
+import cms.rendner.hexviewer.common.ranges.RowRange;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Receives the tiles rendered by a {@link HexImageExporter}.
+ *
+ * @author rendner
+ */
+public interface ITileConsumer
+{
+    /**
+     * Invoked for every rendered tile.
+     * <p/>
+     * This method is called concurrently from the worker threads of the exporter, tiles aren't passed in order.
+     *
+     * @param tileIndex the index of the tile, the first tile has the index <code>0</code>.
+     * @param rows      the rows displayed by the tile.
+     * @param tile      the rendered tile, the image isn't used by the exporter after this call.
+     * @throws IOException if the tile couldn't be processed, aborts the export.
+     */
+    void accept(int tileIndex, @NotNull RowRange rows, @NotNull BufferedImage tile) throws IOException;
+}
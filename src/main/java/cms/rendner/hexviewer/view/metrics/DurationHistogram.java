@@ -0,0 +1,99 @@
+package cms.rendner.hexviewer.view.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations with exponentially growing buckets.
+ * <p/>
+ * The bucket with the index <code>i</code> counts the durations in the range [2^i, 2^(i+1)) microseconds, the first
+ * bucket counts all durations below two microseconds and the last bucket all durations which are too large for the
+ * other buckets.
+ * <p/>
+ * The histogram can be updated and read from different threads.
+ *
+ * @author rendner
+ */
+public final class DurationHistogram
+{
+    /**
+     * The number of buckets, the last bucket starts at about 8.4 seconds.
+     */
+    public static final int BUCKET_COUNT = 24;
+
+    /**
+     * The number of recorded durations per bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds.
+     */
+    public void record(final long nanos)
+    {
+        counts.incrementAndGet(bucketIndexOf(nanos));
+    }
+
+    /**
+     * Returns the bucket which counts a duration.
+     *
+     * @param nanos the duration in nanoseconds.
+     * @return the index of the bucket, in the range [0, BUCKET_COUNT-1].
+     */
+    public static int bucketIndexOf(final long nanos)
+    {
+        final long micros = nanos / 1000L;
+        if (micros <= 1L)
+        {
+            return 0;
+        }
+        return Math.min(BUCKET_COUNT - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    /**
+     * Returns the lower bound of a bucket.
+     *
+     * @param bucketIndex the index of the bucket, in the range [0, BUCKET_COUNT-1].
+     * @return the lower bound in microseconds.
+     */
+    public static long bucketLowerBoundMicros(final int bucketIndex)
+    {
+        return bucketIndex == 0 ? 0L : 1L << bucketIndex;
+    }
+
+    /**
+     * Returns the number of durations counted by a bucket.
+     *
+     * @param bucketIndex the index of the bucket, in the range [0, BUCKET_COUNT-1].
+     * @return the number of durations.
+     */
+    public long count(final int bucketIndex)
+    {
+        return counts.get(bucketIndex);
+    }
+
+    /**
+     * @return the number of durations counted by each bucket.
+     */
+    public long[] snapshot()
+    {
+        final long[] result = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all recorded durations.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts.set(i, 0L);
+        }
+    }
+}
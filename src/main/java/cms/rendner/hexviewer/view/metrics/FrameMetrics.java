@@ -0,0 +1,192 @@
+package cms.rendner.hexviewer.view.metrics;
+
+import cms.rendner.hexviewer.view.components.areas.common.AreaId;
+import cms.rendner.hexviewer.view.components.areas.common.painter.AreaLayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+
+/**
+ * Immutable measurements of a single paint call of an area, a so called frame.
+ *
+ * @author rendner
+ */
+public final class FrameMetrics
+{
+    /**
+     * The id of the painted area.
+     */
+    @NotNull
+    private final AreaId areaId;
+    /**
+     * The region of the area which was painted.
+     */
+    @NotNull
+    private final Rectangle dirtyRegion;
+    /**
+     * The duration of the whole frame in nanoseconds.
+     */
+    private final long durationNanos;
+    /**
+     * The time spent in the layer painters, in nanoseconds, indexed by the ordinal of the {@link AreaLayer}.
+     */
+    @NotNull
+    private final long[] layerNanos;
+    /**
+     * The number of rows rendered by the foreground painter.
+     */
+    private final int rowsPainted;
+    /**
+     * The number of bytes read from the data model.
+     */
+    private final int bytesRead;
+    /**
+     * The number of text draw calls.
+     */
+    private final int textDraws;
+    /**
+     * The number of glyphs passed to the text draw calls.
+     */
+    private final int glyphsDrawn;
+    /**
+     * The number of bytes allocated by the painting thread, <code>-1</code> if not supported by the JVM.
+     */
+    private final long allocatedBytes;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param areaId         the id of the painted area.
+     * @param dirtyRegion    the region of the area which was painted.
+     * @param durationNanos  the duration of the whole frame in nanoseconds.
+     * @param layerNanos     the time spent in the layer painters, indexed by the ordinal of the {@link AreaLayer}.
+     * @param rowsPainted    the number of rows rendered by the foreground painter.
+     * @param bytesRead      the number of bytes read from the data model.
+     * @param textDraws      the number of text draw calls.
+     * @param glyphsDrawn    the number of glyphs passed to the text draw calls.
+     * @param allocatedBytes the number of bytes allocated by the painting thread, <code>-1</code> if unknown.
+     */
+    FrameMetrics(@NotNull final AreaId areaId,
+                 @NotNull final Rectangle dirtyRegion,
+                 final long durationNanos,
+                 @NotNull final long[] layerNanos,
+                 final int rowsPainted,
+                 final int bytesRead,
+                 final int textDraws,
+                 final int glyphsDrawn,
+                 final long allocatedBytes)
+    {
+        this.areaId = areaId;
+        this.dirtyRegion = new Rectangle(dirtyRegion);
+        this.durationNanos = durationNanos;
+        this.layerNanos = layerNanos.clone();
+        this.rowsPainted = rowsPainted;
+        this.bytesRead = bytesRead;
+        this.textDraws = textDraws;
+        this.glyphsDrawn = glyphsDrawn;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * @return the id of the painted area.
+     */
+    @NotNull
+    public AreaId areaId()
+    {
+        return areaId;
+    }
+
+    /**
+     * @return a copy of the region of the area which was painted.
+     */
+    @NotNull
+    public Rectangle dirtyRegion()
+    {
+        return new Rectangle(dirtyRegion);
+    }
+
+    /**
+     * @return the duration of the whole frame in nanoseconds.
+     */
+    public long durationNanos()
+    {
+        return durationNanos;
+    }
+
+    /**
+     * @return the duration of the whole frame in milliseconds.
+     */
+    public double durationMillis()
+    {
+        return durationNanos / 1_000_000d;
+    }
+
+    /**
+     * Returns the time spent in a layer painter.
+     * <p/>
+     * Layers are painted more than once per frame if the rows of the area are cached, the returned value is the sum
+     * of all calls.
+     *
+     * @param layer the layer.
+     * @return the time in nanoseconds.
+     */
+    public long layerNanos(@NotNull final AreaLayer layer)
+    {
+        return layerNanos[layer.ordinal()];
+    }
+
+    /**
+     * @return the number of rows rendered by the foreground painter. Rows served from a cache aren't counted.
+     */
+    public int rowsPainted()
+    {
+        return rowsPainted;
+    }
+
+    /**
+     * @return the number of bytes read from the data model to render the rows.
+     */
+    public int bytesRead()
+    {
+        return bytesRead;
+    }
+
+    /**
+     * @return the number of text draw calls.
+     */
+    public int textDraws()
+    {
+        return textDraws;
+    }
+
+    /**
+     * @return the number of glyphs passed to the text draw calls.
+     */
+    public int glyphsDrawn()
+    {
+        return glyphsDrawn;
+    }
+
+    /**
+     * @return the number of bytes allocated by the painting thread during the frame, <code>-1</code> if the JVM
+     * doesn't support the measurement of thread allocations.
+     */
+    public long allocatedBytes()
+    {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName()
+                + "[area:" + areaId
+                + ", duration: " + durationMillis() + "ms"
+                + ", rows: " + rowsPainted
+                + ", bytes: " + bytesRead
+                + ", textDraws: " + textDraws
+                + ", glyphs: " + glyphsDrawn
+                + ", allocated: " + allocatedBytes
+                + "]";
+    }
+}
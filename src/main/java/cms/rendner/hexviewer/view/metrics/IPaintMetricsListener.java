@@ -0,0 +1,20 @@
+package cms.rendner.hexviewer.view.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listener which is notified after an area of the {@link cms.rendner.hexviewer.view.JHexViewer} was painted.
+ *
+ * @author rendner
+ */
+public interface IPaintMetricsListener
+{
+    /**
+     * Invoked on the event dispatch thread after an area was painted while the recording of paint metrics was enabled.
+     * <p/>
+     * Listeners are called during the paint process and should return quickly.
+     *
+     * @param frame the metrics of the painted frame.
+     */
+    void framePainted(@NotNull FrameMetrics frame);
+}
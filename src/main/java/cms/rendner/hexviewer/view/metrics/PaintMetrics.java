@@ -0,0 +1,516 @@
+package cms.rendner.hexviewer.view.metrics;
+
+import cms.rendner.hexviewer.view.components.areas.common.AreaId;
+import cms.rendner.hexviewer.view.components.areas.common.painter.AreaLayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the cost of painting the areas of a {@link cms.rendner.hexviewer.view.JHexViewer}.
+ * <p/>
+ * Every paint call of an area is recorded as a frame. The area painters report the time spent in each layer painter,
+ * the number of rendered rows, the number of bytes read from the data model and the number of text draw calls and
+ * glyphs. The number of bytes allocated by the painting thread is measured if the JVM supports it.
+ * <p/>
+ * The measurements of a frame are passed to the registered {@link IPaintMetricsListener}s, the frame durations are
+ * collected in a {@link DurationHistogram} per area. The aggregated values can be observed via JMX, after the
+ * instance was registered with {@link #registerMBean(String)}.
+ * <p/>
+ * Recording is disabled by default. A disabled instance only costs a field read per reported value. Frames are
+ * recorded on the event dispatch thread, values reported by other threads (e.g. by an image export) are ignored.
+ * The aggregated values can be read from any thread.
+ *
+ * @author rendner
+ */
+public final class PaintMetrics implements PaintMetricsMXBean
+{
+    /**
+     * The domain of the object names under which instances are registered at the platform MBean server.
+     */
+    public static final String MBEAN_DOMAIN = "cms.rendner.hexviewer";
+
+    /**
+     * Used to measure the allocations of the painting thread, <code>null</code> if not supported.
+     */
+    @Nullable
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = createAllocationBean();
+
+    /**
+     * Contains the registered listeners.
+     */
+    @NotNull
+    private final List<IPaintMetricsListener> listeners = new ArrayList<>();
+
+    /**
+     * The frame duration histogram per area.
+     */
+    @NotNull
+    private final Map<AreaId, DurationHistogram> histograms = new EnumMap<>(AreaId.class);
+
+    /**
+     * The number of recorded frames.
+     */
+    @NotNull
+    private final AtomicLong frameCount = new AtomicLong();
+
+    /**
+     * The sum of the durations of all recorded frames, in nanoseconds.
+     */
+    @NotNull
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    /**
+     * The maximal duration of all recorded frames, in nanoseconds.
+     */
+    @NotNull
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * The last recorded frame.
+     */
+    @Nullable
+    private volatile FrameMetrics lastFrame;
+
+    /**
+     * Indicates if paint metrics are recorded.
+     */
+    private volatile boolean enabled;
+
+    /**
+     * Indicates if the debug overlay should be painted.
+     */
+    private volatile boolean overlayEnabled;
+
+    /**
+     * The area of the current frame, <code>null</code> if no frame is recorded.
+     */
+    @Nullable
+    private AreaId frameAreaId;
+
+    /**
+     * The thread which records the current frame, values reported by other threads are ignored.
+     */
+    @Nullable
+    private Thread frameThread;
+
+    /**
+     * The region of the area which is painted in the current frame.
+     */
+    @NotNull
+    private final Rectangle frameDirtyRegion = new Rectangle();
+
+    /**
+     * Start time of the current frame.
+     */
+    private long frameStartNanos;
+
+    /**
+     * Thread allocations at the start of the current frame, <code>-1</code> if unknown.
+     */
+    private long frameStartAllocatedBytes;
+
+    /**
+     * Time spent in the layer painters during the current frame, indexed by the ordinal of the {@link AreaLayer}.
+     */
+    @NotNull
+    private final long[] frameLayerNanos = new long[AreaLayer.values().length];
+
+    /**
+     * Number of rows rendered in the current frame.
+     */
+    private int frameRowsPainted;
+
+    /**
+     * Number of bytes read in the current frame.
+     */
+    private int frameBytesRead;
+
+    /**
+     * Number of text draw calls in the current frame.
+     */
+    private int frameTextDraws;
+
+    /**
+     * Number of glyphs drawn in the current frame.
+     */
+    private int frameGlyphsDrawn;
+
+    /**
+     * Creates a new instance with disabled recording.
+     */
+    public PaintMetrics()
+    {
+        super();
+
+        for (final AreaId areaId : AreaId.values())
+        {
+            histograms.put(areaId, new DurationHistogram());
+        }
+    }
+
+    /**
+     * Adds a listener which is notified after each recorded frame.
+     *
+     * @param listener the listener to add.
+     */
+    public void addMetricsListener(@NotNull final IPaintMetricsListener listener)
+    {
+        if (!listeners.contains(listener))
+        {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Removes a previously added listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeMetricsListener(@NotNull final IPaintMetricsListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the frame duration histogram of an area.
+     *
+     * @param areaId the id of the area.
+     * @return the histogram.
+     */
+    @NotNull
+    public DurationHistogram getHistogram(@NotNull final AreaId areaId)
+    {
+        return histograms.get(areaId);
+    }
+
+    /**
+     * @return the last recorded frame.
+     */
+    @NotNull
+    public Optional<FrameMetrics> getLastFrame()
+    {
+        return Optional.ofNullable(lastFrame);
+    }
+
+    /**
+     * Starts the recording of a frame.
+     * <p/>
+     * Does nothing if recording is disabled.
+     *
+     * @param areaId      the id of the area which is painted.
+     * @param dirtyRegion the region of the area which is painted, <code>null</code> if unknown.
+     * @return <code>true</code> if the frame is recorded, in this case {@link #endFrame()} has to be called after the
+     * area was painted.
+     */
+    public boolean beginFrame(@NotNull final AreaId areaId, @Nullable final Rectangle dirtyRegion)
+    {
+        if (!enabled)
+        {
+            return false;
+        }
+
+        frameAreaId = areaId;
+        frameThread = Thread.currentThread();
+        if (dirtyRegion == null)
+        {
+            frameDirtyRegion.setBounds(0, 0, 0, 0);
+        }
+        else
+        {
+            frameDirtyRegion.setBounds(dirtyRegion);
+        }
+        Arrays.fill(frameLayerNanos, 0L);
+        frameRowsPainted = 0;
+        frameBytesRead = 0;
+        frameTextDraws = 0;
+        frameGlyphsDrawn = 0;
+        frameStartAllocatedBytes = currentThreadAllocatedBytes();
+        frameStartNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Finishes the recording of the current frame and notifies the listeners.
+     *
+     * @return the metrics of the frame.
+     * @throws IllegalStateException if no frame is recorded.
+     */
+    @NotNull
+    public FrameMetrics endFrame()
+    {
+        final long durationNanos = System.nanoTime() - frameStartNanos;
+        final long allocatedBytes = frameStartAllocatedBytes < 0 ? -1L : currentThreadAllocatedBytes() - frameStartAllocatedBytes;
+
+        final AreaId areaId = frameAreaId;
+        if (areaId == null || !isRecording())
+        {
+            throw new IllegalStateException("No frame is recorded.");
+        }
+        frameAreaId = null;
+        frameThread = null;
+
+        final FrameMetrics frame = new FrameMetrics(
+                areaId,
+                frameDirtyRegion,
+                durationNanos,
+                frameLayerNanos,
+                frameRowsPainted,
+                frameBytesRead,
+                frameTextDraws,
+                frameGlyphsDrawn,
+                allocatedBytes
+        );
+
+        histograms.get(areaId).record(durationNanos);
+        frameCount.incrementAndGet();
+        totalNanos.addAndGet(durationNanos);
+        maxNanos.accumulateAndGet(durationNanos, Math::max);
+        lastFrame = frame;
+
+        listeners.forEach(listener -> listener.framePainted(frame));
+
+        return frame;
+    }
+
+    /**
+     * @return <code>true</code> if a frame is currently recorded by the calling thread.
+     */
+    public boolean isRecording()
+    {
+        return frameThread == Thread.currentThread();
+    }
+
+    /**
+     * Has to be called before a layer painter is invoked.
+     *
+     * @return the start time to pass to {@link #layerFinished(AreaLayer, long)}, <code>0</code> if no frame is recorded
+     * by the calling thread.
+     */
+    public long layerStarted()
+    {
+        return isRecording() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Has to be called after a layer painter was invoked.
+     *
+     * @param layer      the painted layer.
+     * @param startNanos the value returned by {@link #layerStarted()}.
+     */
+    public void layerFinished(@NotNull final AreaLayer layer, final long startNanos)
+    {
+        if (startNanos != 0L && isRecording())
+        {
+            frameLayerNanos[layer.ordinal()] += System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Reports rendered rows.
+     *
+     * @param count the number of rendered rows.
+     */
+    public void rowsPainted(final int count)
+    {
+        if (isRecording())
+        {
+            frameRowsPainted += count;
+        }
+    }
+
+    /**
+     * Reports bytes read from the data model.
+     *
+     * @param count the number of read bytes.
+     */
+    public void bytesRead(final int count)
+    {
+        if (isRecording())
+        {
+            frameBytesRead += count;
+        }
+    }
+
+    /**
+     * Reports a text draw call.
+     *
+     * @param glyphCount the number of glyphs passed to the draw call.
+     */
+    public void textDrawn(final int glyphCount)
+    {
+        if (isRecording())
+        {
+            frameTextDraws++;
+            frameGlyphsDrawn += glyphCount;
+        }
+    }
+
+    /**
+     * Registers this instance at the platform MBean server.
+     *
+     * @param name the value of the <code>name</code> key of the object name, to distinguish multiple instances.
+     * @return the object name under which the instance was registered.
+     * @throws JMException if the instance couldn't be registered.
+     */
+    @NotNull
+    public ObjectName registerMBean(@NotNull final String name) throws JMException
+    {
+        final ObjectName objectName = new ObjectName(MBEAN_DOMAIN + ":type=PaintMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Unregisters this instance from the platform MBean server.
+     *
+     * @param objectName the object name returned by {@link #registerMBean(String)}.
+     * @throws JMException if the instance couldn't be unregistered.
+     */
+    public void unregisterMBean(@NotNull final ObjectName objectName) throws JMException
+    {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isOverlayEnabled()
+    {
+        return overlayEnabled;
+    }
+
+    @Override
+    public void setOverlayEnabled(final boolean enabled)
+    {
+        this.overlayEnabled = enabled;
+    }
+
+    @Override
+    public long getFrameCount()
+    {
+        return frameCount.get();
+    }
+
+    @Override
+    public double getMeanFrameMillis()
+    {
+        final long count = frameCount.get();
+        return count == 0 ? 0d : totalNanos.get() / (double) count / 1_000_000d;
+    }
+
+    @Override
+    public double getMaxFrameMillis()
+    {
+        return maxNanos.get() / 1_000_000d;
+    }
+
+    @Override
+    public double getLastFrameMillis()
+    {
+        final FrameMetrics frame = lastFrame;
+        return frame == null ? 0d : frame.durationMillis();
+    }
+
+    @Override
+    public long getLastRowsPainted()
+    {
+        final FrameMetrics frame = lastFrame;
+        return frame == null ? 0L : frame.rowsPainted();
+    }
+
+    @Override
+    public long getLastBytesRead()
+    {
+        final FrameMetrics frame = lastFrame;
+        return frame == null ? 0L : frame.bytesRead();
+    }
+
+    @Override
+    public long getLastTextDraws()
+    {
+        final FrameMetrics frame = lastFrame;
+        return frame == null ? 0L : frame.textDraws();
+    }
+
+    @Override
+    public long getLastGlyphsDrawn()
+    {
+        final FrameMetrics frame = lastFrame;
+        return frame == null ? 0L : frame.glyphsDrawn();
+    }
+
+    @Override
+    public long getLastAllocatedBytes()
+    {
+        final FrameMetrics frame = lastFrame;
+        return frame == null ? -1L : frame.allocatedBytes();
+    }
+
+    @Override
+    public long[] getDurationHistogram(final String areaId)
+    {
+        return histograms.get(AreaId.valueOf(areaId)).snapshot();
+    }
+
+    @Override
+    public void reset()
+    {
+        histograms.values().forEach(DurationHistogram::reset);
+        frameCount.set(0L);
+        totalNanos.set(0L);
+        maxNanos.set(0L);
+        lastFrame = null;
+    }
+
+    /**
+     * @return the number of bytes allocated by the current thread, <code>-1</code> if not supported.
+     */
+    private static long currentThreadAllocatedBytes()
+    {
+        return ALLOCATION_BEAN == null ? -1L : ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return the bean to measure thread allocations, <code>null</code> if not supported by the JVM.
+     */
+    @Nullable
+    private static com.sun.management.ThreadMXBean createAllocationBean()
+    {
+        try
+        {
+            final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean)
+            {
+                final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+                if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled())
+                {
+                    return allocationBean;
+                }
+            }
+        }
+        catch (final LinkageError | SecurityException e)
+        {
+            // not available on this JVM
+        }
+        return null;
+    }
+}
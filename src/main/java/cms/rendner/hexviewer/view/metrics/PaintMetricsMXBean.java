@@ -0,0 +1,94 @@
+package cms.rendner.hexviewer.view.metrics;
+
+/**
+ * Management interface of the {@link PaintMetrics}, to observe the paint performance of a
+ * {@link cms.rendner.hexviewer.view.JHexViewer} with a JMX client.
+ *
+ * @author rendner
+ */
+public interface PaintMetricsMXBean
+{
+    /**
+     * @return <code>true</code> if paint metrics are recorded.
+     */
+    boolean isEnabled();
+
+    /**
+     * Enables or disables the recording of paint metrics.
+     *
+     * @param enabled <code>true</code> to record paint metrics.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return <code>true</code> if the debug overlay is painted on top of the areas.
+     */
+    boolean isOverlayEnabled();
+
+    /**
+     * Enables or disables the debug overlay, which outlines the painted regions and displays the frame time.
+     * The overlay is only painted while paint metrics are recorded.
+     *
+     * @param enabled <code>true</code> to paint the debug overlay.
+     */
+    void setOverlayEnabled(boolean enabled);
+
+    /**
+     * @return the number of recorded frames.
+     */
+    long getFrameCount();
+
+    /**
+     * @return the mean duration of all recorded frames in milliseconds.
+     */
+    double getMeanFrameMillis();
+
+    /**
+     * @return the maximal duration of all recorded frames in milliseconds.
+     */
+    double getMaxFrameMillis();
+
+    /**
+     * @return the duration of the last recorded frame in milliseconds.
+     */
+    double getLastFrameMillis();
+
+    /**
+     * @return the number of rows rendered in the last recorded frame.
+     */
+    long getLastRowsPainted();
+
+    /**
+     * @return the number of bytes read from the data model in the last recorded frame.
+     */
+    long getLastBytesRead();
+
+    /**
+     * @return the number of text draw calls in the last recorded frame.
+     */
+    long getLastTextDraws();
+
+    /**
+     * @return the number of glyphs drawn in the last recorded frame.
+     */
+    long getLastGlyphsDrawn();
+
+    /**
+     * @return the number of bytes allocated in the last recorded frame, <code>-1</code> if unknown.
+     */
+    long getLastAllocatedBytes();
+
+    /**
+     * Returns the frame duration histogram of an area.
+     *
+     * @param areaId the name of the {@link cms.rendner.hexviewer.view.components.areas.common.AreaId}.
+     * @return the number of frames per bucket, see {@link DurationHistogram} for the bounds of the buckets.
+     * @throws IllegalArgumentException if no area with the specified name exists.
+     */
+    long[] getDurationHistogram(String areaId);
+
+    /**
+     * Removes all recorded metrics.
+     */
+    void reset();
+}
@@ -1,8 +1,13 @@
 package cms.rendner.hexviewer.view.ui;
 
+import cms.rendner.hexviewer.common.data.wrapper.RowData;
 import cms.rendner.hexviewer.common.rowtemplate.offset.IOffsetRowTemplate;
 import cms.rendner.hexviewer.common.utils.FontUtils;
 import cms.rendner.hexviewer.common.utils.UIDelegateUtils;
+import cms.rendner.hexviewer.model.data.IDataModelListener;
+import cms.rendner.hexviewer.model.data.IDataModel;
+import cms.rendner.hexviewer.model.data.IGrowingDataModel;
+import cms.rendner.hexviewer.model.data.stats.ByteStatistics;
 import cms.rendner.hexviewer.model.rowtemplate.configuration.HexRowTemplateConfiguration;
 import cms.rendner.hexviewer.model.rowtemplate.configuration.OffsetRowTemplateConfiguration;
 import cms.rendner.hexviewer.model.rowtemplate.configuration.TextRowTemplateConfiguration;
@@ -23,6 +28,7 @@ import cms.rendner.hexviewer.view.components.damager.DefaultDamager;
 import cms.rendner.hexviewer.view.components.damager.IDamager;
 import cms.rendner.hexviewer.view.components.highlighter.DefaultHighlighter;
 import cms.rendner.hexviewer.view.components.highlighter.IHighlighter;
+import cms.rendner.hexviewer.view.components.overview.OverviewRuler;
 import cms.rendner.hexviewer.view.ui.areas.AreaComponentUI;
 import cms.rendner.hexviewer.view.ui.container.bytes.ByteAreasContainer;
 import cms.rendner.hexviewer.view.ui.container.offset.OffsetAreaContainer;
@@ -33,6 +39,7 @@ import cms.rendner.hexviewer.view.ui.painter.offset.OffsetAreaPainter;
 import cms.rendner.hexviewer.view.ui.rowtemplate.factory.bytes.HexRowTemplateFactory;
 import cms.rendner.hexviewer.view.ui.rowtemplate.factory.bytes.TextRowTemplateFactory;
 import cms.rendner.hexviewer.view.ui.rowtemplate.factory.offset.OffsetRowTemplateFactory;
+import cms.rendner.hexviewer.view.ui.rowtemplate.factory.utils.RowTemplateGeometry;
 import org.intellij.lang.annotations.MagicConstant;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -42,10 +49,13 @@ import javax.swing.plaf.ComponentUI;
 import javax.swing.plaf.FontUIResource;
 import javax.swing.plaf.UIResource;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.Arrays;
 
 /**
  * Basis of a JHexViewer component look-and-feel (LAF).
@@ -56,6 +66,11 @@ import java.beans.PropertyChangeListener;
  */
 public class BasicHexViewerUI extends HexViewerUI
 {
+    /**
+     * The minimal delay, in milliseconds, between two adjustments of the bytes per row to the available width.
+     */
+    public static final int AUTO_BYTES_PER_ROW_RELAYOUT_DELAY = 50;
+
     /**
      * Reference to the {@link JHexViewer} component.
      */
@@ -77,6 +92,13 @@ public class BasicHexViewerUI extends HexViewerUI
      */
     protected ByteAreasContainer byteAreasContainer;
 
+    /**
+     * The overview ruler, displayed beside the byte-areas if enabled.
+     * Is created the first time the ruler is enabled.
+     */
+    @Nullable
+    protected OverviewRuler overviewRuler;
+
     /**
      * Used to listen for JComponent property changes.
      */
@@ -92,6 +114,21 @@ public class BasicHexViewerUI extends HexViewerUI
      */
     private ICaretListener caretListener;
 
+    /**
+     * Used to listen for size changes of growing data models.
+     */
+    private IDataModelListener dataModelListener;
+
+    /**
+     * Used to listen for size changes of the viewport, to adjust the bytes per row if enabled.
+     */
+    private ComponentAdapter viewportResizeListener;
+
+    /**
+     * Throttles the adjustments of the bytes per row during a resize of the viewport.
+     */
+    private Timer autoBytesPerRowTimer;
+
     /**
      * The row template factory used to create row templates for the offset-area.
      */
@@ -171,9 +208,40 @@ public class BasicHexViewerUI extends HexViewerUI
         scrollPane.setViewportView(byteAreasContainer);
         scrollPane.setRowHeaderView(offsetAreaContainer);
 
+        scrollPane.getViewport().addChangeListener(event -> {
+            if (overviewRuler != null && overviewRuler.isShowing())
+            {
+                overviewRuler.repaint();
+            }
+        });
+
         hexViewer.setLayout(new BorderLayout());
         hexViewer.add(scrollPane, BorderLayout.CENTER);
         hexViewer.setFocusTraversalKeysEnabled(false);
+
+        updateOverviewRuler();
+    }
+
+    /**
+     * Adds or removes the overview ruler, depending on the <code>showOverviewRuler</code> property of the {@link JHexViewer}.
+     */
+    protected void updateOverviewRuler()
+    {
+        final boolean isInstalled = overviewRuler != null && overviewRuler.getParent() == hexViewer;
+        if (hexViewer.isShowOverviewRuler() && !isInstalled)
+        {
+            if (overviewRuler == null)
+            {
+                overviewRuler = new OverviewRuler(hexViewer);
+            }
+            hexViewer.add(overviewRuler, BorderLayout.EAST);
+        }
+        else if (!hexViewer.isShowOverviewRuler() && isInstalled)
+        {
+            hexViewer.remove(overviewRuler);
+        }
+        hexViewer.revalidate();
+        hexViewer.repaint();
     }
 
     /**
@@ -450,10 +518,19 @@ public class BasicHexViewerUI extends HexViewerUI
     {
         mouseAdapter = createMouseAdapter();
         caretListener = createCaretListener();
+        dataModelListener = createDataModelListener();
         propertyChangeListener = createPropertyChangeListener();
+        viewportResizeListener = createViewportResizeListener();
+
+        autoBytesPerRowTimer = new Timer(AUTO_BYTES_PER_ROW_RELAYOUT_DELAY, event -> adjustBytesPerRowToViewport());
+        autoBytesPerRowTimer.setRepeats(false);
 
         hexViewer.addPropertyChangeListener(propertyChangeListener);
+        scrollPane.getViewport().addComponentListener(viewportResizeListener);
         hexViewer.getCaret().ifPresent(model -> model.addCaretListener(caretListener));
+        hexViewer.getDataModel()
+                .filter(IGrowingDataModel.class::isInstance)
+                .ifPresent(model -> ((IGrowingDataModel) model).addDataModelListener(dataModelListener));
 
         final OffsetArea offsetArea = hexViewer.getOffsetArea();
         offsetArea.addPropertyChangeListener(propertyChangeListener);
@@ -473,7 +550,12 @@ public class BasicHexViewerUI extends HexViewerUI
     protected void uninstallListeners()
     {
         hexViewer.removePropertyChangeListener(propertyChangeListener);
+        scrollPane.getViewport().removeComponentListener(viewportResizeListener);
+        autoBytesPerRowTimer.stop();
         hexViewer.getCaret().ifPresent(model -> model.removeCaretListener(caretListener));
+        hexViewer.getDataModel()
+                .filter(IGrowingDataModel.class::isInstance)
+                .ifPresent(model -> ((IGrowingDataModel) model).removeDataModelListener(dataModelListener));
 
         final OffsetArea offsetArea = hexViewer.getOffsetArea();
         offsetArea.removePropertyChangeListener(propertyChangeListener);
@@ -487,6 +569,9 @@ public class BasicHexViewerUI extends HexViewerUI
         textArea.removeMouseListener(mouseAdapter);
 
         propertyChangeListener = null;
+        viewportResizeListener = null;
+        autoBytesPerRowTimer = null;
+        dataModelListener = null;
         caretListener = null;
         mouseAdapter = null;
     }
@@ -511,6 +596,82 @@ public class BasicHexViewerUI extends HexViewerUI
         hexViewer.getTextArea().setRowTemplate(textRowTemplateFactory.createTemplate(hexViewer));
     }
 
+    private void scheduleBytesPerRowAdjustment()
+    {
+        // throttle instead of debounce, so that the rows follow a live resize
+        if (hexViewer.isAutoBytesPerRow() && autoBytesPerRowTimer != null && !autoBytesPerRowTimer.isRunning())
+        {
+            autoBytesPerRowTimer.start();
+        }
+    }
+
+    private void adjustBytesPerRowToViewport()
+    {
+        final JViewport viewport = scrollPane.getViewport();
+        final int availableWidth = viewport.getWidth();
+        final HexRowTemplateConfiguration hexConfiguration = hexViewer.getHexRowTemplateConfiguration().orElse(null);
+        final TextRowTemplateConfiguration textConfiguration = hexViewer.getTextRowTemplateConfiguration().orElse(null);
+
+        if (!hexViewer.isAutoBytesPerRow() || availableWidth <= 0 || (hexConfiguration == null && textConfiguration == null))
+        {
+            return;
+        }
+
+        hexViewer.getRowContentFont().ifPresent(font -> {
+            final int newBytesPerRow = RowTemplateGeometry.computeMaxBytesPerRow(
+                    hexConfiguration,
+                    textConfiguration,
+                    hexViewer.getFontMetrics(font),
+                    availableWidth
+            );
+
+            if (newBytesPerRow != hexViewer.getBytesPerRow())
+            {
+                setBytesPerRowAndKeepAnchor(newBytesPerRow);
+            }
+        });
+    }
+
+    private void setBytesPerRowAndKeepAnchor(final int newBytesPerRow)
+    {
+        final JViewport viewport = scrollPane.getViewport();
+        final Rectangle viewRect = viewport.getViewRect();
+        final int rowHeight = Math.max(1, byteAreasContainer.rowHeight());
+
+        // keep the caret at the same vertical position if it is visible, otherwise the first visible byte
+        final long caretIndex = hexViewer.getCaret().map(ICaret::getDot).orElse(-1L);
+        final int caretY = caretIndex < 0 ? -1 : hexViewer.byteIndexToRowIndex(caretIndex) * rowHeight;
+        final long anchorIndex;
+        final int anchorOffsetInView;
+        if (caretY >= viewRect.y && caretY < viewRect.y + viewRect.height)
+        {
+            anchorIndex = caretIndex;
+            anchorOffsetInView = caretY - viewRect.y;
+        }
+        else
+        {
+            final int firstVisibleRow = viewRect.y / rowHeight;
+            anchorIndex = hexViewer.rowIndexToByteIndex(firstVisibleRow);
+            anchorOffsetInView = firstVisibleRow * rowHeight - viewRect.y;
+        }
+
+        hexViewer.setBytesPerRow(newBytesPerRow);
+        scrollPane.validate();
+
+        final int maxY = Math.max(0, byteAreasContainer.getHeight() - viewport.getExtentSize().height);
+        final int newY = hexViewer.byteIndexToRowIndex(anchorIndex) * rowHeight - anchorOffsetInView;
+        viewport.setViewPosition(new Point(0, Math.max(0, Math.min(newY, maxY))));
+    }
+
+    private void invalidateAreaContent(@NotNull final Area<?, ?> area)
+    {
+        final AreaComponentUI ui = area.getUI();
+        if (ui != null)
+        {
+            ui.invalidateAll();
+        }
+    }
+
     private void updateOffsetRowTemplate()
     {
         final IOffsetRowTemplate rowTemplate = offsetRowTemplateFactory.createTemplate(hexViewer);
@@ -699,17 +860,50 @@ public class BasicHexViewerUI extends HexViewerUI
 
                     // the offset-row-view displays the offset of the caret in the row of the caret
                     final OffsetArea offsetArea = hexViewer.getOffsetArea();
-                    offsetArea.damageRow(oldRowIndex);
+                    offsetArea.invalidateRows(oldRowIndex, oldRowIndex);
 
                     if (oldRowIndex != newRowIndex)
                     {
-                        offsetArea.damageRow(newRowIndex);
+                        offsetArea.invalidateRows(newRowIndex, newRowIndex);
                     }
                 }
             }
         };
     }
 
+    @NotNull
+    private ComponentAdapter createViewportResizeListener()
+    {
+        return new ComponentAdapter()
+        {
+            @Override
+            public void componentResized(@NotNull final ComponentEvent event)
+            {
+                scheduleBytesPerRowAdjustment();
+            }
+        };
+    }
+
+    @NotNull
+    private IDataModelListener createDataModelListener()
+    {
+        return event -> {
+            final long oldSize = event.getOldSize();
+            final long newSize = event.getNewSize();
+            if (newSize > oldSize)
+            {
+                // the last row of the previous size could have been incomplete
+                final int firstRowIndex = hexViewer.byteIndexToRowIndex(Math.max(0, oldSize - 1));
+                final int lastRowIndex = hexViewer.byteIndexToRowIndex(newSize - 1);
+                hexViewer.getHexArea().invalidateRows(firstRowIndex, lastRowIndex);
+                hexViewer.getTextArea().invalidateRows(firstRowIndex, lastRowIndex);
+            }
+
+            updateAreaRowCount();
+            updateOffsetRowTemplate();
+        };
+    }
+
     @NotNull
     private PropertyChangeListener createPropertyChangeListener()
     {
@@ -770,6 +964,10 @@ public class BasicHexViewerUI extends HexViewerUI
                 throw new IllegalStateException("The 'rowCount' can't be set directly, this value is calculated from the data model of the 'JHexViewer'.");
             }
         }
+        if (ByteArea.PROPERTY_VALUE_FORMATTER.equals(propertyName) || OffsetArea.PROPERTY_VALUE_FORMATTER.equals(propertyName))
+        {
+            invalidateAreaContent((Area<?, ?>) event.getSource());
+        }
         if ("font".equals(propertyName))
         {
             if (hexViewer.getRowContentFont().orElse(null) != event.getNewValue())
@@ -785,17 +983,44 @@ public class BasicHexViewerUI extends HexViewerUI
         if (JHexViewer.PROPERTY_ROW_CONTENT_FONT.equals(propertyName))
         {
             updateAreaRowTemplates();
+            scheduleBytesPerRowAdjustment();
         }
         else if (JHexViewer.PROPERTY_BYTES_PER_ROW.equals(propertyName))
         {
+            // the number of rows depends on the bytes per row
+            updateAreaRowCount();
             updateAreaRowTemplates();
         }
+        else if (JHexViewer.PROPERTY_AUTO_BYTES_PER_ROW.equals(propertyName)
+                || JHexViewer.PROPERTY_HEX_ROW_TEMPLATE_CONFIGURATION.equals(propertyName)
+                || JHexViewer.PROPERTY_TEXT_ROW_TEMPLATE_CONFIGURATION.equals(propertyName))
+        {
+            scheduleBytesPerRowAdjustment();
+        }
         else if (JHexViewer.PROPERTY_DATA_MODEL.equals(propertyName))
         {
+            if (event.getOldValue() instanceof IGrowingDataModel)
+            {
+                ((IGrowingDataModel) event.getOldValue()).removeDataModelListener(dataModelListener);
+            }
+            if (event.getOldValue() instanceof IDataModel)
+            {
+                // the old model may be disposed after this event, stop reading from it
+                ByteStatistics.discard((IDataModel) event.getOldValue());
+            }
+            if (event.getNewValue() instanceof IGrowingDataModel)
+            {
+                ((IGrowingDataModel) event.getNewValue()).addDataModelListener(dataModelListener);
+            }
+
             hexViewer.getCaret().ifPresent(caret -> caret.moveCaret(0, false, true));
             hexViewer.getHighlighter().ifPresent(IHighlighter::removeAllHighlights);
             updateAreaRowCount();
             updateAreaRowTemplates();
+            // row templates are shared and may not change, the cached content has to be discarded explicitly
+            invalidateAreaContent(hexViewer.getOffsetArea());
+            invalidateAreaContent(hexViewer.getHexArea());
+            invalidateAreaContent(hexViewer.getTextArea());
         }
         else if (JHexViewer.PROPERTY_PREFERRED_VISIBLE_ROW_COUNT.equals(propertyName))
         {
@@ -807,6 +1032,10 @@ public class BasicHexViewerUI extends HexViewerUI
         {
             updateOffsetRowTemplate();
         }
+        else if (JHexViewer.PROPERTY_SHOW_OVERVIEW_RULER.equals(propertyName))
+        {
+            updateOverviewRuler();
+        }
         else if ("background".equals(propertyName))
         {
             final Color newValue = hexViewer.getBackground();
@@ -840,6 +1069,17 @@ public class BasicHexViewerUI extends HexViewerUI
 
     private static class ByteColorProviderUIResource implements IByteColorProvider, UIResource
     {
+        @Override
+        public void getRowElementBackgrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+        {
+            Arrays.fill(colors, 0, rowData.size(), null);
+        }
+
+        @Override
+        public void getRowElementForegrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+        {
+            Arrays.fill(colors, 0, rowData.size(), Color.BLACK);
+        }
     }
 
     private static class ByteAreaPainterUIResource extends ByteAreaPainter implements UIResource
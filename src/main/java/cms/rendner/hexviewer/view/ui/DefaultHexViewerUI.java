@@ -68,6 +68,12 @@ public class DefaultHexViewerUI extends BasicHexViewerUI
             result.put(KeyStroke.getKeyStroke("PAGE_DOWN"), CaretAction.MOVE_CARET_PAGE_DOWN);
             result.put(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_DOWN, KeyEvent.SHIFT_DOWN_MASK), CaretAction.EXPAND_SELECTION_PAGE_DOWN);
 
+            result.put(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_UP, KeyEvent.CTRL_DOWN_MASK), CaretAction.MOVE_CARET_PREVIOUS_REGION);
+            result.put(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_UP, KeyEvent.CTRL_DOWN_MASK | KeyEvent.SHIFT_DOWN_MASK), CaretAction.EXPAND_SELECTION_PREVIOUS_REGION);
+
+            result.put(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_DOWN, KeyEvent.CTRL_DOWN_MASK), CaretAction.MOVE_CARET_NEXT_REGION);
+            result.put(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_DOWN, KeyEvent.CTRL_DOWN_MASK | KeyEvent.SHIFT_DOWN_MASK), CaretAction.EXPAND_SELECTION_NEXT_REGION);
+
             result.put(KeyStroke.getKeyStroke(KeyEvent.VK_PLUS, KeyEvent.CTRL_DOWN_MASK), FontAction.INCREASE_SIZE);
             result.put(KeyStroke.getKeyStroke(KeyEvent.VK_ADD, KeyEvent.CTRL_DOWN_MASK), FontAction.INCREASE_SIZE);
 
@@ -167,6 +167,22 @@ public class ActionMapFactory
             {
                 return new VerticalPageAction(ScrollDirection.DOWN, true);
             }
+            case MOVE_CARET_PREVIOUS_REGION:
+            {
+                return new PopulatedRegionAction(ScrollDirection.UP, false);
+            }
+            case EXPAND_SELECTION_PREVIOUS_REGION:
+            {
+                return new PopulatedRegionAction(ScrollDirection.UP, true);
+            }
+            case MOVE_CARET_NEXT_REGION:
+            {
+                return new PopulatedRegionAction(ScrollDirection.DOWN, false);
+            }
+            case EXPAND_SELECTION_NEXT_REGION:
+            {
+                return new PopulatedRegionAction(ScrollDirection.DOWN, true);
+            }
         }
     }
 }
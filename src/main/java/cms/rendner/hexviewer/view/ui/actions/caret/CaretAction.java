@@ -18,5 +18,9 @@ public enum CaretAction implements IActionTypeId
     MOVE_CARET_PAGE_UP,
     EXPAND_SELECTION_PAGE_UP,
     MOVE_CARET_PAGE_DOWN,
-    EXPAND_SELECTION_PAGE_DOWN
+    EXPAND_SELECTION_PAGE_DOWN,
+    MOVE_CARET_PREVIOUS_REGION,
+    EXPAND_SELECTION_PREVIOUS_REGION,
+    MOVE_CARET_NEXT_REGION,
+    EXPAND_SELECTION_NEXT_REGION
 }
@@ -0,0 +1,53 @@
+package cms.rendner.hexviewer.view.ui.actions.caret;
+
+import cms.rendner.hexviewer.model.data.sparse.ISparseDataModel;
+import cms.rendner.hexviewer.view.ui.actions.AbstractHexViewerAction;
+import cms.rendner.hexviewer.view.ui.container.common.ScrollDirection;
+import org.intellij.lang.annotations.MagicConstant;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.event.ActionEvent;
+
+/**
+ * Moves the caret to the start of the next or previous populated region of a sparse data model.
+ * <p/>
+ * Does nothing if the data model of the JHexViewer doesn't describe a sparse address space.
+ *
+ * @author rendner
+ */
+public class PopulatedRegionAction extends AbstractHexViewerAction
+{
+    private final int direction;
+    private final boolean select;
+
+    public PopulatedRegionAction(@MagicConstant(flags = {
+            ScrollDirection.UP,
+            ScrollDirection.DOWN}) final int direction, final boolean select)
+    {
+        super();
+        this.direction = direction;
+        this.select = select;
+    }
+
+    @Override
+    public void actionPerformed(@NotNull final ActionEvent event)
+    {
+        getHexViewer(event).ifPresent(hexViewer ->
+        {
+            hexViewer.getDataModel()
+                    .filter(ISparseDataModel.class::isInstance)
+                    .map(ISparseDataModel.class::cast)
+                    .ifPresent(dataModel -> hexViewer.getCaret().ifPresent(caret -> {
+                        final long dot = caret.getDot();
+                        final long target = ScrollDirection.UP == direction
+                                ? dataModel.previousRegionStart(dot)
+                                : dataModel.nextRegionStart(dot);
+
+                        if (target != ISparseDataModel.NO_OFFSET)
+                        {
+                            caret.moveCaret(target, select, true);
+                        }
+                    }));
+        });
+    }
+}
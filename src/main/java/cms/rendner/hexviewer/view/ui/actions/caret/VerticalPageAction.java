@@ -1,5 +1,6 @@
 package cms.rendner.hexviewer.view.ui.actions.caret;
 
+import cms.rendner.hexviewer.view.components.navigation.NavigationController;
 import cms.rendner.hexviewer.view.ui.actions.AbstractHexViewerAction;
 import cms.rendner.hexviewer.view.ui.container.common.ScrollDirection;
 import org.intellij.lang.annotations.MagicConstant;
@@ -30,9 +31,18 @@ public class VerticalPageAction extends AbstractHexViewerAction
     {
         getHexViewer(event).ifPresent(hexViewer ->
         {
+            final int dirMultiplier = ScrollDirection.UP == direction ? -1 : 1;
+
+            // an installed navigation controller scrolls with an animation and prepares the destination rows
+            final NavigationController controller = NavigationController.getInstalled(hexViewer).orElse(null);
+            if (controller != null)
+            {
+                controller.pageBy(dirMultiplier, select);
+                return;
+            }
+
             final Rectangle visibleRect = hexViewer.getVisibleRect();
             final int visibleRows = visibleRect.height / hexViewer.rowHeight();
-            final int dirMultiplier = ScrollDirection.UP == direction ? -1 : 1;
 
             hexViewer.getCaret().ifPresent(caret -> {
                 caret.moveCaretRelatively(dirMultiplier * (visibleRows * hexViewer.getBytesPerRow()), select, true);
@@ -0,0 +1,400 @@
+package cms.rendner.hexviewer.view.ui.areas;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the rendered content of the visible part of an area in an offscreen image.
+ * <p/>
+ * The back buffer can be installed on an {@link AreaComponentUI}. Only the damaged parts of the area (regions passed to
+ * <code>repaint</code>) are re-rendered into the image, all other paint calls (e.g. if the window was covered) are
+ * served by copying the image. If the visible part of the area is scrolled, the still visible content is moved inside
+ * the image and only the exposed rows are rendered.
+ * <p/>
+ * An accelerated back buffer uses a {@link VolatileImage}, lost contents are detected and re-rendered. In a headless
+ * environment, or if no graphics configuration is available, a {@link BufferedImage} is used instead.
+ * <p/>
+ * The whole buffer is re-rendered if the row template, the color provider (or its
+ * {@link cms.rendner.hexviewer.view.components.areas.common.model.colors.IAreaColorProvider#getVersion() version}),
+ * the area painter or the size of the area changes.
+ *
+ * @author rendner
+ */
+public final class AreaBackBuffer
+{
+    /**
+     * The maximal number of attempts to render the image before painting without the image.
+     */
+    private static final int MAX_RENDER_ATTEMPTS = 3;
+
+    /**
+     * Indicates if a {@link VolatileImage} should be used if possible.
+     */
+    private final boolean accelerated;
+
+    /**
+     * The offscreen image, sized in device pixels.
+     */
+    @Nullable
+    private Image image;
+
+    /**
+     * The region of the area, in component coordinates, which is contained in the image.
+     */
+    @NotNull
+    private final Rectangle bufferBounds = new Rectangle();
+
+    /**
+     * The region of the area, in component coordinates, which has to be re-rendered.
+     * Is <code>null</code> if nothing is damaged.
+     */
+    @Nullable
+    private Rectangle damagedRegion;
+
+    /**
+     * Indicates if the whole image has to be re-rendered.
+     */
+    private boolean fullyDamaged = true;
+
+    /**
+     * The state for which the image was rendered.
+     */
+    @Nullable
+    private Object[] state;
+
+    /**
+     * Hide the constructor.
+     *
+     * @param accelerated <code>true</code> to use a {@link VolatileImage} if possible.
+     */
+    private AreaBackBuffer(final boolean accelerated)
+    {
+        super();
+        this.accelerated = accelerated;
+    }
+
+    /**
+     * Creates a back buffer which uses a hardware accelerated {@link VolatileImage}.
+     * <p/>
+     * Falls back to a software image in a headless environment.
+     *
+     * @return the created back buffer.
+     */
+    @NotNull
+    public static AreaBackBuffer accelerated()
+    {
+        return new AreaBackBuffer(!GraphicsEnvironment.isHeadless());
+    }
+
+    /**
+     * Creates a back buffer which uses a software image.
+     *
+     * @return the created back buffer.
+     */
+    @NotNull
+    public static AreaBackBuffer software()
+    {
+        return new AreaBackBuffer(false);
+    }
+
+    /**
+     * @return <code>true</code> if the back buffer currently uses a {@link VolatileImage}.
+     */
+    public boolean isAccelerated()
+    {
+        return image instanceof VolatileImage;
+    }
+
+    /**
+     * Marks a region of the area as damaged, the region is re-rendered on the next paint call.
+     *
+     * @param x      the x position of the region.
+     * @param y      the y position of the region.
+     * @param width  the width of the region.
+     * @param height the height of the region.
+     */
+    public void damage(final int x, final int y, final int width, final int height)
+    {
+        if (fullyDamaged || width <= 0 || height <= 0)
+        {
+            return;
+        }
+
+        if (damagedRegion == null)
+        {
+            damagedRegion = new Rectangle(x, y, width, height);
+        }
+        else
+        {
+            damagedRegion.add(new Rectangle(x, y, width, height));
+        }
+    }
+
+    /**
+     * Marks the whole area as damaged.
+     */
+    public void damageAll()
+    {
+        fullyDamaged = true;
+        damagedRegion = null;
+    }
+
+    /**
+     * Releases the offscreen image.
+     * The image is recreated on the next paint call.
+     */
+    public void flush()
+    {
+        if (image != null)
+        {
+            image.flush();
+            image = null;
+        }
+        damageAll();
+    }
+
+    /**
+     * Paints the visible part of an area from the offscreen image.
+     * <p/>
+     * Damaged regions are rendered into the image before it is copied into the graphics context.
+     *
+     * @param g           the Graphics context in which to paint.
+     * @param component   the area to paint, used to query the graphics configuration and the background color.
+     * @param visibleRect the visible part of the area.
+     * @param state       the state for which the content is rendered, the whole image is re-rendered if the state changes.
+     * @param renderer    renders the content of the area into a graphics context, which is clipped to the damaged region.
+     */
+    void paint(@NotNull final Graphics2D g,
+               @NotNull final Component component,
+               @NotNull final Rectangle visibleRect,
+               @NotNull final Object[] state,
+               @NotNull final Consumer<Graphics2D> renderer)
+    {
+        if (!Arrays.deepEquals(this.state, state))
+        {
+            this.state = state;
+            damageAll();
+        }
+
+        final double scaleX = g.getTransform().getScaleX();
+        final double scaleY = g.getTransform().getScaleY();
+        final int imageWidth = Math.max(1, (int) Math.ceil(visibleRect.width * scaleX));
+        final int imageHeight = Math.max(1, (int) Math.ceil(visibleRect.height * scaleY));
+
+        for (int attempt = 0; attempt < MAX_RENDER_ATTEMPTS; attempt++)
+        {
+            final Image validImage = validateImage(component.getGraphicsConfiguration(), imageWidth, imageHeight);
+
+            if (fullyDamaged)
+            {
+                bufferBounds.setBounds(visibleRect);
+            }
+            else if (!bufferBounds.equals(visibleRect))
+            {
+                scroll(validImage, visibleRect, scaleX, scaleY);
+            }
+
+            render(validImage, component, scaleX, scaleY, renderer);
+
+            g.drawImage(validImage, visibleRect.x, visibleRect.y, visibleRect.width, visibleRect.height, null);
+
+            if (!(validImage instanceof VolatileImage) || !((VolatileImage) validImage).contentsLost())
+            {
+                return;
+            }
+
+            damageAll();
+        }
+
+        // the contents of the image were lost too often, paint without the image
+        final Graphics2D directGraphics = (Graphics2D) g.create();
+        try
+        {
+            renderer.accept(directGraphics);
+        }
+        finally
+        {
+            directGraphics.dispose();
+        }
+    }
+
+    /**
+     * Ensures that an image with the required size exists and that the content of a volatile image is still valid.
+     * Marks the whole area as damaged if the image was recreated or its content was lost.
+     *
+     * @param gc     the graphics configuration of the area, can be <code>null</code>.
+     * @param width  the required width, in device pixels.
+     * @param height the required height, in device pixels.
+     * @return the image to render into.
+     */
+    @NotNull
+    private Image validateImage(@Nullable final GraphicsConfiguration gc, final int width, final int height)
+    {
+        if (image != null && (image.getWidth(null) != width || image.getHeight(null) != height))
+        {
+            image.flush();
+            image = null;
+        }
+
+        if (image instanceof VolatileImage && gc != null)
+        {
+            final int status = ((VolatileImage) image).validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE)
+            {
+                image.flush();
+                image = null;
+            }
+            else if (status == VolatileImage.IMAGE_RESTORED)
+            {
+                damageAll();
+            }
+        }
+
+        if (image == null)
+        {
+            image = createImage(gc, width, height);
+            damageAll();
+        }
+
+        return image;
+    }
+
+    /**
+     * Creates the offscreen image.
+     *
+     * @param gc     the graphics configuration of the area, can be <code>null</code>.
+     * @param width  the width, in device pixels.
+     * @param height the height, in device pixels.
+     * @return the created image.
+     */
+    @NotNull
+    private Image createImage(@Nullable final GraphicsConfiguration gc, final int width, final int height)
+    {
+        if (gc == null)
+        {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+
+        if (accelerated)
+        {
+            try
+            {
+                return gc.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+            }
+            catch (final UnsupportedOperationException e)
+            {
+                // fall through to a software image
+            }
+        }
+
+        return gc.createCompatibleImage(width, height, Transparency.OPAQUE);
+    }
+
+    /**
+     * Moves the content of the image after the visible part of the area has changed.
+     * The exposed region is marked as damaged. The whole area is marked as damaged if the content can't be moved.
+     *
+     * @param target      the image.
+     * @param visibleRect the new visible part of the area.
+     * @param scaleX      the horizontal scale of the device.
+     * @param scaleY      the vertical scale of the device.
+     */
+    private void scroll(@NotNull final Image target,
+                        @NotNull final Rectangle visibleRect,
+                        final double scaleX,
+                        final double scaleY)
+    {
+        final int dx = bufferBounds.x - visibleRect.x;
+        final int dy = bufferBounds.y - visibleRect.y;
+        final double deviceDx = dx * scaleX;
+        final double deviceDy = dy * scaleY;
+
+        final boolean canMove = bufferBounds.width == visibleRect.width
+                && bufferBounds.height == visibleRect.height
+                && Math.abs(dx) < visibleRect.width
+                && Math.abs(dy) < visibleRect.height
+                && deviceDx == Math.rint(deviceDx)
+                && deviceDy == Math.rint(deviceDy);
+
+        if (!canMove)
+        {
+            bufferBounds.setBounds(visibleRect);
+            damageAll();
+            return;
+        }
+
+        final Graphics g = target.getGraphics();
+        try
+        {
+            g.copyArea(0, 0, target.getWidth(null), target.getHeight(null), (int) deviceDx, (int) deviceDy);
+        }
+        finally
+        {
+            g.dispose();
+        }
+
+        final Rectangle movedContent = new Rectangle(bufferBounds);
+        bufferBounds.setBounds(visibleRect);
+
+        // everything which wasn't visible before is exposed
+        if (dx != 0)
+        {
+            damage(dx > 0 ? visibleRect.x : movedContent.x + movedContent.width, visibleRect.y, Math.abs(dx), visibleRect.height);
+        }
+        if (dy != 0)
+        {
+            damage(visibleRect.x, dy > 0 ? visibleRect.y : movedContent.y + movedContent.height, visibleRect.width, Math.abs(dy));
+        }
+    }
+
+    /**
+     * Renders the damaged region into the image.
+     *
+     * @param target    the image.
+     * @param component the area, used to query the background color.
+     * @param scaleX    the horizontal scale of the device.
+     * @param scaleY    the vertical scale of the device.
+     * @param renderer  renders the content of the area.
+     */
+    private void render(@NotNull final Image target,
+                        @NotNull final Component component,
+                        final double scaleX,
+                        final double scaleY,
+                        @NotNull final Consumer<Graphics2D> renderer)
+    {
+        final Rectangle region = fullyDamaged
+                ? new Rectangle(bufferBounds)
+                : damagedRegion == null ? null : damagedRegion.intersection(bufferBounds);
+
+        fullyDamaged = false;
+        damagedRegion = null;
+
+        if (region == null || region.isEmpty())
+        {
+            return;
+        }
+
+        final Graphics2D g = (Graphics2D) target.getGraphics();
+        try
+        {
+            g.scale(scaleX, scaleY);
+            g.translate(-bufferBounds.x, -bufferBounds.y);
+            g.clip(region);
+            g.setFont(component.getFont());
+            g.setColor(component.getBackground());
+            g.fillRect(region.x, region.y, region.width, region.height);
+            g.setColor(component.getForeground());
+            renderer.accept(g);
+        }
+        finally
+        {
+            g.dispose();
+        }
+    }
+}
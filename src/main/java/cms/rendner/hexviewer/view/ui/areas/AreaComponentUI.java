@@ -1,11 +1,24 @@
 package cms.rendner.hexviewer.view.ui.areas;
 
+import cms.rendner.hexviewer.common.ranges.RowRange;
+import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
+import cms.rendner.hexviewer.view.components.areas.common.Area;
 import cms.rendner.hexviewer.view.components.areas.common.AreaComponent;
+import cms.rendner.hexviewer.view.components.areas.common.model.colors.IAreaColorProvider;
+import cms.rendner.hexviewer.view.components.areas.common.painter.AreaLayer;
+import cms.rendner.hexviewer.view.components.areas.offset.OffsetArea;
+import cms.rendner.hexviewer.view.metrics.FrameMetrics;
+import cms.rendner.hexviewer.view.metrics.PaintMetrics;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import javax.swing.plaf.ComponentUI;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
 
 /**
  * The ui delegate to define the look-and-feel (LAF) of an {@link AreaComponent}.
@@ -25,6 +38,47 @@ public class AreaComponentUI extends ComponentUI
      */
     private IPainterDelegate painterDelegate;
 
+    /**
+     * Optional cache for the rendered content of rows.
+     */
+    @Nullable
+    private RowStripCache rowStripCache;
+
+    /**
+     * Optional offscreen image for the visible part of the component.
+     */
+    @Nullable
+    private AreaBackBuffer backBuffer;
+
+    /**
+     * The rendered content below the overlay, used to repaint the overlay without re-rendering the content.
+     * Is <code>null</code> if the content has to be rendered.
+     */
+    @Nullable
+    private BufferedImage underlay;
+
+    /**
+     * The region of the component which is contained in the {@link #underlay}.
+     */
+    @NotNull
+    private final Rectangle underlayBounds = new Rectangle();
+
+    /**
+     * The state for which the {@link #underlay} was rendered.
+     */
+    @Nullable
+    private Object[] underlayState;
+
+    /**
+     * Indicates that the current repaint request only affects the overlay.
+     */
+    private boolean isOverlayRepaint;
+
+    /**
+     * Indicates that the current repaint request only affects the middleground (caret, selection and highlights).
+     */
+    private boolean isMiddlegroundRepaint;
+
     protected AreaComponentUI(@NotNull final AreaComponent component)
     {
         this.component = component;
@@ -54,10 +108,599 @@ public class AreaComponentUI extends ComponentUI
     {
         if (painterDelegate != null)
         {
-            painterDelegate.paint((Graphics2D) g, component);
+            final PaintMetrics metrics = painterDelegate.getPaintMetrics().orElse(null);
+            final boolean recording = metrics != null && metrics.beginFrame(component.getAreaId(), g.getClipBounds());
+            try
+            {
+                if (backBuffer != null)
+                {
+                    paintBuffered((Graphics2D) g, backBuffer);
+                }
+                else if (!paintUnderlay((Graphics2D) g))
+                {
+                    paintContent((Graphics2D) g);
+                }
+                painterDelegate.paintOverlay((Graphics2D) g, component);
+            }
+            finally
+            {
+                if (recording)
+                {
+                    final FrameMetrics frame = metrics.endFrame();
+                    if (metrics.isOverlayEnabled())
+                    {
+                        PaintMetricsOverlay.paint((Graphics2D) g, component, frame);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Paints the content of the component, using the row strip cache if possible.
+     *
+     * @param g the Graphics context in which to paint.
+     */
+    private void paintContent(@NotNull final Graphics2D g)
+    {
+        if (rowStripCache != null && component instanceof Area && painterDelegate.canPaintLayers(component))
+        {
+            paintCached(g, rowStripCache);
+        }
+        else
+        {
+            painterDelegate.paint(g, component);
+        }
+    }
+
+    /**
+     * Paints the visible part of the component from the back buffer.
+     *
+     * @param g      the Graphics context in which to paint.
+     * @param buffer the back buffer to use.
+     */
+    private void paintBuffered(@NotNull final Graphics2D g, @NotNull final AreaBackBuffer buffer)
+    {
+        final Rectangle visibleRect = component.getVisibleRect();
+        if (visibleRect.isEmpty())
+        {
+            return;
+        }
+
+        final AffineTransform transform = g.getTransform();
+        // a resize of the component doesn't result in a repaint request of the component itself
+        final Object[] state = {createContentState(transform.getScaleX(), transform.getScaleY()), component.getHeight()};
+        buffer.paint(g, component, visibleRect, state, this::paintContent);
+    }
+
+    /**
+     * Paints the content below the overlay from the cached underlay, if the clip of the graphics context is
+     * completely covered by the overlay. The underlay is rendered if it isn't cached yet.
+     *
+     * @param g the Graphics context in which to paint.
+     * @return <code>true</code> if the content was painted, <code>false</code> if the clip exceeds the overlay.
+     */
+    private boolean paintUnderlay(@NotNull final Graphics2D g)
+    {
+        final Rectangle clip = g.getClipBounds();
+        final Rectangle overlayBounds = painterDelegate.getOverlayBounds(component).orElse(null);
+        if (clip == null || overlayBounds == null || overlayBounds.isEmpty() || !overlayBounds.contains(clip))
+        {
+            return false;
+        }
+
+        final AffineTransform transform = g.getTransform();
+        final Object[] state = {createContentState(transform.getScaleX(), transform.getScaleY()), overlayBounds};
+        if (underlay == null || !Arrays.deepEquals(underlayState, state))
+        {
+            underlay = renderUnderlay(g, overlayBounds, transform.getScaleX(), transform.getScaleY());
+            underlayBounds.setBounds(overlayBounds);
+            underlayState = state;
+        }
+
+        g.drawImage(underlay, underlayBounds.x, underlayBounds.y, underlayBounds.width, underlayBounds.height, null);
+        return true;
+    }
+
+    /**
+     * Renders the content of a region of the component into an image.
+     *
+     * @param source the Graphics context of the component, used to initialize the image graphics.
+     * @param region the region to render.
+     * @param scaleX the horizontal scale of the device.
+     * @param scaleY the vertical scale of the device.
+     * @return the rendered content.
+     */
+    @NotNull
+    private BufferedImage renderUnderlay(@NotNull final Graphics2D source,
+                                         @NotNull final Rectangle region,
+                                         final double scaleX,
+                                         final double scaleY)
+    {
+        final BufferedImage result = new BufferedImage(
+                Math.max(1, (int) Math.ceil(region.width * scaleX)),
+                Math.max(1, (int) Math.ceil(region.height * scaleY)),
+                BufferedImage.TYPE_INT_RGB);
+
+        final Graphics2D g = result.createGraphics();
+        try
+        {
+            g.setRenderingHints(source.getRenderingHints());
+            g.scale(scaleX, scaleY);
+            g.translate(-region.x, -region.y);
+            g.setClip(region);
+            g.setFont(source.getFont());
+            g.setColor(component.getBackground());
+            g.fillRect(region.x, region.y, region.width, region.height);
+            g.setColor(source.getColor());
+            paintContent(g);
+        }
+        finally
+        {
+            g.dispose();
+        }
+
+        return result;
+    }
+
+    /**
+     * Repaints a region which only contains the overlay of the component.
+     * <p/>
+     * The content below the overlay is marked as unchanged, an installed back buffer or the cached underlay is used
+     * to paint the content and only the overlay is painted again.
+     *
+     * @param region the region covered by the overlay.
+     */
+    public void repaintOverlay(@NotNull final Rectangle region)
+    {
+        isOverlayRepaint = true;
+        try
+        {
+            component.repaint(region);
+        }
+        finally
+        {
+            isOverlayRepaint = false;
+        }
+    }
+
+    /**
+     * Repaints a region in which only the middleground (caret, selection and highlights) has changed.
+     * <p/>
+     * The cached row strips of the region are kept, because they don't contain the middleground. All other cached
+     * content of the region is discarded.
+     *
+     * @param region the region to repaint.
+     */
+    public void repaintMiddleground(@NotNull final Rectangle region)
+    {
+        isMiddlegroundRepaint = true;
+        try
+        {
+            component.repaint(region);
+        }
+        finally
+        {
+            isMiddlegroundRepaint = false;
+        }
+    }
+
+    /**
+     * Returns the back buffer which keeps the rendered content of the visible part of the component.
+     *
+     * @return the back buffer, <code>null</code> if no back buffer is installed.
+     */
+    @Nullable
+    public AreaBackBuffer getBackBuffer()
+    {
+        return backBuffer;
+    }
+
+    /**
+     * Sets the back buffer which keeps the rendered content of the visible part of the component.
+     * <p/>
+     * The back buffer is opt-in, by default the component is painted directly into the graphics context provided by
+     * Swing. If a back buffer and a {@link RowStripCache} are installed, the damaged regions of the back buffer are
+     * rendered with the help of the row strip cache.
+     * <p/>
+     * Setting a new back buffer results in a repaint of the component.
+     *
+     * @param backBuffer the new back buffer, <code>null</code> to paint directly.
+     */
+    public void setBackBuffer(@Nullable final AreaBackBuffer backBuffer)
+    {
+        if (this.backBuffer != backBuffer)
+        {
+            if (this.backBuffer != null)
+            {
+                this.backBuffer.flush();
+            }
+            this.backBuffer = backBuffer;
+            if (backBuffer != null)
+            {
+                backBuffer.damageAll();
+            }
+            component.repaint();
         }
     }
 
+    /**
+     * Marks a region of the component as damaged.
+     * <p/>
+     * Is called by the component for every repaint request. The region is re-rendered into the back buffer, if one is
+     * installed, on the next paint call. A cached underlay and cached row strips which intersect the region are
+     * discarded, the row strips are kept if only the middleground is repainted (see {@link #repaintMiddleground(Rectangle)}).
+     *
+     * @param x      the x position of the region.
+     * @param y      the y position of the region.
+     * @param width  the width of the region.
+     * @param height the height of the region.
+     */
+    public void damage(final int x, final int y, final int width, final int height)
+    {
+        if (isOverlayRepaint)
+        {
+            return;
+        }
+
+        if (underlay != null && underlayBounds.intersects(x, y, width, height))
+        {
+            underlay = null;
+        }
+
+        if (backBuffer != null)
+        {
+            backBuffer.damage(x, y, width, height);
+        }
+
+        if (!isMiddlegroundRepaint && rowStripCache != null && rowStripCache.size() > 0 && width > 0 && height > 0)
+        {
+            final RowRange rows = component.getIntersectingRows(y, height);
+            if (rows.isValid())
+            {
+                rowStripCache.invalidateRows(rows.getStart(), rows.getEnd());
+            }
+        }
+    }
+
+    /**
+     * Discards all cached rendered content (row strips, underlay and back buffer) and repaints the component.
+     * <p/>
+     * Has to be called if the content of the whole component has changed for a reason which isn't part of the
+     * state the cached content was rendered for, e.g. if the bytes of the data model were modified in place.
+     */
+    public void invalidateAll()
+    {
+        if (rowStripCache != null)
+        {
+            rowStripCache.invalidateAll();
+        }
+        underlay = null;
+        if (backBuffer != null)
+        {
+            backBuffer.damageAll();
+        }
+        component.repaint();
+    }
+
+    /**
+     * Returns the cache for the rendered content of rows.
+     *
+     * @return the cache, <code>null</code> if no cache is installed.
+     */
+    @Nullable
+    public RowStripCache getRowStripCache()
+    {
+        return rowStripCache;
+    }
+
+    /**
+     * Sets the cache for the rendered content of rows.
+     * <p/>
+     * The cache is opt-in, by default all rows are rendered on every paint call. The cache is only used if the area
+     * painter of the component can paint its layers separately.
+     * <p/>
+     * Setting a new cache results in a repaint of the component.
+     *
+     * @param rowStripCache the new cache, <code>null</code> to disable caching.
+     */
+    public void setRowStripCache(@Nullable final RowStripCache rowStripCache)
+    {
+        if (this.rowStripCache != rowStripCache)
+        {
+            this.rowStripCache = rowStripCache;
+            component.repaint();
+        }
+    }
+
+    /**
+     * Removes the cached content of a range of rows.
+     *
+     * @param firstRowIndex the index of the first row.
+     * @param lastRowIndex  the index of the last row, included.
+     */
+    public void invalidateRows(final int firstRowIndex, final int lastRowIndex)
+    {
+        if (rowStripCache != null)
+        {
+            rowStripCache.invalidateRows(firstRowIndex, lastRowIndex);
+        }
+    }
+
+    /**
+     * Renders the background and foreground of rows off-screen into the installed {@link RowStripCache}.
+     * <p/>
+     * Pre-rendered rows are composited from the cache when they become visible, this allows to reveal rows without
+     * rendering them first, e.g. after a large jump. Rows which are already cached are skipped. Does nothing if no
+     * cache is installed or the area painter can't paint its layers separately.
+     *
+     * @param firstRowIndex the index of the first row.
+     * @param lastRowIndex  the index of the last row, included.
+     * @return the number of rendered rows.
+     */
+    public int prerenderRows(final int firstRowIndex, final int lastRowIndex)
+    {
+        final int width = component.getWidth();
+        if (rowStripCache == null
+                || painterDelegate == null
+                || !(component instanceof Area)
+                || !painterDelegate.canPaintLayers(component)
+                || width <= 0)
+        {
+            return 0;
+        }
+
+        final int firstRow = Math.max(0, firstRowIndex);
+        final int lastRow = Math.min(component.getRowCount() - 1, lastRowIndex);
+        if (firstRow > lastRow)
+        {
+            return 0;
+        }
+
+        // render with the scale of the device the component is displayed on, otherwise the cache would be cleared
+        // by the next paint call
+        final GraphicsConfiguration configuration = component.getGraphicsConfiguration();
+        final AffineTransform deviceTransform = configuration == null ? new AffineTransform() : configuration.getDefaultTransform();
+        final double scaleX = deviceTransform.getScaleX();
+        final double scaleY = deviceTransform.getScaleY();
+        final int rowHeight = component.getRowHeight();
+
+        rowStripCache.validate(
+                createContentState(scaleX, scaleY),
+                2L * 4L * (long) Math.ceil(width * scaleX) * (long) Math.ceil(rowHeight * scaleY)
+        );
+
+        final Graphics2D source = createOffscreenSourceGraphics();
+        int result = 0;
+        try
+        {
+            source.setFont(component.getFont());
+            source.setColor(component.getForeground());
+
+            for (int rowIndex = firstRow; rowIndex <= lastRow; rowIndex++)
+            {
+                if (rowStripCache.get(rowIndex) == null)
+                {
+                    final int y = component.getRowRect(rowIndex).y;
+                    rowStripCache.put(rowIndex, new RowStripCache.RowStrip(
+                            renderLayer(source, AreaLayer.BACKGROUND, y, width, rowHeight, scaleX, scaleY),
+                            renderLayer(source, AreaLayer.FOREGROUND, y, width, rowHeight, scaleX, scaleY)
+                    ));
+                    result++;
+                }
+            }
+        }
+        finally
+        {
+            source.dispose();
+        }
+
+        return result;
+    }
+
+    /**
+     * Paints the component by compositing the cached background and foreground of the dirty rows.
+     * Only the middleground and rows which aren't cached are rendered.
+     *
+     * @param g     the Graphics context in which to paint.
+     * @param cache the cache to use.
+     */
+    private void paintCached(@NotNull final Graphics2D g, @NotNull final RowStripCache cache)
+    {
+        final Rectangle clip = g.getClipBounds();
+        final RowRange rowRange = clip == null ? RowRange.INVALID : component.getIntersectingRows(clip);
+        if (!rowRange.isValid())
+        {
+            painterDelegate.paint(g, component);
+            return;
+        }
+
+        final AffineTransform transform = g.getTransform();
+        final double scaleX = transform.getScaleX();
+        final double scaleY = transform.getScaleY();
+        final int width = component.getWidth();
+        final int rowHeight = component.getRowHeight();
+
+        cache.validate(
+                createContentState(scaleX, scaleY),
+                2L * 4L * (long) Math.ceil(width * scaleX) * (long) Math.ceil(rowHeight * scaleY)
+        );
+
+        final Rectangle lastRowRect = component.getRowRect(rowRange.getEnd());
+        final int rowsBottom = lastRowRect.y + lastRowRect.height;
+        if (clip.y + clip.height > rowsBottom)
+        {
+            // the area can be larger than its rows, paint the remaining background directly
+            final Graphics2D remainingGraphics = (Graphics2D) g.create();
+            remainingGraphics.clipRect(clip.x, rowsBottom, clip.width, clip.y + clip.height - rowsBottom);
+            painterDelegate.paintLayer(remainingGraphics, component, AreaLayer.BACKGROUND);
+            remainingGraphics.dispose();
+        }
+
+        final RowStripCache.RowStrip[] strips = new RowStripCache.RowStrip[rowRange.getLength()];
+        int y = component.getRowRect(rowRange.getStart()).y;
+        for (int i = 0; i < strips.length; i++)
+        {
+            final int rowIndex = rowRange.getStart() + i;
+            RowStripCache.RowStrip strip = cache.get(rowIndex);
+            if (strip == null)
+            {
+                strip = new RowStripCache.RowStrip(
+                        renderLayer(g, AreaLayer.BACKGROUND, y, width, rowHeight, scaleX, scaleY),
+                        renderLayer(g, AreaLayer.FOREGROUND, y, width, rowHeight, scaleX, scaleY)
+                );
+                cache.put(rowIndex, strip);
+            }
+            strips[i] = strip;
+            g.drawImage(strip.background, 0, y, width, rowHeight, null);
+            y += rowHeight;
+        }
+
+        painterDelegate.paintLayer(g, component, AreaLayer.MIDDLEGROUND);
+
+        y = component.getRowRect(rowRange.getStart()).y;
+        for (final RowStripCache.RowStrip strip : strips)
+        {
+            g.drawImage(strip.foreground, 0, y, width, rowHeight, null);
+            y += rowHeight;
+        }
+    }
+
+    /**
+     * Creates the state which determines the rendered content of the rows.
+     * Cached content is discarded if the state changes. The state contains the data model and the value formatter,
+     * the identity of the row template can't be used to detect such changes because templates are shared.
+     *
+     * @param scaleX the horizontal scale of the device.
+     * @param scaleY the vertical scale of the device.
+     * @return the state.
+     */
+    @NotNull
+    private Object[] createContentState(final double scaleX, final double scaleY)
+    {
+        if (component instanceof Area)
+        {
+            final Area<?, ?> area = (Area<?, ?>) component;
+            final IAreaColorProvider colorProvider = area.getColorProvider();
+            return new Object[]{
+                    area.getRowTemplate(),
+                    painterDelegate.getDataModel().orElse(null),
+                    getValueFormatter(area),
+                    colorProvider,
+                    colorProvider == null ? 0L : colorProvider.getVersion(),
+                    area.getPainter(),
+                    component.getWidth(),
+                    component.getRowHeight(),
+                    scaleX,
+                    scaleY
+            };
+        }
+
+        return new Object[]{
+                component.getPainter(),
+                component.getWidth(),
+                component.getRowHeight(),
+                scaleX,
+                scaleY
+        };
+    }
+
+    /**
+     * Creates the graphics context used to initialize the graphics of pre-rendered rows.
+     * <p/>
+     * Uses the graphics context of the component if it is displayable, so that pre-rendered rows get the same
+     * rendering hints (e.g. the text antialiasing) as rows rendered during painting. Otherwise the text antialiasing
+     * hints of the desktop are used.
+     *
+     * @return the graphics context, has to be disposed by the caller.
+     */
+    @NotNull
+    private Graphics2D createOffscreenSourceGraphics()
+    {
+        final Graphics componentGraphics = component.getGraphics();
+        if (componentGraphics instanceof Graphics2D)
+        {
+            return (Graphics2D) componentGraphics;
+        }
+        if (componentGraphics != null)
+        {
+            componentGraphics.dispose();
+        }
+
+        final Graphics2D result = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        final Object desktopHints = Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+        if (desktopHints instanceof Map)
+        {
+            result.addRenderingHints((Map<?, ?>) desktopHints);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value formatter of an area.
+     *
+     * @param area the area.
+     * @return the value formatter, or <code>null</code> if the area has none.
+     */
+    @Nullable
+    private static Object getValueFormatter(@NotNull final Area<?, ?> area)
+    {
+        if (area instanceof ByteArea)
+        {
+            return ((ByteArea) area).getValueFormatter();
+        }
+        if (area instanceof OffsetArea)
+        {
+            return ((OffsetArea) area).getValueFormatter();
+        }
+        return null;
+    }
+
+    /**
+     * Renders a layer of a single row into an image.
+     *
+     * @param source the Graphics context of the component, used to initialize the image graphics.
+     * @param layer  the layer to render.
+     * @param y      the y position of the row.
+     * @param width  the width of the row strip.
+     * @param height the height of the row strip.
+     * @param scaleX the horizontal scale of the device.
+     * @param scaleY the vertical scale of the device.
+     * @return the rendered layer.
+     */
+    @NotNull
+    private BufferedImage renderLayer(@NotNull final Graphics2D source,
+                                      @NotNull final AreaLayer layer,
+                                      final int y,
+                                      final int width,
+                                      final int height,
+                                      final double scaleX,
+                                      final double scaleY)
+    {
+        final BufferedImage result = new BufferedImage(
+                Math.max(1, (int) Math.ceil(width * scaleX)),
+                Math.max(1, (int) Math.ceil(height * scaleY)),
+                BufferedImage.TYPE_INT_ARGB);
+
+        final Graphics2D g = result.createGraphics();
+        try
+        {
+            g.setRenderingHints(source.getRenderingHints());
+            g.setFont(source.getFont());
+            g.setColor(source.getColor());
+            g.scale(scaleX, scaleY);
+            g.translate(0, -y);
+            g.setClip(0, y, width, height);
+            painterDelegate.paintLayer(g, component, layer);
+        }
+        finally
+        {
+            g.dispose();
+        }
+
+        return result;
+    }
+
     /**
      * Sets the new painter which is responsible for painting the content of the component.
      * <p/>
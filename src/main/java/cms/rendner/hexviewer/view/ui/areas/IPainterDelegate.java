@@ -1,10 +1,14 @@
 package cms.rendner.hexviewer.view.ui.areas;
 
+import cms.rendner.hexviewer.model.data.IDataModel;
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.common.AreaComponent;
+import cms.rendner.hexviewer.view.components.areas.common.painter.AreaLayer;
+import cms.rendner.hexviewer.view.metrics.PaintMetrics;
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.*;
+import java.util.Optional;
 
 /**
  * Forwards all paint calls to the {@link cms.rendner.hexviewer.view.components.areas.common.painter.IAreaPainter areaPainter}
@@ -22,4 +26,74 @@ public interface IPainterDelegate
      * @param component a reference to the area. This instance can be casted to the specific area implementation if needed.
      */
     void paint(@NotNull final Graphics2D g, @NotNull final AreaComponent component);
+
+    /**
+     * Checks if the area painter of the specified area component can paint its layers separately.
+     *
+     * @param component a reference to the area.
+     * @return <code>true</code> if {@link #paintLayer(Graphics2D, AreaComponent, AreaLayer)} is supported.
+     */
+    default boolean canPaintLayers(@NotNull final AreaComponent component)
+    {
+        return false;
+    }
+
+    /**
+     * Calls {@link cms.rendner.hexviewer.view.components.areas.common.painter.ILayeredAreaPainter#paintLayer(Graphics2D, JHexViewer, AreaComponent, AreaLayer) paintLayer(Graphics2D, JHexViewer, AreaComponent, AreaLayer)}
+     * on the area painter of the specified area component.
+     * <p/>
+     * Does nothing if {@link #canPaintLayers(AreaComponent)} returns <code>false</code>.
+     *
+     * @param g         the Graphics2D context of the area to be painted.
+     * @param component a reference to the area. This instance can be casted to the specific area implementation if needed.
+     * @param layer     the layer to paint.
+     */
+    default void paintLayer(@NotNull final Graphics2D g, @NotNull final AreaComponent component, @NotNull final AreaLayer layer)
+    {
+    }
+
+    /**
+     * Paints the overlay of an area, on top of the fully painted content of the area.
+     *
+     * @param g         the Graphics2D context of the area to be painted.
+     * @param component a reference to the area.
+     */
+    default void paintOverlay(@NotNull final Graphics2D g, @NotNull final AreaComponent component)
+    {
+    }
+
+    /**
+     * Returns the region of an area covered by its overlay.
+     *
+     * @param component a reference to the area.
+     * @return the region, or an empty optional if the area has no overlay.
+     */
+    @NotNull
+    default Optional<Rectangle> getOverlayBounds(@NotNull final AreaComponent component)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the data model whose bytes are painted by the areas.
+     * Rendered content cached by the ui delegate of an area is discarded if the data model changes.
+     *
+     * @return the data model, or an empty optional if no data model is painted.
+     */
+    @NotNull
+    default Optional<IDataModel> getDataModel()
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the paint metrics which record the paint calls of the areas.
+     *
+     * @return the paint metrics, or an empty optional if paint calls aren't recorded.
+     */
+    @NotNull
+    default Optional<PaintMetrics> getPaintMetrics()
+    {
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,75 @@
+package cms.rendner.hexviewer.view.ui.areas;
+
+import cms.rendner.hexviewer.view.components.areas.common.AreaComponent;
+import cms.rendner.hexviewer.view.metrics.FrameMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+
+/**
+ * Paints the debug overlay of the {@link cms.rendner.hexviewer.view.metrics.PaintMetrics} on top of an area.
+ * <p/>
+ * The overlay outlines the region which was painted in the frame and displays the duration of the frame and the
+ * number of rendered rows in the top left corner of the visible part of the area. The overlay is painted after the
+ * content was copied from a back buffer and is therefore never part of the buffered content.
+ *
+ * @author rendner
+ */
+final class PaintMetricsOverlay
+{
+    /**
+     * The color used to outline the painted region.
+     */
+    private static final Color DIRTY_REGION_COLOR = new Color(255, 0, 0, 160);
+    /**
+     * The background color of the label.
+     */
+    private static final Color LABEL_BACKGROUND = new Color(0, 0, 0, 180);
+    /**
+     * The text color of the label.
+     */
+    private static final Color LABEL_FOREGROUND = Color.YELLOW;
+
+    /**
+     * Paints the overlay.
+     *
+     * @param g         the Graphics context in which the area was painted.
+     * @param component the painted area.
+     * @param frame     the metrics of the frame.
+     */
+    static void paint(@NotNull final Graphics2D g, @NotNull final AreaComponent component, @NotNull final FrameMetrics frame)
+    {
+        final Graphics2D overlayGraphics = (Graphics2D) g.create();
+        try
+        {
+            final Rectangle dirtyRegion = frame.dirtyRegion();
+            if (!dirtyRegion.isEmpty())
+            {
+                overlayGraphics.setColor(DIRTY_REGION_COLOR);
+                overlayGraphics.drawRect(dirtyRegion.x, dirtyRegion.y, dirtyRegion.width - 1, dirtyRegion.height - 1);
+            }
+
+            final String label = String.format("%.2f ms, %d rows", frame.durationMillis(), frame.rowsPainted());
+            final FontMetrics fontMetrics = overlayGraphics.getFontMetrics();
+            final Rectangle visibleRect = component.getVisibleRect();
+            final int labelWidth = fontMetrics.stringWidth(label) + 4;
+            final int labelHeight = fontMetrics.getHeight();
+
+            overlayGraphics.setColor(LABEL_BACKGROUND);
+            overlayGraphics.fillRect(visibleRect.x, visibleRect.y, labelWidth, labelHeight);
+            overlayGraphics.setColor(LABEL_FOREGROUND);
+            overlayGraphics.drawString(label, visibleRect.x + 2, visibleRect.y + fontMetrics.getAscent());
+        }
+        finally
+        {
+            overlayGraphics.dispose();
+        }
+    }
+
+    /**
+     * Hide constructor.
+     */
+    private PaintMetricsOverlay()
+    {
+    }
+}
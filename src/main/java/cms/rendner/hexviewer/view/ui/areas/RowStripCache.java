@@ -0,0 +1,202 @@
+package cms.rendner.hexviewer.view.ui.areas;
+
+import cms.rendner.hexviewer.common.utils.CheckUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caches the rendered background and foreground of rows of an area (row strips).
+ * <p/>
+ * The cache can be installed on an {@link AreaComponentUI}. Cached rows are composited instead of being re-rendered,
+ * only the middleground (caret, selection and highlights) is painted on every paint call. The least recently used
+ * rows are evicted if the cache is full.
+ * <p/>
+ * The cache is cleared automatically if the row template, the color provider (or its
+ * {@link cms.rendner.hexviewer.view.components.areas.common.model.colors.IAreaColorProvider#getVersion() version}),
+ * the area painter or the size of the area changes. Rows whose content changed for other reasons have to be
+ * invalidated via {@link cms.rendner.hexviewer.view.components.areas.common.AreaComponent#invalidateRows(int, int)}.
+ *
+ * @author rendner
+ */
+public final class RowStripCache
+{
+    /**
+     * The maximal number of cached rows, or <code>0</code> if the size is limited by <code>maxBytes</code>.
+     */
+    private final int maxRows;
+
+    /**
+     * The maximal number of bytes used by the cached images, or <code>0</code> if the size is limited by <code>maxRows</code>.
+     */
+    private final long maxBytes;
+
+    /**
+     * The cached rows, in access order.
+     */
+    @NotNull
+    private final LinkedHashMap<Integer, RowStrip> strips = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * The state for which the cached rows were rendered.
+     */
+    @Nullable
+    private Object[] state;
+
+    /**
+     * The number of bytes used by the images of a single row strip.
+     */
+    private long bytesPerStrip = 1;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxRows  the maximal number of cached rows.
+     * @param maxBytes the maximal number of bytes used by the cached images.
+     */
+    private RowStripCache(final int maxRows, final long maxBytes)
+    {
+        super();
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates a cache which is limited by the number of cached rows.
+     *
+     * @param maxRows the maximal number of cached rows, &gt;= 1.
+     * @return the created cache.
+     */
+    @NotNull
+    public static RowStripCache withMaxRows(final int maxRows)
+    {
+        CheckUtils.checkMinValue(maxRows, 1);
+        return new RowStripCache(maxRows, 0);
+    }
+
+    /**
+     * Creates a cache which is limited by the memory used by the cached images.
+     *
+     * @param maxBytes the maximal number of bytes used by the cached images, &gt;= 1.
+     * @return the created cache.
+     */
+    @NotNull
+    public static RowStripCache withMaxBytes(final long maxBytes)
+    {
+        CheckUtils.checkMinValue(maxBytes, 1);
+        return new RowStripCache(0, maxBytes);
+    }
+
+    /**
+     * Removes the cached content of a range of rows.
+     *
+     * @param firstRowIndex the index of the first row.
+     * @param lastRowIndex  the index of the last row, included.
+     */
+    public void invalidateRows(final int firstRowIndex, final int lastRowIndex)
+    {
+        if (lastRowIndex - firstRowIndex >= strips.size())
+        {
+            strips.keySet().removeIf(rowIndex -> rowIndex >= firstRowIndex && rowIndex <= lastRowIndex);
+        }
+        else
+        {
+            for (int rowIndex = firstRowIndex; rowIndex <= lastRowIndex; rowIndex++)
+            {
+                strips.remove(rowIndex);
+            }
+        }
+    }
+
+    /**
+     * Removes all cached rows.
+     */
+    public void invalidateAll()
+    {
+        strips.clear();
+    }
+
+    /**
+     * @return the number of cached rows.
+     */
+    public int size()
+    {
+        return strips.size();
+    }
+
+    /**
+     * Clears the cache if the state, for which the cached rows were rendered, has changed.
+     *
+     * @param newState        the values which affect the rendered content of the rows.
+     * @param newBytesPerStrip the number of bytes used by the images of a single row strip.
+     */
+    void validate(@NotNull final Object[] newState, final long newBytesPerStrip)
+    {
+        if (!Objects.deepEquals(state, newState))
+        {
+            strips.clear();
+            state = newState;
+            bytesPerStrip = Math.max(1, newBytesPerStrip);
+        }
+    }
+
+    /**
+     * Returns the cached content of a row.
+     *
+     * @param rowIndex the index of the row.
+     * @return the cached content or <code>null</code> if the row isn't cached.
+     */
+    @Nullable
+    RowStrip get(final int rowIndex)
+    {
+        return strips.get(rowIndex);
+    }
+
+    /**
+     * Caches the content of a row. The least recently used rows are evicted if the cache is full.
+     *
+     * @param rowIndex the index of the row.
+     * @param strip    the rendered content of the row.
+     */
+    void put(final int rowIndex, @NotNull final RowStrip strip)
+    {
+        strips.put(rowIndex, strip);
+
+        final long capacity = maxRows > 0 ? maxRows : Math.max(1, maxBytes / bytesPerStrip);
+        final Iterator<Map.Entry<Integer, RowStrip>> iterator = strips.entrySet().iterator();
+        while (strips.size() > capacity && iterator.hasNext())
+        {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The rendered background and foreground of a row.
+     */
+    static final class RowStrip
+    {
+        /**
+         * The rendered background layer.
+         */
+        @NotNull
+        final BufferedImage background;
+
+        /**
+         * The rendered foreground layer, with a transparent background.
+         */
+        @NotNull
+        final BufferedImage foreground;
+
+        RowStrip(@NotNull final BufferedImage background, @NotNull final BufferedImage foreground)
+        {
+            this.background = background;
+            this.foreground = foreground;
+        }
+    }
+}
@@ -1,26 +1,61 @@
 package cms.rendner.hexviewer.view.ui.datatransfer;
 
-import cms.rendner.hexviewer.common.utils.ByteSizeConstants;
 import cms.rendner.hexviewer.model.data.IDataModel;
-import cms.rendner.hexviewer.model.data.file.FileData;
-import cms.rendner.hexviewer.model.data.file.MappedFileData;
+import cms.rendner.hexviewer.model.data.IDisposableModel;
+import cms.rendner.hexviewer.model.data.file.AdaptiveFileDataModelFactory;
+import cms.rendner.hexviewer.model.data.file.IFileDataModelFactory;
 import cms.rendner.hexviewer.view.JHexViewer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 /**
+ * Opens a dropped file and sets it as the data model of the {@link JHexViewer}.
+ * <p/>
+ * The data model is created on a background thread by the {@link IFileDataModelFactory} and swapped into the
+ * JHexViewer when ready, so that opening large files doesn't block the UI.
+ *
  * @author rendner
  */
 public class FileTransferHandler extends TransferHandler
 {
     /**
-     * Maximal size for small files.
+     * Creates the data models for the dropped files.
      */
-    private static final int SMALL_FILE_SIZE_LIMIT = ByteSizeConstants.ONE_MB;
+    @NotNull
+    private IFileDataModelFactory dataModelFactory = new AdaptiveFileDataModelFactory();
+
+    /**
+     * The worker which opens the last dropped file, <code>null</code> if no file is opened at the moment.
+     */
+    @Nullable
+    private OpenFileWorker openFileWorker;
+
+    /**
+     * @return the factory used to create the data models for dropped files.
+     */
+    @NotNull
+    public IFileDataModelFactory getDataModelFactory()
+    {
+        return dataModelFactory;
+    }
+
+    /**
+     * Sets the factory used to create the data models for dropped files.
+     *
+     * @param dataModelFactory the new factory.
+     */
+    public void setDataModelFactory(@NotNull final IFileDataModelFactory dataModelFactory)
+    {
+        this.dataModelFactory = dataModelFactory;
+    }
 
     public boolean canImport(final TransferHandler.TransferSupport info)
     {
@@ -52,28 +87,9 @@ public class FileTransferHandler extends TransferHandler
             {
                 if (file.isFile())
                 {
-                    try
-                    {
-                        final IDataModel model;
-
-                        if (file.length() > SMALL_FILE_SIZE_LIMIT)
-                        {
-                            model = new MappedFileData(file);
-                        }
-                        else
-                        {
-                            model = new FileData(file);
-                        }
-
-                        final JHexViewer hexViewer = (JHexViewer) info.getComponent();
-                        hexViewer.setDataModel(model);
-                        hexViewer.requestFocus();
-                    }
-                    catch (Exception e)
-                    {
-                        e.printStackTrace();
-                        return false;
-                    }
+                    // a previous worker which is still running is superseded and disposes its model when done
+                    openFileWorker = new OpenFileWorker((JHexViewer) info.getComponent(), file, dataModelFactory);
+                    openFileWorker.execute();
                     break;
                 }
             }
@@ -81,4 +97,80 @@ public class FileTransferHandler extends TransferHandler
 
         return true;
     }
+
+    /**
+     * Creates the data model of a file on a background thread.
+     */
+    private class OpenFileWorker extends SwingWorker<IDataModel, Void>
+    {
+        @NotNull
+        private final JHexViewer hexViewer;
+        @NotNull
+        private final File file;
+        @NotNull
+        private final IFileDataModelFactory factory;
+
+        OpenFileWorker(@NotNull final JHexViewer hexViewer, @NotNull final File file, @NotNull final IFileDataModelFactory factory)
+        {
+            super();
+            this.hexViewer = hexViewer;
+            this.file = file;
+            this.factory = factory;
+        }
+
+        @Override
+        protected IDataModel doInBackground() throws Exception
+        {
+            return factory.create(file);
+        }
+
+        @Override
+        protected void done()
+        {
+            final boolean superseded = openFileWorker != this;
+            if (!superseded)
+            {
+                openFileWorker = null;
+            }
+
+            try
+            {
+                final IDataModel model = get();
+                if (superseded)
+                {
+                    disposeModel(model);
+                }
+                else
+                {
+                    hexViewer.setDataModel(model);
+                    hexViewer.requestFocus();
+                }
+            }
+            catch (InterruptedException | CancellationException e)
+            {
+                // ignore
+            }
+            catch (ExecutionException e)
+            {
+                e.getCause().printStackTrace();
+            }
+        }
+
+        /**
+         * Disposes a model which isn't displayed because the worker was superseded by a newer one.
+         *
+         * @param model the model to dispose.
+         */
+        private void disposeModel(@NotNull final IDataModel model)
+        {
+            if (model instanceof IDisposableModel)
+            {
+                final IDisposableModel disposable = (IDisposableModel) model;
+                if (!disposable.disposed())
+                {
+                    disposable.dispose();
+                }
+            }
+        }
+    }
 }
@@ -1,12 +1,18 @@
 package cms.rendner.hexviewer.view.ui.painter;
 
+import cms.rendner.hexviewer.model.data.IDataModel;
 import cms.rendner.hexviewer.view.JHexViewer;
+import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
 import cms.rendner.hexviewer.view.components.areas.common.AreaComponent;
+import cms.rendner.hexviewer.view.components.areas.common.painter.AreaLayer;
 import cms.rendner.hexviewer.view.components.areas.common.painter.IAreaPainter;
+import cms.rendner.hexviewer.view.components.areas.common.painter.ILayeredAreaPainter;
+import cms.rendner.hexviewer.view.metrics.PaintMetrics;
 import cms.rendner.hexviewer.view.ui.areas.IPainterDelegate;
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.*;
+import java.util.Optional;
 
 /**
  * Forwards the {@link JHexViewer} to the {@link cms.rendner.hexviewer.view.components.areas.common.painter.IAreaPainter areaPainter}
@@ -38,4 +44,54 @@ public final class PainterDelegate implements IPainterDelegate
             p.paint(g, hexViewer, component);
         }
     }
+
+    @Override
+    public boolean canPaintLayers(@NotNull final AreaComponent component)
+    {
+        return component.getPainter() instanceof ILayeredAreaPainter;
+    }
+
+    @Override
+    public void paintLayer(@NotNull final Graphics2D g, @NotNull final AreaComponent component, @NotNull final AreaLayer layer)
+    {
+        final IAreaPainter p = component.getPainter();
+        if (p instanceof ILayeredAreaPainter)
+        {
+            ((ILayeredAreaPainter) p).paintLayer(g, hexViewer, component, layer);
+        }
+    }
+
+    @Override
+    public void paintOverlay(@NotNull final Graphics2D g, @NotNull final AreaComponent component)
+    {
+        if (component instanceof ByteArea)
+        {
+            hexViewer.getCaret().ifPresent(caret -> caret.paintOverlay(g, (ByteArea) component));
+        }
+    }
+
+    @NotNull
+    @Override
+    public Optional<Rectangle> getOverlayBounds(@NotNull final AreaComponent component)
+    {
+        if (component instanceof ByteArea)
+        {
+            return hexViewer.getCaret().flatMap(caret -> caret.getOverlayBounds((ByteArea) component));
+        }
+        return Optional.empty();
+    }
+
+    @NotNull
+    @Override
+    public Optional<IDataModel> getDataModel()
+    {
+        return hexViewer.getDataModel();
+    }
+
+    @NotNull
+    @Override
+    public Optional<PaintMetrics> getPaintMetrics()
+    {
+        return Optional.of(hexViewer.getPaintMetrics());
+    }
 }
@@ -5,6 +5,7 @@ import cms.rendner.hexviewer.common.data.wrapper.RowData;
 import cms.rendner.hexviewer.common.data.wrapper.RowDataBuilder;
 import cms.rendner.hexviewer.common.rowtemplate.Element;
 import cms.rendner.hexviewer.common.rowtemplate.bytes.IByteRowTemplate;
+import cms.rendner.hexviewer.model.data.sparse.ISparseDataModel;
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
 import cms.rendner.hexviewer.view.components.areas.bytes.model.colors.IByteColorProvider;
@@ -12,11 +13,14 @@ import cms.rendner.hexviewer.view.components.areas.common.AreaComponent;
 import cms.rendner.hexviewer.view.components.areas.common.painter.IAreaLayerPainter;
 import cms.rendner.hexviewer.view.components.areas.common.painter.graphics.RowGraphics;
 import cms.rendner.hexviewer.view.components.areas.common.painter.graphics.RowGraphicsBuilder;
+import cms.rendner.hexviewer.view.metrics.PaintMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Paints the foreground of a byte-area row-wise.
@@ -25,6 +29,11 @@ import java.util.List;
  */
 public final class ByteRowForegroundPainter implements IAreaLayerPainter
 {
+    /**
+     * The foreground color used if the color provider doesn't provide one.
+     */
+    private static final Color DEFAULT_FOREGROUND = Color.WHITE;
+
     /**
      * Updated on every paint call - the font ascent to align the text vertically.
      */
@@ -42,6 +51,31 @@ public final class ByteRowForegroundPainter implements IAreaLayerPainter
      */
     @Nullable
     private IByteColorProvider colorProvider;
+    /**
+     * Updated on every paint call - the data model if it describes a sparse address space, otherwise <code>null</code>.
+     * Used to paint holes of the data model in a distinct way.
+     */
+    @Nullable
+    private ISparseDataModel sparseDataModel;
+    /**
+     * Updated on every paint call - receives the number of rendered rows, read bytes and drawn glyphs.
+     */
+    private PaintMetrics metrics;
+    /**
+     * Recreated if the row template changes - composes the text of a row into a reusable char buffer.
+     */
+    @Nullable
+    private RowTextLayout textLayout;
+    /**
+     * Reused for every row - receives the background colors of the row elements.
+     */
+    @Nullable
+    private Color[] backgroundColors;
+    /**
+     * Reused for every row - receives the foreground colors of the row elements.
+     */
+    @Nullable
+    private Color[] foregroundColors;
 
     @Override
     public void paint(@NotNull final Graphics2D g, @NotNull JHexViewer hexViewer, @NotNull final AreaComponent component)
@@ -65,14 +99,24 @@ public final class ByteRowForegroundPainter implements IAreaLayerPainter
             return;
         }
 
+        metrics = hexViewer.getPaintMetrics();
+        metrics.rowsPainted(rowGraphicsList.size());
         valueFormatter = area.getValueFormatter();
         ascent = rowTemplate.fontMetrics().getAscent();
         colorProvider = area.getColorProvider();
+        if (textLayout == null || !textLayout.isLayoutOf(rowTemplate))
+        {
+            textLayout = new RowTextLayout(rowTemplate);
+        }
+        sparseDataModel = hexViewer.getDataModel()
+                .filter(ISparseDataModel.class::isInstance)
+                .map(ISparseDataModel.class::cast)
+                .orElse(null);
 
         rowGraphicsList.forEach(rowGraphics -> {
             final RowData bytes = rowDataBuilder.build(rowGraphics.rowIndex);
-            paintRowElementsBackground(rowGraphics, hexViewer, bytes);
-            paintRowElementsForeground(rowGraphics, hexViewer, bytes);
+            paintRowElementsBackground(rowGraphics, bytes);
+            paintRowElementsForeground(rowGraphics, bytes);
             rowGraphics.dispose();
         });
     }
@@ -91,77 +135,223 @@ public final class ByteRowForegroundPainter implements IAreaLayerPainter
 
     /**
      * Paints the foreground of the row elements.
+     * <p/>
+     * Consecutive elements with the same foreground color are grouped into runs, the color of the graphics context
+     * is only changed once per run. The text of a run is drawn by the {@link RowTextLayout}, which uses one
+     * <code>drawGlyphVector</code> call per run and line of the row template.
      *
      * @param rowGraphics the rowGraphics instance which refers to the row to paint.
-     * @param hexViewer   the JHexViewer to which the area belongs.
      * @param bytes       the data which should be displayed by the row. This can be less as the number of elements provided by the
      *                    {@link IByteRowTemplate} of the area, because the last row of an area could have less bytes
      *                    to display.
      */
-    private void paintRowElementsForeground(@NotNull final RowGraphics rowGraphics, @NotNull final JHexViewer hexViewer, @NotNull final RowData bytes)
+    private void paintRowElementsForeground(@NotNull final RowGraphics rowGraphics, @NotNull final RowData bytes)
     {
-        long byteOffset = hexViewer.rowIndexToByteIndex(rowGraphics.rowIndex);
+        final int size = bytes.size();
+        for (int i = 0; i < size; i++)
+        {
+            textLayout.setElementValue(i, bytes.getByte(i), valueFormatter);
+        }
+        metrics.bytesRead(size);
+
+        final Color[] colors = fillForegroundColors(bytes);
 
-        for (int i = 0; i < bytes.size(); i++)
+        int runStart = 0;
+        while (runStart < size)
         {
-            final int byteValue = bytes.getByte(i);
-            final Element byteElement = rowTemplate.element(i);
-            final String byteToDraw = valueFormatter.format(byteValue);
+            final Color color = colors[runStart];
+            int runEnd = runStart + 1;
+            while (runEnd < size && Objects.equals(colors[runEnd], color))
+            {
+                runEnd++;
+            }
 
-            rowGraphics.g.setColor(getForegroundColor(byteValue, byteOffset, rowGraphics.rowIndex, i));
-            rowGraphics.g.drawString(byteToDraw, byteElement.x(), ascent + byteElement.y());
+            rowGraphics.g.setColor(color == null ? DEFAULT_FOREGROUND : color);
+            textLayout.drawElements(rowGraphics.g, runStart, runEnd, ascent, metrics);
 
-            byteOffset++;
+            runStart = runEnd;
         }
     }
 
     /**
      * Paints the background of the row elements.
+     * <p/>
+     * Consecutive elements with the same background color are grouped into runs, the color of the graphics context
+     * is only changed once per run. Adjacent elements of a run, without space between them, are painted with a single
+     * <code>fillRect</code>. The space between elements, e.g. the gap for the caret, is never filled.
      *
      * @param rowGraphics the rowGraphics instance which refers to the row to paint.
-     * @param hexViewer   the JHexViewer to which the area belongs.
      * @param bytes       the data which should be displayed by the row. This can be less as the number of elements provided by the
      *                    {@link IByteRowTemplate} of the area, because the last row of an area could have less bytes
      *                    to display.
      */
-    private void paintRowElementsBackground(@NotNull final RowGraphics rowGraphics, @NotNull final JHexViewer hexViewer, @NotNull final RowData bytes)
+    private void paintRowElementsBackground(@NotNull final RowGraphics rowGraphics, @NotNull final RowData bytes)
     {
-        long byteOffset = hexViewer.rowIndexToByteIndex(rowGraphics.rowIndex);
+        if (colorProvider == null)
+        {
+            return;
+        }
 
-        for (int i = 0; i < bytes.size(); i++)
+        final Color[] colors = fillBackgroundColors(bytes);
+        final int size = bytes.size();
+
+        int runStart = 0;
+        while (runStart < size)
         {
-            final Color color = getBackgroundColor(bytes.getByte(i), byteOffset, rowGraphics.rowIndex, i);
-            if (color != null)
+            final Color color = colors[runStart];
+            int runEnd = runStart + 1;
+            while (runEnd < size && Objects.equals(colors[runEnd], color))
             {
-                final Element byteElement = rowTemplate.element(i);
+                runEnd++;
+            }
 
+            if (color != null)
+            {
                 rowGraphics.g.setColor(color);
-                rowGraphics.g.fillRect(byteElement.x(), byteElement.y(), byteElement.width(), byteElement.height());
+                paintAdjacentElementsBackground(rowGraphics, runStart, runEnd);
             }
 
-            byteOffset++;
+            runStart = runEnd;
         }
     }
 
+    /**
+     * Fills the bounds of a range of elements, adjacent elements are filled with a single <code>fillRect</code>.
+     *
+     * @param rowGraphics the rowGraphics instance which refers to the row to paint.
+     * @param firstIndex  the index of the first element.
+     * @param endIndex    the index after the last element.
+     */
+    private void paintAdjacentElementsBackground(@NotNull final RowGraphics rowGraphics, final int firstIndex, final int endIndex)
+    {
+        int spanStart = firstIndex;
+        while (spanStart < endIndex)
+        {
+            final Element firstElement = rowTemplate.element(spanStart);
+            Element lastElement = firstElement;
+            int spanEnd = spanStart + 1;
+            while (spanEnd < endIndex)
+            {
+                final Element next = rowTemplate.element(spanEnd);
+                if (next.x() != lastElement.right() || next.y() != lastElement.y() || next.height() != lastElement.height())
+                {
+                    break;
+                }
+                lastElement = next;
+                spanEnd++;
+            }
+
+            rowGraphics.g.fillRect(
+                    firstElement.x(),
+                    firstElement.y(),
+                    lastElement.right() - firstElement.x(),
+                    firstElement.height()
+            );
+
+            spanStart = spanEnd;
+        }
+    }
+
+    /**
+     * Fills the reusable foreground color array with the colors of all elements of a row.
+     *
+     * @param bytes the data of the row.
+     * @return the filled array, can be larger than the number of bytes of the row.
+     */
     @NotNull
-    private Color getForegroundColor(final int byteValue, final long offset, final int rowIndex, final int elementInRowIndex)
+    private Color[] fillForegroundColors(@NotNull final RowData bytes)
     {
-        Color color = null;
-        if (colorProvider != null)
+        foregroundColors = ensureCapacity(foregroundColors, bytes.size());
+        if (colorProvider == null)
+        {
+            Arrays.fill(foregroundColors, 0, bytes.size(), null);
+            return foregroundColors;
+        }
+
+        colorProvider.getRowElementForegrounds(bytes, foregroundColors);
+        if (sparseDataModel != null)
         {
-            color = colorProvider.getRowElementForeground(byteValue, offset, rowIndex, elementInRowIndex);
+            fillHoleColors(sparseDataModel, colorProvider, bytes, foregroundColors, true);
         }
-        return color == null ? Color.WHITE : color;
+        return foregroundColors;
     }
 
-    @Nullable
-    private Color getBackgroundColor(final int byteValue, final long offset, final int rowIndex, final int elementInRowIndex)
+    /**
+     * Fills the reusable background color array with the colors of all elements of a row.
+     *
+     * @param bytes the data of the row.
+     * @return the filled array, can be larger than the number of bytes of the row.
+     */
+    @NotNull
+    private Color[] fillBackgroundColors(@NotNull final RowData bytes)
     {
-        if (colorProvider != null)
+        backgroundColors = ensureCapacity(backgroundColors, bytes.size());
+        if (colorProvider == null)
         {
-            return colorProvider.getRowElementBackground(byteValue, offset, rowIndex, elementInRowIndex);
+            Arrays.fill(backgroundColors, 0, bytes.size(), null);
+            return backgroundColors;
         }
 
-        return null;
+        colorProvider.getRowElementBackgrounds(bytes, backgroundColors);
+        if (sparseDataModel != null)
+        {
+            fillHoleColors(sparseDataModel, colorProvider, bytes, backgroundColors, false);
+        }
+        return backgroundColors;
+    }
+
+    /**
+     * Returns an array with at least the requested length.
+     *
+     * @param array  the current array, can be <code>null</code>.
+     * @param length the minimum length.
+     * @return the passed array if it is large enough, otherwise a new one.
+     */
+    @NotNull
+    private static Color[] ensureCapacity(@Nullable final Color[] array, final int length)
+    {
+        return array != null && array.length >= length ? array : new Color[length];
+    }
+
+    /**
+     * Replaces the colors of the elements of a row which are part of a hole of a sparse data model.
+     * <p/>
+     * The populated regions which overlap the row are walked once, so the number of lookups in the data model
+     * depends on the number of regions in the row and not on the number of bytes.
+     *
+     * @param dataModel     the sparse data model.
+     * @param colorProvider provides the colors of the holes.
+     * @param bytes         the data of the row.
+     * @param colors        the colors of the elements of the row.
+     * @param foreground    <code>true</code> to fill the foreground colors, <code>false</code> for the background colors.
+     */
+    private static void fillHoleColors(@NotNull final ISparseDataModel dataModel,
+                                       @NotNull final IByteColorProvider colorProvider,
+                                       @NotNull final RowData bytes,
+                                       @NotNull final Color[] colors,
+                                       final boolean foreground)
+    {
+        final long rowStart = bytes.offset();
+        final long rowEnd = rowStart + bytes.size();
+        long holeStart = rowStart;
+        while (holeStart < rowEnd)
+        {
+            final long populatedStart = dataModel.nextPopulatedOffset(holeStart);
+            final long holeEnd = populatedStart == ISparseDataModel.NO_OFFSET ? rowEnd : Math.min(rowEnd, populatedStart);
+            for (long offset = holeStart; offset < holeEnd; offset++)
+            {
+                final int i = (int) (offset - rowStart);
+                colors[i] = foreground
+                        ? colorProvider.getRowElementHoleForeground(offset, bytes.rowIndex(), i)
+                        : colorProvider.getRowElementHoleBackground(offset, bytes.rowIndex(), i);
+            }
+            if (holeEnd == rowEnd)
+            {
+                break;
+            }
+
+            final long populatedEnd = dataModel.populatedRegionEnd(populatedStart);
+            holeStart = populatedEnd == ISparseDataModel.NO_OFFSET ? rowEnd : populatedEnd;
+        }
     }
 }
@@ -0,0 +1,261 @@
+package cms.rendner.hexviewer.view.ui.painter.bytes;
+
+import cms.rendner.hexviewer.common.data.formatter.base.IValueFormatter;
+import cms.rendner.hexviewer.common.rowtemplate.Element;
+import cms.rendner.hexviewer.common.rowtemplate.bytes.IByteRowTemplate;
+import cms.rendner.hexviewer.view.metrics.PaintMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+
+/**
+ * Composes the text of a whole row into a reusable char buffer, to draw multiple elements with a single
+ * <code>drawGlyphVector</code> call.
+ * <p/>
+ * Consecutive elements which share the same baseline form a group, independent of the space between them. The
+ * text of a group is converted into one {@link GlyphVector} whose glyphs are moved to the x-positions of their
+ * elements, so that the chars end up at the same positions as if each element would be drawn separately. The space
+ * between the elements, e.g. the caret gaps of the default hex- and text-templates which are no multiple of the char
+ * width, doesn't matter. A row of a default template is therefore drawn with one call per foreground color run
+ * instead of one call per byte.
+ * <p/>
+ * The elements are drawn one by one if the graphics context isn't a {@link Graphics2D} or if the font doesn't map
+ * each char to exactly one glyph.
+ *
+ * @author rendner
+ */
+final class RowTextLayout
+{
+    /**
+     * The initial capacity of the char buffer per element.
+     */
+    private static final int INITIAL_CHARS_PER_ELEMENT = 2;
+
+    /**
+     * The row template from which the layout was created.
+     */
+    @NotNull
+    private final IByteRowTemplate rowTemplate;
+    /**
+     * Flags which mark the elements which start a new group, because they are placed on a different baseline than
+     * the previous element.
+     */
+    @NotNull
+    private final boolean[] startsGroup;
+    /**
+     * Updated for every row - the index of the first char of each element in the char buffer.
+     */
+    @NotNull
+    private final int[] charStart;
+    /**
+     * Updated for every row - the number of chars of each element.
+     */
+    @NotNull
+    private final int[] charCount;
+    /**
+     * Reused for every glyph - receives the position of a glyph.
+     */
+    @NotNull
+    private final Point2D.Float glyphPosition = new Point2D.Float();
+    /**
+     * Updated for every row - the chars of the elements, without any space between them.
+     */
+    @NotNull
+    private char[] chars;
+    /**
+     * Updated for every row - the number of used chars of the char buffer.
+     */
+    private int charsUsed;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param rowTemplate the row template which describes the positions of the elements.
+     */
+    RowTextLayout(@NotNull final IByteRowTemplate rowTemplate)
+    {
+        super();
+
+        this.rowTemplate = rowTemplate;
+
+        final int elementCount = rowTemplate.elementCount();
+        startsGroup = new boolean[elementCount];
+        charStart = new int[elementCount];
+        charCount = new int[elementCount];
+        chars = new char[Math.max(1, elementCount * INITIAL_CHARS_PER_ELEMENT)];
+
+        for (int i = 0; i < elementCount; i++)
+        {
+            startsGroup[i] = i == 0 || rowTemplate.element(i).y() != rowTemplate.element(i - 1).y();
+        }
+    }
+
+    /**
+     * Checks if the layout was created for a row template.
+     *
+     * @param rowTemplate the row template to check.
+     * @return <code>true</code> if the layout can be used to draw the rows of the template.
+     */
+    boolean isLayoutOf(@NotNull final IByteRowTemplate rowTemplate)
+    {
+        return this.rowTemplate == rowTemplate;
+    }
+
+    /**
+     * Sets the value of an element of the row to draw next.
+     * <p/>
+     * The values of a row have to be set in ascending order of the element indices, starting with the index
+     * <code>0</code>. Formatters with a fixed number of chars per value write their chars directly into the char
+     * buffer.
+     *
+     * @param index     the index of the element, in the range [0, rowTemplate.elementCount()-1].
+     * @param value     the value of the element.
+     * @param formatter the formatter to format the value.
+     */
+    void setElementValue(final int index, final int value, @NotNull final IValueFormatter formatter)
+    {
+        if (index == 0)
+        {
+            charsUsed = 0;
+        }
+
+        charStart[index] = charsUsed;
+        final int fixedCount = formatter.charsPerValue();
+        if (fixedCount >= 0)
+        {
+            ensureCapacity(charsUsed + fixedCount);
+            charCount[index] = formatter.formatInto(value, chars, charsUsed);
+        }
+        else
+        {
+            final String text = formatter.format(value);
+            ensureCapacity(charsUsed + text.length());
+            text.getChars(0, text.length(), chars, charsUsed);
+            charCount[index] = text.length();
+        }
+        charsUsed += charCount[index];
+    }
+
+    /**
+     * Draws the text of a range of elements of the row.
+     * <p/>
+     * All elements of the range are drawn with the current color and font of the graphics context.
+     *
+     * @param g          the graphics context to draw into.
+     * @param firstIndex the index of the first element to draw.
+     * @param endIndex   the index after the last element to draw.
+     * @param ascent     the ascent of the font, to align the text vertically.
+     * @param metrics    receives the text draw calls.
+     */
+    void drawElements(@NotNull final Graphics g,
+                      final int firstIndex,
+                      final int endIndex,
+                      final int ascent,
+                      @NotNull final PaintMetrics metrics)
+    {
+        int index = firstIndex;
+        while (index < endIndex)
+        {
+            int groupEnd = index + 1;
+            while (groupEnd < endIndex && !startsGroup[groupEnd])
+            {
+                groupEnd++;
+            }
+
+            if (!(g instanceof Graphics2D) || !drawGroup((Graphics2D) g, index, groupEnd, ascent, metrics))
+            {
+                for (int i = index; i < groupEnd; i++)
+                {
+                    drawElement(g, i, ascent, metrics);
+                }
+            }
+
+            index = groupEnd;
+        }
+    }
+
+    /**
+     * Draws the text of a group of elements as a single glyph vector.
+     *
+     * @param g          the graphics context to draw into.
+     * @param firstIndex the index of the first element of the group.
+     * @param endIndex   the index after the last element of the group.
+     * @param ascent     the ascent of the font, to align the text vertically.
+     * @param metrics    receives the text draw calls.
+     * @return <code>false</code> if the group couldn't be drawn, because the font doesn't map each char to one glyph.
+     */
+    private boolean drawGroup(@NotNull final Graphics2D g,
+                              final int firstIndex,
+                              final int endIndex,
+                              final int ascent,
+                              @NotNull final PaintMetrics metrics)
+    {
+        final int lastIndex = endIndex - 1;
+        final int firstChar = charStart[firstIndex];
+        final int length = charStart[lastIndex] + charCount[lastIndex] - firstChar;
+        if (length == 0)
+        {
+            return true;
+        }
+
+        final GlyphVector glyphVector = g.getFont().createGlyphVector(
+                g.getFontRenderContext(),
+                Arrays.copyOfRange(chars, firstChar, firstChar + length)
+        );
+        if (glyphVector.getNumGlyphs() != length)
+        {
+            return false;
+        }
+
+        // keep the advances of the glyphs inside an element, but move each element to its x-position
+        final float[] positions = glyphVector.getGlyphPositions(0, length, null);
+        for (int i = firstIndex; i < endIndex; i++)
+        {
+            final int firstGlyph = charStart[i] - firstChar;
+            final float dx = rowTemplate.element(i).x() - (charCount[i] == 0 ? 0 : positions[2 * firstGlyph]);
+            for (int glyph = firstGlyph; glyph < firstGlyph + charCount[i]; glyph++)
+            {
+                glyphPosition.setLocation(positions[2 * glyph] + dx, positions[2 * glyph + 1]);
+                glyphVector.setGlyphPosition(glyph, glyphPosition);
+            }
+        }
+
+        g.drawGlyphVector(glyphVector, 0, ascent + rowTemplate.element(firstIndex).y());
+        metrics.textDrawn(length);
+        return true;
+    }
+
+    /**
+     * Draws the text of a single element.
+     *
+     * @param g       the graphics context to draw into.
+     * @param index   the index of the element.
+     * @param ascent  the ascent of the font, to align the text vertically.
+     * @param metrics receives the text draw calls.
+     */
+    private void drawElement(@NotNull final Graphics g, final int index, final int ascent, @NotNull final PaintMetrics metrics)
+    {
+        if (charCount[index] > 0)
+        {
+            final Element element = rowTemplate.element(index);
+            g.drawChars(chars, charStart[index], charCount[index], element.x(), ascent + element.y());
+            metrics.textDrawn(charCount[index]);
+        }
+    }
+
+    /**
+     * Ensures that the char buffer can hold a number of chars.
+     *
+     * @param capacity the required capacity.
+     */
+    private void ensureCapacity(final int capacity)
+    {
+        if (capacity > chars.length)
+        {
+            chars = Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package cms.rendner.hexviewer.view.ui.painter.offset;
 import cms.rendner.hexviewer.common.data.formatter.offset.IOffsetFormatter;
 import cms.rendner.hexviewer.common.rowtemplate.Element;
 import cms.rendner.hexviewer.common.rowtemplate.offset.IOffsetRowTemplate;
+import cms.rendner.hexviewer.model.data.sparse.ISparseDataModel;
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.common.AreaComponent;
 import cms.rendner.hexviewer.view.components.areas.common.painter.IAreaLayerPainter;
@@ -31,10 +32,21 @@ public final class OffsetRowForegroundPainter implements IAreaLayerPainter
      * Updated on every paint call - used to format the bytes, of the data model of the {@link JHexViewer}, displayed in the area.
      */
     private IOffsetFormatter valueFormatter;
+    /**
+     * Reused for every row - receives the formatted offset address, resized if the formatter requires more space.
+     */
+    @NotNull
+    private char[] charBuffer = new char[0];
     /**
      * Updated on every paint call - provides colors for rendering the offset addresses.
      */
     private IOffsetColorProvider colorProvider;
+    /**
+     * Updated on every paint call - the data model if it describes a sparse address space, otherwise <code>null</code>.
+     * Used to paint rows which contain no populated byte in a distinct way.
+     */
+    @Nullable
+    private ISparseDataModel sparseDataModel;
 
     @Override
     public void paint(@NotNull final Graphics2D g, @NotNull final JHexViewer hexViewer, @NotNull final AreaComponent component)
@@ -56,9 +68,19 @@ public final class OffsetRowForegroundPainter implements IAreaLayerPainter
             return;
         }
 
+        hexViewer.getPaintMetrics().rowsPainted(rowGraphicsList.size());
         valueFormatter = area.getValueFormatter();
+        final int maxLength = valueFormatter.maxFormattedValueLength();
+        if (charBuffer.length < maxLength)
+        {
+            charBuffer = new char[maxLength];
+        }
         ascent = rowTemplate.fontMetrics().getAscent();
         colorProvider = area.getColorProvider();
+        sparseDataModel = hexViewer.getDataModel()
+                .filter(ISparseDataModel.class::isInstance)
+                .map(ISparseDataModel.class::cast)
+                .orElse(null);
 
         final Element element = rowTemplate.element();
 
@@ -108,10 +130,11 @@ public final class OffsetRowForegroundPainter implements IAreaLayerPainter
     private void paintRowElementForeground(@NotNull final RowGraphics rowGraphics, @NotNull final JHexViewer hexViewer, @NotNull final Element element)
     {
         final long value = rowIndexToOffset(hexViewer, rowGraphics.rowIndex);
-        final String formattedValue = valueFormatter.format(value);
+        final int length = valueFormatter.formatInto(value, charBuffer, 0);
 
-        rowGraphics.g.setColor(getForegroundColor(rowGraphics.rowIndex));
-        rowGraphics.g.drawString(formattedValue, element.x(), ascent + element.y());
+        rowGraphics.g.setColor(getForegroundColor(hexViewer, rowGraphics.rowIndex));
+        rowGraphics.g.drawChars(charBuffer, 0, length, element.x(), ascent + element.y());
+        hexViewer.getPaintMetrics().textDrawn(length);
     }
 
     /**
@@ -140,12 +163,14 @@ public final class OffsetRowForegroundPainter implements IAreaLayerPainter
     }
 
     @NotNull
-    private Color getForegroundColor(final int rowIndex)
+    private Color getForegroundColor(@NotNull final JHexViewer hexViewer, final int rowIndex)
     {
         Color color = null;
         if (colorProvider != null)
         {
-            color = colorProvider.getRowElementForeground(rowIndex);
+            color = isHoleRow(hexViewer, rowIndex)
+                    ? colorProvider.getRowElementHoleForeground(rowIndex)
+                    : colorProvider.getRowElementForeground(rowIndex);
         }
         return color == null ? Color.WHITE : color;
     }
@@ -159,4 +184,23 @@ public final class OffsetRowForegroundPainter implements IAreaLayerPainter
         }
         return null;
     }
+
+    /**
+     * Checks if a row contains no populated byte of a sparse data model.
+     *
+     * @param hexViewer the JHexViewer to which the offset-area belongs.
+     * @param rowIndex  the index of the row to check.
+     * @return <code>true</code> if the row contains only holes, <code>false</code> otherwise.
+     */
+    private boolean isHoleRow(@NotNull final JHexViewer hexViewer, final int rowIndex)
+    {
+        if (sparseDataModel == null)
+        {
+            return false;
+        }
+
+        final long rowStart = hexViewer.rowIndexToByteIndex(rowIndex);
+        final long nextPopulated = sparseDataModel.nextPopulatedOffset(rowStart);
+        return nextPopulated == ISparseDataModel.NO_OFFSET || nextPopulated >= rowStart + hexViewer.getBytesPerRow();
+    }
 }
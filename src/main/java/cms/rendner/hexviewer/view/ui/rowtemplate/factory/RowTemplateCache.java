@@ -0,0 +1,186 @@
+package cms.rendner.hexviewer.view.ui.rowtemplate.factory;
+
+import cms.rendner.hexviewer.common.rowtemplate.IRowTemplate;
+import cms.rendner.hexviewer.common.utils.CheckUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache for built row templates, shared by all hex viewers.
+ * <p/>
+ * Row templates are immutable, so a template built for a combination of font, font render context, bytes per row and
+ * row template configuration can be reused by every area which requires the same combination. This makes switching
+ * back to an already used font size (e.g. by zooming in and out) instant.
+ * <p/>
+ * The least recently used templates are dropped if the cache exceeds its maximal size.
+ *
+ * @author rendner
+ */
+public final class RowTemplateCache
+{
+    /**
+     * The default maximal number of cached templates.
+     */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    /**
+     * The cache shared by all row template factories.
+     */
+    @NotNull
+    private static final RowTemplateCache SHARED = new RowTemplateCache(DEFAULT_MAX_SIZE);
+
+    /**
+     * The cached templates, in access order.
+     */
+    @NotNull
+    private final LinkedHashMap<List<Object>, IRowTemplate> templates = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The maximal number of cached templates.
+     */
+    private int maxSize;
+
+    /**
+     * The number of requests which were served from the cache.
+     */
+    private long hitCount;
+
+    /**
+     * The number of requests which required to build a template.
+     */
+    private long missCount;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxSize the maximal number of cached templates, &gt;= 0.
+     */
+    public RowTemplateCache(final int maxSize)
+    {
+        super();
+        CheckUtils.checkMinValue(maxSize, 0);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the cache shared by all row template factories.
+     */
+    @NotNull
+    public static RowTemplateCache shared()
+    {
+        return SHARED;
+    }
+
+    /**
+     * Creates a key for a template.
+     * All parts have to implement <code>equals</code> and <code>hashCode</code>.
+     *
+     * @param parts the values on which the layout of the template depends.
+     * @return the key.
+     */
+    @NotNull
+    public static List<Object> key(@NotNull final Object... parts)
+    {
+        return Arrays.asList(parts);
+    }
+
+    /**
+     * Returns a cached template or builds and caches it.
+     *
+     * @param key     the key of the template, see {@link #key(Object...)}.
+     * @param builder builds the template if it isn't cached.
+     * @param <T>     the type of the template.
+     * @return the template, or <code>null</code> if the builder returned <code>null</code>.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends IRowTemplate> T get(@NotNull final List<Object> key, @NotNull final Supplier<T> builder)
+    {
+        final IRowTemplate cached = templates.get(key);
+        if (cached != null)
+        {
+            hitCount++;
+            return (T) cached;
+        }
+
+        missCount++;
+        final T result = builder.get();
+        if (result != null && maxSize > 0)
+        {
+            templates.put(key, result);
+            trimToSize();
+        }
+        return result;
+    }
+
+    /**
+     * @return the maximal number of cached templates.
+     */
+    public synchronized int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximal number of cached templates.
+     * The least recently used templates are dropped if the cache contains more templates.
+     *
+     * @param maxSize the maximal number of cached templates, &gt;= 0.
+     */
+    public synchronized void setMaxSize(final int maxSize)
+    {
+        CheckUtils.checkMinValue(maxSize, 0);
+        this.maxSize = maxSize;
+        trimToSize();
+    }
+
+    /**
+     * @return the number of cached templates.
+     */
+    public synchronized int size()
+    {
+        return templates.size();
+    }
+
+    /**
+     * @return the number of requests which were served from the cache.
+     */
+    public synchronized long getHitCount()
+    {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of requests which required to build a template.
+     */
+    public synchronized long getMissCount()
+    {
+        return missCount;
+    }
+
+    /**
+     * Removes all cached templates.
+     */
+    public synchronized void clear()
+    {
+        templates.clear();
+    }
+
+    /**
+     * Drops the least recently used templates until the cache doesn't exceed its maximal size.
+     */
+    private void trimToSize()
+    {
+        while (templates.size() > maxSize)
+        {
+            final Map.Entry<List<Object>, IRowTemplate> eldest = templates.entrySet().iterator().next();
+            templates.remove(eldest.getKey());
+        }
+    }
+}
@@ -8,6 +8,7 @@ import cms.rendner.hexviewer.common.rowtemplate.bytes.IByteRowTemplate;
 import cms.rendner.hexviewer.model.rowtemplate.configuration.HexRowTemplateConfiguration;
 import cms.rendner.hexviewer.model.rowtemplate.configuration.values.HInsets;
 import cms.rendner.hexviewer.view.JHexViewer;
+import cms.rendner.hexviewer.view.ui.rowtemplate.factory.RowTemplateCache;
 import cms.rendner.hexviewer.view.ui.rowtemplate.factory.utils.ComputeUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,6 +31,8 @@ public class HexRowTemplateFactory
 
     /**
      * Creates the row template which defines the layout of the rows for the hex-area.
+     * <p/>
+     * Built templates are shared with other hex viewers by the {@link RowTemplateCache}.
      *
      * @param hexViewer the hexViewer component to which the hex-area belongs. Required to query additional properties
      *                  of the {@link JHexViewer}.
@@ -45,8 +48,10 @@ public class HexRowTemplateFactory
         {
             result = hexViewer.getRowContentFont().map(font -> {
                 final FontMetrics fontMetrics = hexViewer.getFontMetrics(font);
-                final List<Element> elements = createRowElements(hexViewer, fontMetrics);
-                return buildTemplate(elements, fontMetrics);
+                final List<Object> key = RowTemplateCache.key(
+                        "hex", font, fontMetrics.getFontRenderContext(), hexViewer.getBytesPerRow(), configuration);
+                return RowTemplateCache.shared().<IByteRowTemplate>get(key,
+                        () -> buildTemplate(createRowElements(hexViewer, fontMetrics), fontMetrics));
             }).orElse(null);
         }
 
@@ -8,12 +8,14 @@ import cms.rendner.hexviewer.common.rowtemplate.offset.OffsetRowTemplate;
 import cms.rendner.hexviewer.model.rowtemplate.configuration.OffsetRowTemplateConfiguration;
 import cms.rendner.hexviewer.model.rowtemplate.configuration.values.HInsets;
 import cms.rendner.hexviewer.view.JHexViewer;
+import cms.rendner.hexviewer.view.ui.rowtemplate.factory.RowTemplateCache;
 import cms.rendner.hexviewer.view.ui.rowtemplate.factory.utils.ComputeUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Factory for creating row templates based on a configuration for the offset-area.
@@ -29,6 +31,8 @@ public final class OffsetRowTemplateFactory
 
     /**
      * Creates the row template which defines the layout of the rows for the offset-area.
+     * <p/>
+     * Built templates are shared with other hex viewers by the {@link RowTemplateCache}.
      *
      * @param hexViewer the hexViewer component to which the offset-area belongs. Required to query additional properties
      *                  of the {@link JHexViewer}.
@@ -46,18 +50,22 @@ public final class OffsetRowTemplateFactory
                 final FontMetrics fontMetrics = hexViewer.getFontMetrics(font);
                 final int padSize = calculateRequiredPadSize(hexViewer);
                 final int totalCharsCount = hexViewer.getOffsetArea().getValueFormatter().calculateFormattedValueLength(padSize, 1);
-                final HInsets rowInsets = configuration.insets();
-                final Dimension elementDimension = ComputeUtils.computeElementDimension(totalCharsCount, fontMetrics);
-                final Element element = createRowElement(rowInsets, elementDimension, fontMetrics);
-                final int width = ComputeUtils.computeRowWidth(Collections.singletonList(element), rowInsets, fontMetrics);
-                final int height = ComputeUtils.computeRowHeight(fontMetrics);
+                final List<Object> key = RowTemplateCache.key(
+                        "offset", font, fontMetrics.getFontRenderContext(), padSize, totalCharsCount, configuration);
+                return RowTemplateCache.shared().<IOffsetRowTemplate>get(key, () -> {
+                    final HInsets rowInsets = configuration.insets();
+                    final Dimension elementDimension = ComputeUtils.computeElementDimension(totalCharsCount, fontMetrics);
+                    final Element element = createRowElement(rowInsets, elementDimension, fontMetrics);
+                    final int width = ComputeUtils.computeRowWidth(Collections.singletonList(element), rowInsets, fontMetrics);
+                    final int height = ComputeUtils.computeRowHeight(fontMetrics);
 
-                return OffsetRowTemplate.newBuilder()
-                        .dimension(width, height)
-                        .padSize(padSize)
-                        .fontMetrics(fontMetrics)
-                        .element(element)
-                        .buildUIResource();
+                    return OffsetRowTemplate.newBuilder()
+                            .dimension(width, height)
+                            .padSize(padSize)
+                            .fontMetrics(fontMetrics)
+                            .element(element)
+                            .buildUIResource();
+                });
             }).orElse(null);
         }
 
@@ -0,0 +1,170 @@
+package cms.rendner.hexviewer.view.ui.rowtemplate.factory.utils;
+
+import cms.rendner.hexviewer.common.utils.CheckUtils;
+import cms.rendner.hexviewer.model.rowtemplate.configuration.HexRowTemplateConfiguration;
+import cms.rendner.hexviewer.model.rowtemplate.configuration.TextRowTemplateConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+
+/**
+ * Utility methods to compute the geometry of row templates without building them.
+ * <p/>
+ * The widths are computed analytically from the row template configurations and match the widths of the templates
+ * created by the {@link cms.rendner.hexviewer.view.ui.rowtemplate.factory.bytes.HexRowTemplateFactory} and the
+ * {@link cms.rendner.hexviewer.view.ui.rowtemplate.factory.bytes.TextRowTemplateFactory}. This allows to find a
+ * suitable number of bytes per row in constant time per candidate, e.g. during a live resize of the hex viewer.
+ *
+ * @author rendner
+ */
+public final class RowTemplateGeometry
+{
+    /**
+     * Computes the width of a row of the hex-area.
+     *
+     * @param configuration the configuration of the hex-area.
+     * @param bytesPerRow   the number of bytes displayed per row, &gt;= 1.
+     * @param fontMetrics   metrics of the font used to render the text of the rows.
+     * @return the width of the row.
+     */
+    public static long computeHexRowWidth(@NotNull final HexRowTemplateConfiguration configuration,
+                                          final int bytesPerRow,
+                                          @NotNull final FontMetrics fontMetrics)
+    {
+        CheckUtils.checkMinValue(bytesPerRow, 1);
+        final int byteWidth = ComputeUtils.computeCharWidth(fontMetrics) * 2;
+        final int caretWidth = ComputeUtils.computeValue(configuration.caretWidth(), fontMetrics);
+        final int spaceBetweenGroups = ComputeUtils.computeValue(configuration.spaceBetweenGroups(), fontMetrics);
+        final int groupSeparators = (bytesPerRow - 1) / configuration.bytesPerGroup();
+
+        return computeRowWidth(
+                ComputeUtils.computeValue(configuration.insets().left(), fontMetrics),
+                ComputeUtils.computeValue(configuration.insets().right(), fontMetrics),
+                byteWidth,
+                caretWidth,
+                bytesPerRow
+        ) + (long) groupSeparators * spaceBetweenGroups;
+    }
+
+    /**
+     * Computes the width of a row of the text-area.
+     *
+     * @param configuration the configuration of the text-area.
+     * @param bytesPerRow   the number of bytes displayed per row, &gt;= 1.
+     * @param fontMetrics   metrics of the font used to render the text of the rows.
+     * @return the width of the row.
+     */
+    public static long computeTextRowWidth(@NotNull final TextRowTemplateConfiguration configuration,
+                                           final int bytesPerRow,
+                                           @NotNull final FontMetrics fontMetrics)
+    {
+        CheckUtils.checkMinValue(bytesPerRow, 1);
+        return computeRowWidth(
+                ComputeUtils.computeValue(configuration.insets().left(), fontMetrics),
+                ComputeUtils.computeValue(configuration.insets().right(), fontMetrics),
+                ComputeUtils.computeCharWidth(fontMetrics),
+                ComputeUtils.computeValue(configuration.caretWidth(), fontMetrics),
+                bytesPerRow
+        );
+    }
+
+    /**
+     * Computes the largest number of bytes per row for which the rows of the hex- and text-area fit into a width.
+     * <p/>
+     * The result is always a multiple of the bytes per group of the hex-area, so that the last group of a row is
+     * never incomplete. If not even a single group fits, the bytes per group are returned.
+     *
+     * @param hexConfiguration  the configuration of the hex-area, <code>null</code> if the hex-area isn't displayed.
+     * @param textConfiguration the configuration of the text-area, <code>null</code> if the text-area isn't displayed.
+     * @param fontMetrics       metrics of the font used to render the text of the rows.
+     * @param availableWidth    the width available for both areas.
+     * @return the number of bytes per row, &gt;= 1.
+     */
+    public static int computeMaxBytesPerRow(@Nullable final HexRowTemplateConfiguration hexConfiguration,
+                                            @Nullable final TextRowTemplateConfiguration textConfiguration,
+                                            @NotNull final FontMetrics fontMetrics,
+                                            final int availableWidth)
+    {
+        final int bytesPerGroup = hexConfiguration == null ? 1 : hexConfiguration.bytesPerGroup();
+
+        // each byte adds at least one pixel, which limits the number of groups to check
+        int low = 1;
+        int high = Math.max(1, availableWidth / bytesPerGroup);
+
+        if (computeRowsWidth(hexConfiguration, textConfiguration, fontMetrics, bytesPerGroup) > availableWidth)
+        {
+            return bytesPerGroup;
+        }
+
+        // the width grows with the number of bytes, find the last group count which fits
+        while (low < high)
+        {
+            final int mid = low + (high - low + 1) / 2;
+            if (computeRowsWidth(hexConfiguration, textConfiguration, fontMetrics, mid * bytesPerGroup) <= availableWidth)
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+
+        return low * bytesPerGroup;
+    }
+
+    /**
+     * Computes the combined width of a row of the hex- and text-area.
+     *
+     * @param hexConfiguration  the configuration of the hex-area, can be <code>null</code>.
+     * @param textConfiguration the configuration of the text-area, can be <code>null</code>.
+     * @param fontMetrics       metrics of the font used to render the text of the rows.
+     * @param bytesPerRow       the number of bytes displayed per row, &gt;= 1.
+     * @return the combined width.
+     */
+    private static long computeRowsWidth(@Nullable final HexRowTemplateConfiguration hexConfiguration,
+                                         @Nullable final TextRowTemplateConfiguration textConfiguration,
+                                         @NotNull final FontMetrics fontMetrics,
+                                         final int bytesPerRow)
+    {
+        long result = 0;
+        if (hexConfiguration != null)
+        {
+            result += computeHexRowWidth(hexConfiguration, bytesPerRow, fontMetrics);
+        }
+        if (textConfiguration != null)
+        {
+            result += computeTextRowWidth(textConfiguration, bytesPerRow, fontMetrics);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the width of a row without spaces between byte groups.
+     * <p/>
+     * A caret can be placed in front of each byte and, for symmetry reasons, also after the last byte.
+     *
+     * @param leftInset   the left inset of the row.
+     * @param rightInset  the right inset of the row.
+     * @param byteWidth   the width of a byte.
+     * @param caretWidth  the width of the caret.
+     * @param bytesPerRow the number of bytes displayed per row.
+     * @return the width of the row.
+     */
+    private static long computeRowWidth(final int leftInset,
+                                        final int rightInset,
+                                        final int byteWidth,
+                                        final int caretWidth,
+                                        final int bytesPerRow)
+    {
+        return leftInset + (long) bytesPerRow * (byteWidth + caretWidth) + caretWidth + rightInset;
+    }
+
+    /**
+     * Hide constructor.
+     */
+    private RowTemplateGeometry()
+    {
+    }
+}
@@ -1,5 +1,6 @@
 package example.themes.alternating;
 
+import cms.rendner.hexviewer.common.data.wrapper.RowData;
 import cms.rendner.hexviewer.common.utils.IndexUtils;
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
@@ -7,6 +8,7 @@ import cms.rendner.hexviewer.view.components.areas.bytes.model.colors.IByteColor
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.*;
+import java.util.Arrays;
 
 /**
  * Example implementation of an {@link IByteColorProvider}.
@@ -61,6 +63,18 @@ public final class ByteAreaColorProvider implements IByteColorProvider
         return rowElementForeground;
     }
 
+    @Override
+    public void getRowElementForegrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        Arrays.fill(colors, 0, rowData.size(), rowElementForeground);
+    }
+
+    @Override
+    public void getRowElementBackgrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        Arrays.fill(colors, 0, rowData.size(), null);
+    }
+
     @NotNull
     @Override
     public Color getDefaultHighlight()
@@ -1,5 +1,6 @@
 package example.themes.console;
 
+import cms.rendner.hexviewer.common.data.wrapper.RowData;
 import cms.rendner.hexviewer.common.utils.AsciiUtils;
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
@@ -7,6 +8,7 @@ import cms.rendner.hexviewer.view.components.areas.bytes.model.colors.IByteColor
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.*;
+import java.util.Arrays;
 
 /**
  * Example implementation of an {@link IByteColorProvider} which highlights ASCII chars in different colors.
@@ -31,10 +33,17 @@ public final class ByteAreaColorProvider implements IByteColorProvider
     private final Color rowElementForegroundOtherAscii = new Color(0xFF9B9B);
     private final Color rowElementForegroundNonAscii = new Color(0xFFCC33);
 
+    private final Color[] rowElementForegroundByValue = new Color[256];
+
     public ByteAreaColorProvider(@NotNull final JHexViewer hexViewer, @NotNull final ByteArea area)
     {
         this.hexViewer = hexViewer;
         this.area = area;
+
+        for (int byteValue = 0; byteValue < rowElementForegroundByValue.length; byteValue++)
+        {
+            rowElementForegroundByValue[byteValue] = computeRowElementForeground(byteValue);
+        }
     }
 
     @NotNull
@@ -61,6 +70,27 @@ public final class ByteAreaColorProvider implements IByteColorProvider
     @NotNull
     @Override
     public Color getRowElementForeground(final int byteValue, final long offset, final int rowIndex, final int elementInRowIndex)
+    {
+        return rowElementForegroundByValue[byteValue & 0xFF];
+    }
+
+    @Override
+    public void getRowElementForegrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        for (int i = 0; i < rowData.size(); i++)
+        {
+            colors[i] = rowElementForegroundByValue[rowData.getByte(i)];
+        }
+    }
+
+    @Override
+    public void getRowElementBackgrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        Arrays.fill(colors, 0, rowData.size(), null);
+    }
+
+    @NotNull
+    private Color computeRowElementForeground(final int byteValue)
     {
         if (AsciiUtils.NULL == byteValue)
         {
@@ -1,11 +1,13 @@
 package example.themes.retro;
 
+import cms.rendner.hexviewer.common.data.wrapper.RowData;
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
 import cms.rendner.hexviewer.view.components.areas.bytes.model.colors.IByteColorProvider;
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.*;
+import java.util.Arrays;
 
 /**
  * Example implementation of an {@link IByteColorProvider}.
@@ -51,6 +53,18 @@ public final class ByteAreaColorProvider implements IByteColorProvider
         return rowElementForeground;
     }
 
+    @Override
+    public void getRowElementForegrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        Arrays.fill(colors, 0, rowData.size(), rowElementForeground);
+    }
+
+    @Override
+    public void getRowElementBackgrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        Arrays.fill(colors, 0, rowData.size(), null);
+    }
+
     @NotNull
     @Override
     public Color getBackground()
@@ -1,5 +1,6 @@
 package example.themes.simple;
 
+import cms.rendner.hexviewer.common.data.wrapper.RowData;
 import cms.rendner.hexviewer.view.JHexViewer;
 import cms.rendner.hexviewer.view.components.areas.bytes.ByteArea;
 import cms.rendner.hexviewer.view.components.areas.bytes.model.colors.IByteColorProvider;
@@ -7,6 +8,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
+import java.util.Arrays;
 
 /**
  * Example implementation of an {@link IByteColorProvider}.
@@ -52,6 +54,18 @@ public class ByteAreaColorProvider implements IByteColorProvider
         return Color.DARK_GRAY;
     }
 
+    @Override
+    public void getRowElementForegrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        Arrays.fill(colors, 0, rowData.size(), Color.DARK_GRAY);
+    }
+
+    @Override
+    public void getRowElementBackgrounds(@NotNull final RowData rowData, @NotNull final Color[] colors)
+    {
+        Arrays.fill(colors, 0, rowData.size(), null);
+    }
+
     @NotNull
     @Override
     public Color getBackground()